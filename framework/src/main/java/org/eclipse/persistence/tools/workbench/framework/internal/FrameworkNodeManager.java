@@ -70,8 +70,9 @@
     private Collection projectNodes;
         public static final String PROJECT_NODES_COLLECTION = "projectNodes";
 
-    /** The validation threads and flags, keyed by the project nodes. */
+    /** The validation threads, runnables, and flags, keyed by the project nodes. */
     private Map validationThreads;
+    private Map validationRunnables;
     private Map continueValidationThreadFlags;
 
     /** The project nodes with synchronous validators - used only at development time. */
@@ -104,6 +105,7 @@ protected void initialize() {
         this.rootNode = new FrameworkRootNode(this);
         this.projectNodes = new ArrayList();
         this.validationThreads = new HashMap();
+        this.validationRunnables = new HashMap();
         this.continueValidationThreadFlags = new HashMap();
         this.synchronousProjectNodes = new HashBag();
         this.projectNodesAreAddedWithSynchronousValidators = false;
@@ -166,18 +168,18 @@ private void installAsynchronousValidatorOn(ApplicationNode projectNode) {
         SynchronizedBoolean continueFlag = new SynchronizedBoolean(true);
         this.continueValidationThreadFlags.put(projectNode, continueFlag);
 
-        Thread validationThread =
-            new Thread(
-                new RunnableValidation(
-                    node,
-                    validateFlag,
-                    continueFlag,
-                    this.logger(),
-                    Level.WARNING,
-                    "VALIDATION_EXCEPTION"
-                ),
-                "Validation Thread : " + node.displayString()
+        RunnableValidation validation =
+            new RunnableValidation(
+                node,
+                validateFlag,
+                continueFlag,
+                this.logger(),
+                Level.WARNING,
+                "VALIDATION_EXCEPTION"
             );
+        this.validationRunnables.put(projectNode, validation);
+
+        Thread validationThread = new Thread(validation, "Validation Thread : " + node.displayString());
         validationThread.setPriority(Thread.MIN_PRIORITY);
 
         this.validationThreads.put(projectNode, validationThread);
@@ -206,6 +208,7 @@ public void removeProjectNode(ApplicationNode projectNode) {
             SynchronizedBoolean continueFlag = (SynchronizedBoolean) this.continueValidationThreadFlags.remove(projectNode);
             continueFlag.setFalse();
 
+            this.validationRunnables.remove(projectNode);
             Thread validationThread = (Thread) this.validationThreads.remove(projectNode);
             validationThread.interrupt();
         }
@@ -536,6 +539,7 @@ public boolean save(ApplicationNode node, WorkbenchContext workbenchContext) {
         if (saved) {
             this.recentFilesManager.setMostRecentFile(node.getProjectRoot().saveFile());
             setMostRecentSaveDirectory(node.getProjectRoot().saveFile());
+            this.validateEntireProject(node.getProjectRoot());
         }
         return saved;
     }
@@ -548,6 +552,18 @@ private void setMostRecentSaveDirectory(File saveLocation) {
         this.application.generalPreferences().put(MOST_RECENT_SAVE_LOCATION_PREFERENCE, saveLocation.getParentFile().getAbsolutePath());
     }
 
+    /**
+     * Once a project has been saved, ask its validation thread to
+     * validate the entire project, not just the nodes that have changed,
+     * to pick up any problems that depend on unchanged nodes.
+     */
+    private void validateEntireProject(ApplicationNode projectNode) {
+        RunnableValidation validation = (RunnableValidation) this.validationRunnables.get(projectNode);
+        if (validation != null) {
+            validation.validateEntireBranch();
+        }
+    }
+
     /**
      * Save the specified node in a new location and, if it was saved successfully,
      * add it to the recent files list. Return whether the node was saved.
@@ -557,6 +573,7 @@ boolean saveAs(ApplicationNode node,  WorkbenchContext context) {
         if (saved) {
             this.recentFilesManager.setMostRecentFile(node.getProjectRoot().saveFile());
             setMostRecentSaveDirectory(node.getProjectRoot().saveFile());
+            this.validateEntireProject(node.getProjectRoot());
         }
         return saved;
     }
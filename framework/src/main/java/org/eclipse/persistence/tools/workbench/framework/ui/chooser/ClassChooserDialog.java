@@ -55,6 +55,7 @@
 import org.eclipse.persistence.tools.workbench.utility.iterators.SingleElementIterator;
 import org.eclipse.persistence.tools.workbench.utility.string.StringConverter;
 import org.eclipse.persistence.tools.workbench.utility.string.StringTools;
+import org.eclipse.persistence.tools.workbench.utility.string.SubstringIndex;
 
 
 /**
@@ -83,6 +84,9 @@ public class ClassChooserDialog extends AbstractDialog {
     private ClassDescriptionAdapter adapter;
     private ShortClassNameEntry[] shortClassNameEntries;
 
+    /** An index on the short class names, used to speed up filtering. */
+    private SubstringIndex shortClassNameIndex;
+
     /** Hold this so we can give it the initial focus. */
     private FilteringListPanel filteringPanel;
 
@@ -146,6 +150,7 @@ private void initialize(ClassDescriptionRepository cdr, ClassDescriptionAdapter
         this.repository = cdr;
         this.adapter = cda;
         this.shortClassNameEntries = this.buildShortClassNameEntries();
+        this.shortClassNameIndex = this.buildShortClassNameIndex();
 
         this.doubleClickMouseListener = this.buildDoubleClickMouseListener();
 
@@ -176,6 +181,19 @@ private ShortClassNameEntry[] buildShortClassNameEntries() {
         return entries;
     }
 
+    /**
+     * build an index on the short class names, in the same order
+     * as the short class name entries
+     */
+    private SubstringIndex buildShortClassNameIndex() {
+        ShortClassNameEntry[] entries = this.shortClassNameEntries;
+        String[] names = new String[entries.length];
+        for (int i = entries.length; i-- > 0; ) {
+            names[i] = entries[i].getName();
+        }
+        return new SubstringIndex(names);
+    }
+
     /**
      * get the short class name entry for the specified type from the specified map,
      * creating it and adding it to the map if necessary
@@ -247,7 +265,7 @@ protected Component buildMainPanel() {
         GridBagConstraints constraints = new GridBagConstraints();
 
         // filtering panel
-        this.filteringPanel = new FilteringListPanel(this.shortClassNameEntries, null, new ShortClassNameEntryStringConverter());
+        this.filteringPanel = new FilteringListPanel(this.shortClassNameEntries, null, new ShortClassNameEntryStringConverter(), this.shortClassNameIndex);
         this.configureLabel(this.filteringPanel.getTextFieldLabel(), "CLASS_CHOOSER_DIALOG.TEXT_FIELD_LABEL");
         this.configureLabel(this.filteringPanel.getListBoxLabel(), "CLASS_CHOOSER_DIALOG.CLASS_LIST_BOX_LABEL");
         this.filteringPanel.setListBoxCellRenderer(this.buildClassListCellRenderer());
@@ -439,7 +457,8 @@ void packageSelectionChanged(ListSelectionEvent e) {
     void refresh() {
         this.repository.refreshClassDescriptions();
         this.shortClassNameEntries = this.buildShortClassNameEntries();
-        this.filteringPanel.setCompleteList(this.shortClassNameEntries);
+        this.shortClassNameIndex = this.buildShortClassNameIndex();
+        this.filteringPanel.setCompleteList(this.shortClassNameEntries, this.shortClassNameIndex);
     }
 
 
@@ -24,19 +24,57 @@
 import org.eclipse.persistence.oxm.platform.DOMPlatform;
 import org.eclipse.persistence.sessions.Project;
 import org.eclipse.persistence.tools.workbench.mappingsmodel.project.MWProject;
+import org.eclipse.persistence.tools.workbench.mappingsmodel.spi.meta.ExternalClassRepositoryFactory;
 import org.eclipse.persistence.tools.workbench.utility.ClassTools;
 
 /**
  * Use an instance of this class to read and write MW projects.
+ * The descriptors used to read and write projects are expensive to build,
+ * so a single instance can be shared by multiple threads, each reading
+ * or writing a different project.
  */
 public class ProjectIOManager {
 
     /**
      * The TopLink marshaller and unmarshaller used to read and write projects.
-     * This is created once and re-used with every read/write.
+     * Marshallers and unmarshallers are not thread-safe, so each thread
+     * builds its own the first time it reads or writes a project, and
+     * re-uses it with every subsequent read/write.
      */
-    private XMLMarshaller marshaller;
-  private XMLUnmarshaller unmarshaller;
+    private ThreadLocal marshallers;
+    private ThreadLocal unmarshallers;
+
+    /**
+     * The TopLink context the marshaller and unmarshaller are built from.
+     * This is thread-safe and is used to build additional (un)marshallers
+     * when sub-components are read or written on multiple threads.
+     */
+    private XMLContext context;
+
+    /**
+     * The maximum number of threads used to read a project's
+     * sub-components (classes, tables, descriptors). A value of 1
+     * causes the sub-components to be read serially, on the thread
+     * that is reading the project.
+     */
+    private volatile int readThreadCount;
+        public static final int DEFAULT_READ_THREAD_COUNT = 1;
+
+    /**
+     * The maximum number of threads used to marshal a project's
+     * dirty sub-components when the project is written. A value of 1
+     * causes the sub-components to be marshalled serially, on the
+     * thread that is writing the project.
+     */
+    private volatile int writeThreadCount;
+        public static final int DEFAULT_WRITE_THREAD_COUNT = 1;
+
+    /**
+     * The factory used to build the external class repositories of the
+     * projects read by this manager. If this is null, the factory is
+     * configured via the preferences passed to #read(...).
+     */
+    private volatile ExternalClassRepositoryFactory externalClassRepositoryFactory;
 
 
     /**
@@ -57,9 +95,11 @@ private void initialize() {
         //TODO: remove once Blaise fixes problem with SAXPlatform.
         Project tlProject = this.buildProject();
         tlProject.setLogin(new XMLLogin(new DOMPlatform()));
-        XMLContext context = new XMLContext(tlProject);
-        this.marshaller = context.createMarshaller();
-        this.unmarshaller = context.createUnmarshaller();
+        this.context = new XMLContext(tlProject);
+        this.marshallers = this.buildMarshallers();
+        this.unmarshallers = this.buildUnmarshallers();
+        this.readThreadCount = DEFAULT_READ_THREAD_COUNT;
+        this.writeThreadCount = DEFAULT_WRITE_THREAD_COUNT;
     }
 
 
@@ -73,6 +113,64 @@ public MWProject read(File projectFile, Preferences preferences, FileNotFoundLis
         return new ProjectReader(this, projectFile, preferences, listener, legacyProjectReadCallback).read();
     }
 
+    /**
+     * Return the maximum number of threads used to read
+     * a project's sub-components.
+     */
+    public int getReadThreadCount() {
+        return this.readThreadCount;
+    }
+
+    /**
+     * Set the maximum number of threads used to read a project's
+     * sub-components. The class repository, meta-data, and descriptor
+     * files are all read concurrently when this is greater than 1.
+     */
+    public void setReadThreadCount(int readThreadCount) {
+        if (readThreadCount < 1) {
+            throw new IllegalArgumentException("read thread count must be positive: " + readThreadCount);
+        }
+        this.readThreadCount = readThreadCount;
+    }
+
+    /**
+     * Return the maximum number of threads used to marshal
+     * a project's dirty sub-components.
+     */
+    public int getWriteThreadCount() {
+        return this.writeThreadCount;
+    }
+
+    /**
+     * Set the maximum number of threads used to marshal
+     * a project's dirty sub-components.
+     */
+    public void setWriteThreadCount(int writeThreadCount) {
+        if (writeThreadCount < 1) {
+            throw new IllegalArgumentException("write thread count must be positive: " + writeThreadCount);
+        }
+        this.writeThreadCount = writeThreadCount;
+    }
+
+    /**
+     * Return the factory used to build the external class repositories
+     * of the projects read by this manager; null if the factory is
+     * configured via the preferences.
+     */
+    public ExternalClassRepositoryFactory getExternalClassRepositoryFactory() {
+        return this.externalClassRepositoryFactory;
+    }
+
+    /**
+     * Set the factory used to build the external class repositories
+     * of the projects subsequently read by this manager. This allows
+     * a client reading many projects to share their class repositories.
+     * Set it to null to configure the factory via the preferences.
+     */
+    public void setExternalClassRepositoryFactory(ExternalClassRepositoryFactory externalClassRepositoryFactory) {
+        this.externalClassRepositoryFactory = externalClassRepositoryFactory;
+    }
+
     public void write(MWProject project) throws ReadOnlyFilesException {
         this.write(project, FileNotFoundListener.NULL_INSTANCE);
     }
@@ -91,12 +189,28 @@ void fireFileNotFound(FileNotFoundListener listener, File missingFile) {
     }
 
     XMLMarshaller getMarshaller() {
-        return this.marshaller;
+        return (XMLMarshaller) this.marshallers.get();
     }
 
-  XMLUnmarshaller getUnmarshaller() {
-    return this.unmarshaller;
-  }
+    /**
+     * Build a new marshaller that can be used by a single
+     * thread, independent of the marshallers used by other threads.
+     */
+    XMLMarshaller buildMarshaller() {
+        return this.context.createMarshaller();
+    }
+
+    XMLUnmarshaller getUnmarshaller() {
+        return (XMLUnmarshaller) this.unmarshallers.get();
+    }
+
+    /**
+     * Build a new unmarshaller that can be used by a single
+     * thread, independent of the unmarshallers used by other threads.
+     */
+    XMLUnmarshaller buildUnmarshaller() {
+        return this.context.createUnmarshaller();
+    }
 
     /**
      * "Root" sub-component containers must have a static field that
@@ -113,6 +227,24 @@ String defaultFileNameExtension() {
 
     // ********** internal stuff **********
 
+    private ThreadLocal buildMarshallers() {
+        return new ThreadLocal() {
+            @Override
+            protected Object initialValue() {
+                return ProjectIOManager.this.buildMarshaller();
+            }
+        };
+    }
+
+    private ThreadLocal buildUnmarshallers() {
+        return new ThreadLocal() {
+            @Override
+            protected Object initialValue() {
+                return ProjectIOManager.this.buildUnmarshaller();
+            }
+        };
+    }
+
     /**
      * Build and return a TopLink project for reading and
      * writing MWProjects from and to XML files.
@@ -20,11 +20,22 @@
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.prefs.Preferences;
 
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.eclipse.persistence.oxm.XMLUnmarshaller;
 import org.eclipse.persistence.tools.workbench.mappingsio.legacy.LegacyIOFacade;
 import org.eclipse.persistence.tools.workbench.mappingsmodel.MWModel;
 import org.eclipse.persistence.tools.workbench.mappingsmodel.ProjectSubFileComponentContainer;
@@ -38,8 +49,6 @@
 import org.eclipse.persistence.tools.workbench.utility.XMLTools;
 import org.eclipse.persistence.tools.workbench.utility.io.FileTools;
 import org.eclipse.persistence.tools.workbench.utility.string.StringTools;
-import org.w3c.dom.Document;
-import org.w3c.dom.Node;
 
 
 /**
@@ -66,8 +75,14 @@ class ProjectReader {
      */
     private LegacyProjectReadCallback legacyProjectReadCallback;
 
-    /** An XML document corresponding to the project file. */
-    private Document document;
+    /** The unmarshallers used by the threads reading sub-components concurrently. */
+    private ThreadLocal threadUnmarshallers;
+
+    /** The time, in nanoseconds, spent finding the schema version. */
+    private long schemaVersionDetectionTime;
+
+    /** Log the time spent in each phase of reading a project. */
+    private static final Logger LOGGER = Logger.getLogger(ProjectReader.class.getName());
 
     /** The version of the schema describing the project file. */
     private String schemaVersion;
@@ -78,6 +93,12 @@ class ProjectReader {
     /** @see MWProject#CURRENT_SCHEMA_VERSION_ELEMENT_NAME */
     private static final String SCHEMA_VERSION_ELEMENT_NAME_5_0 = "schemaVersion";    // 9.0.4/10.0.0
     private static final String SCHEMA_VERSION_ELEMENT_NAME_4_X = "version";
+    /** the schema version element names, from the current name back in time */
+    private static final String[] SCHEMA_VERSION_ELEMENT_NAMES = {
+        MWProject.CURRENT_SCHEMA_VERSION_ELEMENT_NAME,
+        SCHEMA_VERSION_ELEMENT_NAME_5_0,
+        SCHEMA_VERSION_ELEMENT_NAME_4_X
+    };
 
     /** @see MWProject#CURRENT_SCHEMA_VERSION */
     private static final String SCHEMA_VERSION_7_0 = "7.0"; //11.1.X.X
@@ -97,6 +118,7 @@ class ProjectReader {
         this.preferences = preferences;
         this.listener = listener;
         this.legacyProjectReadCallback = legacyProjectReadCallback;
+        this.threadUnmarshallers = this.buildThreadUnmarshallers();
     }
 
 
@@ -108,9 +130,10 @@ class ProjectReader {
      * legacy project callback indicates we should not read the project.
      */
     MWProject read() {
-        // pre-parse the file to find the schema version
-        this.document = XMLTools.parse(this.file);
+        // scan the beginning of the file to find the schema version
+        long start = System.nanoTime();
         this.schemaVersion = this.schemaVersion();
+        this.schemaVersionDetectionTime = System.nanoTime() - start;
 
         if (this.schemaVersion.equals(MWProject.CURRENT_SCHEMA_VERSION)) {
             return this.readProject();
@@ -128,41 +151,85 @@ public String toString() {
 
     /**
      * return the version of the schema used for the project file
-     * and associated xml files
+     * and associated xml files;
+     * the file is read with a streaming parser that stops as soon as it
+     * reaches the current schema version element, so no DOM is built
      * @see ProjectIOManager#CURRENT_SCHEMA_VERSION
      */
     private String schemaVersion() {
-        Node rootNode = this.rootNode();
+        InputStream stream;
+        try {
+            stream = new BufferedInputStream(new FileInputStream(this.file), 8192);    // 8KB
+        } catch (FileNotFoundException ex) {
+            throw new RuntimeException(ex);
+        }
+        try {
+            XMLStreamReader reader = XMLTools.streamReader(stream);
+            try {
+                return this.schemaVersion(reader);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException ex) {
+            throw new RuntimeException(ex);
+        } finally {
+            try {
+                stream.close();
+            } catch (IOException ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+    }
+
+    private String schemaVersion(XMLStreamReader reader) throws XMLStreamException {
+        this.moveToRootElement(reader);
         // first try the current element name
         // then move back in time, trying previous element names
-        Node schemaVersionNode = XMLTools.child(rootNode, MWProject.CURRENT_SCHEMA_VERSION_ELEMENT_NAME);
-        if (schemaVersionNode == null) {
-            schemaVersionNode = XMLTools.child(rootNode, SCHEMA_VERSION_ELEMENT_NAME_5_0);
-        }
-        if (schemaVersionNode == null) {
-            schemaVersionNode = XMLTools.child(rootNode, SCHEMA_VERSION_ELEMENT_NAME_4_X);
+        String[] previousSchemaVersions = new String[SCHEMA_VERSION_ELEMENT_NAMES.length];
+        int depth = 0;    // the depth below the root element
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (depth == 0) {
+                    int index = CollectionTools.indexOf(SCHEMA_VERSION_ELEMENT_NAMES, reader.getLocalName());
+                    if (index == 0) {
+                        return reader.getElementText();        // we can stop now
+                    }
+                    if (index != -1) {
+                        // the reader is left on the corresponding end element
+                        previousSchemaVersions[index] = reader.getElementText();
+                        continue;
+                    }
+                }
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                if (depth == 0) {
+                    break;        // end of the root element
+                }
+                depth--;
+            }
         }
-        if (schemaVersionNode == null) {
-            throw new IllegalArgumentException();    // must not be a valid project file...
+        for (int i = 1; i < previousSchemaVersions.length; i++) {
+            if (previousSchemaVersions[i] != null) {
+                return previousSchemaVersions[i];
+            }
         }
-        return XMLTools.textContent(schemaVersionNode);
+        throw new IllegalArgumentException();    // must not be a valid project file...
     }
 
     /**
-     * return the root node of the project file
+     * move the reader to the root element of the project file
      * @see ProjectIOManager#CURRENT_PROJECT_XML_DOCUMENT_NAME
      */
-    private Node rootNode() {
+    private void moveToRootElement(XMLStreamReader reader) {
         // first try the current document name
         // then move back in time, trying previous document names
-        Node rootNode = XMLTools.child(this.document, MWProject.CURRENT_PROJECT_ROOT_ELEMENT_NAME);
-        if (rootNode == null) {
-            rootNode = XMLTools.child(this.document, PROJECT_ROOT_ELEMENT_NAME_4_X);
-        }
-        if (rootNode == null) {
+        String rootName = XMLTools.moveToRootElement(reader);
+        if ((rootName == null)
+                || ( ! (rootName.equals(MWProject.CURRENT_PROJECT_ROOT_ELEMENT_NAME)
+                        || rootName.equals(PROJECT_ROOT_ELEMENT_NAME_4_X)))) {
             throw new IllegalArgumentException();    // must not be a valid project file...
         }
-        return rootNode;
     }
 
     /**
@@ -170,32 +237,59 @@ private Node rootNode() {
      */
     private MWProject readProject() {
         // first read in the project, but none of its components (classes, metadata, descriptors)
+        long start = System.nanoTime();
         MWProject project;
         try {
             project = (MWProject) this.readObject(this.file);
         } catch (IOException ex) {
             throw new RuntimeException(ex);
         }
+        long projectTime = System.nanoTime() - start;
 
         // we don't set the save directory on legacy projects,
         // because it will be set by the user and saved if necessary
         ClassTools.invokeMethod(project, "setSaveDirectoryForIOManager", File.class, this.baseDirectory());
 
         // "inject" the SPIManager once we have the base project
-        this.injectSPIManager(project, new DefaultSPIManager(this.preferences, project.getName()));
+        this.injectSPIManager(project, new DefaultSPIManager(this.preferences, project.getName(), this.ioManager.getExternalClassRepositoryFactory()));
 
         // then use the names stored throughout the project to read up its components
+        start = System.nanoTime();
         SubComponentReader[] subComponentReaders = this.buildSubComponentReaders(project);
-        for (int i = 0; i < subComponentReaders.length; i++) {
-            subComponentReaders[i].read();
+        int threadCount = this.ioManager.getReadThreadCount();
+        if (threadCount > 1) {
+            this.readSubComponentsConcurrently(subComponentReaders, threadCount);
+        } else {
+            for (int i = 0; i < subComponentReaders.length; i++) {
+                subComponentReaders[i].read();
+            }
         }
 
+        long subComponentTime = System.nanoTime() - start;
+
         // now trigger all the handles to resolve etc.
+        start = System.nanoTime();
         project.postProjectBuild();
+        long postProjectBuildTime = System.nanoTime() - start;
 
+        this.logTimes(projectTime, subComponentTime, postProjectBuildTime);
         return project;
     }
 
+    private void logTimes(long projectTime, long subComponentTime, long postProjectBuildTime) {
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine("read project " + this.file
+                    + " - schema version detection: " + this.millis(this.schemaVersionDetectionTime) + " ms"
+                    + ", project unmarshalling: " + this.millis(projectTime) + " ms"
+                    + ", sub-component unmarshalling: " + this.millis(subComponentTime) + " ms"
+                    + ", post project build: " + this.millis(postProjectBuildTime) + " ms");
+        }
+    }
+
+    private long millis(long nanos) {
+        return nanos / 1000000;
+    }
+
     /**
      * build readers for all the project's sub-components that are
      * read in separately: classes, tables, descriptors
@@ -208,17 +302,46 @@ private SubComponentReader[] buildSubComponentReaders(MWProject project) {
         };
     }
 
+    /**
+     * Read all the sub-components on a bounded pool of threads.
+     * The files for all the containers are queued up at once, so the
+     * containers are read concurrently; but the sub-components are
+     * handed to their containers on this thread, one container at a time,
+     * in the same order as a serial read.
+     */
+    private void readSubComponentsConcurrently(SubComponentReader[] subComponentReaders, int threadCount) {
+        SubComponentThreadPool pool = new SubComponentThreadPool("Project Sub-Component Reader", threadCount);
+        try {
+            for (int i = 0; i < subComponentReaders.length; i++) {
+                subComponentReaders[i].submitReadsTo(pool);
+            }
+            for (int i = 0; i < subComponentReaders.length; i++) {
+                subComponentReaders[i].collectReads(pool);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
     /**
      * Use TopLink to unmarshal an object from the specified XML file.
      * Let the exceptions through so we can swallow the FileNotFoundException
      * when reading sub-components.
      */
     Object readObject(File xmlFile) throws IOException {
+        return this.readObject(xmlFile, this.ioManager.getUnmarshaller());
+    }
+
+    /**
+     * Use the specified unmarshaller to unmarshal an object from the
+     * specified XML file.
+     */
+    Object readObject(File xmlFile, XMLUnmarshaller unmarshaller) throws IOException {
         InputStream stream = null;
         Object object = null;
         try {
             stream = new BufferedInputStream(new FileInputStream(xmlFile));
-            object = this.ioManager.getUnmarshaller().unmarshal(stream);
+            object = unmarshaller.unmarshal(stream);
         } finally {
             if (stream != null) {
                 stream.close();
@@ -227,6 +350,24 @@ Object readObject(File xmlFile) throws IOException {
         return object;
     }
 
+    /**
+     * Return an unmarshaller that is used only by the current thread.
+     * TopLink unmarshallers are not thread-safe, so each of the threads
+     * reading sub-components builds its own.
+     */
+    XMLUnmarshaller threadUnmarshaller() {
+        return (XMLUnmarshaller) this.threadUnmarshallers.get();
+    }
+
+    private ThreadLocal buildThreadUnmarshallers() {
+        return new ThreadLocal() {
+            @Override
+            protected Object initialValue() {
+                return ProjectReader.this.ioManager.buildUnmarshaller();
+            }
+        };
+    }
+
     /**
      * return the base directory for all the project files;
      * the project file is in this directory, while all the other
@@ -289,11 +430,76 @@ private class SubComponentReader {
         /** the container that will hold the sub-components once they are read */
         private ProjectSubFileComponentContainer container;
 
+        /** the names of the sub-components, in the order they are read */
+        private Collection names;
+
+        /** the files holding the sub-components, in the same order as the names */
+        private List subFiles;
+
+        /** the pending reads of the sub-component files, when they are read concurrently */
+        private List futures;
+
         SubComponentReader(ProjectSubFileComponentContainer container) {
             this.container = container;
         }
 
+        /**
+         * Read the sub-components on the current thread.
+         */
         void read() {
+            this.buildSubFiles();
+            Collection subComponents = new Vector(this.subFiles.size());
+            Iterator stream = this.names.iterator();
+            for (Iterator files = this.subFiles.iterator(); files.hasNext(); ) {
+                stream.next();
+                File subFile = (File) files.next();
+                this.addSubComponentTo(subComponents, (MWModel) this.readObject(subFile), subFile, stream);
+            }
+            this.container.setProjectSubFileComponents(subComponents);
+        }
+
+        /**
+         * Queue up reads of all the sub-component files;
+         * the results are gathered by #collectReads().
+         */
+        void submitReadsTo(SubComponentThreadPool pool) {
+            this.buildSubFiles();
+            this.futures = new ArrayList(this.subFiles.size());
+            for (Iterator stream = this.subFiles.iterator(); stream.hasNext(); ) {
+                this.futures.add(pool.submit(this.buildReadCallable((File) stream.next())));
+            }
+        }
+
+        private Callable buildReadCallable(final File subFile) {
+            return new Callable() {
+                @Override
+                public Object call() {
+                    return SubComponentReader.this.readObject(subFile, ProjectReader.this.threadUnmarshaller());
+                }
+            };
+        }
+
+        /**
+         * Wait for the queued reads to complete and put the sub-components
+         * into the container, in the order the reads were queued.
+         */
+        void collectReads(SubComponentThreadPool pool) {
+            Collection subComponents = new Vector(this.subFiles.size());
+            Iterator stream = this.names.iterator();
+            Iterator files = this.subFiles.iterator();
+            for (Iterator reads = this.futures.iterator(); reads.hasNext(); ) {
+                stream.next();
+                MWModel subComponent = (MWModel) pool.waitFor((Future) reads.next());
+                this.addSubComponentTo(subComponents, subComponent, (File) files.next(), stream);
+            }
+            this.futures = null;
+            this.container.setProjectSubFileComponents(subComponents);
+        }
+
+        /**
+         * Use the sub-component names to build the sub-component files.
+         */
+        private void buildSubFiles() {
             String ext = ProjectReader.this.defaultFileNameExtension();
             // build the sub-directory that holds the sub-components
             String subDirectoryName = ProjectReader.this.subDirectoryNameFor(this.container);
@@ -301,26 +507,26 @@ void read() {
 
             // the sub-component names are set by TopLink when the project is read;
             // and reset by ProjectWriter when the project is saved
-            Collection names = CollectionTools.set(this.container.originalProjectSubFileComponentNames());
-
-            // now use the sub-component names to read in the actual sub-components
-            Collection subComponents = new Vector(names.size());
-            for (Iterator stream = names.iterator(); stream.hasNext(); ) {
-                String name = (String) stream.next();
-                String fileName = FileTools.FILE_NAME_ENCODER.encode(name);
-                File subFile = new File(subDirectory, fileName + ext);
-                MWModel subComponent = (MWModel) this.readObject(subFile);
-                if (subComponent == null) {
-                    ProjectReader.this.fireFileNotFound(subFile);
-                    stream.remove();        // keep the list of names in synch with the files
-                } else {
-                    subComponent.setParent((org.eclipse.persistence.tools.workbench.utility.node.Node) this.container);
-                    subComponents.add(subComponent);
-                }
+            this.names = CollectionTools.set(this.container.originalProjectSubFileComponentNames());
+            this.subFiles = new ArrayList(this.names.size());
+            for (Iterator stream = this.names.iterator(); stream.hasNext(); ) {
+                String fileName = FileTools.FILE_NAME_ENCODER.encode((String) stream.next());
+                this.subFiles.add(new File(subDirectory, fileName + ext));
             }
+        }
 
-            // and finally, put the sub-components into the container
-            this.container.setProjectSubFileComponents(subComponents);
+        /**
+         * Add the specified sub-component to the specified collection;
+         * if the sub-component's file was missing, remove its name.
+         */
+        private void addSubComponentTo(Collection subComponents, MWModel subComponent, File subFile, Iterator nameStream) {
+            if (subComponent == null) {
+                ProjectReader.this.fireFileNotFound(subFile);
+                nameStream.remove();        // keep the list of names in synch with the files
+            } else {
+                subComponent.setParent((org.eclipse.persistence.tools.workbench.utility.node.Node) this.container);
+                subComponents.add(subComponent);
+            }
         }
 
         private File baseDirectory() {
@@ -328,8 +534,12 @@ private File baseDirectory() {
         }
 
         private Object readObject(File xmlFile) {
+            return this.readObject(xmlFile, ProjectReader.this.ioManager.getUnmarshaller());
+        }
+
+        Object readObject(File xmlFile, XMLUnmarshaller unmarshaller) {
             try {
-                return ProjectReader.this.readObject(xmlFile);
+                return ProjectReader.this.readObject(xmlFile, unmarshaller);
             } catch (FileNotFoundException ex) {
                 return null;
             } catch (IOException ex) {
@@ -14,16 +14,23 @@
 //     Oracle - initial API and implementation from Oracle TopLink
 package org.eclipse.persistence.tools.workbench.mappingsio;
 
-import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 
 import org.eclipse.persistence.oxm.XMLMarshaller;
 import org.eclipse.persistence.tools.workbench.mappingsmodel.MWModel;
@@ -55,6 +62,9 @@ class ProjectWriter {
     /** A collection of the changes (deletes and writes) that need to be written. */
     private Collection changes;
 
+    /** The marshallers used by the threads marshalling sub-components concurrently. */
+    private ThreadLocal threadMarshallers;
+
 
     // ********** constructors **********
 
@@ -66,6 +76,7 @@ class ProjectWriter {
             throw new NullPointerException("The project's save directory must be set before it is written.");
         }
         this.listener = listener;
+        this.threadMarshallers = this.buildThreadMarshallers();
     }
 
 
@@ -138,14 +149,67 @@ private void checkForReadOnlyFiles() throws ReadOnlyFilesException {
     }
 
     /**
-     * Commit all the changes.
+     * Commit all the changes. First marshal the objects to be written
+     * into temporary files, so nothing on disk is touched if any of
+     * the objects cannot be marshalled; then move the temporary files
+     * into place and perform the deletes.
      */
     private void commit() {
-        for (Iterator stream = this.changes.iterator(); stream.hasNext(); ) {
-            ((Change) stream.next()).commit();
+        try {
+            this.prepare();
+            for (Iterator stream = this.changes.iterator(); stream.hasNext(); ) {
+                ((Change) stream.next()).commit();
+            }
+        } finally {
+            for (Iterator stream = this.changes.iterator(); stream.hasNext(); ) {
+                ((Change) stream.next()).cleanUp();
+            }
+        }
+    }
+
+    /**
+     * Prepare all the changes, concurrently if the I/O manager allows it.
+     */
+    private void prepare() {
+        int threadCount = this.ioManager.getWriteThreadCount();
+        if ((threadCount > 1) && (this.changes.size() > 1)) {
+            this.prepareConcurrently(Math.min(threadCount, this.changes.size()));
+        } else {
+            for (Iterator stream = this.changes.iterator(); stream.hasNext(); ) {
+                ((Change) stream.next()).prepare(this.marshaller());
+            }
         }
     }
 
+    /**
+     * Prepare all the changes on a bounded pool of threads,
+     * each with its own marshaller.
+     */
+    private void prepareConcurrently(int threadCount) {
+        SubComponentThreadPool pool = new SubComponentThreadPool("Project Sub-Component Writer", threadCount);
+        try {
+            Collection futures = new ArrayList(this.changes.size());
+            for (Iterator stream = this.changes.iterator(); stream.hasNext(); ) {
+                futures.add(pool.submit(this.buildPrepareCallable((Change) stream.next())));
+            }
+            for (Iterator stream = futures.iterator(); stream.hasNext(); ) {
+                pool.waitFor((Future) stream.next());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private Callable buildPrepareCallable(final Change change) {
+        return new Callable() {
+            @Override
+            public Object call() {
+                change.prepare(ProjectWriter.this.threadMarshaller());
+                return null;
+            }
+        };
+    }
+
     /**
      * Update the project, now that it has been written.
      */
@@ -171,6 +235,24 @@ XMLMarshaller marshaller() {
         return this.ioManager.getMarshaller();
     }
 
+    /**
+     * Return a marshaller that is used only by the current thread.
+     * TopLink marshallers are not thread-safe, so each of the threads
+     * marshalling sub-components builds its own.
+     */
+    XMLMarshaller threadMarshaller() {
+        return (XMLMarshaller) this.threadMarshallers.get();
+    }
+
+    private ThreadLocal buildThreadMarshallers() {
+        return new ThreadLocal() {
+            @Override
+            protected Object initialValue() {
+                return ProjectWriter.this.ioManager.buildMarshaller();
+            }
+        };
+    }
+
     String defaultFileNameExtension() {
         return this.ioManager.defaultFileNameExtension();
     }
@@ -309,19 +391,32 @@ void addReadOnlyFilesTo(Collection readOnlyFiles) {
             }
         }
 
+        /**
+         * Prepare the change to be committed, using the specified marshaller
+         * if necessary. This may be called on a thread other than the
+         * thread that commits the change; so nothing on disk, other than
+         * temporary files, may be changed here.
+         */
+        void prepare(XMLMarshaller marshaller) {
+            // do nothing by default
+        }
+
         /**
          * Commit the change to disk.
          */
         abstract void commit();
 
+        /**
+         * Delete any temporary files left behind by the change.
+         */
+        void cleanUp() {
+            // do nothing by default
+        }
+
         @Override
         public String toString() {
             return StringTools.buildToStringFor(this, this.file);
         }
-
-        XMLMarshaller marshaller() {
-            return ProjectWriter.this.marshaller();
-        }
     }
 
 
@@ -350,30 +445,84 @@ void commit() {
 
     /**
      * Pair an object with the file to which it will be written.
+     * The object is marshalled into a temporary file in the same
+     * directory, which then replaces the original file with a rename.
+     * If the newly-marshalled object is byte-for-byte identical to the
+     * original file, the original file is left untouched.
      */
     private class Write extends Change {
         private Object object;
 
+        /** the file holding the marshalled object; null if the file is unchanged */
+        private File tempFile;
+
         Write(Object object, File file) {
             super(file);
             this.object = object;
         }
 
         /**
-         * Use TopLink to write the object to the file.
+         * Use TopLink to write the object to a temporary file.
+         */
+        @Override
+        void prepare(XMLMarshaller marshaller) {
+            try {
+                this.prepare2(marshaller);
+            } catch (IOException ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+
+        private void prepare2(XMLMarshaller marshaller) throws IOException {
+            ByteArrayOutputStream byteStream = new ByteArrayOutputStream(2048);
+            marshaller.marshal(this.object, byteStream);
+            byte[] bytes = byteStream.toByteArray();
+            if (this.fileContentEquals(bytes)) {
+                return;
+            }
+
+            this.checkDirectory();
+            File temp = File.createTempFile(this.file.getName(), ".tmp", this.file.getParentFile());
+            this.tempFile = temp;
+            OutputStream stream = null;
+            try {
+                stream = new FileOutputStream(temp);
+                stream.write(bytes);
+            } finally {
+                if (stream != null) {
+                    stream.close();
+                }
+            }
+        }
+
+        /**
+         * Return whether the file already holds exactly the specified bytes.
+         */
+        private boolean fileContentEquals(byte[] bytes) throws IOException {
+            if (( ! this.file.isFile()) || (this.file.length() != bytes.length)) {
+                return false;
+            }
+            return Arrays.equals(bytes, Files.readAllBytes(this.file.toPath()));
+        }
+
+        /**
+         * Move the temporary file into place.
          */
         @Override
         void commit() {
+            if (this.tempFile == null) {
+                return;        // the file is unchanged
+            }
             try {
                 this.commit2();
             } catch (IOException ex) {
                 throw new RuntimeException(ex);
             }
+            this.tempFile = null;
         }
 
         private void commit2() throws IOException {
-            this.checkDirectory();
-            if (this.file.exists()) {
+            if (this.file.exists() && ! this.file.getCanonicalFile().getName().equals(this.file.getName())) {
                 // we do this because Windows file names are case-insensitive;
                 // delete the original file so we don't re-use it for an object with the
                 // same name but different case (e.g. we don't want to store the
@@ -382,21 +531,28 @@ private void commit2() throws IOException {
                 // the project to be moved to a Linux machine without incident
                 this.file.delete();
             }
-            OutputStream stream = null;
+            Path source = this.tempFile.toPath();
+            Path target = this.file.toPath();
             try {
-                stream = new BufferedOutputStream(new FileOutputStream(this.file), 2048);
-                this.marshaller().marshal(this.object, stream);
-            } finally {
-                if (stream != null) {
-                    stream.close();
-                }
+                Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+
+        @Override
+        void cleanUp() {
+            if (this.tempFile != null) {
+                this.tempFile.delete();
+                this.tempFile = null;
             }
         }
 
         private void checkDirectory() {
             File dir = this.file.getParentFile();
             if ( ! dir.exists()) {
-                if ( ! dir.mkdirs()) {
+                // another thread may create the directory at the same time
+                if (( ! dir.mkdirs()) && ( ! dir.isDirectory())) {
                     throw new RuntimeException("unable to create directory: " + dir.getAbsolutePath());
                 }
             }
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 1998, 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation from Oracle TopLink
+package org.eclipse.persistence.tools.workbench.mappingsio;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.eclipse.persistence.tools.workbench.utility.string.StringTools;
+
+/**
+ * A bounded pool of daemon threads used by the project reader and
+ * writer to process sub-component files concurrently. A new pool is
+ * built for each read or write and shut down once it is complete:
+ *     SubComponentThreadPool pool = new SubComponentThreadPool("Reader", 4);
+ *     try {
+ *         Future future = pool.submit(callable);
+ *         ...
+ *         Object result = pool.waitFor(future);
+ *     } finally {
+ *         pool.shutdown();
+ *     }
+ */
+class SubComponentThreadPool {
+
+    /** The executor that runs the tasks. */
+    private ExecutorService executor;
+
+    /** The name given to the pool's threads, followed by a number. */
+    String threadName;
+
+    /** The number of threads built so far. */
+    int threadCount;
+
+
+    // ********** constructors **********
+
+    SubComponentThreadPool(String threadName, int maximumThreadCount) {
+        super();
+        this.threadName = threadName;
+        this.threadCount = 0;
+        this.executor = Executors.newFixedThreadPool(maximumThreadCount, this.buildThreadFactory());
+    }
+
+    private ThreadFactory buildThreadFactory() {
+        return new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread;
+                synchronized (SubComponentThreadPool.this) {
+                    thread = new Thread(runnable, SubComponentThreadPool.this.threadName + " " + ++SubComponentThreadPool.this.threadCount);
+                }
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
+
+
+    // ********** queries **********
+
+    /**
+     * Queue up the specified task.
+     */
+    Future submit(Callable task) {
+        return this.executor.submit(task);
+    }
+
+    /**
+     * Wait for the specified task to complete and return its result.
+     * Any exception thrown by the task is re-thrown here, on the
+     * waiting thread.
+     */
+    Object waitFor(Future future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    /**
+     * Stop any tasks that are still running and release the threads.
+     */
+    void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+    @Override
+    public String toString() {
+        return StringTools.buildToStringFor(this, this.threadName);
+    }
+
+}
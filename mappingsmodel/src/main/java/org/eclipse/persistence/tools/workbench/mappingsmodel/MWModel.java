@@ -331,6 +331,18 @@ protected void clearNodeList(List nodeList) {
         this.clearNodeCollection(nodeList);
     }
 
+    /**
+     * Performance tweak:
+     * only notify the children whose branches hold handles that
+     * reference the node currently being removed or renamed
+     * @see MWProject#nodeRemoved(Node)
+     * @see MWProject#nodeRenamed(Node)
+     */
+    @Override
+    protected boolean childNeedsSynchronization(Node child) {
+        return this.getProject().branchNeedsSynchronization(child);
+    }
+
     /**
      * This is called when a mapping is morphed
      */
@@ -383,9 +395,7 @@ public void descriptorUnmapped(Collection mappings) {
      */
     @Override
     public final void resolveClassHandles() {
-        for (Iterator stream = this.children(); stream.hasNext(); ) {
-            ((MWNode) stream.next()).resolveClassHandles();
-        }
+        this.forEachChild(RESOLVE_CLASS_HANDLES);
     }
 
     /**
@@ -398,9 +408,7 @@ public final void resolveClassHandles() {
      */
     @Override
     public final void resolveMetadataHandles() {
-        for (Iterator stream = this.children(); stream.hasNext(); ) {
-            ((MWNode) stream.next()).resolveMetadataHandles();
-        }
+        this.forEachChild(RESOLVE_METADATA_HANDLES);
     }
 
     /**
@@ -413,9 +421,7 @@ public final void resolveMetadataHandles() {
      */
     @Override
     public final void resolveColumnHandles() {
-        for (Iterator stream = this.children(); stream.hasNext(); ) {
-            ((MWNode) stream.next()).resolveColumnHandles();
-        }
+        this.forEachChild(RESOLVE_COLUMN_HANDLES);
     }
 
     /**
@@ -428,9 +434,7 @@ public final void resolveColumnHandles() {
      */
     @Override
     public final void resolveReferenceHandles() {
-        for (Iterator stream = this.children(); stream.hasNext(); ) {
-            ((MWNode) stream.next()).resolveReferenceHandles();
-        }
+        this.forEachChild(RESOLVE_REFERENCE_HANDLES);
     }
 
     /**
@@ -443,9 +447,7 @@ public final void resolveReferenceHandles() {
      */
     @Override
     public final void resolveDescriptorHandles() {
-        for (Iterator stream = this.children(); stream.hasNext(); ) {
-            ((MWNode) stream.next()).resolveDescriptorHandles();
-        }
+        this.forEachChild(RESOLVE_DESCRIPTOR_HANDLES);
     }
 
     /**
@@ -457,9 +459,7 @@ public final void resolveDescriptorHandles() {
      */
     @Override
     public final void resolveMethodHandles() {
-        for (Iterator stream = this.children(); stream.hasNext(); ) {
-            ((MWNode) stream.next()).resolveMethodHandles();
-        }
+        this.forEachChild(RESOLVE_METHOD_HANDLES);
     }
 
     /**
@@ -470,13 +470,99 @@ public final void resolveMethodHandles() {
      */
     @Override
     public void postProjectBuild() {
-        for (Iterator stream = this.children(); stream.hasNext(); ) {
-            ((MWNode) stream.next()).postProjectBuild();
-        }
+        this.forEachChild(POST_PROJECT_BUILD);
     // when you override this method, don't forget to include:
     //    super.postProjectBuild();
     }
 
+    /**
+     * The post-read cascades visit every node in the project, so they
+     * share these stateless visitors.
+     */
+    private static final ChildVisitor RESOLVE_CLASS_HANDLES =
+        new ChildVisitor() {
+            @Override
+            public void visit(Node child) {
+                ((MWNode) child).resolveClassHandles();
+            }
+            @Override
+            public String toString() {
+                return "MWModel.RESOLVE_CLASS_HANDLES";
+            }
+        };
+
+    private static final ChildVisitor RESOLVE_METADATA_HANDLES =
+        new ChildVisitor() {
+            @Override
+            public void visit(Node child) {
+                ((MWNode) child).resolveMetadataHandles();
+            }
+            @Override
+            public String toString() {
+                return "MWModel.RESOLVE_METADATA_HANDLES";
+            }
+        };
+
+    private static final ChildVisitor RESOLVE_COLUMN_HANDLES =
+        new ChildVisitor() {
+            @Override
+            public void visit(Node child) {
+                ((MWNode) child).resolveColumnHandles();
+            }
+            @Override
+            public String toString() {
+                return "MWModel.RESOLVE_COLUMN_HANDLES";
+            }
+        };
+
+    private static final ChildVisitor RESOLVE_REFERENCE_HANDLES =
+        new ChildVisitor() {
+            @Override
+            public void visit(Node child) {
+                ((MWNode) child).resolveReferenceHandles();
+            }
+            @Override
+            public String toString() {
+                return "MWModel.RESOLVE_REFERENCE_HANDLES";
+            }
+        };
+
+    private static final ChildVisitor RESOLVE_DESCRIPTOR_HANDLES =
+        new ChildVisitor() {
+            @Override
+            public void visit(Node child) {
+                ((MWNode) child).resolveDescriptorHandles();
+            }
+            @Override
+            public String toString() {
+                return "MWModel.RESOLVE_DESCRIPTOR_HANDLES";
+            }
+        };
+
+    private static final ChildVisitor RESOLVE_METHOD_HANDLES =
+        new ChildVisitor() {
+            @Override
+            public void visit(Node child) {
+                ((MWNode) child).resolveMethodHandles();
+            }
+            @Override
+            public String toString() {
+                return "MWModel.RESOLVE_METHOD_HANDLES";
+            }
+        };
+
+    private static final ChildVisitor POST_PROJECT_BUILD =
+        new ChildVisitor() {
+            @Override
+            public void visit(Node child) {
+                ((MWNode) child).postProjectBuild();
+            }
+            @Override
+            public String toString() {
+                return "MWModel.POST_PROJECT_BUILD";
+            }
+        };
+
 
     // ********** display methods **********
 
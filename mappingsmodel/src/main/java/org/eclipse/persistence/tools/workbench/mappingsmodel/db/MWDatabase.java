@@ -23,9 +23,11 @@
 import java.text.Collator;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.TreeSet;
@@ -43,6 +45,7 @@
 import org.eclipse.persistence.tools.workbench.platformsmodel.DatabasePlatform;
 import org.eclipse.persistence.tools.workbench.platformsmodel.DatabasePlatformRepository;
 import org.eclipse.persistence.tools.workbench.utility.CollectionTools;
+import org.eclipse.persistence.tools.workbench.utility.NameTools;
 import org.eclipse.persistence.tools.workbench.utility.iterators.ArrayIterator;
 import org.eclipse.persistence.tools.workbench.utility.iterators.CloneIterator;
 import org.eclipse.persistence.tools.workbench.utility.iterators.TransformationIterator;
@@ -81,6 +84,17 @@
     private Collection tables;
         public static final String TABLES_COLLECTION = "tables";
 
+    /**
+     * transient - the tables keyed by qualified name, and keyed by
+     * qualified name with its case "folded"; these are null whenever
+     * they must be rebuilt (e.g. after the tables have been read in
+     * or a table has been removed or renamed)
+     * @see #tablesByQualifiedName()
+     * @see #tablesByFoldedQualifiedName()
+     */
+    private Map tablesByQualifiedName;
+    private Map tablesByFoldedQualifiedName;
+
     /**
      * the "external" database that supplies the
      * "external" tables used to build MWTables
@@ -323,11 +337,18 @@ else if (parsedName.length == 2) {
        }
 
     private MWTable addTable(MWTable table) {
+        synchronized (this.tables) {
+            if (this.tablesByQualifiedName != null) {
+                addTableTo(this.tablesByQualifiedName, table.qualifiedName(), table);
+                addTableTo(this.tablesByFoldedQualifiedName, foldCase(table.qualifiedName()), table);
+            }
+        }
         this.addItemToCollection(table, this.tables, TABLES_COLLECTION);
         return table;
     }
 
     public void removeTable(MWTable table) {
+        this.tableNamesChanged();
         this.removeNodeFromCollection(table, this.tables, TABLES_COLLECTION);
     }
 
@@ -336,9 +357,18 @@ public boolean containsTableNamed(String catalog, String schema, String shortNam
     }
 
     public MWTable tableNamed(String catalog, String schema, String shortName) {
+        if (shortName == null) {
+            return null;
+        }
         synchronized (this.tables) {
+            String qualifiedName = NameTools.buildQualifiedDatabaseObjectName(catalog, schema, shortName);
+            MWTable table = (MWTable) this.tablesByQualifiedName().get(qualifiedName);
+            if ((table == null) || table.nameMatches(catalog, schema, shortName)) {
+                return table;
+            }
+            // the qualified name is ambiguous (e.g. the schema contains a period)
             for (Iterator stream = this.tables.iterator(); stream.hasNext(); ) {
-                MWTable table = (MWTable) stream.next();
+                table = (MWTable) stream.next();
                 if (table.nameMatches(catalog, schema, shortName)) {
                     return table;
                 }
@@ -352,9 +382,18 @@ public boolean containsTableNamedIgnoreCase(String catalog, String schema, Strin
     }
 
     public MWTable tableNamedIgnoreCase(String catalog, String schema, String shortName) {
+        if (shortName == null) {
+            return null;
+        }
         synchronized (this.tables) {
+            String foldedName = foldCase(NameTools.buildQualifiedDatabaseObjectName(catalog, schema, shortName));
+            MWTable table = (MWTable) this.tablesByFoldedQualifiedName().get(foldedName);
+            if ((table == null) || table.nameMatchesIgnoreCase(catalog, schema, shortName)) {
+                return table;
+            }
+            // the qualified name is ambiguous (e.g. the schema contains a period)
             for (Iterator stream = this.tables.iterator(); stream.hasNext(); ) {
-                MWTable table = (MWTable) stream.next();
+                table = (MWTable) stream.next();
                 if (table.nameMatchesIgnoreCase(catalog, schema, shortName)) {
                     return table;
                 }
@@ -369,14 +408,72 @@ public boolean containsTableNamed(String qualifiedName) {
 
     public MWTable tableNamed(String qualifiedName) {
         synchronized (this.tables) {
-            for (Iterator stream = this.tables.iterator(); stream.hasNext(); ) {
-                MWTable table = (MWTable) stream.next();
-                if (table.qualifiedName().equals(qualifiedName)) {
-                    return table;
-                }
-            }
+            return (MWTable) this.tablesByQualifiedName().get(qualifiedName);
+        }
+    }
+
+    /**
+     * the caller must synchronize on 'tables'
+     */
+    private Map tablesByQualifiedName() {
+        if (this.tablesByQualifiedName == null) {
+            this.rebuildTableIndexes();
+        }
+        return this.tablesByQualifiedName;
+    }
+
+    /**
+     * the caller must synchronize on 'tables'
+     */
+    private Map tablesByFoldedQualifiedName() {
+        if (this.tablesByFoldedQualifiedName == null) {
+            this.rebuildTableIndexes();
+        }
+        return this.tablesByFoldedQualifiedName;
+    }
+
+    private void rebuildTableIndexes() {
+        Map byName = new HashMap(this.tables.size());
+        Map byFoldedName = new HashMap(this.tables.size());
+        for (Iterator stream = this.tables.iterator(); stream.hasNext(); ) {
+            MWTable table = (MWTable) stream.next();
+            String qualifiedName = table.qualifiedName();
+            addTableTo(byName, qualifiedName, table);
+            addTableTo(byFoldedName, foldCase(qualifiedName), table);
+        }
+        this.tablesByQualifiedName = byName;
+        this.tablesByFoldedQualifiedName = byFoldedName;
+    }
+
+    /**
+     * like a linear search, the first table with a particular name wins
+     */
+    private static void addTableTo(Map tableIndex, String key, MWTable table) {
+        if ( ! tableIndex.containsKey(key)) {
+            tableIndex.put(key, table);
+        }
+    }
+
+    /**
+     * fold the case of the specified string the same way
+     * String#equalsIgnoreCase(String) compares characters
+     */
+    private static String foldCase(String string) {
+        char[] chars = string.toCharArray();
+        for (int i = chars.length; i-- > 0; ) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * a table has been removed or renamed - rebuild the indexes when next needed
+     */
+    private void tableNamesChanged() {
+        synchronized (this.tables) {
+            this.tablesByQualifiedName = null;
+            this.tablesByFoldedQualifiedName = null;
         }
-        return null;
     }
 
     /**
@@ -553,7 +650,11 @@ public void nodeRemoved(Node node) {
     public void nodeRenamed(Node node) {
         if (node.isDescendantOf(this)) {
             super.nodeRenamed(node);
-            // we handle a renamed table directly in #tableRenamed()
+            // we handle a renamed table directly in #tableRenamed(),
+            // but the table indexes are keyed by name
+            if (node instanceof MWTable) {
+                this.tableNamesChanged();
+            }
         }
     }
 
@@ -951,6 +1052,8 @@ public Iterator projectSubFileComponents() {
     @Override
     public void setProjectSubFileComponents(Collection subComponents) {
         this.tables = subComponents;
+        this.tablesByQualifiedName = null;
+        this.tablesByFoldedQualifiedName = null;
     }
 
     @Override
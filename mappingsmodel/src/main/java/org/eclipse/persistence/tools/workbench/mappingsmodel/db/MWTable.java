@@ -16,9 +16,11 @@
 
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.TreeSet;
 import java.util.Vector;
 
@@ -68,9 +70,25 @@
     private Collection columns;
         public static final String COLUMNS_COLLECTION = "columns";
 
+    /**
+     * transient - the columns keyed by name; this is null whenever
+     * it must be rebuilt (e.g. after the columns have been read in
+     * or a column has been removed or renamed)
+     * @see #columnsByName()
+     */
+    private Map columnsByName;
+
     private Collection references;
         public static final String REFERENCES_COLLECTION = "references";
 
+    /**
+     * transient - the references keyed by name; this is null whenever
+     * it must be rebuilt (e.g. after the references have been read in
+     * or a reference has been removed or renamed)
+     * @see #referencesByName()
+     */
+    private Map referencesByName;
+
     private boolean legacyIsFullyQualified;
 
     // ********** constructors **********
@@ -203,11 +221,17 @@ public MWColumn addColumn(String name) {
     }
 
     private MWColumn addColumn(MWColumn column) {
+        synchronized (this.columns) {
+            if ((this.columnsByName != null) && ! this.columnsByName.containsKey(column.getName())) {
+                this.columnsByName.put(column.getName(), column);
+            }
+        }
         this.addItemToCollection(column, this.columns, COLUMNS_COLLECTION);
         return column;
     }
 
     public void removeColumn(MWColumn column) {
+        this.columnNamesChanged();
         this.removeNodeFromCollection(column, this.columns, COLUMNS_COLLECTION);
     }
 
@@ -231,14 +255,35 @@ public boolean containsColumnNamed(String columnName) {
      */
     public MWColumn columnNamed(String unqualifiedColumnName) {
         synchronized (this.columns) {
+            return (MWColumn) this.columnsByName().get(unqualifiedColumnName);
+        }
+    }
+
+    /**
+     * the caller must synchronize on 'columns'
+     */
+    private Map columnsByName() {
+        if (this.columnsByName == null) {
+            Map index = new HashMap(this.columns.size());
             for (Iterator stream = this.columns.iterator(); stream.hasNext(); ) {
                 MWColumn column = (MWColumn) stream.next();
-                if (column.getName().equals(unqualifiedColumnName)) {
-                    return column;
+                // like a linear search, the first column with a particular name wins
+                if ( ! index.containsKey(column.getName())) {
+                    index.put(column.getName(), column);
                 }
             }
+            this.columnsByName = index;
+        }
+        return this.columnsByName;
+    }
+
+    /**
+     * a column has been removed or renamed - rebuild the index when next needed
+     */
+    private void columnNamesChanged() {
+        synchronized (this.columns) {
+            this.columnsByName = null;
         }
-        return null;
     }
 
     /**
@@ -330,11 +375,17 @@ public MWReference addReference(String name, MWTable targetTable) {
     }
 
     private MWReference addReference(MWReference reference) {
+        synchronized (this.references) {
+            if ((this.referencesByName != null) && ! this.referencesByName.containsKey(reference.getName())) {
+                this.referencesByName.put(reference.getName(), reference);
+            }
+        }
         this.addItemToCollection(reference, this.references, REFERENCES_COLLECTION);
         return reference;
     }
 
     public void removeReference(MWReference reference) {
+        this.referenceNamesChanged();
         this.removeNodeFromCollection(reference, this.references, REFERENCES_COLLECTION);
     }
 
@@ -377,13 +428,34 @@ public boolean containsReferenceNamed(String referenceName) {
 
     public MWReference referenceNamed(String referenceName) {
         synchronized (this.references) {
+            return (MWReference) this.referencesByName().get(referenceName);
+        }
+    }
+
+    /**
+     * the caller must synchronize on 'references'
+     */
+    private Map referencesByName() {
+        if (this.referencesByName == null) {
+            Map index = new HashMap(this.references.size());
             for (Iterator stream = this.references.iterator(); stream.hasNext(); ) {
                 MWReference reference = (MWReference) stream.next();
-                if (reference.getName().equals(referenceName)) {
-                    return reference;
+                // like a linear search, the first reference with a particular name wins
+                if ( ! index.containsKey(reference.getName())) {
+                    index.put(reference.getName(), reference);
                 }
             }
-            return null;
+            this.referencesByName = index;
+        }
+        return this.referencesByName;
+    }
+
+    /**
+     * a reference has been removed or renamed - rebuild the index when next needed
+     */
+    private void referenceNamesChanged() {
+        synchronized (this.references) {
+            this.referencesByName = null;
         }
     }
 
@@ -518,6 +590,21 @@ protected void addChildrenTo(List children) {
         synchronized (this.references) { children.addAll(this.references); }
     }
 
+    /**
+     * the column and reference indexes are keyed by name
+     */
+    @Override
+    public void nodeRenamed(Node node) {
+        super.nodeRenamed(node);
+        if (node.getParent() == this) {
+            if (node instanceof MWColumn) {
+                this.columnNamesChanged();
+            } else if (node instanceof MWReference) {
+                this.referenceNamesChanged();
+            }
+        }
+    }
+
     public void rename(String newCatalog, String newSchema, String newShortName) {
         if (this.nameMatches(newCatalog, newSchema, newShortName)) {
             // if someone is tryng to rename a table to its existing name, ignore it
@@ -799,6 +886,7 @@ private Collection getColumnsForTopLink() {
     }
     private void setColumnsForTopLink(Collection columns) {
         this.columns = columns;
+        this.columnsByName = null;
     }
 
     /**
@@ -811,6 +899,7 @@ private Collection getReferencesForTopLink() {
     }
     private void setReferencesForTopLink(Collection references) {
          this.references = references;
+         this.referencesByName = null;
     }
 
 }
@@ -369,11 +369,8 @@ protected void refreshClass(MWClassRefreshPolicy refreshPolicy)
      * @see AbstractNodeModel#validateBranch()
      */
     @Override
-    public boolean validateBranchInternal() {
-        return this.isActive() ?
-            super.validateBranchInternal()
-        :
-            this.clearAllBranchProblemsInternal();
+    protected boolean validatesBranch() {
+        return this.isActive();
     }
 
     @Override
@@ -68,6 +68,7 @@ public MWAttributeHandle(MWModel parent, NodeReferenceScrubber scrubber) {
     public MWAttributeHandle(MWModel parent, MWClassAttribute attribute, NodeReferenceScrubber scrubber) {
         super(parent, scrubber);
         this.attribute = attribute;
+        this.nodeChanged(null, attribute);
     }
 
 
@@ -78,7 +79,9 @@ public MWClassAttribute getAttribute() {
     }
 
     public void setAttribute(MWClassAttribute attribute) {
+        Node old = this.attribute;
         this.attribute = attribute;
+        this.nodeChanged(old, attribute);
     }
 
     @Override
@@ -65,6 +65,7 @@ public MWClassHandle(MWModel parent, NodeReferenceScrubber scrubber) {
     public MWClassHandle(MWModel parent, MWClass type, NodeReferenceScrubber scrubber) {
         super(parent, scrubber);
         this.type = type;
+        this.nodeChanged(null, type);
     }
 
 
@@ -75,7 +76,9 @@ public MWClass getType() {
     }
 
     public void setType(MWClass type) {
+        Node old = this.type;
         this.type = type;
+        this.nodeChanged(old, type);
     }
 
     @Override
@@ -68,6 +68,7 @@ public MWColumnHandle(MWModel parent, NodeReferenceScrubber scrubber) {
     public MWColumnHandle(MWModel parent, MWColumn column, NodeReferenceScrubber scrubber) {
         super(parent, scrubber);
         this.column = column;
+        this.nodeChanged(null, column);
     }
 
 
@@ -78,7 +79,9 @@ public MWColumn getColumn() {
     }
 
     public void setColumn(MWColumn column) {
+        Node old = this.column;
         this.column = column;
+        this.nodeChanged(old, column);
     }
 
     @Override
@@ -71,6 +71,7 @@ public MWColumnPairHandle(MWModel parent, NodeReferenceScrubber scrubber) {
     public MWColumnPairHandle(MWModel parent, MWColumnPair columnPair, NodeReferenceScrubber scrubber) {
         super(parent, scrubber);
         this.columnPair = columnPair;
+        this.nodeChanged(null, columnPair);
     }
 
 
@@ -81,7 +82,9 @@ public MWColumnPair getColumnPair() {
     }
 
     public void setColumnPair(MWColumnPair columnPair) {
+        Node old = this.columnPair;
         this.columnPair = columnPair;
+        this.nodeChanged(old, columnPair);
     }
 
     @Override
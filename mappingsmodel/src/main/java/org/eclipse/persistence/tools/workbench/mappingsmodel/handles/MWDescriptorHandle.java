@@ -57,6 +57,7 @@ public MWDescriptorHandle(MWModel parent, NodeReferenceScrubber scrubber) {
     public MWDescriptorHandle(MWModel parent, MWDescriptor descriptor, NodeReferenceScrubber scrubber) {
         super(parent, scrubber);
         this.descriptor = descriptor;
+        this.nodeChanged(null, descriptor);
     }
 
 
@@ -67,7 +68,9 @@ public MWDescriptor getDescriptor() {
     }
 
     public void setDescriptor(MWDescriptor descriptor) {
+        Node old = this.descriptor;
         this.descriptor = descriptor;
+        this.nodeChanged(old, descriptor);
     }
 
     @Override
@@ -73,6 +73,7 @@ public MWDescriptorQueryParameterHandle(MWModel parent, NodeReferenceScrubber sc
     public MWDescriptorQueryParameterHandle(MWModel parent, MWQueryParameter queryParameter, NodeReferenceScrubber scrubber) {
         super(parent, scrubber);
         this.queryParameter = queryParameter;
+        this.nodeChanged(null, queryParameter);
     }
 
 
@@ -83,7 +84,9 @@ public MWQueryParameter getQueryParameter() {
     }
 
     public void setQueryParameter(MWQueryParameter queryParameter) {
+        Node old = this.queryParameter;
         this.queryParameter = queryParameter;
+        this.nodeChanged(old, queryParameter);
     }
 
     @Override
@@ -95,6 +95,12 @@ public final Iterator children() {
         return NullIterator.instance();
     }
 
+    // handles do not have children
+    @Override
+    public final void forEachChild(ChildVisitor visitor) {
+        // do nothing
+    }
+
     // handles do not have children
     @Override
     public final void setChildBackpointers() {
@@ -209,6 +215,24 @@ public final boolean validateBranchInternal() {
         return false;
     }
 
+    // handles will never have any problems, their parents have the problems
+    @Override
+    public final void validateChangedBranch() {
+        // do nothing
+    }
+
+    // handles will never have any problems, their parents have the problems
+    @Override
+    public final boolean validateChangedBranchInternal() {
+        return false;
+    }
+
+    // handles will never have any problems, their parents have the problems
+    @Override
+    public final void markBranchNeedsValidation() {
+        // do nothing
+    }
+
     // handles will never have any branch problems, their parents have the problems
     @Override
     public final void rebuildBranchProblems() {
@@ -367,6 +391,19 @@ public final void descriptorUnmapped(Collection mappings) {
         // do nothing
     }
 
+    /**
+     * Handles must call this method whenever their node changes,
+     * so the project can keep track of which handles reference
+     * which nodes (and the class repository can keep track of
+     * which types are still referenced).
+     * @see MWProject#handleNodeChanged(MWHandle, Node, Node)
+     */
+    protected final void nodeChanged(Node oldNode, Node newNode) {
+        if (oldNode != newNode) {
+            this.getProject().handleNodeChanged(this, oldNode, newNode);
+        }
+    }
+
     /**
      * Subclasses will probably implement something like
      * #setScrubber(NodeReferenceScrubber) that returns 'this'
@@ -67,6 +67,7 @@ public MWMappingHandle(MWModel parent, NodeReferenceScrubber scrubber) {
     public MWMappingHandle(MWModel parent, MWMapping mapping, NodeReferenceScrubber scrubber) {
         super(parent, scrubber);
         this.mapping = mapping;
+        this.nodeChanged(null, mapping);
     }
 
 
@@ -77,7 +78,9 @@ public MWMapping getMapping() {
     }
 
     public void setMapping(MWMapping mapping) {
+        Node old = this.mapping;
         this.mapping = mapping;
+        this.nodeChanged(old, mapping);
     }
 
     @Override
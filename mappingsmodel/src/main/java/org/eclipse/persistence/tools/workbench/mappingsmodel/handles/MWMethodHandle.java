@@ -66,6 +66,7 @@ public MWMethodHandle(MWModel parent, NodeReferenceScrubber scrubber) {
     public MWMethodHandle(MWModel parent, MWMethod method, NodeReferenceScrubber scrubber) {
         super(parent, scrubber);
         this.method = method;
+        this.nodeChanged(null, method);
     }
 
 
@@ -76,7 +77,9 @@ public MWMethod getMethod() {
     }
 
     public void setMethod(MWMethod method) {
+        Node old = this.method;
         this.method = method;
+        this.nodeChanged(old, method);
     }
 
     @Override
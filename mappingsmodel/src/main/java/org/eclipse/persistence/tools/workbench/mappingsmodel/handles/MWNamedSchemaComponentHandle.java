@@ -62,6 +62,7 @@ public MWNamedSchemaComponentHandle(MWNode parent, NodeReferenceScrubber scrubbe
     public MWNamedSchemaComponentHandle(MWNode parent, MWNamedSchemaComponent component, NodeReferenceScrubber scrubber) {
         super(parent, scrubber);
         this.component = component;
+        this.nodeChanged(null, component);
     }
 
 
@@ -76,7 +77,9 @@ public MWNamedSchemaComponent getComponent() {
     }
 
     public void setComponent(MWNamedSchemaComponent component) {
+        Node old = this.component;
         this.component = component;
+        this.nodeChanged(old, component);
     }
 
     @Override
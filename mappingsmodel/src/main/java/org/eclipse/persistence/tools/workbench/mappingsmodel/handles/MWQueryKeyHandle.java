@@ -68,6 +68,7 @@ public MWQueryKeyHandle(MWModel parent, NodeReferenceScrubber scrubber) {
     public MWQueryKeyHandle(MWModel parent, MWQueryKey queryKey, NodeReferenceScrubber scrubber) {
         super(parent, scrubber);
         this.queryKey = queryKey;
+        this.nodeChanged(null, queryKey);
     }
 
 
@@ -78,7 +79,9 @@ public MWQueryKey getQueryKey() {
     }
 
     public void setQueryKey(MWQueryKey queryKey) {
+        Node old = this.queryKey;
         this.queryKey = queryKey;
+        this.nodeChanged(old, queryKey);
     }
 
     @Override
@@ -72,6 +72,7 @@ public MWQueryableHandle(MWModel parent, NodeReferenceScrubber scrubber) {
     public MWQueryableHandle(MWModel parent, MWQueryable queryable, NodeReferenceScrubber scrubber) {
         super(parent, scrubber);
         this.queryable = queryable;
+        this.nodeChanged(null, queryable);
     }
 
 
@@ -82,7 +83,9 @@ public MWQueryable getQueryable() {
     }
 
     public void setQueryable(MWQueryable queryable) {
+        Node old = this.queryable;
         this.queryable = queryable;
+        this.nodeChanged(old, queryable);
     }
 
     @Override
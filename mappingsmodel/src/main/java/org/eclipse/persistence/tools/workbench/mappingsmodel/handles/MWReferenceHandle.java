@@ -68,6 +68,7 @@ public MWReferenceHandle(MWModel parent, NodeReferenceScrubber scrubber) {
     public MWReferenceHandle(MWModel parent, MWReference reference, NodeReferenceScrubber scrubber) {
         super(parent, scrubber);
         this.reference = reference;
+        this.nodeChanged(null, reference);
     }
 
 
@@ -78,7 +79,9 @@ public MWReference getReference() {
     }
 
     public void setReference(MWReference reference) {
+        Node old = this.reference;
         this.reference = reference;
+        this.nodeChanged(old, reference);
     }
 
     @Override
@@ -57,6 +57,7 @@ public MWTableHandle(MWModel parent, NodeReferenceScrubber scrubber) {
     public MWTableHandle(MWModel parent, MWTable table, NodeReferenceScrubber scrubber) {
         super(parent, scrubber);
         this.table = table;
+        this.nodeChanged(null, table);
     }
 
 
@@ -67,7 +68,9 @@ public MWTable getTable() {
     }
 
     public void setTable(MWTable table) {
+        Node old = this.table;
         this.table = table;
+        this.nodeChanged(old, table);
     }
 
     @Override
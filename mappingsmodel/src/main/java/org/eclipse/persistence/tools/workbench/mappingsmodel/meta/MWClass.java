@@ -213,7 +213,7 @@ void initializeNameDependentState() {
         // the primitive flag and superclass
         this.primitive = this.defaultPrimitiveFlag();
         this.superclassHandle = new MWClassHandle(this, this.buildSuperclassScrubber());
-        this.superclassHandle.setType(this.defaultSuperclass());
+        this.setSuperclassInternal(this.defaultSuperclass());
     }
 
     private MWClass defaultDeclaringType() {
@@ -404,7 +404,7 @@ public void setSuperclass(MWClass superclass) {
             throw new IllegalStateException("Superclass not allowed: " + this);
         }
         Object old = this.superclassHandle.getType();
-        this.superclassHandle.setType(superclass);
+        this.setSuperclassInternal(superclass);
         this.firePropertyChanged(SUPERCLASS_PROPERTY, old, superclass);
         if ((old != superclass) && ! this.isCoreType()) {
             // notify everyone the hierarchy has changed;
@@ -415,6 +415,18 @@ public void setSuperclass(MWClass superclass) {
         }
     }
 
+    /**
+     * set the superclass without any change notification,
+     * but keep the repository's subclass index in synch
+     */
+    private void setSuperclassInternal(MWClass superclass) {
+        MWClass old = this.superclassHandle.getType();
+        this.superclassHandle.setType(superclass);
+        if (old != superclass) {
+            this.getRepository().superclassChanged(this, old, superclass);
+        }
+    }
+
 
     // ***** lastRefreshTimestamp
     /**
@@ -2505,7 +2517,7 @@ private void configureAsImpliedStubInterface() {
             // for not calling setInterface(true) directly. Otherwise the model notification hierarchyChanged()
             // would be called and other objects postProjectBuild() haven't occurred yet, so NPE's can result.
             this.interfaceFlag = true;
-            this.superclassHandle.setType(null);
+            this.setSuperclassInternal(null);
         }
         // if we have a fully-populated class, the user has messed up;
         // so just leave it alone...
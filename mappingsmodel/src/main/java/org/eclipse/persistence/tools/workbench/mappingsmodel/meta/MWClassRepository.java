@@ -30,10 +30,13 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.Vector;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import org.eclipse.persistence.tools.workbench.mappingsmodel.MWModel;
 import org.eclipse.persistence.tools.workbench.mappingsmodel.ProjectSubFileComponentContainer;
 import org.eclipse.persistence.tools.workbench.mappingsmodel.descriptor.MWDescriptor;
+import org.eclipse.persistence.tools.workbench.mappingsmodel.handles.MWHandle;
 import org.eclipse.persistence.tools.workbench.mappingsmodel.mapping.MWMapping;
 import org.eclipse.persistence.tools.workbench.mappingsmodel.project.MWProject;
 import org.eclipse.persistence.tools.workbench.mappingsmodel.spi.meta.ClassDescription;
@@ -50,6 +53,7 @@
 import org.eclipse.persistence.tools.workbench.utility.iterators.CloneListIterator;
 import org.eclipse.persistence.tools.workbench.utility.iterators.CompositeIterator;
 import org.eclipse.persistence.tools.workbench.utility.iterators.FilteringIterator;
+import org.eclipse.persistence.tools.workbench.utility.iterators.NullIterator;
 import org.eclipse.persistence.tools.workbench.utility.iterators.TransformationIterator;
 import org.eclipse.persistence.tools.workbench.utility.iterators.TreeIterator;
 import org.eclipse.persistence.tools.workbench.utility.node.Node;
@@ -111,6 +115,37 @@
      */
     private Map typeNames;
 
+    /**
+     * The immediate subclasses of the types contained in 'types', above,
+     * keyed by superclass; each value is a set of MWClasses.
+     * This is a transient index that is kept in synch with the types'
+     * superclasses; it is null whenever it must be rebuilt (e.g. while
+     * the types' handles are being resolved during a read).
+     * @see #superclassChanged(MWClass, MWClass, MWClass)
+     * @see #subclasses()
+     */
+    private Map subclasses;
+
+    /**
+     * The handles that reference the types contained in 'types', above,
+     * (or any of their descendants: attributes, methods, etc.), keyed
+     * by type; each value is a set of handles. A type without any
+     * handles is "garbage". This is a transient index that is kept
+     * in synch by the handles themselves; it is null whenever it must
+     * be rebuilt (e.g. while the project is being read).
+     * @see #handleNodeChanged(MWHandle, Node, Node)
+     * @see #typeReferences()
+     */
+    private Map typeReferences;
+
+    /**
+     * The types that have lost their last reference since the last
+     * time they were swept. This is a transient set that is only
+     * used when 'typeReferences' is being maintained.
+     * @see #removeUnreferencedStubs()
+     */
+    private Set garbageCandidates;
+
     /**
      * this holds only the current set of "user" types and must
      * be maintained by tracking changes to the types themselves (yuck);
@@ -209,6 +244,9 @@ protected void initialize(Node parent) {
         super.initialize(parent);
         this.types = new Hashtable();
         this.typeNames = new Hashtable();
+        this.subclasses = new HashMap();
+        this.typeReferences = new HashMap();
+        this.garbageCandidates = new HashSet();
         this.userTypes = Collections.synchronizedSet(new HashSet());
         this.classpathEntries = new Vector();
         this.userTypeNames = new HashSet();
@@ -229,6 +267,9 @@ private void setTypes(Collection types) {
         for (Iterator stream = types.iterator(); stream.hasNext(); ) {
             this.addType((MWClass) stream.next());
         }
+        // the handles have not been resolved yet
+        this.subclasses = null;
+        this.typeReferences = null;
         this.userTypes = Collections.synchronizedSet(new HashSet(types));
     }
 
@@ -260,6 +301,14 @@ private void addType(String typeName, MWClass type) {
      */
     private void removeType(MWClass type) {
         this.removeTypeNamed(type.getName());
+        if (this.subclasses != null) {
+            this.removeSubclass(type.getSuperclass(), type);
+        }
+        if (this.typeReferences != null) {
+            // the type's own handles no longer reference anything
+            this.removeTypeReferences(type);
+            this.typeReferences.remove(type);
+        }
         // 'userTypes' may or may not contain the type - it doesn't matter
         this.removeUserType(type);
     }
@@ -324,6 +373,30 @@ private ExternalClassRepository buildExternalClassRepository() {
         return this.externalClassRepositoryFactory().buildClassRepository(this.buildExternalClassRepositoryClasspath());
     }
 
+    /**
+     * force the external class repository to be rebuilt the next time
+     * it is needed, releasing any resources (e.g. open archives) held by
+     * the current one
+     */
+    private void discardExternalClassRepository() {
+        ExternalClassRepository old = this.externalClassRepository;
+        this.externalClassRepository = null;
+        if (old != null) {
+            old.releaseResources();
+        }
+    }
+
+    /**
+     * release any resources (e.g. open archives) the external class
+     * repository is holding once a "bulk" refresh is finished
+     */
+    private void releaseExternalClassRepositoryResources() {
+        ExternalClassRepository ecr = this.externalClassRepository;
+        if (ecr != null) {
+            ecr.releaseResources();
+        }
+    }
+
 
     /** NOTE: Classpath entries are Strings */
 
@@ -341,7 +414,7 @@ public String getClasspathEntry(int index) {
 
     public void addClasspathEntry(int index, String entry) {
         this.addItemToList(index, entry, this.classpathEntries, CLASSPATH_ENTRIES_LIST);
-        this.externalClassRepository = null;
+        this.discardExternalClassRepository();
     }
 
     public void addClasspathEntry(String entry) {
@@ -350,7 +423,7 @@ public void addClasspathEntry(String entry) {
 
     public void addClasspathEntries(int index, List entries) {
         this.addItemsToList(index, entries, this.classpathEntries, CLASSPATH_ENTRIES_LIST);
-        this.externalClassRepository = null;
+        this.discardExternalClassRepository();
     }
 
     public void addClasspathEntries(List entries) {
@@ -363,19 +436,19 @@ public void addClasspathEntries(ListIterator entries) {
 
     public String removeClasspathEntry(int index) {
         String result = (String) this.removeItemFromList(index, this.classpathEntries, CLASSPATH_ENTRIES_LIST);
-        this.externalClassRepository = null;
+        this.discardExternalClassRepository();
         return result;
     }
 
     public List removeClasspathEntries(int index, int length) {
         List result = this.removeItemsFromList(index, length, this.classpathEntries, CLASSPATH_ENTRIES_LIST);
-        this.externalClassRepository = null;
+        this.discardExternalClassRepository();
         return result;
     }
 
     public String replaceClasspathEntry(int index, String newEntry) {
         String result = (String) this.setItemInList(index, newEntry, this.classpathEntries, CLASSPATH_ENTRIES_LIST);
-        this.externalClassRepository = null;
+        this.discardExternalClassRepository();
         return result;
     }
 
@@ -580,16 +653,91 @@ public String toString() {
      * return the immediate [loaded] subclasses of the specified type
      */
     Iterator subclassesOf(MWClass type) {
-        Collection subclasses = new ArrayList();
         synchronized (this.types) {
-            for (Iterator stream = this.types.values().iterator(); stream.hasNext(); ) {
-                MWClass next = (MWClass) stream.next();
-                if (next.getSuperclass() == type) {
-                    subclasses.add(next);
-                }
+            Collection typeSubclasses = (Collection) this.subclasses().get(type);
+            if (typeSubclasses == null) {
+                return NullIterator.instance();
+            }
+            return new ArrayList(typeSubclasses).iterator();
+        }
+    }
+
+    /**
+     * return the subclass index, rebuilding it if necessary;
+     * the caller must synchronize on 'types'
+     */
+    private Map subclasses() {
+        if (this.subclasses == null) {
+            this.subclasses = this.buildSubclasses();
+        }
+        return this.subclasses;
+    }
+
+    private Map buildSubclasses() {
+        Map result = new HashMap(this.types.size());
+        for (Iterator stream = this.types.values().iterator(); stream.hasNext(); ) {
+            MWClass type = (MWClass) stream.next();
+            MWClass superclass = type.getSuperclass();
+            if (superclass != null) {
+                addSubclassTo(result, superclass, type);
+            }
+        }
+        return result;
+    }
+
+    private static void addSubclassTo(Map subclassIndex, MWClass superclass, MWClass subclass) {
+        Set typeSubclasses = (Set) subclassIndex.get(superclass);
+        if (typeSubclasses == null) {
+            typeSubclasses = new HashSet();
+            subclassIndex.put(superclass, typeSubclasses);
+        }
+        typeSubclasses.add(subclass);
+    }
+
+    /**
+     * the caller must synchronize on 'types'
+     */
+    private void removeSubclass(MWClass superclass, MWClass subclass) {
+        if (superclass == null) {
+            return;
+        }
+        Set typeSubclasses = (Set) this.subclasses.get(superclass);
+        if (typeSubclasses == null) {
+            return;
+        }
+        typeSubclasses.remove(subclass);
+        if (typeSubclasses.isEmpty()) {
+            this.subclasses.remove(superclass);
+        }
+    }
+
+    /**
+     * the specified type's superclass has changed - keep the subclass index in synch;
+     * the index is left alone if it will be rebuilt anyway
+     * @see MWClass#setSuperclass(MWClass)
+     */
+    void superclassChanged(MWClass type, MWClass oldSuperclass, MWClass newSuperclass) {
+        synchronized (this.types) {
+            if (this.subclasses == null) {
+                return;
+            }
+            this.removeSubclass(oldSuperclass, type);
+            if (newSuperclass != null) {
+                addSubclassTo(this.subclasses, newSuperclass, type);
             }
         }
-        return subclasses.iterator();
+    }
+
+    /**
+     * PRIVATE - called by the project once the class handles have been
+     * resolved "silently" during a read; the subclass index is rebuilt
+     * the next time it is needed
+     * @see MWProject#postProjectBuild()
+     */
+    public void classHandlesResolved() {
+        synchronized (this.types) {
+            this.subclasses = null;
+        }
     }
 
     /**
@@ -638,16 +786,147 @@ private MWClass typeNamedIgnoreCase2(String typeName) {
      * if the type is garbage, it will be removed as a side-effect
      */
     private boolean typeIsGarbage(MWClass type) {
+        if (this.typeReferences().containsKey(type)) {
+            // something is still holding on to the type or one of
+            // its descendants, so we can't remove it yet
+            return false;
+        }
+        this.removeType(type);
+        return true;
+    }
+
+    /**
+     * return the handles that reference each type, rebuilding
+     * the index if necessary; the caller must synchronize on 'types'
+     */
+    private Map typeReferences() {
+        if (this.typeReferences == null) {
+            this.typeReferences = this.buildTypeReferences();
+            this.garbageCandidates = new HashSet();
+        }
+        return this.typeReferences;
+    }
+
+    private Map buildTypeReferences() {
+        Map result = new HashMap(this.types.size());
         for (Iterator stream = this.getProject().branchReferences(); stream.hasNext(); ) {
             Reference ref = (Reference) stream.next();
-            if (ref.getTarget().isDescendantOf(type)) {
-                // something is still holding on to the type or one of
-                // its descendants, so we can't remove it yet
-                return false;
+            MWClass type = this.typeContaining(ref.getTarget());
+            if (type != null) {
+                addTypeReferenceTo(result, type, ref.getSource());
+            }
+        }
+        return result;
+    }
+
+    private static void addTypeReferenceTo(Map typeReferenceIndex, MWClass type, Node handle) {
+        Set handles = (Set) typeReferenceIndex.get(type);
+        if (handles == null) {
+            handles = new HashSet();
+            typeReferenceIndex.put(type, handles);
+        }
+        handles.add(handle);
+    }
+
+    /**
+     * return the type that is, or contains, the specified node;
+     * return null if the node is not part of a type
+     */
+    private MWClass typeContaining(Node node) {
+        while (node != null) {
+            if (node.getParent() == this) {
+                return (node instanceof MWClass) ? (MWClass) node : null;
+            }
+            node = node.getParent();
+        }
+        return null;
+    }
+
+    /**
+     * the caller must synchronize on 'types'
+     */
+    private void removeTypeReference(Node handle, Node node) {
+        MWClass type = this.typeContaining(node);
+        if (type == null) {
+            return;
+        }
+        Set handles = (Set) this.typeReferences.get(type);
+        if ((handles == null) || ! handles.remove(handle)) {
+            return;
+        }
+        if (handles.isEmpty()) {
+            this.typeReferences.remove(type);
+            this.garbageCandidates.add(type);
+        }
+    }
+
+    /**
+     * the specified node's handles no longer reference anything;
+     * the caller must synchronize on 'types'
+     */
+    private void removeTypeReferences(Node node) {
+        Collection references = new ArrayList();
+        node.addBranchReferencesTo(references);
+        for (Iterator stream = references.iterator(); stream.hasNext(); ) {
+            Reference ref = (Reference) stream.next();
+            this.removeTypeReference(ref.getSource(), ref.getTarget());
+        }
+    }
+
+    /**
+     * PRIVATE - called by the project whenever a handle
+     * changes the node it references
+     * @see MWProject#handleNodeChanged(MWHandle, Node, Node)
+     */
+    public void handleNodeChanged(MWHandle handle, Node oldNode, Node newNode) {
+        synchronized (this.types) {
+            if (this.typeReferences == null) {
+                return;        // the index will be rebuilt when needed
+            }
+            if (oldNode != null) {
+                this.removeTypeReference(handle, oldNode);
+            }
+            MWClass type = (newNode == null) ? null : this.typeContaining(newNode);
+            if (type != null) {
+                addTypeReferenceTo(this.typeReferences, type, handle);
+            }
+        }
+    }
+
+    /**
+     * PRIVATE - called by the project whenever a node has been removed:
+     * the handles in the node's branch no longer reference anything
+     * @see MWProject#nodeRemoved(Node)
+     */
+    public void branchRemoved(Node node) {
+        synchronized (this.types) {
+            if (this.typeReferences != null) {
+                this.removeTypeReferences(node);
+            }
+        }
+    }
+
+    /**
+     * remove, in a single batch, the "stub" types that have lost their last
+     * reference; removing a stub can leave the types it references without
+     * any references, so keep sweeping until there are no candidates left
+     */
+    public void removeUnreferencedStubs() {
+        synchronized (this.types) {
+            if (this.typeReferences == null) {
+                return;
+            }
+            while ( ! this.garbageCandidates.isEmpty()) {
+                Iterator stream = this.garbageCandidates.iterator();
+                MWClass type = (MWClass) stream.next();
+                stream.remove();
+                if ((this.types.get(type.getName()) == type)
+                        && type.isStub()
+                        && ! this.typeReferences.containsKey(type)) {
+                    this.removeType(type);
+                }
             }
         }
-        this.removeType(type);
-        return true;
     }
 
     /**
@@ -869,7 +1148,7 @@ void refreshTypeMembers(MWClass type, MWClassRefreshPolicy refreshPolicy) throws
      * the refreshed collection
      */
     public void refreshExternalClassDescriptions() {
-        this.externalClassRepository = null;
+        this.discardExternalClassRepository();
     }
 
     /**
@@ -891,17 +1170,45 @@ public void refreshTypeFor(ExternalClassDescription externalClassDescription) th
     /**
      * refresh the types corresponding to the specified external class descriptions;
      * notify the specified listener for each corresponding
-     * chunk of metadata we can't load
+     * chunk of metadata we can't load;
+     * the external classes are built (i.e. their class files are parsed)
+     * concurrently, but the types themselves are refreshed, in order,
+     * on the current thread
      */
     public void refreshTypesFor(Iterator externalClassDescriptions, ExternalClassLoadFailureListener listener) {
-        while (externalClassDescriptions.hasNext()) {
-            ExternalClassDescription externalClassDescription = (ExternalClassDescription) externalClassDescriptions.next();
-            try {
-                this.refreshTypeFor(externalClassDescription);
-            } catch (ExternalClassNotFoundException ex) {
-                listener.externalClassLoadFailure(new ExternalClassLoadFailureEvent(this, externalClassDescription.getName(), ex));
+        ExternalClassDescription[] descriptions = (ExternalClassDescription[]) CollectionTools.array(externalClassDescriptions, new ExternalClassDescription[0]);
+        try {
+            Object[] externalClasses = this.buildExternalClasses(descriptions);
+            for (int i = 0; i < descriptions.length; i++) {
+                try {
+                    if (externalClasses[i] instanceof ExternalClassNotFoundException) {
+                        throw (ExternalClassNotFoundException) externalClasses[i];
+                    }
+                    this.typeNamedInternal(descriptions[i].getName()).refresh((ExternalClass) externalClasses[i]);
+                } catch (ExternalClassNotFoundException ex) {
+                    listener.externalClassLoadFailure(new ExternalClassLoadFailureEvent(this, descriptions[i].getName(), ex));
+                }
             }
+        } finally {
+            this.releaseExternalClassRepositoryResources();
+        }
+    }
+
+    /**
+     * build the external classes for the specified descriptions, in parallel
+     * if there are enough of them; return an array holding, for each
+     * description, either its external class or the exception thrown
+     * while building it
+     */
+    private Object[] buildExternalClasses(ExternalClassDescription[] descriptions) {
+        Object[] externalClasses = new Object[descriptions.length];
+        ExternalClassBuilder builder = new ExternalClassBuilder(descriptions, externalClasses, 0, descriptions.length);
+        if ((ForkJoinPool.getCommonPoolParallelism() == 1) || (descriptions.length <= ExternalClassBuilder.THRESHOLD)) {
+            builder.compute();
+        } else {
+            ForkJoinPool.commonPool().invoke(builder);
         }
+        return externalClasses;
     }
 
     /**
@@ -920,13 +1227,17 @@ public ExternalClassLoadFailureContainer refreshTypesFor(Iterator externalClassD
      * chunk of metadata we can't load
      */
     public void refreshTypes(Iterator refreshTypes, ExternalClassLoadFailureListener listener) {
-        while (refreshTypes.hasNext()) {
-            MWClass type = (MWClass) refreshTypes.next();
-            try {
-                this.refreshType(type);
-            } catch (ExternalClassNotFoundException ecnfe) {
-                listener.externalClassLoadFailure(new ExternalClassLoadFailureEvent(this, type.getName(), ecnfe));
+        try {
+            while (refreshTypes.hasNext()) {
+                MWClass type = (MWClass) refreshTypes.next();
+                try {
+                    this.refreshType(type);
+                } catch (ExternalClassNotFoundException ecnfe) {
+                    listener.externalClassLoadFailure(new ExternalClassLoadFailureEvent(this, type.getName(), ecnfe));
+                }
             }
+        } finally {
+            this.releaseExternalClassRepositoryResources();
         }
     }
 
@@ -1280,4 +1591,53 @@ public void setPersistLastRefresh(boolean persistLastRefresh) {
 
     }
 
+
+
+    // ********** member class **********
+
+    /**
+     * Build the external classes for a range of external class descriptions,
+     * splitting the range in half until it is small enough to build directly.
+     * Each external class (or the exception thrown while building it) is
+     * stored in the corresponding slot of the results array.
+     */
+    private static class ExternalClassBuilder extends RecursiveAction {
+        private final ExternalClassDescription[] descriptions;
+        private final Object[] results;
+        private final int start;
+        private final int end;
+
+        /** the number of descriptions worth building on a single thread */
+        static final int THRESHOLD = 8;
+
+        private static final long serialVersionUID = 1L;
+
+        ExternalClassBuilder(ExternalClassDescription[] descriptions, Object[] results, int start, int end) {
+            super();
+            this.descriptions = descriptions;
+            this.results = results;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.end - this.start <= THRESHOLD) {
+                for (int i = this.start; i < this.end; i++) {
+                    try {
+                        this.results[i] = this.descriptions[i].getExternalClass();
+                    } catch (ExternalClassNotFoundException ex) {
+                        this.results[i] = ex;
+                    }
+                }
+            } else {
+                int middle = (this.start + this.end) >>> 1;
+                invokeAll(
+                    new ExternalClassBuilder(this.descriptions, this.results, this.start, middle),
+                    new ExternalClassBuilder(this.descriptions, this.results, middle, this.end)
+                );
+            }
+        }
+    }
+
 }
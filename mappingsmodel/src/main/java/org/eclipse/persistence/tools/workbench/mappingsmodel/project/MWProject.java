@@ -18,11 +18,15 @@
 import java.text.Collator;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.Vector;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 
 import org.eclipse.persistence.descriptors.InheritancePolicy;
 import org.eclipse.persistence.oxm.XMLDescriptor;
@@ -43,6 +47,7 @@
 import org.eclipse.persistence.tools.workbench.mappingsmodel.descriptor.MWDescriptor;
 import org.eclipse.persistence.tools.workbench.mappingsmodel.descriptor.MWMappingDescriptor;
 import org.eclipse.persistence.tools.workbench.mappingsmodel.descriptor.relational.MWInterfaceDescriptor;
+import org.eclipse.persistence.tools.workbench.mappingsmodel.handles.MWHandle;
 import org.eclipse.persistence.tools.workbench.mappingsmodel.mapping.MWMapping;
 import org.eclipse.persistence.tools.workbench.mappingsmodel.mapping.relational.MWAggregateMapping;
 import org.eclipse.persistence.tools.workbench.mappingsmodel.meta.ExternalClassLoadFailureContainer;
@@ -69,8 +74,9 @@
 import org.eclipse.persistence.tools.workbench.utility.iterators.NullIterator;
 import org.eclipse.persistence.tools.workbench.utility.iterators.TransformationIterator;
 import org.eclipse.persistence.tools.workbench.utility.node.Node;
+import org.eclipse.persistence.tools.workbench.utility.node.NodeReferenceIndex;
 import org.eclipse.persistence.tools.workbench.utility.string.AffixStrippingPartialStringComparatorEngine;
-import org.eclipse.persistence.tools.workbench.utility.string.ExhaustivePartialStringComparatorEngine;
+import org.eclipse.persistence.tools.workbench.utility.string.NGramPartialStringComparatorEngine;
 import org.eclipse.persistence.tools.workbench.utility.string.PartialStringComparator;
 import org.eclipse.persistence.tools.workbench.utility.string.PartialStringComparatorEngine;
 
@@ -162,6 +168,28 @@
     private volatile boolean validating;
         public static final String VALIDATING_PROPERTY = "validating";
 
+    /**
+     * transient index of the handles that reference each node,
+     * used to limit the #nodeRemoved(Node) and #nodeRenamed(Node)
+     * cascades to the branches holding the affected handles
+     */
+    private NodeReferenceIndex nodeReferences;
+
+    /**
+     * transient set of the nodes that must be notified of the node
+     * currently being removed or renamed; null when there is no
+     * cascade in progress
+     * @see #branchNeedsSynchronization(Node)
+     */
+    private Set synchronizedBranches;
+
+    /**
+     * transient index of the descriptors, keyed by name,
+     * used only while the handles are being resolved
+     * @see #descriptorNamed(String)
+     */
+    private Map descriptorsByName;
+
 
     //This is used for project weaving option which affects indirection validation for mappings
     private volatile boolean usesWeaving;
@@ -211,6 +239,14 @@
     // used by I/O Manager
     private static final String SUB_DIRECTORY_NAME = "descriptors";
 
+    // the kinds of handles, in the order they are resolved after the project is read
+    private static final int CLASS_HANDLES = 0;
+    private static final int METADATA_HANDLES = 1;
+    private static final int COLUMN_HANDLES = 2;
+    private static final int REFERENCE_HANDLES = 3;
+    private static final int DESCRIPTOR_HANDLES = 4;
+    private static final int METHOD_HANDLES = 5;
+
     /** The project-specific file name extension - used by the I/O manager. */
     public static final String FILE_NAME_EXTENSION = ".mwp";
 
@@ -394,6 +430,7 @@ protected void initialize() {
         this.changeNotifier = DefaultChangeNotifier.instance();
         this.validator = NULL_VALIDATOR;    // clients will replace this if appropriate
         this.validating = false;
+        this.nodeReferences = new NodeReferenceIndex(this);
     }
 
     /**
@@ -739,6 +776,10 @@ public MWDescriptor descriptorForTypeNamed(String typeName) {
     }
 
     public MWDescriptor descriptorNamed(String descriptorName) {
+        Map index = this.descriptorsByName;
+        if (index != null) {
+            return (MWDescriptor) index.get(descriptorName);
+        }
         synchronized (this.descriptors) {
             for (Iterator stream = this.descriptors.iterator(); stream.hasNext(); ) {
                 MWDescriptor descriptor = (MWDescriptor) stream.next();
@@ -914,7 +955,7 @@ protected DescriptorStringHolder[] buildMetaDataDescriptorStringHolders(Collecti
     protected static final PartialStringComparatorEngine CLASS_META_DATA_NAME_COMPARATOR_ENGINE =
                 AffixStrippingPartialStringComparatorEngine.forPrefixStripping(
                     AffixStrippingPartialStringComparatorEngine.forSuffixStripping(
-                        new ExhaustivePartialStringComparatorEngine(PartialStringComparator.DEFAULT_COMPARATOR),
+                        new NGramPartialStringComparatorEngine(PartialStringComparator.DEFAULT_COMPARATOR),
                         CLASS_META_DATA_PARTIAL_STRING_AFFIX_THRESHOLD
                     ),
                     CLASS_META_DATA_PARTIAL_STRING_AFFIX_THRESHOLD
@@ -943,7 +984,13 @@ public Project buildRuntimeProject() {
 
     @Override
     public void nodeRenamed(Node node) {
-        super.nodeRenamed(node);
+        Set save = this.synchronizedBranches;
+        this.synchronizedBranches = this.nodeReferences.branchesAffectedBy(node);
+        try {
+            super.nodeRenamed(node);
+        } finally {
+            this.synchronizedBranches = save;
+        }
         if (this.descriptors.contains(node)) {
             // if a descriptor has been renamed, we need to fire an "internal"
             // change event so the project is marked dirty
@@ -951,6 +998,50 @@ public void nodeRenamed(Node node) {
         }
     }
 
+    /**
+     * only the branches holding handles that reference the removed
+     * node (or its descendants) are notified; the removed node's handles
+     * no longer reference any types, and the handles scrubbed during
+     * the cascade may have released others; so sweep up any "stub"
+     * types that are now unreferenced
+     */
+    @Override
+    public void nodeRemoved(Node node) {
+        this.classRepository.branchRemoved(node);
+        // scrubbers can remove other nodes, so the cascades can nest
+        Set save = this.synchronizedBranches;
+        this.synchronizedBranches = this.nodeReferences.branchesAffectedBy(node);
+        try {
+            super.nodeRemoved(node);
+        } finally {
+            this.synchronizedBranches = save;
+        }
+        this.nodeReferences.branchRemoved(node);
+        this.classRepository.removeUnreferencedStubs();
+    }
+
+    /**
+     * PRIVATE - called by MWModel: return whether the specified
+     * node's branch must be notified of the node currently being
+     * removed or renamed
+     * @see MWModel#childNeedsSynchronization(Node)
+     */
+    public boolean branchNeedsSynchronization(Node node) {
+        return (this.synchronizedBranches == null) || this.synchronizedBranches.contains(node);
+    }
+
+    /**
+     * PRIVATE - called by MWHandle whenever a handle
+     * changes the node it references
+     * @see MWHandle#nodeChanged(Node, Node)
+     */
+    public void handleNodeChanged(MWHandle handle, Node oldNode, Node newNode) {
+        this.nodeReferences.referenceChanged(handle, oldNode, newNode);
+        if (this.classRepository != null) {
+            this.classRepository.handleNodeChanged(handle, oldNode, newNode);
+        }
+    }
+
     /**
      * this is used by MWModel - allows us
      * to make metaDataRepository() final
@@ -1014,6 +1105,13 @@ public void validateBranch() {
         this.setIsValidating(false);
     }
 
+    @Override
+    public void validateChangedBranch() {
+        this.setIsValidating(true);
+        super.validateChangedBranch();
+        this.setIsValidating(false);
+    }
+
 
     // ********** SubComponentContainer implementation **********
 
@@ -1163,6 +1261,8 @@ private void setDescriptorNamesForTopLink(Collection descriptorNames) {
     public void postProjectBuild() {
         // set the child backpointers first
         this.setChildBackpointers();
+        // the handles are resolved directly, so the index must be rebuilt
+        this.nodeReferences.clear();
         // resolve all handles and such
         this.resolveInternalReferences();
         // then, cascade to the entire project
@@ -1181,14 +1281,101 @@ protected void resolveInternalReferences() {
         this.resolveHandles();
     }
 
-    /** this is where all references to root objects are resolved */
+    /**
+     * This is where all references to root objects are resolved.
+     * Rather than cascading through the project once for each kind of
+     * handle, gather up all the handles in a single pass and resolve them
+     * from the list.
+     * The class handles must be resolved first, on this thread, since
+     * resolving them can add types to the class repository. After that,
+     * three groups that do not depend on each other are resolved
+     * concurrently: the metadata and reference handles; the descriptor
+     * and column handles; and the method handles. The column handles
+     * follow the descriptor handles because a query key handle looks up
+     * its descriptor's query keys, which are gathered through the
+     * descriptor's inheritance and implementor handles. The lookups
+     * shared by the groups are either built up front (the descriptors)
+     * or lazily indexed under a lock (the tables, and the columns and
+     * references of each table).
+     */
     private void resolveHandles() {
-        this.resolveClassHandles();
-        this.resolveMetadataHandles();
-        this.resolveColumnHandles();
-        this.resolveReferenceHandles();
-        this.resolveDescriptorHandles();
-        this.resolveMethodHandles();
+        List handles = this.handles();
+        resolve(handles, CLASS_HANDLES);
+        // the superclass handles were resolved "silently"
+        this.classRepository.classHandlesResolved();
+
+        synchronized (this.descriptors) {
+            this.descriptorsByName = this.buildDescriptorsByName();
+        }
+        try {
+            ForkJoinTask.invokeAll(
+                new HandleResolution(handles, new int[] {METADATA_HANDLES, REFERENCE_HANDLES}),
+                new HandleResolution(handles, new int[] {DESCRIPTOR_HANDLES, COLUMN_HANDLES}),
+                new HandleResolution(handles, new int[] {METHOD_HANDLES})
+            );
+        } finally {
+            this.descriptorsByName = null;
+        }
+    }
+
+    /**
+     * return all the handles in the project, in "depth-first" order
+     */
+    private List handles() {
+        Collection nodes = new ArrayList(10000);        // start big
+        this.addAllNodesTo(nodes);
+        List handles = new ArrayList(nodes.size());
+        for (Iterator stream = nodes.iterator(); stream.hasNext(); ) {
+            Object node = stream.next();
+            if (node instanceof MWHandle) {
+                handles.add(node);
+            }
+        }
+        return handles;
+    }
+
+    /**
+     * the caller must synchronize on 'descriptors';
+     * if there are duplicate names, the first descriptor wins,
+     * like the linear search in #descriptorNamed(String)
+     */
+    private Map buildDescriptorsByName() {
+        Map result = new HashMap(this.descriptors.size());
+        for (Iterator stream = this.descriptors.iterator(); stream.hasNext(); ) {
+            MWDescriptor descriptor = (MWDescriptor) stream.next();
+            if ( ! result.containsKey(descriptor.getName())) {
+                result.put(descriptor.getName(), descriptor);
+            }
+        }
+        return result;
+    }
+
+    private static void resolve(List handles, int kind) {
+        for (Iterator stream = handles.iterator(); stream.hasNext(); ) {
+            MWHandle handle = (MWHandle) stream.next();
+            switch (kind) {
+                case CLASS_HANDLES:
+                    handle.resolveClassHandles();
+                    break;
+                case METADATA_HANDLES:
+                    handle.resolveMetadataHandles();
+                    break;
+                case COLUMN_HANDLES:
+                    handle.resolveColumnHandles();
+                    break;
+                case REFERENCE_HANDLES:
+                    handle.resolveReferenceHandles();
+                    break;
+                case DESCRIPTOR_HANDLES:
+                    handle.resolveDescriptorHandles();
+                    break;
+                case METHOD_HANDLES:
+                    handle.resolveMethodHandles();
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown kind of handle: " + kind);
+            }
+        }
     }
 
     /**
@@ -1222,6 +1409,29 @@ public void toString(StringBuffer sb) {
 
     // ********** member classes **********
 
+    /**
+     * Resolve the specified kinds of handles, in order.
+     */
+    private static class HandleResolution extends RecursiveAction {
+        private final List handles;
+        private final int[] kinds;
+
+        private static final long serialVersionUID = 1L;
+
+        HandleResolution(List handles, int[] kinds) {
+            super();
+            this.handles = handles;
+            this.kinds = kinds;
+        }
+
+        @Override
+        protected void compute() {
+            for (int i = 0; i < this.kinds.length; i++) {
+                resolve(this.handles, this.kinds[i]);
+            }
+        }
+    }
+
     private static class LocalManifestDefaults implements Defaults {
         @Override
         public String defaultSpecificationTitle() {
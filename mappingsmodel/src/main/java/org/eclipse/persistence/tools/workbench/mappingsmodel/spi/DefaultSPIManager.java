@@ -72,6 +72,16 @@ public DefaultSPIManager(Preferences preferences, String projectName) {
         this.projectName = projectName;
     }
 
+    /**
+     * Construct an SPI manager for the specified project that will use
+     * the specified class repository factory, regardless of the preferences.
+     * If the factory is null, it will be configured via the preferences.
+     */
+    public DefaultSPIManager(Preferences preferences, String projectName, ExternalClassRepositoryFactory externalClassRepositoryFactory) {
+        this(preferences, projectName);
+        this.externalClassRepositoryFactory = externalClassRepositoryFactory;
+    }
+
 
     // ********** class repository **********
 
@@ -126,7 +126,9 @@ public ExternalTableDescription[] getTableDescriptions(String catalogName, Strin
             // if #getTables() does not work, there's not much we can do...
             throw new RuntimeException(ex);
         }
-        List tableDescriptions = CollectionTools.list(new ResultSetIterator(resultSet, new ExternalTableDescriptionResultSetAdapter()));
+        JDBCExternalTableBatch batch = new JDBCExternalTableBatch(this, catalogName, schemaNamePattern, tableNamePattern);
+        List tableDescriptions = CollectionTools.list(new ResultSetIterator(resultSet, new ExternalTableDescriptionResultSetAdapter(batch)));
+        batch.setTableCount(tableDescriptions.size());
         return (ExternalTableDescription[]) tableDescriptions.toArray(new ExternalTableDescription[tableDescriptions.size()]);
     }
 
@@ -198,9 +200,14 @@ public Object buildNext(ResultSet rs) throws SQLException {
      * @see java.sql.DatabaseMetaData#getTables(String, String, String, String[])
      */
     private class ExternalTableDescriptionResultSetAdapter implements ResultSetIterator.Adapter {
+        private final JDBCExternalTableBatch batch;
+        ExternalTableDescriptionResultSetAdapter(JDBCExternalTableBatch batch) {
+            super();
+            this.batch = batch;
+        }
         @Override
         public Object buildNext(ResultSet rs) throws SQLException {
-            return new JDBCExternalTableDescription(rs, JDBCExternalDatabase.this);
+            return new JDBCExternalTableDescription(rs, this.batch, JDBCExternalDatabase.this);
         }
     }
 
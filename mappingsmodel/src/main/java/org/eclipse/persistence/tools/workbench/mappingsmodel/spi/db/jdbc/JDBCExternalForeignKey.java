@@ -14,9 +14,6 @@
 //     Oracle - initial API and implementation from Oracle TopLink
 package org.eclipse.persistence.tools.workbench.mappingsmodel.spi.db.jdbc;
 
-import java.sql.ResultSet;
-import java.sql.SQLException;
-
 import org.eclipse.persistence.tools.workbench.mappingsmodel.spi.db.ExternalForeignKey;
 import org.eclipse.persistence.tools.workbench.mappingsmodel.spi.db.ExternalForeignKeyColumnPair;
 import org.eclipse.persistence.tools.workbench.mappingsmodel.spi.db.ExternalTableDescription;
@@ -36,43 +33,23 @@ final class JDBCExternalForeignKey implements ExternalForeignKey {
     // ********** constructor/initialization **********
 
     /**
-     * Construct a "skeleton" external foreign key with the data from the current
-     * row of the specified result set. The column pairs will be added later.
+     * Construct a "skeleton" external foreign key with the data from the
+     * specified imported key row. The column pairs will be added later.
      * @see java.sql.DatabaseMetaData#getImportedKeys(String, String, String)
      */
-    JDBCExternalForeignKey(JDBCExternalTable table, String name, ResultSet resultSet) {
+    JDBCExternalForeignKey(JDBCExternalTable table, JDBCExternalTable.ImportedKeyRow row) {
         super();
         this.table = table;
-        this.name = name;
+        this.name = row.name;
         this.targetTableDescription = new JDBCExternalTableDescription(
-                this.stringFrom(resultSet, 1),        // PKTABLE_CAT
-                this.stringFrom(resultSet, 2),        // PKTABLE_SCHEM
-                this.stringFrom(resultSet, 3),        // PKTABLE_NAME
+                row.targetCatalogName,
+                row.targetSchemaName,
+                row.targetTableName,
                 this.database()
             );
         // the column pairs will be added by the table, momentarily
     }
 
-    private String stringFrom(ResultSet resultSet, int colIndex) {
-        try {
-            return this.trim(resultSet.getString(colIndex));
-        } catch (SQLException ex) {
-            // defensive - return null if the requested column is not supported by the driver
-            return null;
-        }
-    }
-
-    /**
-     * trim down the specified string, to null if necessary
-     */
-    private String trim(String s) {
-        if (s == null) {
-            return null;
-        }
-        s = s.trim();
-        return (s.length() == 0) ? null : s;
-    }
-
 
     // ********** ExternalForeignKey implementation **********
 
@@ -103,13 +80,13 @@ public ExternalTableDescription getTargetTableDescription() {
 
     // ********** behavior **********
 
-    void addColumnPair(ResultSet resultSet) {
+    void addColumnPair(JDBCExternalTable.ImportedKeyRow row) {
         int len = (this.columnPairs == null) ? 0 : this.columnPairs.length;
         JDBCExternalForeignKeyColumnPair[] temp = new JDBCExternalForeignKeyColumnPair[len + 1];
         if (len != 0) {
             System.arraycopy(this.columnPairs, 0, temp, 0, len);
         }
-        temp[len] = new JDBCExternalForeignKeyColumnPair(this, resultSet);
+        temp[len] = new JDBCExternalForeignKeyColumnPair(this, row);
         this.columnPairs = temp;
     }
 
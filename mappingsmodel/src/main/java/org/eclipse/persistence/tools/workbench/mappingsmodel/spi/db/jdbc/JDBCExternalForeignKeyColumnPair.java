@@ -14,9 +14,6 @@
 //     Oracle - initial API and implementation from Oracle TopLink
 package org.eclipse.persistence.tools.workbench.mappingsmodel.spi.db.jdbc;
 
-import java.sql.ResultSet;
-import java.sql.SQLException;
-
 import org.eclipse.persistence.tools.workbench.mappingsmodel.spi.db.ExternalColumn;
 import org.eclipse.persistence.tools.workbench.mappingsmodel.spi.db.ExternalForeignKeyColumnPair;
 import org.eclipse.persistence.tools.workbench.utility.string.StringTools;
@@ -40,31 +37,11 @@ final class JDBCExternalForeignKeyColumnPair implements ExternalForeignKeyColumn
      *
      * @see java.sql.DatabaseMetaData#getImportedKeys(String, String, String)
      */
-    JDBCExternalForeignKeyColumnPair(JDBCExternalForeignKey foreignKey, ResultSet resultSet) {
+    JDBCExternalForeignKeyColumnPair(JDBCExternalForeignKey foreignKey, JDBCExternalTable.ImportedKeyRow row) {
         super();
         this.foreignKey = foreignKey;
-        this.sourceColumn = this.columnNamed(this.stringFrom(resultSet, 8));        // FKCOLUMN_NAME
-        this.targetColumn = this.buildLocalColumn(this.stringFrom(resultSet, 4));        // PKCOLUMN_NAME
-    }
-
-    private String stringFrom(ResultSet resultSet, int colIndex) {
-        try {
-            return this.trim(resultSet.getString(colIndex));
-        } catch (SQLException ex) {
-            // defensive - return null if the requested column is not supported by the driver
-            return null;
-        }
-    }
-
-    /**
-     * trim down the specified string, to null if necessary
-     */
-    private String trim(String s) {
-        if (s == null) {
-            return null;
-        }
-        s = s.trim();
-        return (s.length() == 0) ? null : s;
+        this.sourceColumn = this.columnNamed(row.sourceColumnName);
+        this.targetColumn = this.buildLocalColumn(row.targetColumnName);
     }
 
 
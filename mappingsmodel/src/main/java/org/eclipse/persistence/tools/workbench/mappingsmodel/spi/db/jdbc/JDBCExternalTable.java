@@ -44,14 +44,24 @@ final class JDBCExternalTable implements ExternalTable {
     // ********** constructor/initialization **********
 
     /**
-     *
+     * Construct a table by querying the database for its meta-data.
      */
     JDBCExternalTable(JDBCExternalTableDescription tableDescription) throws SQLException {
+        this(tableDescription, null, null, null);
+    }
+
+    /**
+     * Construct a table from meta-data that has already been read
+     * (typically in bulk, by a JDBCExternalTableBatch); any of the
+     * meta-data that is null will be read from the database.
+     * @see JDBCExternalTableBatch
+     */
+    JDBCExternalTable(JDBCExternalTableDescription tableDescription, Collection columns, Collection primaryKeyColumnNames, Collection importedKeyRows) throws SQLException {
         super();
         this.tableDescription = tableDescription;
-        this.columns = this.buildColumns();
-        this.markPrimaryKeyColumns();
-        this.foreignKeys = this.buildForeignKeys();
+        this.columns = (columns == null) ? this.buildColumns() : (JDBCExternalColumn[]) columns.toArray(new JDBCExternalColumn[columns.size()]);
+        this.markPrimaryKeyColumns((primaryKeyColumnNames == null) ? this.primaryKeyColumnNames() : primaryKeyColumnNames);
+        this.foreignKeys = this.buildForeignKeys((importedKeyRows == null) ? this.importedKeyRows() : importedKeyRows);
     }
 
     /**
@@ -73,8 +83,7 @@ private JDBCExternalColumn[] buildColumns() throws SQLException {
         return (JDBCExternalColumn[]) cols.toArray(new JDBCExternalColumn[cols.size()]);
     }
 
-    private void markPrimaryKeyColumns() {
-        Collection pkColNames = this.primaryKeyColumnNames();
+    private void markPrimaryKeyColumns(Collection pkColNames) {
         for (int i = this.columns.length; i-- > 0; ) {
             JDBCExternalColumn column = this.columns[i];
             column.setPrimaryKey(pkColNames.contains(column.getName()));
@@ -115,36 +124,50 @@ private Collection primaryKeyColumnNames2() throws SQLException {
     /**
      * defensive wrapper
      */
-    private JDBCExternalForeignKey[] buildForeignKeys() {
+    private Collection importedKeyRows() {
         try {
-            return this.buildForeignKeys2();
+            return this.importedKeyRows2();
         } catch (SQLException ex) {
             // defensive - this is not fatal if unsupported by driver
         }
-        return EMPTY_FOREIGN_KEYS;
+        return Collections.EMPTY_LIST;
     }
 
     /**
-     * query the database for the table's foreign keys
+     * query the database for the table's imported keys
      * @see java.sql.DatabaseMetaData#getImportedKeys(String, String, String)
      */
-    private JDBCExternalForeignKey[] buildForeignKeys2() throws SQLException {
-        Collection fKeys = new ArrayList();
+    private Collection importedKeyRows2() throws SQLException {
+        Collection rows = new ArrayList();
         ResultSet resultSet = this.metaData().getImportedKeys(
                 this.tableDescription.getCatalogName(),
                 this.tableDescription.getSchemaName(),
                 this.tableDescription.getName()
             );
         while (resultSet.next()) {
-            String fKeyName = resultSet.getString(12).trim();        // FK_NAME
-            JDBCExternalForeignKey fKey = this.foreignKeyNamed(fKeyName, fKeys);
+            rows.add(new ImportedKeyRow(resultSet));
+        }
+        resultSet.close();
+        return rows;
+    }
+
+    /**
+     * gather the imported key rows into foreign keys
+     */
+    private JDBCExternalForeignKey[] buildForeignKeys(Collection importedKeyRows) {
+        if (importedKeyRows.isEmpty()) {
+            return EMPTY_FOREIGN_KEYS;
+        }
+        Collection fKeys = new ArrayList();
+        for (Iterator stream = importedKeyRows.iterator(); stream.hasNext(); ) {
+            ImportedKeyRow row = (ImportedKeyRow) stream.next();
+            JDBCExternalForeignKey fKey = this.foreignKeyNamed(row.name, fKeys);
             if (fKey == null) {
-                fKey = new JDBCExternalForeignKey(this, fKeyName, resultSet);
+                fKey = new JDBCExternalForeignKey(this, row);
                 fKeys.add(fKey);
             }
-            fKey.addColumnPair(resultSet);
+            fKey.addColumnPair(row);
         }
-        resultSet.close();
         return (JDBCExternalForeignKey[]) fKeys.toArray(new JDBCExternalForeignKey[fKeys.size()]);
     }
 
@@ -203,9 +226,64 @@ JDBCExternalColumn columnNamed(String columnName) {
         return null;
     }
 
+    /**
+     * trim down the specified string, to null if necessary
+     */
+    static String trim(String s) {
+        if (s == null) {
+            return null;
+        }
+        s = s.trim();
+        return (s.length() == 0) ? null : s;
+    }
+
     @Override
     public String toString() {
         return StringTools.buildToStringFor(this, this.tableDescription.getQualifiedName());
     }
 
+
+
+    // ********** member class **********
+
+    /**
+     * Hold the values we need from a single row of the result set
+     * returned by DatabaseMetaData#getImportedKeys(String, String, String),
+     * so the row can be grouped with the other rows of the same table
+     * before the foreign keys are built.
+     * @see java.sql.DatabaseMetaData#getImportedKeys(String, String, String)
+     */
+    static final class ImportedKeyRow {
+        final String targetCatalogName;
+        final String targetSchemaName;
+        final String targetTableName;
+        final String targetColumnName;
+        final String sourceColumnName;
+        final String name;
+
+        ImportedKeyRow(ResultSet resultSet) throws SQLException {
+            super();
+            this.targetCatalogName = stringFrom(resultSet, 1);        // PKTABLE_CAT
+            this.targetSchemaName = stringFrom(resultSet, 2);        // PKTABLE_SCHEM
+            this.targetTableName = stringFrom(resultSet, 3);        // PKTABLE_NAME
+            this.targetColumnName = stringFrom(resultSet, 4);        // PKCOLUMN_NAME
+            this.sourceColumnName = stringFrom(resultSet, 8);        // FKCOLUMN_NAME
+            this.name = resultSet.getString(12).trim();        // FK_NAME
+        }
+
+        private static String stringFrom(ResultSet resultSet, int colIndex) {
+            try {
+                return trim(resultSet.getString(colIndex));
+            } catch (SQLException ex) {
+                // defensive - return null if the requested column is not supported by the driver
+                return null;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return StringTools.buildToStringFor(this, this.name);
+        }
+    }
+
 }
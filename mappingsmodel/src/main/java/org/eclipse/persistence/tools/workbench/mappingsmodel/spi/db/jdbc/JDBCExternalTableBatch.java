@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 1998, 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation from Oracle TopLink
+package org.eclipse.persistence.tools.workbench.mappingsmodel.spi.db.jdbc;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.persistence.tools.workbench.utility.NameTools;
+import org.eclipse.persistence.tools.workbench.utility.string.StringTools;
+
+
+/**
+ * The table descriptions returned by a single call to
+ * DatabaseMetaData#getTables(String, String, String, String[]) share a batch.
+ * The first few tables requested from the batch are read with the usual
+ * per-table meta-data calls; after that, the batch reads the columns,
+ * primary keys, and foreign keys for the entire batch with a single
+ * meta-data call each and hands the rows out to the tables as they are
+ * requested. This reduces the number of round trips to the database from
+ * three per table to three per batch.
+ *
+ * The bulk calls return the rows for every table in the batch, not just
+ * the tables requested; so, if only a small share of a large batch is
+ * requested (e.g. a handful of tables from a schema matched with "%"),
+ * the tables are all read with the per-table calls.
+ *
+ * Drivers vary widely in their support for these "bulk" queries (e.g. some
+ * return nothing when the table name is null), so any table (or, for keys,
+ * any catalog/schema) missing from the bulk results is still read with
+ * the per-table calls.
+ *
+ * see comment about defensive programming at JDBCExternalDatabase
+ */
+final class JDBCExternalTableBatch {
+    private final JDBCExternalDatabase database;
+    private final String catalogName;
+    private final String schemaNamePattern;
+    private final String tableNamePattern;
+
+    /** the number of tables in the batch; zero if unknown */
+    private int tableCount;
+
+    /** the number of tables built with per-table calls before the bulk read */
+    private int perTableCount;
+
+    /** qualified table name => list of columns; null until the bulk read */
+    private Map columns;
+
+    /** qualified table name => set of primary key column names */
+    private Map primaryKeyColumnNames;
+    /** the catalog/schema pairs returned by the bulk primary key query */
+    private Set primaryKeyNamespaces;
+
+    /** qualified table name => list of imported key rows */
+    private Map importedKeyRows;
+    /** the catalog/schema pairs returned by the bulk imported key query */
+    private Set importedKeyNamespaces;
+
+    /**
+     * the number of tables that are built with per-table calls
+     * before we read the rest of the batch in bulk
+     */
+    static final int PER_TABLE_LIMIT = 4;
+
+    /**
+     * the batch is read in bulk only once the tables built with per-table
+     * calls are at least 1/BULK_READ_RATIO of the tables in the batch
+     */
+    static final int BULK_READ_RATIO = 16;
+
+
+    // ********** constructor/initialization **********
+
+    /**
+     * Construct a batch for the tables matching the specified
+     * search criteria.
+     * @see java.sql.DatabaseMetaData#getTables(String, String, String, String[])
+     */
+    JDBCExternalTableBatch(JDBCExternalDatabase database, String catalogName, String schemaNamePattern, String tableNamePattern) {
+        super();
+        this.database = database;
+        this.catalogName = catalogName;
+        this.schemaNamePattern = schemaNamePattern;
+        this.tableNamePattern = (tableNamePattern == null) ? "%" : tableNamePattern;
+    }
+
+
+    // ********** behavior **********
+
+    /**
+     * Set the number of tables matching the batch's search criteria.
+     */
+    synchronized void setTableCount(int tableCount) {
+        this.tableCount = tableCount;
+    }
+
+    /**
+     * Build the table for the specified description, which must be
+     * part of this batch.
+     */
+    synchronized JDBCExternalTable buildTable(JDBCExternalTableDescription tableDescription) throws SQLException {
+        if (this.columns == null) {
+            if ((this.perTableCount < PER_TABLE_LIMIT) || (this.perTableCount * BULK_READ_RATIO < this.tableCount)) {
+                this.perTableCount++;
+                return new JDBCExternalTable(tableDescription);
+            }
+            this.read();
+        }
+        String qualifiedName = tableDescription.getQualifiedName();
+        Object namespace = this.namespace(tableDescription.getCatalogName(), tableDescription.getSchemaName());
+        return new JDBCExternalTable(
+                tableDescription,
+                (Collection) this.columns.remove(qualifiedName),
+                (Collection) this.remove(this.primaryKeyColumnNames, this.primaryKeyNamespaces, qualifiedName, namespace, Collections.EMPTY_SET),
+                (Collection) this.remove(this.importedKeyRows, this.importedKeyNamespaces, qualifiedName, namespace, Collections.EMPTY_LIST)
+            );
+    }
+
+    /**
+     * Return the specified table's rows. If the bulk query did not return
+     * any rows for the table's catalog/schema, return null so the table
+     * will query for the rows itself; otherwise, assume the table simply
+     * has no rows.
+     */
+    private Object remove(Map rows, Set namespaces, String qualifiedName, Object namespace, Object empty) {
+        Object result = rows.remove(qualifiedName);
+        if (result != null) {
+            return result;
+        }
+        return namespaces.contains(namespace) ? empty : null;
+    }
+
+    /**
+     * read all the batch's meta-data
+     */
+    private void read() {
+        this.columns = new HashMap();
+        this.primaryKeyColumnNames = new HashMap();
+        this.primaryKeyNamespaces = new HashSet();
+        this.importedKeyRows = new HashMap();
+        this.importedKeyNamespaces = new HashSet();
+
+        try {
+            this.readColumns();
+        } catch (SQLException ex) {
+            // defensive - the tables will query for their own columns
+            this.columns.clear();
+        }
+        try {
+            this.readPrimaryKeys();
+        } catch (SQLException ex) {
+            // defensive - the tables will query for their own primary keys
+            this.primaryKeyColumnNames.clear();
+            this.primaryKeyNamespaces.clear();
+        }
+        try {
+            this.readImportedKeys();
+        } catch (SQLException ex) {
+            // defensive - the tables will query for their own foreign keys
+            this.importedKeyRows.clear();
+            this.importedKeyNamespaces.clear();
+        }
+    }
+
+    /**
+     * @see java.sql.DatabaseMetaData#getColumns(String, String, String, String)
+     */
+    private void readColumns() throws SQLException {
+        ResultSet resultSet = this.metaData().getColumns(this.catalogName, this.schemaNamePattern, this.tableNamePattern, null);
+        while (resultSet.next()) {
+            String qualifiedName = this.qualifiedName(resultSet, 1);        // TABLE_CAT, TABLE_SCHEM, TABLE_NAME
+            this.rowsFor(this.columns, qualifiedName).add(new JDBCExternalColumn(resultSet));
+        }
+        resultSet.close();
+    }
+
+    /**
+     * the primary key parameters are not patterns, so some drivers will
+     * return nothing here when the schema name is actually a pattern
+     * @see java.sql.DatabaseMetaData#getPrimaryKeys(String, String, String)
+     */
+    private void readPrimaryKeys() throws SQLException {
+        ResultSet resultSet = this.metaData().getPrimaryKeys(this.catalogName, this.schemaNamePattern, null);
+        while (resultSet.next()) {
+            String qualifiedName = this.qualifiedName(resultSet, 1);        // TABLE_CAT, TABLE_SCHEM, TABLE_NAME
+            Collection names = (Collection) this.primaryKeyColumnNames.get(qualifiedName);
+            if (names == null) {
+                names = new HashSet();
+                this.primaryKeyColumnNames.put(qualifiedName, names);
+            }
+            // trim all the strings - some databases return fixed-length strings
+            names.add(resultSet.getString(4).trim());        // COLUMN_NAME
+            this.primaryKeyNamespaces.add(this.namespace(resultSet, 1));
+        }
+        resultSet.close();
+    }
+
+    /**
+     * @see java.sql.DatabaseMetaData#getImportedKeys(String, String, String)
+     */
+    private void readImportedKeys() throws SQLException {
+        ResultSet resultSet = this.metaData().getImportedKeys(this.catalogName, this.schemaNamePattern, null);
+        while (resultSet.next()) {
+            String qualifiedName = this.qualifiedName(resultSet, 5);        // FKTABLE_CAT, FKTABLE_SCHEM, FKTABLE_NAME
+            this.rowsFor(this.importedKeyRows, qualifiedName).add(new JDBCExternalTable.ImportedKeyRow(resultSet));
+            this.importedKeyNamespaces.add(this.namespace(resultSet, 5));
+        }
+        resultSet.close();
+    }
+
+    private List rowsFor(Map rows, String qualifiedName) {
+        List result = (List) rows.get(qualifiedName);
+        if (result == null) {
+            result = new ArrayList();
+            rows.put(qualifiedName, result);
+        }
+        return result;
+    }
+
+
+    // ********** queries **********
+
+    private DatabaseMetaData metaData() {
+        return this.database.metaData();
+    }
+
+    /**
+     * build a qualified table name from the catalog, schema, and table names
+     * found in the three consecutive columns starting at the specified index
+     */
+    private String qualifiedName(ResultSet resultSet, int colIndex) throws SQLException {
+        return NameTools.buildQualifiedDatabaseObjectName(
+                JDBCExternalTable.trim(resultSet.getString(colIndex)),
+                JDBCExternalTable.trim(resultSet.getString(colIndex + 1)),
+                JDBCExternalTable.trim(resultSet.getString(colIndex + 2))
+            );
+    }
+
+    private Object namespace(ResultSet resultSet, int colIndex) throws SQLException {
+        return this.namespace(JDBCExternalTable.trim(resultSet.getString(colIndex)), JDBCExternalTable.trim(resultSet.getString(colIndex + 1)));
+    }
+
+    private Object namespace(String catalog, String schema) {
+        return Arrays.asList(new String[] {catalog, schema});
+    }
+
+    @Override
+    public String toString() {
+        return StringTools.buildToStringFor(this, this.tableNamePattern);
+    }
+
+}
@@ -29,6 +29,7 @@
  */
 final class JDBCExternalTableDescription implements ExternalTableDescription {
     private final JDBCExternalDatabase database;
+    private final JDBCExternalTableBatch batch;        // null if the description is not part of a batch
     private final String catalogName;
     private final String schemaName;
     private final String name;
@@ -42,25 +43,32 @@ final class JDBCExternalTableDescription implements ExternalTableDescription {
      * Construct an external table description from the current row
      * in the specified result set. The result set corresponds to the
      * result set returned from DatabaseMetaData#getTables(String, String, String, String[]).
+     * The table will be built by the specified batch.
      * @see java.sql.DatabaseMetaData#getTables(String, String, String, String[])
      */
-    JDBCExternalTableDescription(ResultSet resultSet, JDBCExternalDatabase database) throws SQLException {
+    JDBCExternalTableDescription(ResultSet resultSet, JDBCExternalTableBatch batch, JDBCExternalDatabase database) throws SQLException {
         this(
             // trim all the strings - some databases return fixed-length strings;
             // these calls *shouldn't* throw any SQL exceptions...
             trim(resultSet.getString(1)),        // TABLE_CAT
             trim(resultSet.getString(2)),        // TABLE_SCHEM
             trim(resultSet.getString(3)),        // TABLE_NAME
+            batch,
             database
         );
     }
 
     JDBCExternalTableDescription(String catalogName, String schemaName, String name, JDBCExternalDatabase database) {
+        this(catalogName, schemaName, name, null, database);
+    }
+
+    private JDBCExternalTableDescription(String catalogName, String schemaName, String name, JDBCExternalTableBatch batch, JDBCExternalDatabase database) {
         super();
         this.catalogName = catalogName;
         this.schemaName = schemaName;
         this.name = name;
         this.qualifiedName = this.buildQualifiedName();
+        this.batch = batch;
         this.database = database;
     }
 
@@ -142,7 +150,7 @@ public String getAdditionalInfo() {
 
     private ExternalTable buildExternalTable() {
         try {
-            return new JDBCExternalTable(this);
+            return (this.batch == null) ? new JDBCExternalTable(this) : this.batch.buildTable(this);
         } catch (SQLException ex) {
             throw new RuntimeException(ex);
         }
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 1998, 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation from Oracle TopLink
+package org.eclipse.persistence.tools.workbench.mappingsmodel.spi.meta;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.persistence.tools.workbench.utility.string.StringTools;
+
+
+/**
+ * This factory wraps another factory and caches the repositories it builds,
+ * keyed by classpath; so projects with the same classpath (e.g. the projects
+ * in a batch export) share a single external class repository, and the
+ * classpath is only scanned once.
+ * Clients must #clear() the cache once they are finished with it.
+ */
+public class CachingExternalClassRepositoryFactory
+    implements ExternalClassRepositoryFactory
+{
+    /** the factory that builds the repositories */
+    private final ExternalClassRepositoryFactory delegate;
+
+    /** classpath (List of Files) => ExternalClassRepository */
+    private final Map repositories;
+
+
+    // ********** constructors **********
+
+    /**
+     * Construct a factory that caches the repositories
+     * built by the specified factory.
+     */
+    public CachingExternalClassRepositoryFactory(ExternalClassRepositoryFactory delegate) {
+        super();
+        if (delegate == null) {
+            throw new NullPointerException();
+        }
+        this.delegate = delegate;
+        this.repositories = new HashMap();
+    }
+
+
+    // ********** ExternalClassRepositoryFactory implementation **********
+
+    /**
+     * @see ExternalClassRepositoryFactory#buildClassRepository(java.io.File[])
+     */
+    @Override
+    public ExternalClassRepository buildClassRepository(File[] classpath) {
+        Object key = Arrays.asList((Object[]) classpath.clone());
+        synchronized (this.repositories) {
+            ExternalClassRepository repository = (ExternalClassRepository) this.repositories.get(key);
+            if (repository == null) {
+                repository = this.delegate.buildClassRepository(classpath);
+                this.repositories.put(key, repository);
+            }
+            return repository;
+        }
+    }
+
+
+    // ********** queries **********
+
+    /**
+     * Return the number of repositories currently cached.
+     */
+    public int size() {
+        synchronized (this.repositories) {
+            return this.repositories.size();
+        }
+    }
+
+
+    // ********** behavior **********
+
+    /**
+     * Release the resources held by the cached repositories and
+     * clear the cache. Projects that still hold a repository can
+     * continue to use it; it will simply re-acquire the resources.
+     */
+    public void clear() {
+        ExternalClassRepository[] cached;
+        synchronized (this.repositories) {
+            cached = (ExternalClassRepository[]) this.repositories.values().toArray(new ExternalClassRepository[this.repositories.size()]);
+            this.repositories.clear();
+        }
+        for (int i = 0; i < cached.length; i++) {
+            cached[i].releaseResources();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return StringTools.buildToStringFor(this, this.size() + " repositories");
+    }
+
+}
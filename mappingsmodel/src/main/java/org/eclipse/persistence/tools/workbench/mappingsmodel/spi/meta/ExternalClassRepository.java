@@ -54,4 +54,12 @@ public interface ExternalClassRepository {
      */
     ExternalClassDescription[] getClassDescriptions();
 
+    /**
+     * Release any resources (e.g. open archive files) the repository
+     * is holding to speed up the building of external classes.
+     * The repository can still be used afterwards; it will simply
+     * re-acquire the resources as needed.
+     */
+    void releaseResources();
+
 }
@@ -144,6 +144,7 @@ ExternalClassDescription classDescriptionNamed(String className) {
 
     /**
      * Build an external class corresponding to the external class description.
+     * The external class only needs the class's declarations, so we skim the class file.
      */
     private ExternalClass buildExternalClass() throws ExternalClassNotFoundException {
         // external array *class descriptions* are supported; but we do *not* support external array *classes*
@@ -151,7 +152,7 @@ private ExternalClass buildExternalClass() throws ExternalClassNotFoundException
             throw new IllegalStateException();
         }
         try {
-            return new CFExternalClass(ClassFile.forClass(this.classpathEntry, this.name), this);
+            return new CFExternalClass(ClassFile.skimForClass(this.classpathEntry, this.name, this.repository.getArchiveCache()), this);
         } catch (Throwable t) {
             throw new ExternalClassNotFoundException(this.name, t);
         }
@@ -23,8 +23,10 @@
 
 import org.eclipse.persistence.tools.workbench.mappingsmodel.spi.meta.ExternalClassDescription;
 import org.eclipse.persistence.tools.workbench.mappingsmodel.spi.meta.ExternalClassRepository;
+import org.eclipse.persistence.tools.workbench.utility.ArchiveCache;
 import org.eclipse.persistence.tools.workbench.utility.ClassTools;
 import org.eclipse.persistence.tools.workbench.utility.Classpath;
+import org.eclipse.persistence.tools.workbench.utility.ModuleImage;
 import org.eclipse.persistence.tools.workbench.utility.string.StringTools;
 
 
@@ -74,6 +76,14 @@
      */
     private final Map arrayClassDescriptions;
 
+    /**
+     * Keep the classpath's archives open while we are building
+     * external classes, so we do not re-read an archive's directory
+     * for every class file. The archives are closed by
+     * #releaseResources().
+     */
+    private final ArchiveCache archiveCache;
+
 
     // ********** constructors **********
 
@@ -84,17 +94,21 @@
         super();
         this.stubClassDescriptions = new HashMap();
         this.arrayClassDescriptions = new HashMap();
+        this.archiveCache = new ArchiveCache();
         this.classpath = new Classpath(this.fileNames(classpath)).compressed();
     }
 
     /**
      * Return an array of the names of the specified files.
+     * Modules in the JDK's module image (e.g. "jrt:/java.base")
+     * are not real files and must be left as is.
      */
     private String[] fileNames(File[] files) {
         int len = files.length;
         String[] fileNames = new String[len];
         for (int i = 0; i < len; i++) {
-            fileNames[i] = files[i].getAbsolutePath();
+            String fileName = files[i].getPath();
+            fileNames[i] = ModuleImage.fileNameIsModule(fileName) ? fileName : files[i].getAbsolutePath();
         }
         return fileNames;
     }
@@ -130,6 +144,14 @@ public ExternalClassDescription[] getClassDescriptions() {
         return this.classDescriptions;
     }
 
+    /**
+     * @see org.eclipse.persistence.tools.workbench.mappingsmodel.spi.meta.ExternalClassRepository#releaseResources()
+     */
+    @Override
+    public void releaseResources() {
+        this.archiveCache.close();
+    }
+
     private static final int STARTING_SIZE = 20000;        // let's start large
 
     /**
@@ -174,6 +196,13 @@ private void addClassDescriptionsFromClasspathEntryTo(Classpath.Entry entry, Lis
 
     // ********** package-accessible methods **********
 
+    /**
+     * Return the cache used to read the class files held in archives.
+     */
+    ArchiveCache getArchiveCache() {
+        return this.archiveCache;
+    }
+
     /**
      * Return the external class description that corresponds to the specified class.
      * This is used by the various CFExternalObjects that need to resolve
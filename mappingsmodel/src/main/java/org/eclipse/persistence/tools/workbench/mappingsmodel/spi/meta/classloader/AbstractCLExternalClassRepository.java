@@ -96,6 +96,15 @@ public ExternalClassDescription[] getClassDescriptions() {
         return (ExternalClassDescription[]) this.classDescriptions.values().toArray(new ExternalClassDescription[this.classDescriptions.size()]);
     }
 
+    /**
+     * the class loader manages its own resources
+     * @see org.eclipse.persistence.tools.workbench.mappingsmodel.spi.meta.ExternalClassRepository#releaseResources()
+     */
+    @Override
+    public void releaseResources() {
+        // do nothing
+    }
+
 
     // ********** package-accessible methods **********
 
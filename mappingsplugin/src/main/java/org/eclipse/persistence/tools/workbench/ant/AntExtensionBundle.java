@@ -41,6 +41,10 @@ public class AntExtensionBundle extends ListResourceBundle {
         { "executeMethodCannotBeNull", "Execute Method Parameter Cannot Be Null"},
         { "notNotAIgnoreErrorSet", "{0} doesn\'t denote a IgnoreErrorSet"},
         { "notNotALoginSpec", "{0} doesn\'t denote a LoginSpec"},
+        { "exportedProject", "Exported: {0} (read: {1} ms, validate: {2} ms, build: {3} ms, write: {4} ms)"},
+        { "errorWhileExportingProject", "An error occurred while exporting project {0}: {1}"},
+        { "batchExportSummary", "Exported {0} of {1} project(s) in {2} ms using {3} thread(s)"},
+        { "batchExportFailed", "{0} of {1} project(s) could not be exported"},
     };
 
     @Override
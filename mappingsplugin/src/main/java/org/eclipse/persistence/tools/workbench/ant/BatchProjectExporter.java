@@ -0,0 +1,334 @@
+/*
+ * Copyright (c) 1998, 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation from Oracle TopLink
+package org.eclipse.persistence.tools.workbench.ant;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.prefs.Preferences;
+import org.apache.tools.ant.BuildException;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.sessions.factories.XMLProjectWriter;
+import org.eclipse.persistence.tools.workbench.mappingsio.ProjectIOManager;
+import org.eclipse.persistence.tools.workbench.mappingsmodel.project.MWProject;
+import org.eclipse.persistence.tools.workbench.mappingsmodel.spi.meta.CachingExternalClassRepositoryFactory;
+import org.eclipse.persistence.tools.workbench.mappingsmodel.spi.meta.classfile.CFExternalClassRepositoryFactory;
+import org.eclipse.persistence.tools.workbench.utility.string.StringTools;
+
+/**
+ * Export the TopLink deployment descriptor XML for a batch of Workbench
+ * projects. Unlike ProjectExporter, which builds a new ProjectIOManager
+ * and class repository for every project, the batch exporter shares a
+ * single ProjectIOManager (and its expensive XML descriptors) among all
+ * the projects, along with a cache of class repositories keyed by classpath.
+ * Each project is read, validated, converted to a runtime project, and
+ * written out on a pool of worker threads; and the time spent in each
+ * step is reported for every project:
+ *     BatchProjectExporter exporter = new BatchProjectExporter();
+ *     List exports = new ArrayList();
+ *     exports.add(new BatchProjectExporter.Export("a/A.mwp", "a/deploy.xml"));
+ *     exports.add(new BatchProjectExporter.Export("b/B.mwp", "b/deploy.xml"));
+ *     List results = exporter.export(exports, new Vector(), true);
+ * The batch exporter is also run by the BatchExportDeploymentXMLTask Ant task.
+ */
+public class BatchProjectExporter extends ProjectExporter {
+    private ProjectIOManager ioManager;
+    private CachingExternalClassRepositoryFactory classRepositoryFactory;
+    private int threadCount;
+
+    public BatchProjectExporter() {
+        super();
+    }
+
+    public BatchProjectExporter( PrintStream log) {
+        super( log);
+    }
+
+    @Override
+    protected void initialize( PrintStream log) {
+        super.initialize( log);
+
+        this.classRepositoryFactory = new CachingExternalClassRepositoryFactory( CFExternalClassRepositoryFactory.instance());
+        this.ioManager = new ProjectIOManager();
+        this.ioManager.setExternalClassRepositoryFactory( this.classRepositoryFactory);
+        this.threadCount = Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Return the maximum number of projects exported concurrently.
+     */
+    public int getThreadCount() {
+        return this.threadCount;
+    }
+
+    /**
+     * Set the maximum number of projects exported concurrently.
+     */
+    public void setThreadCount( int threadCount) {
+        if( threadCount < 1) {
+            throw new IllegalArgumentException( "thread count must be positive: " + threadCount);
+        }
+        this.threadCount = threadCount;
+    }
+
+    /**
+     * Export the specified projects; this is the entry point used by
+     * the Ant task, which can only pass standard Java types.
+     * Returns 0 if all the projects are exported.
+     *
+     * @param projectFileNames fully qualified project filenames (.mwp)
+     * @param deploymentFileNames fully qualified deployment filenames, in the
+     * same order; an empty name uses the project's deployment file
+     * @param threadCount the maximum number of projects exported concurrently;
+     * zero for the default
+     */
+    public int execute( Vector projectFileNames, Vector deploymentFileNames, Vector ignoreErrorCodes, Boolean failOnError, Integer threadCount) {
+        if( threadCount.intValue() > 0) {
+            this.setThreadCount( threadCount.intValue());
+        }
+        List exports = new ArrayList( projectFileNames.size());
+        for( int i = 0; i < projectFileNames.size(); i++) {
+            String deploymentFileName = ( String)deploymentFileNames.get( i);
+            // ProjectExporter compares the deployment file's path to the "" literal
+            exports.add( new Export(( String)projectFileNames.get( i), ( deploymentFileName.length() == 0) ? "" : deploymentFileName));
+        }
+        this.export( exports, ignoreErrorCodes, failOnError.booleanValue());
+        return 0;
+    }
+
+    /**
+     * Export the specified projects, returning a Result for each Export,
+     * in the same order. A project that cannot be exported does not stop
+     * the other projects from being exported; but, once all the projects
+     * are finished, a BuildException is thrown if any of them failed.
+     *
+     * @param exports the projects to export (Export)
+     * @param ignoreErrorCodes problems that will not fail a project
+     * @param failOnError whether a project with any other problems fails
+     */
+    public List export( List exports, Collection ignoreErrorCodes, boolean failOnError) {
+        long start = System.nanoTime();
+        int poolSize = Math.max( 1, Math.min( this.threadCount, exports.size()));
+        ExecutorService executor = Executors.newFixedThreadPool( poolSize, this.buildThreadFactory());
+        List results = new ArrayList( exports.size());
+        try {
+            List futures = new ArrayList( exports.size());
+            for( Iterator stream = exports.iterator(); stream.hasNext(); ) {
+                futures.add( executor.submit( this.buildExportTask(( Export)stream.next(), ignoreErrorCodes, failOnError)));
+            }
+            for( Iterator stream = futures.iterator(); stream.hasNext(); ) {
+                results.add( this.waitFor(( Future)stream.next()));
+            }
+        }
+        finally {
+            executor.shutdownNow();
+            this.classRepositoryFactory.clear();
+        }
+
+        int failures = 0;
+        for( Iterator stream = results.iterator(); stream.hasNext(); ) {
+            if((( Result)stream.next()).failed()) {
+                failures++;
+            }
+        }
+        String elapsed = String.valueOf(( System.nanoTime() - start) / 1000000);
+        log( this.stringRepository.getString( "batchExportSummary", new Object[] { String.valueOf( results.size() - failures), String.valueOf( results.size()), elapsed, String.valueOf( poolSize)}) + "\n");
+        if( failures > 0) {
+            throw new BuildException( this.stringRepository.getString( "batchExportFailed", String.valueOf( failures), String.valueOf( results.size())));
+        }
+        return results;
+    }
+
+    private Callable buildExportTask( final Export export, final Collection ignoreErrorCodes, final boolean failOnError) {
+        return new Callable() {
+            @Override
+            public Object call() {
+                return BatchProjectExporter.this.export( export, ignoreErrorCodes, failOnError);
+            }
+        };
+    }
+
+    private ThreadFactory buildThreadFactory() {
+        return new ThreadFactory() {
+            private int count = 0;
+            @Override
+            public synchronized Thread newThread( Runnable runnable) {
+                Thread thread = new Thread( runnable, "Batch Project Exporter " + ++this.count);
+                thread.setDaemon( true);
+                return thread;
+            }
+        };
+    }
+
+    private Result waitFor( Future future) {
+        try {
+            return ( Result)future.get();
+        }
+        catch( InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new BuildException( ex);
+        }
+        catch( ExecutionException ex) {
+            throw new BuildException( ex.getCause());
+        }
+    }
+
+    /**
+     * Read, validate, and export a single project, timing each step.
+     * Any problem is recorded in the result and logged.
+     */
+    protected Result export( Export export, Collection ignoreErrorCodes, boolean failOnError) {
+        Result result = new Result( export);
+        try {
+            long start = System.nanoTime();
+            MWProject project = this.ioManager.read( export.getProjectFile(), Preferences.userNodeForPackage( this.getClass()));
+            result.readTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            project.validateBranch( ForkJoinPool.commonPool());
+            result.validateTime = System.nanoTime() - start;
+            this.checkProblems( project, ignoreErrorCodes, failOnError);
+
+            this.configureExport( project, export.getDeploymentFile(), "", "", "", "");
+            start = System.nanoTime();
+            Project runtimeProject = project.buildRuntimeProject();
+            result.buildTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            File deploymentFile = project.deploymentXMLFile();
+            deploymentFile.getParentFile().mkdirs();
+            XMLProjectWriter.write( deploymentFile.getAbsolutePath(), runtimeProject);
+            result.writeTime = System.nanoTime() - start;
+
+            log( this.stringRepository.getString( "exportedProject", new Object[] { deploymentFile.getPath(), millis( result.readTime), millis( result.validateTime), millis( result.buildTime), millis( result.writeTime)}) + "\n");
+        }
+        catch( Throwable e) {
+            result.error = e;
+            Throwable t = ( e.getCause() == null) ? e : e.getCause();
+            String msg = ( t.getMessage() == null) ? t.toString() : t.getMessage();
+            log( this.stringRepository.getString( "errorWhileExportingProject", export.getProjectFile().getPath(), msg) + "\n");
+        }
+        return result;
+    }
+
+    private static String millis( long nanos) {
+        return String.valueOf( nanos / 1000000);
+    }
+
+
+    // ********** member classes **********
+
+    /**
+     * A project to be exported, along with the deployment file it is
+     * exported to. If the deployment file name is empty, the deployment
+     * file specified by the project is used.
+     */
+    public static class Export {
+        private final File projectFile;
+        private final File deploymentFile;
+
+        public Export( String projectFileName, String deploymentFileName) {
+            this( new File( projectFileName), new File( deploymentFileName));
+        }
+
+        public Export( File projectFile, File deploymentFile) {
+            super();
+            if( projectFile == null || deploymentFile == null) {
+                throw new NullPointerException();
+            }
+            this.projectFile = projectFile;
+            this.deploymentFile = deploymentFile;
+        }
+
+        public File getProjectFile() {
+            return this.projectFile;
+        }
+
+        public File getDeploymentFile() {
+            return this.deploymentFile;
+        }
+
+        @Override
+        public String toString() {
+            return StringTools.buildToStringFor( this, this.projectFile);
+        }
+    }
+
+    /**
+     * The outcome of exporting a project: the time, in nanoseconds,
+     * spent in each step; or the error that stopped the export.
+     */
+    public static class Result {
+        private final Export export;
+        long readTime;
+        long validateTime;
+        long buildTime;
+        long writeTime;
+        Throwable error;
+
+        Result( Export export) {
+            super();
+            this.export = export;
+        }
+
+        public Export getExport() {
+            return this.export;
+        }
+
+        public long getReadTime() {
+            return this.readTime;
+        }
+
+        public long getValidateTime() {
+            return this.validateTime;
+        }
+
+        public long getBuildTime() {
+            return this.buildTime;
+        }
+
+        public long getWriteTime() {
+            return this.writeTime;
+        }
+
+        public long getTotalTime() {
+            return this.readTime + this.validateTime + this.buildTime + this.writeTime;
+        }
+
+        public boolean failed() {
+            return this.error != null;
+        }
+
+        public Throwable getError() {
+            return this.error;
+        }
+
+        @Override
+        public String toString() {
+            return StringTools.buildToStringFor( this, this.export.getProjectFile() + ( this.failed() ? " failed" : ( " " + this.getTotalTime() / 1000000 + " ms")));
+        }
+    }
+}
@@ -18,6 +18,7 @@
 import java.io.PrintStream;
 import java.util.Collection;
 import java.util.Vector;
+import java.util.concurrent.ForkJoinPool;
 import java.util.prefs.Preferences;
 import org.apache.tools.ant.BuildException;
 import org.eclipse.persistence.tools.workbench.framework.resources.DefaultStringRepository;
@@ -67,19 +68,8 @@ public int execute( String projectFileName, String deploymentFileName, String ej
 
         try {
             MWProject project = new ProjectIOManager().read( projectFile, Preferences.userNodeForPackage( this.getClass()));
-            project.validateBranch();
-            if( project.hasBranchProblems()) {
-                Collection problems = CollectionTools.collection( project.branchProblems());
-
-                Collection igoredProblems = this.getIgnoredProblems( problems, ignoreErrorCodes);
-
-                log( this.igoredProblemsSummary( igoredProblems, ignoreErrorCodes).append( '\n'));
-
-                if( failOnError && ( problems.size() - igoredProblems.size()) > 0) {
-
-                        throw new BuildException( this.problemsSummary( project, project.branchProblemsSize()).toString());
-                }
-            }
+            project.validateBranch(ForkJoinPool.commonPool());
+            this.checkProblems( project, ignoreErrorCodes, failOnError);
             this.export( project, deploymentFile, ejbJarXMLDir, failOnError, url, driverclass, user, password);
         }
         catch( Throwable e) {
@@ -90,27 +80,56 @@ public int execute( String projectFileName, String deploymentFileName, String ej
         }
         return 0;
     }
+    /**
+     * Log the project's ignored problems; and, if requested, fail when the
+     * project has any other problems. The project must already be validated.
+     */
+    protected void checkProblems( MWProject project, Collection ignoreErrorCodes, boolean failOnError) {
+
+        if( project.hasBranchProblems()) {
+            Collection problems = CollectionTools.collection( project.branchProblems());
+
+            Collection igoredProblems = this.getIgnoredProblems( problems, ignoreErrorCodes);
+
+            log( this.igoredProblemsSummary( igoredProblems, ignoreErrorCodes).append( '\n'));
+
+            if( failOnError && ( problems.size() - igoredProblems.size()) > 0) {
+
+                    throw new BuildException( this.problemsSummary( project, project.branchProblemsSize()).toString());
+            }
+        }
+    }
     /**
      * Generate TopLink deployment descriptor XML or the ejb-jar.xml depending the type of project.
      */
     protected void export( MWProject project, File deploymentFile, String ejbJarXMLDir, boolean failOnError, String url, String driverclass, String user, String password) {
 
+        this.configureExport( project, deploymentFile, url, driverclass, user, password);
+
+        log( this.stringRepository.getString( "exportingXml", project.getDeploymentXMLFileName()) + "\n");
+        project.exportDeploymentXML();
+    }
+    /**
+     * Set the project's deployment file and login depending the type of project.
+     */
+    protected void configureExport( MWProject project, File deploymentFile, String url, String driverclass, String user, String password) {
+
         if( project instanceof MWOXProject) {
 
-            this.exportOXProject( project, deploymentFile);
+            this.configureOXProject( project, deploymentFile);
         }
         else if( project instanceof MWEisProject) {
 
-            this.exportEisProject( project, deploymentFile, url, driverclass, user, password);
+            this.configureEisProject( project, deploymentFile, url, driverclass, user, password);
         }
         else {
-            this.exportRelationalProject( project, deploymentFile, url, driverclass, user, password);
+            this.configureRelationalProject( project, deploymentFile, url, driverclass, user, password);
         }
     }
     /**
-     * Generate TopLink deployment descriptor XML for relational project.
+     * Set up the deployment file and login of a relational project.
      */
-    private void exportRelationalProject( MWProject project, File deploymentFile, String url, String driverclass, String user, String password) {
+    private void configureRelationalProject( MWProject project, File deploymentFile, String url, String driverclass, String user, String password) {
 
         if( deploymentFile.getPath() != "") {
             project.setDeploymentXMLFileName( deploymentFile.getPath());
@@ -125,13 +144,11 @@ private void exportRelationalProject( MWProject project, File deploymentFile, St
             if( user != "") loginSpec.setUserName( user);
             if( password != "") loginSpec.setPassword( password);
         }
-        log( this.stringRepository.getString( "exportingXml", project.getDeploymentXMLFileName()) + "\n");
-        project.exportDeploymentXML();
     }
     /**
-     * Generate TopLink deployment descriptor XML.for MWEisProject and MWOXProject
+     * Set up the deployment file of an MWOXProject.
      */
-    private void exportOXProject( MWProject project, File deploymentFile) {
+    private void configureOXProject( MWProject project, File deploymentFile) {
 
         if( deploymentFile.getPath() != "") {
             project.setDeploymentXMLFileName( deploymentFile.getPath());
@@ -139,16 +156,13 @@ private void exportOXProject( MWProject project, File deploymentFile) {
         if( project.getDeploymentXMLFileName() == "") {
             throw new RuntimeException( this.stringRepository.getString( "notDefined", "DeploymentFileName"));
         }
-
-        log( this.stringRepository.getString( "exportingXml", project.getDeploymentXMLFileName()) + "\n");
-        project.exportDeploymentXML();
     }
     /**
-     * Generate TopLink deployment descriptor XML for EIS project.
+     * Set up the deployment file and login of an EIS project.
      *
      * @param eisPlatform - can be Oracle AQ, Attunity Connect, IBM MQSeries
      */
-    private void exportEisProject( MWProject project, File deploymentFile, String url, String eisPlatform, String user, String password) {
+    private void configureEisProject( MWProject project, File deploymentFile, String url, String eisPlatform, String user, String password) {
 
         if( deploymentFile.getPath() != "") {
             project.setDeploymentXMLFileName( deploymentFile.getPath());
@@ -163,7 +177,5 @@ private void exportEisProject( MWProject project, File deploymentFile, String ur
             if( user != "") loginSpec.setUserName( user);
             if( password != "") loginSpec.setPassword( password);
         }
-        log( this.stringRepository.getString( "exportingXml", project.getDeploymentXMLFileName()) + "\n");
-        project.exportDeploymentXML();
     }
 }
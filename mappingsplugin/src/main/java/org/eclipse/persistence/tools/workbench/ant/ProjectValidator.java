@@ -21,6 +21,7 @@
 import java.util.Collection;
 import java.util.Date;
 import java.util.Vector;
+import java.util.concurrent.ForkJoinPool;
 import java.util.prefs.Preferences;
 
 
@@ -54,7 +55,7 @@ public int execute( String projectFileName, String reportfile, String reportform
         try {
             MWProject project = new ProjectIOManager().read( projectFile, Preferences.userNodeForPackage( this.getClass()));
 
-            project.validateBranch();
+            project.validateBranch(ForkJoinPool.commonPool());
 
             Collection problems = CollectionTools.collection( project.branchProblems());
 
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 1998, 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation from Oracle TopLink
+package org.eclipse.persistence.tools.workbench.ant.taskdefs;
+
+import java.util.Iterator;
+import java.util.Vector;
+
+import org.apache.tools.ant.BuildException;
+
+/**
+ * An Ant task to export the TopLink deployment descriptor XML for a batch of
+ * Workbench projects (.mwp), specified by nested <code>export</code> elements.
+ * The projects are exported concurrently, sharing a single project reader;
+ * and the time spent exporting each project is logged. Each project is
+ * validated before it is exported. A project that cannot be exported does not
+ * stop the others; but a BuildException will be thrown once all the projects
+ * are finished.
+ */
+public class BatchExportDeploymentXMLTask extends MappingsTask {
+
+    private Vector exports;
+    private int threadCount;
+
+    public BatchExportDeploymentXMLTask() {
+        super();
+    }
+
+    @Override
+    protected void initialize() {
+        super.initialize();
+
+        this.exports = new Vector();
+        this.threadCount = 0;
+    }
+    /**
+     * Adds a project to export.
+     */
+    public Export createExport() {
+
+        Export export = new Export();
+        this.exports.add( export);
+        return export;
+    }
+
+    protected int getThreadCount() {
+        return this.threadCount;
+    }
+    /**
+     * Set the maximum number of projects exported concurrently;
+     * by default, one per available processor.
+     */
+    public void setThreadCount( int threadCount) {
+        this.threadCount = threadCount;
+    }
+
+    protected boolean getFailOnError() {
+        return this.failonerror;
+    }
+    /**
+     * If false, note errors to the output but keep going.
+     * @param failonerror true or false
+     */
+    public void setFailOnError( boolean failonerror) {
+        this.failonerror = failonerror;
+    }
+
+    @Override
+    public void execute() throws BuildException {
+        super.execute();
+
+        Vector projectFiles = new Vector( this.exports.size());
+        Vector deploymentFiles = new Vector( this.exports.size());
+        for( Iterator i = this.exports.iterator(); i.hasNext(); ) {
+            Export export = ( Export)i.next();
+            projectFiles.add( export.getProjectFile());
+            deploymentFiles.add( export.getDeploymentFile());
+        }
+        Object[] args = { projectFiles, deploymentFiles, getIgnoreErrorCodes(), Boolean.valueOf( failonerror), Integer.valueOf( this.threadCount)};
+
+        int status = this.execute( args);
+
+        if( status == 0) {
+            if( getProperty() != null)
+                this.getProject().setNewProperty( getProperty(), "true");
+        }
+    }
+
+    @Override
+    protected String getProjectRunnerClassName() {
+
+        return "org.eclipse.persistence.tools.workbench.ant.BatchProjectExporter";
+    }
+
+    @Override
+    protected boolean projectFileRequired() {
+        return false;
+    }
+
+    @Override
+    protected void preExecute() throws BuildException {
+        super.preExecute();
+
+        if( this.exports.isEmpty()) {
+            throw new BuildException( this.stringRepository.getString( "notDefined", "Export"));
+        }
+        for( Iterator i = this.exports.iterator(); i.hasNext(); ) {
+            if((( Export)i.next()).getProjectFile().length() == 0) {
+                throw new BuildException( this.stringRepository.getString( "notDefined", "Export ProjectFile"));
+            }
+        }
+    }
+    /**
+     * A nested element specifying a project to export and, optionally,
+     * the deployment file it is exported to.
+     */
+    public static class Export {
+
+        private String projectFile;
+        private String deploymentFile;
+
+        public Export() {
+            super();
+            this.projectFile = "";
+            this.deploymentFile = "";
+        }
+
+        protected String getProjectFile() {
+            return this.projectFile;
+        }
+
+        public void setProjectFile( String projectFile) {
+            this.projectFile = projectFile;
+        }
+
+        protected String getDeploymentFile() {
+            return this.deploymentFile;
+        }
+
+        public void setDeploymentFile( String deploymentFile) {
+            this.deploymentFile = deploymentFile;
+        }
+    }
+}
@@ -59,10 +59,16 @@ public void setProjectFile( String projectFile) {
     protected void preExecute() throws BuildException {
         super.preExecute();
 
-        if( this.projectFile.length() == 0) {
+        if( this.projectFileRequired() && this.projectFile.length() == 0) {
             throw new BuildException( this.stringRepository.getString( "notDefined", "ProjectFile"));
         }
     }
+    /**
+     * Returns whether the ProjectFile attribute must be specified.
+     */
+    protected boolean projectFileRequired() {
+        return true;
+    }
     /**
      * Adds TopLink Workbench project error to ignore.
      */
@@ -18,6 +18,7 @@
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.PrintStream;
+import java.util.concurrent.ForkJoinPool;
 import java.util.prefs.Preferences;
 
 import org.eclipse.persistence.tools.workbench.framework.resources.DefaultStringRepository;
@@ -80,7 +81,7 @@ public int execute(String input, String output, PrintStream log) {
 
         try {
             MWProject project = new ProjectIOManager().read(inputFile, Preferences.userNodeForPackage(this.getClass()));
-            project.validateBranch();
+            project.validateBranch(ForkJoinPool.commonPool());
             if (project.hasBranchProblems()) {
                 log.print(this.stringRepository.getString("generatingMight"));
             }
@@ -211,7 +211,10 @@ public void execute() {
      * synchronized object that wraps it.
      */
     void initializeIOManager() {
-        this.synchronizedIOManager.setValue(new ProjectIOManager());
+        ProjectIOManager ioManager = new ProjectIOManager();
+        ioManager.setReadThreadCount(Runtime.getRuntime().availableProcessors());
+        ioManager.setWriteThreadCount(Runtime.getRuntime().availableProcessors());
+        this.synchronizedIOManager.setValue(ioManager);
     }
 
     // ********** Preferences ***********
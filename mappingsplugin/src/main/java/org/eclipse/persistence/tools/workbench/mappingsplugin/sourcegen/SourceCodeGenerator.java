@@ -15,15 +15,20 @@
 package org.eclipse.persistence.tools.workbench.mappingsplugin.sourcegen;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.EventListener;
 import java.util.EventObject;
 import java.util.Iterator;
+import java.util.List;
 import java.util.StringTokenizer;
 import java.util.Vector;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import org.eclipse.persistence.tools.workbench.framework.context.ApplicationContext;
 import org.eclipse.persistence.tools.workbench.mappingsmodel.descriptor.MWDescriptor;
@@ -40,9 +45,17 @@
     private Collection descriptors;
     private File sourceRootDirectory;
 
+    /**
+     * The class definitions built from the descriptors, in the same order;
+     * a definition is null for a descriptor that does not need a class
+     * (e.g. a core type). Building a definition is expensive, so they are
+     * built once, when first needed, and re-used by every check and write.
+     */
+    private ClassDefinition[] classDefinitions;
+
     private boolean overwriteFiles;
     private boolean continueGenerating;
-    private boolean anyFileWritten;
+    private volatile boolean anyFileWritten;
 
     private Collection fileAlreadyExistsListeners;
     private Collection continuableExceptionListeners;
@@ -117,25 +130,40 @@ public void generateSourceCode(MWProject project, Collection descriptors, File s
         this.project = project;
         this.descriptors = descriptors;
         this.sourceRootDirectory = sourceRootDirectory;
+        this.classDefinitions = null;
 
         if (!this.overwriteFiles) {
             checkForExistingFiles();
         }
 
-        for (Iterator it = descriptors.iterator(); it.hasNext();)
-             generateSourceCode((MWDescriptor) it.next());
+        writeClassDefinitions(classDefinitions());
+    }
+
+    private ClassDefinition[] classDefinitions() {
+        if (this.classDefinitions == null) {
+            this.classDefinitions = buildClassDefinitions();
+        }
+        return this.classDefinitions;
     }
 
-    private void generateSourceCode(MWDescriptor descriptor) {
-        writeClassDefinition(new BasicDescriptorClassCodeGenPolicy(descriptor, getApplicationContext()).classDefinition());
+    /**
+     * The definitions are built on the current thread,
+     * since they are built from the (non-thread-safe) model.
+     */
+    private ClassDefinition[] buildClassDefinitions() {
+        ClassDefinition[] result = new ClassDefinition[this.descriptors.size()];
+        int i = 0;
+        for (Iterator it = this.descriptors.iterator(); it.hasNext();)
+            result[i++] = new BasicDescriptorClassCodeGenPolicy((MWDescriptor) it.next(), getApplicationContext()).classDefinition();
+        return result;
     }
 
     public void checkForExistingFiles() {
         File existingFile = null;
 
-        for (Iterator iter = this.descriptors.iterator(); iter.hasNext(); ) {
-            MWDescriptor descriptor = (MWDescriptor) iter.next();
-            existingFile = doesFileExist(descriptor);
+        ClassDefinition[] classDefs = classDefinitions();
+        for (int i = 0; i < classDefs.length; i++) {
+            existingFile = doesFileExist(classDefs[i]);
 
             if (existingFile != null) {
                 break;
@@ -147,10 +175,6 @@ public void checkForExistingFiles() {
         }
     }
 
-    private File doesFileExist(MWDescriptor descriptor) {
-        return doesFileExist(new BasicDescriptorClassCodeGenPolicy(descriptor, getApplicationContext()).classDefinition());
-    }
-
     private File doesFileExist(ClassDefinition classDef) {
         if (! this.continueGenerating)
             return null;
@@ -159,13 +183,7 @@ private File doesFileExist(ClassDefinition classDef) {
         if (classDef == null)
             return null;
 
-        File sourceRootDirectory = this.sourceRootDirectory;
-
-        if (sourceRootDirectory == null)
-            sourceRootDirectory = this.project.absoluteModelSourceDirectory();
-
-        String writeDirectory = buildDirectory(classDef.getPackageName(), sourceRootDirectory);
-        File javaFile = new File(writeDirectory, classDef.getName() + ".java");
+        File javaFile = buildJavaFile(classDef);
 
         if (javaFile.exists())
             return javaFile;
@@ -173,49 +191,109 @@ private File doesFileExist(ClassDefinition classDef) {
         return null;
     }
 
-    public void writeClassDefinition(ClassDefinition classDef)
-    {
-        if (! this.continueGenerating)
-            return;
-
-        // could be null in the case of a core type
-        if (classDef == null)
-            return;
-
+    private File buildJavaFile(ClassDefinition classDef) {
         File sourceRootDirectory = this.sourceRootDirectory;
 
         if (sourceRootDirectory == null)
             sourceRootDirectory = this.project.absoluteModelSourceDirectory();
 
         String writeDirectory = buildDirectory(classDef.getPackageName(), sourceRootDirectory);
-        File javaFile = new File(writeDirectory, classDef.getName() + ".java");
+        return new File(writeDirectory, classDef.getName() + ".java");
+    }
 
-        CodeGenerator codeGenerator = new CodeGenerator();
+    public void writeClassDefinition(ClassDefinition classDef)
+    {
+        writeClassDefinitions(new ClassDefinition[] {classDef});
+    }
 
-        try
-        {
-            FileOutputStream stream = new FileOutputStream(javaFile);
-            codeGenerator.setOutput(new OutputStreamWriter(stream, "utf-8"));
-        }
-        catch (IOException ioe)
-        {
-            fireContinuableExceptionEvent(ioe);
+    /**
+     * Write the specified class definitions concurrently. The files and
+     * their directories are determined up front, on the current thread;
+     * then the source is generated and written by the common fork-join
+     * pool. Any exceptions are reported afterwards, on the current thread,
+     * in the same order as the class definitions.
+     */
+    private void writeClassDefinitions(ClassDefinition[] classDefs)
+    {
+        if (! this.continueGenerating)
             return;
+
+        List defs = new ArrayList(classDefs.length);
+        List files = new ArrayList(classDefs.length);
+        for (int i = 0; i < classDefs.length; i++) {
+            // could be null in the case of a core type
+            if (classDefs[i] != null) {
+                defs.add(classDefs[i]);
+                files.add(buildJavaFile(classDefs[i]));
+            }
         }
 
+        WriteTask task = new WriteTask(
+            this,
+            (ClassDefinition[]) defs.toArray(new ClassDefinition[defs.size()]),
+            (File[]) files.toArray(new File[files.size()])
+        );
+        ForkJoinPool.commonPool().invoke(task);
+
+        IOException[] exceptions = task.exceptions;
+        for (int i = 0; (i < exceptions.length) && this.continueGenerating; i++) {
+            if (exceptions[i] != null) {
+                fireContinuableExceptionEvent(exceptions[i]);
+            }
+        }
+    }
+
+    /**
+     * Generate the source for the specified class definition and write
+     * it to the specified file, unless the file already holds the same
+     * source, in which case the file is left untouched (preserving
+     * its timestamp, so build tools do not needlessly recompile it).
+     */
+    void write(ClassDefinition classDef, File javaFile) throws IOException
+    {
+        CodeGenerator codeGenerator = new CodeGenerator();        // writes to a StringWriter
         classDef.write(codeGenerator);
+        String source = codeGenerator.getOutput().toString();
+
+        Path path = javaFile.toPath();
+        if ( ! isUpToDate(path, source, classDef.getComment())) {
+            Files.write(path, source.getBytes(StandardCharsets.UTF_8));
+        }
         this.anyFileWritten = true;
+    }
 
-        try
-        {
-            codeGenerator.getOutput().flush();
-            codeGenerator.getOutput().close();
+    /**
+     * Return whether the specified file already holds the specified source.
+     * The first line of the class comment holds the time the source was
+     * generated, so the line holding it is allowed to differ.
+     */
+    private static boolean isUpToDate(Path path, String source, String classComment) throws IOException {
+        if ( ! Files.isRegularFile(path)) {
+            return false;
         }
-        catch (IOException ioe)
-        {
-            fireContinuableExceptionEvent(ioe);
-            return;
+        String existingSource = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        if (existingSource.equals(source)) {
+            return true;
+        }
+        if ((classComment == null) || (classComment.trim().length() == 0)) {
+            return false;
         }
+        String[] lines = source.split("\\r?\\n", -1);
+        String[] existingLines = existingSource.split("\\r?\\n", -1);
+        if (lines.length != existingLines.length) {
+            return false;
+        }
+        String commentLine = new StringTokenizer(classComment.trim(), "\r\n").nextToken().trim();
+        boolean commentLineSkipped = false;
+        for (int i = 0; i < lines.length; i++) {
+            if ( ! lines[i].equals(existingLines[i])) {
+                if (commentLineSkipped || (lines[i].indexOf(commentLine) == -1)) {
+                    return false;
+                }
+                commentLineSkipped = true;
+            }
+        }
+        return true;
     }
 
     public void removeFileAlreadyExistsListener(FileAlreadyExistsListener listener) {
@@ -256,7 +334,65 @@ private void fireFileAlreadyExistsEvent(File file) {
         for (Iterator listeners = this.fileAlreadyExistsListeners.iterator(); listeners.hasNext();)
             this.continueGenerating &= ((FileAlreadyExistsListener) listeners.next()).fileAlreadyExists(this.project, new FileAlreadyExistsEvent(this, file));
     }
+
+    /**
+     * Return whether any file has been generated; this includes
+     * any files that were already up to date.
+     */
     public boolean isAnyFileWritten() {
         return this.anyFileWritten;
     }
+
+
+    // **************** write task ********************************************
+
+    /**
+     * Write a range of class definitions, splitting the range
+     * in half until it is small enough to write directly.
+     * An exception does not stop the other files from being written;
+     * it is saved and reported once all the files are written.
+     */
+    private static class WriteTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private static final int FILES_PER_TASK = 8;
+        private final SourceCodeGenerator generator;
+        private final ClassDefinition[] classDefs;
+        private final File[] files;
+        final IOException[] exceptions;
+        private final int start;
+        private final int end;
+
+        WriteTask(SourceCodeGenerator generator, ClassDefinition[] classDefs, File[] files) {
+            this(generator, classDefs, files, new IOException[classDefs.length], 0, classDefs.length);
+        }
+
+        private WriteTask(SourceCodeGenerator generator, ClassDefinition[] classDefs, File[] files, IOException[] exceptions, int start, int end) {
+            super();
+            this.generator = generator;
+            this.classDefs = classDefs;
+            this.files = files;
+            this.exceptions = exceptions;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.end - this.start <= FILES_PER_TASK) {
+                for (int i = this.start; i < this.end; i++) {
+                    try {
+                        this.generator.write(this.classDefs[i], this.files[i]);
+                    } catch (IOException ex) {
+                        this.exceptions[i] = ex;
+                    }
+                }
+            } else {
+                int mid = (this.start + this.end) >>> 1;
+                invokeAll(
+                    new WriteTask(this.generator, this.classDefs, this.files, this.exceptions, this.start, mid),
+                    new WriteTask(this.generator, this.classDefs, this.files, this.exceptions, mid, this.end)
+                );
+            }
+        }
+    }
 }
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 1998, 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation from Oracle TopLink
+package org.eclipse.persistence.tools.workbench.test.ant;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Vector;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import org.apache.tools.ant.BuildException;
+import org.apache.tools.ant.Project;
+import org.eclipse.persistence.tools.workbench.ant.BatchProjectExporter;
+import org.eclipse.persistence.tools.workbench.ant.taskdefs.BatchExportDeploymentXMLTask;
+import org.eclipse.persistence.tools.workbench.mappingsio.ProjectIOManager;
+import org.eclipse.persistence.tools.workbench.mappingsmodel.project.MWProject;
+import org.eclipse.persistence.tools.workbench.test.models.projects.EmployeeOXProject;
+import org.eclipse.persistence.tools.workbench.test.utility.TestTools;
+
+public class BatchProjectExporterTests extends XmlProjectRunnerTests {
+    private ByteArrayOutputStream exporterLog;
+
+    public static Test suite() {
+        TestTools.setUpJUnitThreadContextClassLoader();
+        return new TestSuite( BatchProjectExporterTests.class);
+    }
+
+    public BatchProjectExporterTests( String name) {
+        super( name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        this.exporterLog = new ByteArrayOutputStream();
+    }
+    /**
+     * Export several projects, in different directories,
+     * with the same exporter.
+     */
+    public void testExportSeveralProjects() throws Exception {
+
+        List exports = this.buildExports( 4);
+        BatchProjectExporter exporter = this.buildExporter();
+        exporter.setThreadCount( 2);
+
+        List results = exporter.export( exports, new Vector(), true);
+
+        assertEquals( exports.size(), results.size());
+        for( int i = 0; i < results.size(); i++) {
+            BatchProjectExporter.Result result = ( BatchProjectExporter.Result)results.get( i);
+            assertSame( exports.get( i), result.getExport());
+            assertFalse( String.valueOf( result.getError()), result.failed());
+            assertTrue( result.getExport().getDeploymentFile().exists());
+        }
+    }
+    /**
+     * A project that cannot be read must not stop the other projects.
+     */
+    public void testFailureIsIsolated() throws Exception {
+
+        List exports = this.buildExports( 2);
+        File corruptFile = new File( this.tempDir, "corrupt/Corrupt.mwp");
+        corruptFile.getParentFile().mkdirs();
+        Writer writer = new FileWriter( corruptFile);
+        writer.write( "not a project");
+        writer.close();
+        exports.add( 1, new BatchProjectExporter.Export( corruptFile, new File( this.tempDir, "corrupt/Corrupt.xml")));
+        exports.add( new BatchProjectExporter.Export( new File( this.tempDir, "missing/Missing.mwp"), new File( this.tempDir, "missing/Missing.xml")));
+
+        final List results = Collections.synchronizedList( new ArrayList());
+        BatchProjectExporter exporter = new BatchProjectExporter( new PrintStream( this.exporterLog, true)) {
+            @Override
+            protected Result export( Export export, Collection ignoreErrorCodes, boolean failOnError) {
+                Result result = super.export( export, ignoreErrorCodes, failOnError);
+                results.add( result);
+                return result;
+            }
+        };
+
+        boolean exCaught = false;
+        try {
+            exporter.export( exports, new Vector(), true);
+        }
+        catch( BuildException ex) {
+            exCaught = true;
+        }
+        assertTrue( exCaught);
+
+        assertEquals( exports.size(), results.size());
+        int failures = 0;
+        for( Iterator stream = results.iterator(); stream.hasNext(); ) {
+            BatchProjectExporter.Result result = ( BatchProjectExporter.Result)stream.next();
+            File projectFile = result.getExport().getProjectFile();
+            boolean bad = projectFile.getName().equals( "Corrupt.mwp") || projectFile.getName().equals( "Missing.mwp");
+            assertEquals( projectFile.getPath(), bad, result.failed());
+            assertEquals( projectFile.getPath(), ! bad, result.getExport().getDeploymentFile().exists());
+            if( result.failed()) {
+                failures++;
+            }
+        }
+        assertEquals( 2, failures);
+    }
+    /**
+     * The time spent in each step is recorded and logged for every project.
+     */
+    public void testTimings() throws Exception {
+
+        List exports = this.buildExports( 2);
+        List results = this.buildExporter().export( exports, new Vector(), true);
+
+        String logText = this.exporterLog.toString();
+        for( Iterator stream = results.iterator(); stream.hasNext(); ) {
+            BatchProjectExporter.Result result = ( BatchProjectExporter.Result)stream.next();
+            assertTrue( result.getReadTime() > 0);
+            assertTrue( result.getValidateTime() >= 0);
+            assertTrue( result.getBuildTime() > 0);
+            assertTrue( result.getWriteTime() > 0);
+            assertEquals( result.getReadTime() + result.getValidateTime() + result.getBuildTime() + result.getWriteTime(), result.getTotalTime());
+            assertTrue( logText, logText.indexOf( "Exported: " + result.getExport().getDeploymentFile().getAbsolutePath()) != -1);
+        }
+    }
+    /**
+     * Export through the entry point used by the Ant task.
+     */
+    public void testExecute() throws Exception {
+
+        List exports = this.buildExports( 2);
+        Vector projectFileNames = new Vector();
+        Vector deploymentFileNames = new Vector();
+        for( Iterator stream = exports.iterator(); stream.hasNext(); ) {
+            BatchProjectExporter.Export export = ( BatchProjectExporter.Export)stream.next();
+            projectFileNames.add( export.getProjectFile().getAbsolutePath());
+            deploymentFileNames.add( export.getDeploymentFile().getAbsolutePath());
+        }
+
+        int status = this.buildExporter().execute( projectFileNames, deploymentFileNames, new Vector(), Boolean.TRUE, Integer.valueOf( 1));
+
+        assertEquals( 0, status);
+        for( Iterator stream = exports.iterator(); stream.hasNext(); ) {
+            assertTrue((( BatchProjectExporter.Export)stream.next()).getDeploymentFile().exists());
+        }
+    }
+    /**
+     * The Ant task requires at least one nested export.
+     */
+    public void testTaskWithoutExports() throws Exception {
+
+        BatchExportDeploymentXMLTask task = new BatchExportDeploymentXMLTask();
+        task.setProject( new Project());
+
+        boolean exCaught = false;
+        try {
+            task.execute();
+        }
+        catch( BuildException ex) {
+            exCaught = true;
+        }
+        assertTrue( exCaught);
+    }
+
+    private BatchProjectExporter buildExporter() {
+        return new BatchProjectExporter( new PrintStream( this.exporterLog, true));
+    }
+    /**
+     * Write the specified number of projects, each in its own directory;
+     * the first is the project written by the superclass.
+     */
+    private List buildExports( int count) throws Exception {
+        List exports = new ArrayList( count);
+        exports.add( new BatchProjectExporter.Export( new File( this.projectFileName), new File( this.tempDir, MW + "/EmployeeOXProject.xml")));
+        for( int i = 1; i < count; i++) {
+            MWProject project = this.buildProject();
+            project.setSaveDirectory( new File( this.tempDir, MW + i));
+            new ProjectIOManager().write( project);
+            exports.add( new BatchProjectExporter.Export( project.saveFile(), new File( this.tempDir, MW + i + "/EmployeeOXProject.xml")));
+        }
+        return exports;
+    }
+
+    @Override
+    protected MWProject buildProject() throws Exception {
+
+        return new EmployeeOXProject().getProject();
+    }
+
+}
@@ -14,6 +14,14 @@
 //     Oracle - initial API and implementation from Oracle TopLink
 package org.eclipse.persistence.tools.workbench.test.mappingsio;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+
 import junit.framework.Test;
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
@@ -40,6 +48,7 @@
 import org.eclipse.persistence.tools.workbench.test.models.projects.SimpleContactProject;
 import org.eclipse.persistence.tools.workbench.test.utility.TestTools;
 import org.eclipse.persistence.tools.workbench.utility.ClassTools;
+import org.eclipse.persistence.tools.workbench.utility.CollectionTools;
 import org.eclipse.persistence.tools.workbench.utility.NullPreferences;
 import org.eclipse.persistence.tools.workbench.utility.diff.Diff;
 import org.eclipse.persistence.tools.workbench.utility.diff.DiffEngine;
@@ -135,7 +144,117 @@ public void testEmployeeJaxbProject() throws Exception {
         this.verifyReadWrite(new EmployeeJAXBProject().getProject(), new EmployeeJAXBProject().getProject());
     }
 
+    public void testEmployeeOXProjectConcurrentRead() throws Exception {
+        this.verifyReadWrite(new EmployeeOXProject().getProject(), new EmployeeOXProject().getProject(), 4);
+    }
+
+    public void testEmployeeEisProjectConcurrentRead() throws Exception {
+        this.verifyReadWrite(new EmployeeEisProject().getProject(), new EmployeeEisProject().getProject(), 4);
+    }
+
+    public void testEmployeeJaxbProjectConcurrentRead() throws Exception {
+        this.verifyReadWrite(new EmployeeJAXBProject().getProject(), new EmployeeJAXBProject().getProject(), 4);
+    }
+
+    public void testEmployeeOXProjectConcurrentWrite() throws Exception {
+        MWProject project1 = new EmployeeOXProject().getProject();
+        MWProject project2 = new EmployeeOXProject().getProject();
+        project1.buildBasicTypes();
+        project2.buildBasicTypes();
+        project2.setSaveDirectory(FileTools.emptyTemporaryDirectory(ClassTools.shortClassNameForObject(this) + "." + this.getName()));
+
+        ProjectIOManager ioMgr = new ProjectIOManager();
+        ioMgr.setWriteThreadCount(4);
+        ioMgr.write(project2);
+        assertTrue(this.temporaryFilesIn(project2.getSaveDirectory()).isEmpty());
+
+        project2 = ioMgr.read(project2.saveFile(), NullPreferences.instance());
+        Diff diff = MappingsModelTestTools.buildDiffEngine().diff(project1, project2);
+        assertTrue(diff.getDescription(), diff.identical());
+    }
+
+    public void testUnchangedFilesAreNotRewritten() throws Exception {
+        MWProject project = new EmployeeOXProject().getProject();
+        project.buildBasicTypes();
+        project.setSaveDirectory(FileTools.emptyTemporaryDirectory(ClassTools.shortClassNameForObject(this) + "." + this.getName()));
+
+        ProjectIOManager ioMgr = new ProjectIOManager();
+        ioMgr.write(project);
+        Collection files = this.filesIn(project.getSaveDirectory());
+        assertFalse(files.isEmpty());
+        long timestamp = System.currentTimeMillis() - 100000;
+        timestamp = timestamp - (timestamp % 1000);        // some file systems only store seconds
+        for (Iterator stream = files.iterator(); stream.hasNext(); ) {
+            assertTrue(((File) stream.next()).setLastModified(timestamp));
+        }
+
+        // force every file to be marshalled again
+        project.markEntireBranchDirty();
+        ioMgr.write(project);
+        for (Iterator stream = files.iterator(); stream.hasNext(); ) {
+            File file = (File) stream.next();
+            assertEquals(file.getPath(), timestamp, file.lastModified());
+        }
+        assertTrue(this.temporaryFilesIn(project.getSaveDirectory()).isEmpty());
+    }
+
+    private Collection filesIn(File directory) {
+        Collection files = new ArrayList();
+        CollectionTools.addAll(files, FileTools.filesInTree(directory));
+        return files;
+    }
+
+    private Collection temporaryFilesIn(File directory) {
+        Collection files = this.filesIn(directory);
+        for (Iterator stream = files.iterator(); stream.hasNext(); ) {
+            if ( ! ((File) stream.next()).getName().endsWith(".tmp")) {
+                stream.remove();
+            }
+        }
+        return files;
+    }
+
+    public void testReadFileWithoutSchemaVersion() throws Exception {
+        this.verifyReadFails("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<project><name>Foo</name></project>");
+    }
+
+    public void testReadFileWithWrongRootElement() throws Exception {
+        this.verifyReadFails("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<foo><schema-version>7.0</schema-version></foo>");
+    }
+
+    private void verifyReadFails(String content) throws Exception {
+        File dir = FileTools.emptyTemporaryDirectory(ClassTools.shortClassNameForObject(this) + "." + this.getName());
+        File file = new File(dir, "Foo.mwp");
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+        boolean exCaught = false;
+        try {
+            new ProjectIOManager().read(file, NullPreferences.instance());
+        } catch (IllegalArgumentException ex) {
+            exCaught = true;
+        }
+        assertTrue(exCaught);
+    }
+
+    public void testIllegalReadThreadCount() {
+        boolean exCaught = false;
+        try {
+            new ProjectIOManager().setReadThreadCount(0);
+        } catch (IllegalArgumentException ex) {
+            exCaught = true;
+        }
+        assertTrue(exCaught);
+    }
+
     private void verifyReadWrite(MWProject project1, MWProject project2) throws Exception {
+        this.verifyReadWrite(project1, project2, ProjectIOManager.DEFAULT_READ_THREAD_COUNT);
+    }
+
+    private void verifyReadWrite(MWProject project1, MWProject project2, int readThreadCount) throws Exception {
         project1.buildBasicTypes();
         project2.buildBasicTypes();
         // set the save directory to an empty temporary directory
@@ -143,6 +262,7 @@ private void verifyReadWrite(MWProject project1, MWProject project2) throws Exce
         project2.setSaveDirectory(project1.getSaveDirectory());
 
         ProjectIOManager ioMgr = new ProjectIOManager();
+        ioMgr.setReadThreadCount(readThreadCount);
         ioMgr.write(project2);
 
         // re-read the project and compare it to the original
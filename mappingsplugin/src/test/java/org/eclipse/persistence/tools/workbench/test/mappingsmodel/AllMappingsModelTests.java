@@ -24,6 +24,7 @@
 import org.eclipse.persistence.tools.workbench.test.mappingsmodel.meta.AllModelMetaTests;
 import org.eclipse.persistence.tools.workbench.test.mappingsmodel.query.AllModelQueryTests;
 import org.eclipse.persistence.tools.workbench.test.mappingsmodel.schema.AllModelSchemaTests;
+import org.eclipse.persistence.tools.workbench.test.mappingsmodel.spi.db.jdbc.AllModelSPIDBJDBCTests;
 import org.eclipse.persistence.tools.workbench.test.mappingsmodel.spi.meta.AllModelSPIMetaTests;
 import org.eclipse.persistence.tools.workbench.utility.ClassTools;
 
@@ -47,6 +48,7 @@ public static Test suite(boolean all) {
         suite.addTest(AllModelMetaTests.suite());
         suite.addTest(AllModelQueryTests.suite());
         suite.addTest(AllModelSchemaTests.suite());
+        suite.addTest(AllModelSPIDBJDBCTests.suite());
         suite.addTest(AllModelSPIMetaTests.suite());
 
         suite.addTest(DeploymentXMLTests.suite());
@@ -16,13 +16,18 @@
 
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import junit.framework.Test;
 import junit.framework.TestSuite;
 
 import org.eclipse.persistence.tools.workbench.mappingsmodel.ProblemConstants;
+import org.eclipse.persistence.tools.workbench.mappingsmodel.db.MWTable;
 import org.eclipse.persistence.tools.workbench.mappingsmodel.descriptor.MWDescriptor;
 import org.eclipse.persistence.tools.workbench.mappingsmodel.descriptor.relational.MWInterfaceDescriptor;
+import org.eclipse.persistence.tools.workbench.mappingsmodel.descriptor.relational.MWTableDescriptor;
+import org.eclipse.persistence.tools.workbench.mappingsmodel.mapping.relational.MWDirectToFieldMapping;
 import org.eclipse.persistence.tools.workbench.mappingsmodel.project.MWProject;
 import org.eclipse.persistence.tools.workbench.mappingsmodel.project.relational.MWRelationalProject;
 import org.eclipse.persistence.tools.workbench.mappingsmodel.project.relational.MWRelationalProjectDefaultsPolicy;
@@ -110,4 +115,58 @@ public void testIsSequenceNameFieldSpecifiedProblem() {
 
         assertTrue("The project should have the problem: " + problem, hasProblem(problem, project));
     }
+
+    public void testNodeRemovedScrubsReferences() {
+        CrimeSceneProject crimeSceneProject = new CrimeSceneProject();
+        MWRelationalProject project = crimeSceneProject.getProject();
+        MWTableDescriptor crimeScene = crimeSceneProject.getCrimeSceneDescriptor();
+        MWTableDescriptor person = crimeSceneProject.getPersonDescriptor();
+        MWTable personTable = person.getPrimaryTable();
+
+        project.getTableRepository().removeTable(crimeScene.getPrimaryTable());
+        assertNull(crimeScene.getPrimaryTable());
+        assertNull(((MWDirectToFieldMapping) crimeScene.mappingNamed("id")).getColumn());
+        assertSame(personTable, person.getPrimaryTable());
+
+        // the references are tracked once the table index has been built
+        MWTableDescriptor evidence = crimeSceneProject.getPieceOfEvidenceDescriptor();
+        MWTable evidenceTable = evidence.getPrimaryTable();
+        crimeScene.setPrimaryTable(evidenceTable);
+        project.getTableRepository().removeTable(evidenceTable);
+        assertNull(crimeScene.getPrimaryTable());
+        assertNull(evidence.getPrimaryTable());
+        assertSame(personTable, person.getPrimaryTable());
+    }
+
+    public void testNodeRenamedMarksReferencesDirty() {
+        CrimeSceneProject crimeSceneProject = new CrimeSceneProject();
+        MWRelationalProject project = crimeSceneProject.getProject();
+        MWTableDescriptor person = crimeSceneProject.getPersonDescriptor();
+        project.markEntireBranchClean();
+
+        person.getPrimaryTable().rename(null, null, "PERSON2");
+        assertTrue(person.isDirtyBranch());
+        assertTrue(crimeSceneProject.getSuspectDescriptor().isDirtyBranch());
+        assertFalse(crimeSceneProject.getFirearmDescriptor().isDirtyBranch());
+    }
+
+    public void testValidateBranchInParallel() {
+        MWRelationalProject project = new CrimeSceneProject().getProject();
+        project.getSequencingPolicy().setCounterColumn(null);
+
+        project.validateBranch();
+        List expected = CollectionTools.list(project.branchProblems());
+        assertFalse(expected.isEmpty());
+
+        project.clearAllBranchProblems();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            project.validateBranch(pool);
+        } finally {
+            pool.shutdown();
+        }
+        // the problems should be the same, in the same order
+        assertEquals(expected, CollectionTools.list(project.branchProblems()));
+    }
+
 }
@@ -228,7 +228,7 @@ public static DiffEngine buildDiffEngine() {
             rd.ignoreFieldsNamed("changeSupport");
 
         rd = diffEngine.addReflectiveDifferentiator(AbstractNodeModel.class);
-            rd.ignoreFieldsNamed(new String[] {"branchProblems", "dirty", "dirtyBranch", "problems"});
+            rd.ignoreFieldsNamed(new String[] {"branchProblems", "branchNeedsValidation", "calculatedProblems", "dirty", "dirtyBranch", "needsValidation", "problems"});
             rd.addReferenceFieldsNamed("parent");
 
 
@@ -267,7 +267,7 @@ public static DiffEngine buildDiffEngine() {
             rd.addKeyFieldsNamed("indicatorValue", "descriptorValueHandle");
 
         rd = diffEngine.addReflectiveDifferentiator(MWClassRepository.class);
-            rd.ignoreFieldsNamed(new String[] {"externalClassRepository", "userTypeNames", "persistLastRefresh"});
+            rd.ignoreFieldsNamed(new String[] {"externalClassRepository", "userTypeNames", "persistLastRefresh", "subclasses", "typeReferences", "garbageCandidates"});
             Differentiator typesFieldDifferentiator = rd.getFieldDifferentiator("types");
             rd.setFieldDifferentiator("types", new ClassRepositoryTypesFieldDifferentiator(typesFieldDifferentiator));
             rd.setFieldDifferentiator("typeNames", new ClassRepositoryTypesFieldDifferentiator(typesFieldDifferentiator));
@@ -286,7 +286,7 @@ public static DiffEngine buildDiffEngine() {
             rd.ignoreFieldsNamed("changes");
 
         rd = diffEngine.addReflectiveDifferentiator(MWDatabase.class);
-            rd.ignoreFieldsNamed("connection", "tableNames", "schemaManager");
+            rd.ignoreFieldsNamed(new String[] {"connection", "tableNames", "schemaManager", "tablesByQualifiedName", "tablesByFoldedQualifiedName"});
 
         rd = diffEngine.addReflectiveDifferentiator(MWDescriptor.class);
             rd.addKeyFieldsNamed("name");
@@ -352,7 +352,7 @@ public static DiffEngine buildDiffEngine() {
 
         rd = diffEngine.addReflectiveDifferentiator(MWProject.class);
             rd.addKeyFieldsNamed("name");
-            rd.ignoreFieldsNamed(new String[] {"spiManager", "descriptorNames", "legacyProject", "saveDirectory", "validator", "version"});
+            rd.ignoreFieldsNamed(new String[] {"spiManager", "descriptorNames", "legacyProject", "saveDirectory", "validator", "version", "nodeReferences", "synchronizedBranches", "descriptorsByName"});
 
         rd = diffEngine.addReflectiveDifferentiator(MWProjectDefaultsPolicy.class);
             rd.ignoreFieldsNamed("policyBuilderMap");
@@ -388,7 +388,7 @@ public static DiffEngine buildDiffEngine() {
 
         rd = diffEngine.addReflectiveDifferentiator(MWTable.class);
             rd.addKeyFieldsNamed("catalog", "schema", "shortName");
-            rd.ignoreFieldsNamed("lastRefreshTimestamp");
+            rd.ignoreFieldsNamed("lastRefreshTimestamp", "columnsByName", "referencesByName");
 
         rd = diffEngine.addReflectiveDifferentiator(DatabaseType.class);
             rd.addReferenceFieldNamed("jdbcType");
@@ -24,7 +24,9 @@
 import junit.framework.TestSuite;
 import junit.textui.TestRunner;
 
+import org.eclipse.persistence.tools.workbench.mappingsmodel.db.MWColumn;
 import org.eclipse.persistence.tools.workbench.mappingsmodel.db.MWDatabase;
+import org.eclipse.persistence.tools.workbench.mappingsmodel.db.MWReference;
 import org.eclipse.persistence.tools.workbench.mappingsmodel.db.MWTable;
 import org.eclipse.persistence.tools.workbench.mappingsmodel.spi.db.ExternalTableDescription;
 import org.eclipse.persistence.tools.workbench.test.models.projects.TestDatabases;
@@ -77,6 +79,57 @@ public void testTableNamed() {
         assertEquals("The table was not found.", table1, table2);
     }
 
+    public void testTableNamedIgnoreCase() {
+        MWDatabase db = TestDatabases.mySQLDatabase();
+        MWTable table1 = db.addTable("TEST_SCHEMA", "TEST_TABLE");
+
+        assertEquals(table1, db.tableNamedIgnoreCase(null, "test_schema", "test_table"));
+        assertNull(db.tableNamed(null, "test_schema", "test_table"));
+        assertEquals(table1, db.tableNamed("TEST_SCHEMA.TEST_TABLE"));
+
+        table1.rename(null, null, "RENAMED_TABLE");
+        assertNull(db.tableNamedIgnoreCase(null, "test_schema", "test_table"));
+        assertNull(db.tableNamed("TEST_SCHEMA.TEST_TABLE"));
+        assertEquals(table1, db.tableNamedIgnoreCase(null, null, "renamed_table"));
+
+        db.removeTable(table1);
+        assertNull(db.tableNamed("RENAMED_TABLE"));
+        assertNull(db.tableNamedIgnoreCase(null, null, "renamed_table"));
+    }
+
+    public void testColumnNamed() {
+        MWDatabase db = TestDatabases.mySQLDatabase();
+        MWTable table = db.addTable("TEST_SCHEMA", "TEST_TABLE");
+        MWColumn column = table.addColumn("ID");
+        assertEquals(column, db.columnNamed("TEST_SCHEMA.TEST_TABLE.ID"));
+
+        column.setName("KEY");
+        assertNull(db.columnNamed("TEST_SCHEMA.TEST_TABLE.ID"));
+        assertEquals(column, db.columnNamed("TEST_SCHEMA.TEST_TABLE.KEY"));
+
+        table.removeColumn(column);
+        assertNull(db.columnNamed("TEST_SCHEMA.TEST_TABLE.KEY"));
+    }
+
+    public void testReferenceNamed() {
+        MWDatabase db = TestDatabases.mySQLDatabase();
+        MWTable table = db.addTable("TEST_SCHEMA", "TEST_TABLE");
+        MWTable targetTable = db.addTable("TEST_SCHEMA", "TARGET_TABLE");
+        MWReference reference = table.addReference("FK_TARGET", targetTable);
+        assertEquals(reference, table.referenceNamed("FK_TARGET"));
+
+        reference.setName("FK_RENAMED");
+        assertNull(table.referenceNamed("FK_TARGET"));
+        assertEquals(reference, table.referenceNamed("FK_RENAMED"));
+
+        MWReference reference2 = table.addReference("FK_TARGET", targetTable);
+        assertEquals(reference2, table.referenceNamed("FK_TARGET"));
+
+        table.removeReference(reference);
+        assertNull(table.referenceNamed("FK_RENAMED"));
+        assertEquals(reference2, table.referenceNamed("FK_TARGET"));
+    }
+
     public void testLogin() throws Exception {
         this.database.login();
         assertTrue("Not connected to database.", this.database.isConnected());
@@ -18,6 +18,8 @@
 import java.io.FileWriter;
 import java.io.IOException;
 import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
 
 import org.eclipse.persistence.tools.workbench.test.mappingsmodel.MappingsModelTestTools;
@@ -29,6 +31,7 @@
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
 
+import org.eclipse.persistence.tools.workbench.mappingsmodel.meta.ExternalClassLoadFailureContainer;
 import org.eclipse.persistence.tools.workbench.mappingsmodel.meta.MWClass;
 import org.eclipse.persistence.tools.workbench.mappingsmodel.meta.MWClassAttribute;
 import org.eclipse.persistence.tools.workbench.mappingsmodel.meta.MWClassRepository;
@@ -117,6 +120,27 @@ public void testModifierChange() {
         assertEquals("remove", this.eventType);
     }
 
+    public void testUnreferencedStubsAreRemoved() {
+        MWClass fooType = this.project.typeNamed("com.bar.Foo");
+        MWClass bazType = this.project.typeNamed("com.bar.Baz");
+        MWClassAttribute attribute = fooType.addAttribute("baz", bazType);
+        assertSame(bazType, this.repository.typeNamedIgnoreCase("COM.BAR.BAZ"));
+
+        fooType.removeAttribute(attribute);
+        assertNull(this.repository.typeNamedIgnoreCase("COM.BAR.BAZ"));
+        assertNotSame(bazType, this.project.typeNamed("com.bar.Baz"));
+    }
+
+    public void testUnreferencedTypeIsGarbage() {
+        MWClass fooType = this.project.typeNamed("com.bar.Foo");
+        MWClass bazType = this.project.typeNamed("com.bar.Baz");
+        fooType.setSuperclass(bazType);
+        assertSame(bazType, this.repository.typeNamedIgnoreCase("com.bar.baz"));
+
+        fooType.setSuperclass(this.project.typeNamed(Object.class.getName()));
+        assertNull(this.repository.typeNamedIgnoreCase("com.bar.baz"));
+    }
+
     private CollectionChangeListener buildListener() {
         return new CollectionChangeListener() {
             @Override
@@ -333,6 +357,40 @@ private void verifyRefreshExternalClassDescriptions(String testClassName, File f
         this.verifyMissingClassNamed(testClassName);
     }
 
+    public void testRefreshTypesFor() throws Exception {
+        ClasspathTestTool tool = new ClasspathTestTool(ClassTools.shortClassNameForObject(this) + "." + this.getName());
+        tool.setUp();
+        this.repository.addClasspathEntry(tool.jarFile1.getAbsolutePath());
+
+        Collection descriptions = new ArrayList();
+        ExternalClassDescription missingDescription = null;
+        for (Iterator stream = this.repository.externalClassDescriptions(); stream.hasNext(); ) {
+            ExternalClassDescription description = (ExternalClassDescription) stream.next();
+            if (description.getName().equals(ClasspathTestTool.TEST_CLASS_NAME)) {
+                missingDescription = description;
+            } else if (description.getName().startsWith("java.util.") && (descriptions.size() < 50)) {
+                descriptions.add(description);
+            }
+        }
+        descriptions.add(missingDescription);
+        // the class file can no longer be read
+        this.repository.refreshExternalClassDescriptions();
+        tool.jarFile1.delete();
+
+        ExternalClassLoadFailureContainer failures = this.repository.refreshTypesFor(descriptions.iterator());
+        assertEquals(1, CollectionTools.size(failures.failureClassNames()));
+        assertTrue(failures.containsFailureForClassNamed(ClasspathTestTool.TEST_CLASS_NAME));
+        for (Iterator stream = descriptions.iterator(); stream.hasNext(); ) {
+            ExternalClassDescription description = (ExternalClassDescription) stream.next();
+            if (description != missingDescription) {
+                MWClass type = this.project.typeNamed(description.getName());
+                assertNotNull(type.getName(), type.getLastRefreshTimestamp());
+            }
+        }
+
+        tool.tearDown();
+    }
+
     public void testRelativePath() throws Exception {
         ClasspathTestTool tool = new ClasspathTestTool(ClassTools.shortClassNameForObject(this) + "." + this.getName());
         tool.setUp();
@@ -483,6 +483,24 @@ public void testHierarchy() throws Exception {
         assertTrue(CollectionTools.contains(this.abstractCollectionType.hierarchy(), this.objectType));
     }
 
+    public void testSubclassesFollowSuperclass() throws Exception {
+        MWClass fooType = this.project.typeNamed("foo.bar.Foo");
+        MWClass bazType = this.project.typeNamed("foo.bar.Baz");
+        assertTrue(CollectionTools.contains(this.objectType.subclasses(), bazType));
+        assertEquals(0, CollectionTools.size(fooType.subclasses()));
+
+        bazType.setSuperclass(fooType);
+        assertTrue( ! CollectionTools.contains(this.objectType.subclasses(), bazType));
+        assertTrue(CollectionTools.contains(this.objectType.subclasses(), fooType));
+        assertEquals(1, CollectionTools.size(fooType.subclasses()));
+        assertTrue(CollectionTools.contains(fooType.subclasses(), bazType));
+        assertTrue(CollectionTools.contains(this.objectType.allSubclasses(), bazType));
+
+        bazType.setInterface(true);
+        assertEquals(0, CollectionTools.size(fooType.subclasses()));
+        assertTrue( ! CollectionTools.contains(this.objectType.allSubclasses(), bazType));
+    }
+
     public void testTableName() throws Exception {
         assertEquals("OBJECT", this.objectType.defaultTableNameWithLength(20));
         assertEquals("OBJ", this.objectType.defaultTableNameWithLength(3));
@@ -0,0 +1,360 @@
+/*
+ * Copyright (c) 1998, 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation from Oracle TopLink
+package org.eclipse.persistence.tools.workbench.test.mappingsmodel.spi.db.jdbc;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import junit.textui.TestRunner;
+
+import org.eclipse.persistence.tools.workbench.mappingsmodel.spi.db.ExternalColumn;
+import org.eclipse.persistence.tools.workbench.mappingsmodel.spi.db.ExternalDatabase;
+import org.eclipse.persistence.tools.workbench.mappingsmodel.spi.db.ExternalForeignKey;
+import org.eclipse.persistence.tools.workbench.mappingsmodel.spi.db.ExternalTable;
+import org.eclipse.persistence.tools.workbench.mappingsmodel.spi.db.ExternalTableDescription;
+import org.eclipse.persistence.tools.workbench.mappingsmodel.spi.db.jdbc.JDBCExternalDatabaseFactory;
+
+
+/**
+ * These tests run against an in-memory stand-in for a JDBC driver
+ * that simply counts the meta-data calls.
+ */
+public class JDBCExternalDatabaseTests extends TestCase {
+    private MetaDataStandIn standIn;
+
+    public static void main(String[] args) {
+        TestRunner.main(new String[] {"-c", JDBCExternalDatabaseTests.class.getName()});
+    }
+
+    public static Test suite() {
+        return new TestSuite(JDBCExternalDatabaseTests.class);
+    }
+
+    public JDBCExternalDatabaseTests(String name) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        this.standIn = new MetaDataStandIn();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        this.standIn = null;
+        super.tearDown();
+    }
+
+    public void testBulkImport() throws Exception {
+        this.standIn.addTables(10);
+        this.verifyTables(this.buildTables());
+        int columnCalls = this.standIn.callCount("getColumns");
+        int pkCalls = this.standIn.callCount("getPrimaryKeys");
+        int fkCalls = this.standIn.callCount("getImportedKeys");
+        assertTrue(columnCalls < 10);
+        assertTrue(pkCalls < 10);
+        assertTrue(fkCalls < 10);
+
+        // the number of calls should not depend on the number of tables
+        this.standIn = new MetaDataStandIn();
+        this.standIn.addTables(50);
+        this.verifyTables(this.buildTables());
+        assertEquals(columnCalls, this.standIn.callCount("getColumns"));
+        assertEquals(pkCalls, this.standIn.callCount("getPrimaryKeys"));
+        assertEquals(fkCalls, this.standIn.callCount("getImportedKeys"));
+    }
+
+    public void testSmallSelectionFromLargeSchema() throws Exception {
+        // a handful of tables selected from a schema matched with "%"
+        this.standIn.addTables(1000);
+        ExternalTable[] tables = this.buildTables(6);
+        assertEquals(6, tables.length);
+        for (int i = 0; i < tables.length; i++) {
+            assertEquals(2, tables[i].getColumns().length);
+        }
+
+        // the tables are read one at a time, never the entire schema
+        assertEquals(6, this.standIn.callCount("getColumns"));
+        assertEquals(12, this.standIn.rowCount("getColumns"));
+        assertEquals(6, this.standIn.rowCount("getPrimaryKeys"));
+        assertTrue(this.standIn.rowCount("getImportedKeys") <= 6);
+    }
+
+    public void testPerTableKeys() throws Exception {
+        // some drivers return nothing for a null table name
+        this.standIn.bulkKeysSupported = false;
+        this.standIn.addTables(10);
+        this.verifyTables(this.buildTables());
+        assertTrue(this.standIn.callCount("getColumns") < 10);
+        assertTrue(this.standIn.callCount("getPrimaryKeys") > 10);
+        assertTrue(this.standIn.callCount("getImportedKeys") > 10);
+    }
+
+    private ExternalTable[] buildTables() {
+        return this.buildTables(this.standIn.tablesSize());
+    }
+
+    /**
+     * build only the first few of the tables in schema SCOTT
+     */
+    private ExternalTable[] buildTables(int count) {
+        ExternalDatabase database = JDBCExternalDatabaseFactory.instance().buildDatabase(this.standIn.buildConnection());
+        ExternalTableDescription[] tableDescriptions = database.getTableDescriptions(null, "SCOTT", "%", new String[] {"TABLE"});
+        ExternalTable[] tables = new ExternalTable[count];
+        for (int i = 0; i < count; i++) {
+            tables[i] = tableDescriptions[i].getTable();
+        }
+        return tables;
+    }
+
+    /**
+     * every table has a primary key, ID, and a column, PARENT_ID,
+     * that references the previous table
+     */
+    private void verifyTables(ExternalTable[] tables) {
+        assertEquals(this.standIn.tablesSize(), tables.length);
+        for (int i = 0; i < tables.length; i++) {
+            ExternalColumn[] columns = tables[i].getColumns();
+            assertEquals(2, columns.length);
+            assertEquals("ID", columns[0].getName());
+            assertTrue(columns[0].isPrimaryKey());
+            assertFalse(columns[0].isNullable());
+            assertEquals("PARENT_ID", columns[1].getName());
+            assertFalse(columns[1].isPrimaryKey());
+
+            ExternalForeignKey[] foreignKeys = tables[i].getForeignKeys();
+            if (i == 0) {
+                assertEquals(0, foreignKeys.length);
+            } else {
+                assertEquals(1, foreignKeys.length);
+                assertEquals(MetaDataStandIn.tableName(i - 1), foreignKeys[0].getTargetTableDescription().getName());
+                assertEquals(1, foreignKeys[0].getColumnPairs().length);
+                assertSame(columns[1], foreignKeys[0].getColumnPairs()[0].getSourceColumn());
+                assertEquals("ID", foreignKeys[0].getColumnPairs()[0].getTargetColumn().getName());
+            }
+        }
+    }
+
+
+    // ********** JDBC stand-in **********
+
+    /**
+     * Answer the handful of DatabaseMetaData queries used by the
+     * JDBC external database from rows held in memory.
+     */
+    private static class MetaDataStandIn {
+        /** the number of tables in schema SCOTT */
+        private int tablesSize;
+        /** method name => Integer */
+        private final Map callCounts = new HashMap();
+        /** method name => Integer */
+        private final Map rowCounts = new HashMap();
+        /** whether a null table name returns the keys for every table */
+        boolean bulkKeysSupported = true;
+
+        MetaDataStandIn() {
+            super();
+        }
+
+        static String tableName(int index) {
+            return "TABLE_" + index;
+        }
+
+        void addTables(int count) {
+            this.tablesSize += count;
+        }
+
+        int tablesSize() {
+            return this.tablesSize;
+        }
+
+        int callCount(String methodName) {
+            return count(this.callCounts, methodName);
+        }
+
+        /**
+         * return the total number of rows returned by the specified method
+         */
+        int rowCount(String methodName) {
+            return count(this.rowCounts, methodName);
+        }
+
+        private static int count(Map counts, String methodName) {
+            Integer count = (Integer) counts.get(methodName);
+            return (count == null) ? 0 : count.intValue();
+        }
+
+        private static void increment(Map counts, String methodName, int increment) {
+            counts.put(methodName, Integer.valueOf(count(counts, methodName) + increment));
+        }
+
+        Connection buildConnection() {
+            final DatabaseMetaData metaData = (DatabaseMetaData) this.buildProxy(DatabaseMetaData.class, new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) {
+                    return MetaDataStandIn.this.metaDataCall(method.getName(), args);
+                }
+            });
+            return (Connection) this.buildProxy(Connection.class, new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) {
+                    return method.getName().equals("getMetaData") ? metaData : null;
+                }
+            });
+        }
+
+        Object metaDataCall(String methodName, Object[] args) {
+            increment(this.callCounts, methodName, 1);
+            List rows;
+            if (methodName.equals("getTables")) {
+                rows = this.tableRows((String) args[2]);
+            } else if (methodName.equals("getColumns")) {
+                rows = this.columnRows((String) args[2]);
+            } else if (methodName.equals("getPrimaryKeys")) {
+                rows = this.primaryKeyRows((String) args[2]);
+            } else if (methodName.equals("getImportedKeys")) {
+                rows = this.importedKeyRows((String) args[2]);
+            } else {
+                throw new UnsupportedOperationException(methodName);
+            }
+            increment(this.rowCounts, methodName, rows.size());
+            return this.buildResultSet(rows);
+        }
+
+        /**
+         * the stand-in only supports '%' as a pattern
+         */
+        private boolean tableMatches(int index, String tableNamePattern) {
+            return tableNamePattern.equals("%") || tableNamePattern.equals(tableName(index));
+        }
+
+        /**
+         * a null table name is not a pattern; it depends on the driver
+         */
+        private boolean keyTableMatches(int index, String tableName) {
+            return (tableName == null) ? this.bulkKeysSupported : tableName.equals(tableName(index));
+        }
+
+        private List tableRows(String tableNamePattern) {
+            List rows = new ArrayList();
+            for (int i = 0; i < this.tablesSize; i++) {
+                if (this.tableMatches(i, tableNamePattern)) {
+                    rows.add(new Object[] {null, "SCOTT", tableName(i), "TABLE"});
+                }
+            }
+            return rows;
+        }
+
+        private List columnRows(String tableNamePattern) {
+            List rows = new ArrayList();
+            for (int i = 0; i < this.tablesSize; i++) {
+                if (this.tableMatches(i, tableNamePattern)) {
+                    rows.add(this.columnRow(i, "ID", "NO"));
+                    rows.add(this.columnRow(i, "PARENT_ID", "YES"));
+                }
+            }
+            return rows;
+        }
+
+        private Object[] columnRow(int index, String columnName, String nullable) {
+            Object[] row = new Object[18];
+            row[1] = "SCOTT";
+            row[2] = tableName(index);
+            row[3] = columnName;
+            row[4] = Integer.valueOf(Types.INTEGER);
+            row[5] = "INTEGER";
+            row[6] = Integer.valueOf(10);
+            row[8] = Integer.valueOf(0);
+            row[17] = nullable;
+            return row;
+        }
+
+        private List primaryKeyRows(String tableName) {
+            List rows = new ArrayList();
+            for (int i = 0; i < this.tablesSize; i++) {
+                if (this.keyTableMatches(i, tableName)) {
+                    rows.add(new Object[] {null, "SCOTT", tableName(i), "ID", Integer.valueOf(1), "PK_" + i});
+                }
+            }
+            return rows;
+        }
+
+        private List importedKeyRows(String tableName) {
+            List rows = new ArrayList();
+            for (int i = 1; i < this.tablesSize; i++) {
+                if (this.keyTableMatches(i, tableName)) {
+                    Object[] row = new Object[14];
+                    row[1] = "SCOTT";
+                    row[2] = tableName(i - 1);
+                    row[3] = "ID";
+                    row[5] = "SCOTT";
+                    row[6] = tableName(i);
+                    row[7] = "PARENT_ID";
+                    row[11] = "FK_" + i;
+                    rows.add(row);
+                }
+            }
+            return rows;
+        }
+
+        /**
+         * the rows are arrays of values, indexed by (1-based) column index
+         */
+        private ResultSet buildResultSet(final List rows) {
+            return (ResultSet) this.buildProxy(ResultSet.class, new InvocationHandler() {
+                private Iterator stream = rows.iterator();
+                private Object[] row;
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) {
+                    String methodName = method.getName();
+                    if (methodName.equals("next")) {
+                        this.row = this.stream.hasNext() ? (Object[]) this.stream.next() : null;
+                        return Boolean.valueOf(this.row != null);
+                    }
+                    if (methodName.equals("getString")) {
+                        return this.row[((Integer) args[0]).intValue() - 1];
+                    }
+                    if (methodName.equals("getInt")) {
+                        Object value = this.row[((Integer) args[0]).intValue() - 1];
+                        return (value == null) ? Integer.valueOf(0) : value;
+                    }
+                    if (methodName.equals("close")) {
+                        return null;
+                    }
+                    throw new UnsupportedOperationException(methodName);
+                }
+            });
+        }
+
+        private Object buildProxy(Class javaInterface, InvocationHandler handler) {
+            return Proxy.newProxyInstance(javaInterface.getClassLoader(), new Class[] {javaInterface}, handler);
+        }
+    }
+
+}
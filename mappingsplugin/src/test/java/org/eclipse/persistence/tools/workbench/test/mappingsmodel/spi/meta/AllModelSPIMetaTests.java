@@ -32,6 +32,7 @@ public static Test suite() {
 
         suite.addTest(AllModelSPIMetaClassFileTests.suite());
         suite.addTest(AllModelSPIMetaClassLoaderTests.suite());
+        suite.addTest(CachingExternalClassRepositoryFactoryTests.suite());
 
         return suite;
     }
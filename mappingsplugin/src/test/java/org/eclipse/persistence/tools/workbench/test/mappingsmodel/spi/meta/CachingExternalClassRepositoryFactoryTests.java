@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 1998, 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation from Oracle TopLink
+package org.eclipse.persistence.tools.workbench.test.mappingsmodel.spi.meta;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.persistence.tools.workbench.mappingsmodel.spi.meta.CachingExternalClassRepositoryFactory;
+import org.eclipse.persistence.tools.workbench.mappingsmodel.spi.meta.ExternalClassDescription;
+import org.eclipse.persistence.tools.workbench.mappingsmodel.spi.meta.ExternalClassRepository;
+import org.eclipse.persistence.tools.workbench.mappingsmodel.spi.meta.ExternalClassRepositoryFactory;
+
+public class CachingExternalClassRepositoryFactoryTests extends TestCase {
+    private TestFactory delegate;
+    CachingExternalClassRepositoryFactory factory;
+
+    public static Test suite() {
+        return new TestSuite(CachingExternalClassRepositoryFactoryTests.class);
+    }
+
+    public CachingExternalClassRepositoryFactoryTests(String name) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        this.delegate = new TestFactory();
+        this.factory = new CachingExternalClassRepositoryFactory(this.delegate);
+    }
+
+    public void testSameClasspath() {
+        ExternalClassRepository repository = this.factory.buildClassRepository(new File[] {new File("/a.jar"), new File("/b.jar")});
+        assertSame(repository, this.factory.buildClassRepository(new File[] {new File("/a.jar"), new File("/b.jar")}));
+        assertEquals(1, this.delegate.buildCount);
+        assertEquals(1, this.factory.size());
+    }
+
+    public void testDifferentClasspath() {
+        ExternalClassRepository repository = this.factory.buildClassRepository(new File[] {new File("/a.jar"), new File("/b.jar")});
+        assertNotSame(repository, this.factory.buildClassRepository(new File[] {new File("/b.jar"), new File("/a.jar")}));
+        assertNotSame(repository, this.factory.buildClassRepository(new File[] {new File("/a.jar")}));
+        assertEquals(3, this.delegate.buildCount);
+        assertEquals(3, this.factory.size());
+    }
+
+    public void testClasspathChangedAfterBuild() {
+        File[] classpath = new File[] {new File("/a.jar")};
+        ExternalClassRepository repository = this.factory.buildClassRepository(classpath);
+        classpath[0] = new File("/b.jar");
+        assertSame(repository, this.factory.buildClassRepository(new File[] {new File("/a.jar")}));
+    }
+
+    public void testConcurrentBuilds() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List futures = new ArrayList();
+            for (int i = 0; i < 20; i++) {
+                futures.add(executor.submit(new Callable() {
+                    @Override
+                    public Object call() {
+                        return CachingExternalClassRepositoryFactoryTests.this.factory.buildClassRepository(new File[] {new File("/a.jar"), new File("/b.jar")});
+                    }
+                }));
+            }
+            Object repository = ((Future) futures.get(0)).get();
+            for (Iterator stream = futures.iterator(); stream.hasNext(); ) {
+                assertSame(repository, ((Future) stream.next()).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, this.delegate.buildCount);
+        assertEquals(1, this.factory.size());
+    }
+
+    public void testClear() {
+        TestRepository repository = (TestRepository) this.factory.buildClassRepository(new File[] {new File("/a.jar")});
+        this.factory.clear();
+        assertEquals(0, this.factory.size());
+        assertTrue(repository.released);
+        assertNotSame(repository, this.factory.buildClassRepository(new File[] {new File("/a.jar")}));
+        assertEquals(2, this.delegate.buildCount);
+    }
+
+
+    // ********** member classes **********
+
+    private static class TestFactory implements ExternalClassRepositoryFactory {
+        int buildCount = 0;
+        @Override
+        public ExternalClassRepository buildClassRepository(File[] classpath) {
+            this.buildCount++;
+            return new TestRepository();
+        }
+    }
+
+    private static class TestRepository implements ExternalClassRepository {
+        boolean released = false;
+        @Override
+        public ExternalClassDescription getClassDescription(String className) {
+            return null;
+        }
+        @Override
+        public ExternalClassDescription[] getClassDescriptions() {
+            return new ExternalClassDescription[0];
+        }
+        @Override
+        public void releaseResources() {
+            this.released = true;
+        }
+    }
+
+}
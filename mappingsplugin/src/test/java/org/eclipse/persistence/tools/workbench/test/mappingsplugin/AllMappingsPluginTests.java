@@ -17,6 +17,7 @@
 import junit.framework.Test;
 import junit.framework.TestSuite;
 
+import org.eclipse.persistence.tools.workbench.test.ant.BatchProjectExporterTests;
 import org.eclipse.persistence.tools.workbench.test.ant.EisProjectExporterTests;
 import org.eclipse.persistence.tools.workbench.test.ant.EisProjectValidatorTests;
 import org.eclipse.persistence.tools.workbench.test.ant.OXProjectExporterTests;
@@ -47,6 +48,7 @@ public static Test suite(boolean all) {
         suite.addTest(OXProjectExporterTests.suite());
         suite.addTest(ProjectValidatorTests.suite());
         suite.addTest(ProjectExporterTests.suite());
+        suite.addTest(BatchProjectExporterTests.suite());
 
         return suite;
     }
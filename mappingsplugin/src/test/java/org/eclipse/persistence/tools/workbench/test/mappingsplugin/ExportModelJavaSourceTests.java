@@ -15,6 +15,7 @@
 package org.eclipse.persistence.tools.workbench.test.mappingsplugin;
 
 import java.io.File;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
@@ -157,6 +158,41 @@ public void testGenerateEndToEndWithMethodAccessing()
     }
 
 
+    public void testRegenerateUnchangedSource()
+        throws Exception
+    {
+        generateDescriptors(false);
+        generateSourceCode();
+
+        File[] javaFiles = new File(this.tempDirectory, getPackageName()).listFiles();
+        assertTrue(javaFiles.length > 1);
+        // the class comment holds the generation time, which should be ignored
+        for (int i = 1; i < javaFiles.length; i++) {
+            String unchangedSource = new String(Files.readAllBytes(javaFiles[i].toPath()), "UTF-8");
+            String oldSource = unchangedSource.replaceFirst("(Generated by .*) - .*\\.  ###", "$1 - Thu Jan 01 00:00:00 UTC 1970.  ###");
+            assertFalse(oldSource.equals(unchangedSource));
+            Files.write(javaFiles[i].toPath(), oldSource.getBytes("UTF-8"));
+        }
+        for (int i = 0; i < javaFiles.length; i++) {
+            assertTrue(javaFiles[i].setLastModified(1000000L));
+        }
+        File changedFile = javaFiles[0];
+        String source = new String(Files.readAllBytes(changedFile.toPath()), "UTF-8");
+        Files.write(changedFile.toPath(), ("// changed" + source).getBytes("UTF-8"));
+        assertTrue(changedFile.setLastModified(1000000L));
+
+        generateSourceCode();
+
+        // unchanged files are left untouched
+        for (int i = 1; i < javaFiles.length; i++) {
+            assertEquals(1000000L, javaFiles[i].lastModified());
+        }
+        // changed files are re-written
+        assertFalse(changedFile.lastModified() == 1000000L);
+        assertEquals(source, new String(Files.readAllBytes(changedFile.toPath()), "UTF-8"));
+    }
+
+
     // **************** guts of the tests *************************************
 
     private void internalTestGenerateEndToEnd(boolean generateMethods)
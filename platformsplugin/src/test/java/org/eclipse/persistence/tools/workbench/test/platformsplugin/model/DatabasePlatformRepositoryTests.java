@@ -312,7 +312,7 @@ private DiffEngine buildDiffEngine() {
 
         rd = diffEngine.addReflectiveDifferentiator(AbstractModel.class, "changeSupport");
         rd = diffEngine.addReflectiveDifferentiator(AbstractNodeModel.class);
-            rd.ignoreFieldsNamed(new String[] {"branchProblems", "dirty", "dirtyBranch", "problems"});
+            rd.ignoreFieldsNamed(new String[] {"branchProblems", "branchNeedsValidation", "calculatedProblems", "dirty", "dirtyBranch", "needsValidation", "problems"});
             rd.addReferenceFieldNamed("parent");
 
         rd = diffEngine.addReflectiveDifferentiator(this.classForName("org.eclipse.persistence.tools.workbench.platformsmodel.AbstractJDBCTypeToJavaTypeDeclarationMapping"));
@@ -15,7 +15,12 @@
 package org.eclipse.persistence.tools.workbench.uitools;
 
 import java.awt.BorderLayout;
+import java.awt.EventQueue;
 import java.awt.Font;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
 import javax.swing.AbstractListModel;
 import javax.swing.BorderFactory;
 import javax.swing.JLabel;
@@ -34,6 +39,7 @@
 import org.eclipse.persistence.tools.workbench.utility.string.SimpleStringMatcher;
 import org.eclipse.persistence.tools.workbench.utility.string.StringConverter;
 import org.eclipse.persistence.tools.workbench.utility.string.StringMatcher;
+import org.eclipse.persistence.tools.workbench.utility.string.SubstringIndex;
 
 
 /**
@@ -65,6 +71,14 @@
  *         to result in a list smaller than the maximum size; the
  *         default is -1, which disables the restriction
  *
+ * Large lists are filtered on a background thread, so the text field
+ * remains responsive while the user types; a filter that is superseded
+ * by further typing is abandoned. With the default string matcher, the
+ * list is narrowed incrementally (i.e. when the user simply extends the
+ * pattern, only the entries that matched the previous pattern are
+ * re-checked) and via an index on the entries' strings, which can be
+ * supplied by the client or is built as needed.
+ *
  * This panel is not a typical panel, in the sense that it does not share
  * its model with clients via value models. Instead, this panel's model
  * is set and queried directly because it is designed to be used in a
@@ -106,12 +120,38 @@ public class FilteringListPanel extends JPanel {
      */
     private StringMatcher stringMatcher;
 
+    /** The matcher built by the panel; only it can be used with the index. */
+    private StringMatcher defaultStringMatcher;
+
     /**
-     * Performance tweak: We use this buffer instead of
-     * a temporary variable during filtering so we don't have
-     * to keep re-allocating it.
+     * Incremented every time the list needs to be filtered, so
+     * filters running on the background thread can tell when
+     * they have been superseded. Only modified on the event-dispatch thread.
      */
-    private Object[] buffer;
+    private volatile int filterGeneration;
+
+    /**
+     * The index supplied by the client, along with the list and
+     * converter it was built from. It is replaced, never modified,
+     * on the event-dispatch thread, so the background thread can
+     * read it without locking.
+     */
+    private volatile SuppliedIndex suppliedIndex;
+
+    /**
+     * The state used to filter long lists, derived from the
+     * complete list and the string converter. All access
+     * must be synchronized on the filter state. It is only used
+     * on the background thread, so the event-dispatch thread
+     * never waits on a filter.
+     */
+    private final FilterState filterState;
+
+    /** Lists at least this long are filtered on the background thread. */
+    private static final int BACKGROUND_FILTERING_THRESHOLD = 2000;
+
+    /** The thread that filters large lists; shared by all the panels. */
+    private static ExecutorService filterExecutor;
 
     private static final Border TEXT_FIELD_LABEL_BORDER = BorderFactory.createEmptyBorder(0, 0, 5, 0);
     private static final Border LIST_BOX_LABEL_BORDER = BorderFactory.createEmptyBorder(5, 0, 5, 0);
@@ -135,9 +175,22 @@ public FilteringListPanel(Object[] completeList, Object initialSelection) {
      * choices and selection to strings.
      */
     public FilteringListPanel(Object[] completeList, Object initialSelection, StringConverter stringConverter) {
+        this(completeList, initialSelection, stringConverter, null);
+    }
+
+    /**
+     * Construct a FilteringListPanel with the specified list of choices
+     * and initial selection. Use the specified string converter to convert the
+     * choices and selection to strings. The specified index must have been
+     * built from the strings returned by the string converter, in the same
+     * order as the list of choices.
+     */
+    public FilteringListPanel(Object[] completeList, Object initialSelection, StringConverter stringConverter, SubstringIndex index) {
         super(new BorderLayout());
         this.completeList = completeList;
         this.stringConverter = stringConverter;
+        this.suppliedIndex = new SuppliedIndex(completeList, stringConverter, index);
+        this.filterState = new FilterState();
         this.initialize(initialSelection);
     }
 
@@ -146,11 +199,11 @@ public FilteringListPanel(Object[] completeList, Object initialSelection, String
 
     private void initialize(Object initialSelection) {
         this.maxListSize = this.defaultMaxListSize();
-        this.buffer = new Object[this.max()];
 
         this.textFieldListener = this.buildTextFieldListener();
 
         this.stringMatcher = this.buildStringMatcher();
+        this.defaultStringMatcher = this.stringMatcher;
 
         this.initializeLayout(initialSelection);
     }
@@ -159,10 +212,14 @@ private void initialize(Object initialSelection) {
      * Return the current max number of entries allowed in the list box.
      */
     private int max() {
+        return this.max(this.completeList);
+    }
+
+    private int max(Object[] list) {
         if (this.maxListSize == -1) {
-            return this.completeList.length;
+            return list.length;
         }
-        return Math.min(this.maxListSize, this.completeList.length);
+        return Math.min(this.maxListSize, list.length);
     }
 
     /**
@@ -256,15 +313,22 @@ public Object[] getCompleteList() {
     }
 
     /**
-     * rebuild the filtering buffer and re-apply the filter
-     * to the new list
+     * re-apply the filter to the new list
      */
     public void setCompleteList(Object[] completeList) {
+        this.setCompleteList(completeList, null);
+    }
+
+    /**
+     * re-apply the filter to the new list, using the specified index
+     * (which must have been built from the strings returned by the
+     * string converter, in the same order as the list)
+     */
+    public void setCompleteList(Object[] completeList, SubstringIndex index) {
+        // supersede any filter still running on the old list first
+        this.filterGeneration++;
         this.completeList = completeList;
-        if (this.buffer.length < this.max()) {
-            // the buffer will never shrink - might want to re-consider... -bjv
-            this.buffer = new Object[this.max()];
-        }
+        this.suppliedIndex = new SuppliedIndex(completeList, this.stringConverter, index);
         this.filterList();
     }
 
@@ -274,10 +338,6 @@ public int getMaxListSize() {
 
     public void setMaxListSize(int maxListSize) {
         this.maxListSize = maxListSize;
-        if (this.buffer.length < this.max()) {
-            // the buffer will never shrink - might want to re-consider... -bjv
-            this.buffer = new Object[this.max()];
-        }
         this.filterList();
     }
 
@@ -392,39 +452,162 @@ protected String buildText(Object value) {
 
     /**
      * Something has changed that requires us to filter the list.
-     *
-     * This method is synchronized because a fast typist can
-     * generate events quicker than we can filter the list. (? -bjv)
+     * Short lists are filtered immediately; long lists are filtered
+     * on the background thread, and the results are displayed once
+     * the filter completes (unless it has been superseded by then).
+     * This method must be called on the event-dispatch thread.
      */
-    synchronized void filterList() {
-        // temporarily stop listening to the list box selection, since we will
-        // be changing the selection during the filtering and don't want
-        // that to affect the text field
-        this.filterList(this.textField.getText());
+    void filterList() {
+        final String pattern = this.textField.getText();
+        final int generation = ++this.filterGeneration;
+        final Object[] list = this.completeList;
+        if ((pattern.length() == 0) || (list.length < BACKGROUND_FILTERING_THRESHOLD)) {
+            this.filterCompleted(this.filter(list, pattern, generation), generation);
+            return;
+        }
+        final StringConverter converter = this.stringConverter;
+        filterExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                FilteringListPanel.this.filterInBackground(list, converter, pattern, generation);
+            }
+            @Override
+            public String toString() {
+                return "filter list: " + pattern;
+            }
+        });
     }
 
     /**
-     * Filter the contents of the list box to match the
-     * specified pattern.
+     * Filter the specified list on the background thread
+     * and display the results on the event-dispatch thread.
      */
-    private void filterList(String pattern) {
+    void filterInBackground(Object[] list, StringConverter converter, String pattern, final int generation) {
+        if (generation != this.filterGeneration) {
+            return;        // superseded while waiting to run
+        }
+        final Object[] filteredList = this.filter(list, converter, pattern, generation);
+        if (filteredList == null) {
+            return;        // superseded while running
+        }
+        EventQueue.invokeLater(new Runnable() {
+            @Override
+            public void run() {
+                FilteringListPanel.this.filterCompleted(filteredList, generation);
+            }
+            @Override
+            public String toString() {
+                return "filter completed";
+            }
+        });
+    }
+
+    private Object[] filter(Object[] list, String pattern, int generation) {
         if (pattern.length() == 0) {
-            this.listBox.setModel(this.buildPartialArrayListModel(this.completeList, this.max()));
+            int max = this.max(list);
+            if (max == list.length) {
+                return list;
+            }
+            Object[] result = new Object[max];
+            System.arraycopy(list, 0, result, 0, max);
+            return result;
+        }
+        return this.filter(list, this.stringConverter, pattern, generation);
+    }
+
+    /**
+     * Return the entries in the specified list that match the specified
+     * pattern; return null if the filter is superseded before it completes.
+     * Short lists are simply scanned. With the default string matcher,
+     * long lists are narrowed: only the entries that matched the previous
+     * pattern (if the new pattern simply extends it) or the entries
+     * returned by the index are checked.
+     */
+    private Object[] filter(Object[] list, StringConverter converter, String pattern, int generation) {
+        StringMatcher matcher = this.stringMatcher;
+        boolean narrowable = (matcher == this.defaultStringMatcher);
+        if (narrowable) {
+            // the default matcher is not shared, so filters on different threads cannot interfere
+            matcher = new SimpleStringMatcher(pattern);
         } else {
-            this.stringMatcher.setPatternString(pattern);
-            int j = 0;
-            int len = this.completeList.length;
-            int max = this.max();
-            for (int i = 0; i < len; i++) {
-                if (this.stringMatcher.matches(this.stringConverter.convertToString(this.completeList[i]))) {
-                    this.buffer[j++] = this.completeList[i];
+            matcher.setPatternString(pattern);
+        }
+        int max = this.max(list);
+        int[] matches;
+        int count;
+        if (list.length < BACKGROUND_FILTERING_THRESHOLD) {
+            // filtered on the event-dispatch thread, which must not wait on the filter state
+            matches = new int[Math.min(list.length, max + 1)];
+            count = this.match(convert(list, converter), null, matcher, matches, generation);
+        } else {
+            synchronized (this.filterState) {
+                String[] strings = this.filterState.strings(list, converter);
+                int[] candidates = null;
+                if (narrowable) {
+                    candidates = this.filterState.previousMatches(list, converter, pattern);
+                    if (candidates == null) {
+                        SubstringIndex index = this.suppliedIndex.indexFor(list, converter);
+                        if (index == null) {
+                            index = this.filterState.index(list, converter, strings);
+                        }
+                        candidates = index.candidatesFor(pattern);
+                    }
                 }
-                if (j == max) {
-                    break;
+                int len = (candidates == null) ? list.length : candidates.length;
+                matches = new int[Math.min(len, max + 1)];
+                count = this.match(strings, candidates, matcher, matches, generation);
+                if (narrowable && (count != -1) && (count <= max)) {
+                    this.filterState.setPreviousMatches(list, converter, pattern, matches, count);
                 }
             }
-            this.listBox.setModel(this.buildPartialArrayListModel(this.buffer, j));
         }
+        if (count == -1) {
+            return null;
+        }
+        count = Math.min(count, max);
+        Object[] result = new Object[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = list[matches[i]];
+        }
+        return result;
+    }
+
+    /**
+     * Put the indices of the specified strings (or candidates) that match
+     * into the specified array, stopping once it is full. Return the number
+     * of matches, or -1 if the filter is superseded before it completes.
+     */
+    private int match(String[] strings, int[] candidates, StringMatcher matcher, int[] matches, int generation) {
+        int len = (candidates == null) ? strings.length : candidates.length;
+        int count = 0;
+        for (int i = 0; (i < len) && (count < matches.length); i++) {
+            if (((i & 0xFF) == 0) && (generation != this.filterGeneration)) {
+                return -1;
+            }
+            int index = (candidates == null) ? i : candidates[i];
+            if (matcher.matches(strings[index])) {
+                matches[count++] = index;
+            }
+        }
+        return count;
+    }
+
+    private static String[] convert(Object[] list, StringConverter converter) {
+        String[] strings = new String[list.length];
+        for (int i = list.length; i-- > 0; ) {
+            strings[i] = converter.convertToString(list[i]);
+        }
+        return strings;
+    }
+
+    /**
+     * Display the filtered list, unless it has been superseded.
+     */
+    void filterCompleted(Object[] filteredList, int generation) {
+        if (generation != this.filterGeneration) {
+            return;
+        }
+        this.listBox.setModel(this.buildPartialArrayListModel(filteredList, filteredList.length));
 
         // after filtering the list, determine the appropriate selection
         if (this.listBox.getModel().getSize() == 0) {
@@ -436,6 +619,20 @@ private void filterList(String pattern) {
         }
     }
 
+    private static synchronized ExecutorService filterExecutor() {
+        if (filterExecutor == null) {
+            filterExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "FilteringListPanel filter");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return filterExecutor;
+    }
+
     /**
      * Build a list model that wraps only a portion of the specified array.
      * The model will include the array entries from 0 to (size - 1).
@@ -452,4 +649,103 @@ public Object getElementAt(int index) {
             }
         };
     }
+
+
+    // ********** member classes **********
+
+    /**
+     * An index supplied by the client, along with the list and
+     * converter it was built from. Immutable.
+     */
+    private static final class SuppliedIndex {
+        private final Object[] list;
+        private final StringConverter converter;
+        private final SubstringIndex index;
+
+        SuppliedIndex(Object[] list, StringConverter converter, SubstringIndex index) {
+            super();
+            this.list = list;
+            this.converter = converter;
+            this.index = index;
+        }
+
+        /**
+         * Return the index if it was built from the specified list
+         * and converter; otherwise return null.
+         */
+        SubstringIndex indexFor(Object[] l, StringConverter c) {
+            return ((l == this.list) && (c == this.converter)) ? this.index : null;
+        }
+    }
+
+
+    /**
+     * Cache the strings derived from the complete list, the index
+     * built on those strings, and the results of the previous filter,
+     * so they can be re-used by subsequent filters. All access must be
+     * synchronized on the filter state.
+     */
+    private static class FilterState {
+        /** the list and converter used to build the strings */
+        private Object[] list;
+        private StringConverter converter;
+        private String[] strings;
+
+        /** the list and converter used to build the index (if the client did not supply one) */
+        private Object[] indexedList;
+        private StringConverter indexedConverter;
+        private SubstringIndex index;
+
+        /** the last completed (and not truncated) filter */
+        private String previousPattern;
+        private int[] previousMatches;
+
+        FilterState() {
+            super();
+        }
+
+        String[] strings(Object[] l, StringConverter c) {
+            if ((l != this.list) || (c != this.converter)) {
+                this.strings = convert(l, c);
+                this.list = l;
+                this.converter = c;
+                this.previousMatches = null;
+            }
+            return this.strings;
+        }
+
+        /**
+         * the specified strings are derived from the specified list
+         * and converter
+         */
+        SubstringIndex index(Object[] l, StringConverter c, String[] s) {
+            if ((l != this.indexedList) || (c != this.indexedConverter)) {
+                this.index = new SubstringIndex(s);
+                this.indexedList = l;
+                this.indexedConverter = c;
+            }
+            return this.index;
+        }
+
+        /**
+         * Return the matches of the previous filter if the specified
+         * pattern simply extends the previous pattern.
+         */
+        int[] previousMatches(Object[] l, StringConverter c, String pattern) {
+            if ((this.previousMatches == null) || (l != this.list) || (c != this.converter)) {
+                return null;
+            }
+            return pattern.startsWith(this.previousPattern) ? this.previousMatches : null;
+        }
+
+        void setPreviousMatches(Object[] l, StringConverter c, String pattern, int[] matches, int count) {
+            if ((l != this.list) || (c != this.converter)) {
+                return;
+            }
+            this.previousPattern = pattern;
+            this.previousMatches = new int[count];
+            System.arraycopy(matches, 0, this.previousMatches, 0, count);
+        }
+    }
+
 }
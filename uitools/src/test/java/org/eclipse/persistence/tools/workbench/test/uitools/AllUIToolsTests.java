@@ -38,6 +38,7 @@ public static Test suite(boolean all) {
 
         suite.addTest(ComponentEnablerTest.suite());
         suite.addTest(DisplayableTests.suite());
+        suite.addTest(FilteringListPanelTests.suite());
         suite.addTest(PreferencesRecentFilesManagerTests.suite());
         suite.addTest(PropertyValueModelDisplayableAdapterTests.suite());
         suite.addTest(SimpleDisplayableTests.suite());
@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 1998, 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation from Oracle TopLink
+package org.eclipse.persistence.tools.workbench.test.uitools;
+
+import java.awt.EventQueue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.ListModel;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.persistence.tools.workbench.uitools.FilteringListPanel;
+import org.eclipse.persistence.tools.workbench.utility.string.StringConverter;
+import org.eclipse.persistence.tools.workbench.utility.string.SubstringIndex;
+
+public class FilteringListPanelTests extends TestCase {
+    FilteringListPanel panel;
+    CountDownLatch release;
+
+    /** long enough to be filtered on the background thread */
+    private static final int LONG_LIST_SIZE = 5000;
+
+    private static final long TIMEOUT = 10000;
+
+    public static Test suite() {
+        return new TestSuite(FilteringListPanelTests.class);
+    }
+
+    public FilteringListPanelTests(String name) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        this.release = new CountDownLatch(0);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        // make sure the shared filter thread is not left waiting
+        this.release.countDown();
+        super.tearDown();
+    }
+
+    public void testFilterShortList() throws Exception {
+        Object[] list = this.buildList(100);
+        this.panel = this.buildPanel(list, StringConverter.DEFAULT_INSTANCE);
+        this.setText("*1?");
+
+        assertEquals(this.expected(list, "1", 1), this.displayedList());
+    }
+
+    public void testFilterLongList() throws Exception {
+        Object[] list = this.buildList(LONG_LIST_SIZE);
+        this.panel = this.buildPanel(list, StringConverter.DEFAULT_INSTANCE);
+        this.setText("*12*");
+
+        this.waitForDisplayedList(this.expected(list, "12", -1));
+    }
+
+    public void testNarrowLongList() throws Exception {
+        Object[] list = this.buildList(LONG_LIST_SIZE);
+        this.panel = this.buildPanel(list, StringConverter.DEFAULT_INSTANCE);
+        this.setText("*1*");
+        this.waitForDisplayedList(this.expected(list, "1", -1));
+
+        // extend the pattern
+        this.setText("*12*");
+        this.waitForDisplayedList(this.expected(list, "12", -1));
+
+        // shorten the pattern
+        this.setText("*2*");
+        this.waitForDisplayedList(this.expected(list, "2", -1));
+    }
+
+    public void testMaxListSize() throws Exception {
+        Object[] list = this.buildList(LONG_LIST_SIZE);
+        this.panel = this.buildPanel(list, StringConverter.DEFAULT_INSTANCE);
+        this.onEventDispatchThread(new Runnable() {
+            @Override
+            public void run() {
+                FilteringListPanelTests.this.panel.setMaxListSize(10);
+            }
+        });
+        this.setText("*3*");
+
+        this.waitForDisplayedList(this.expected(list, "3", -1).subList(0, 10));
+    }
+
+    public void testSetCompleteListWithIndex() throws Exception {
+        Object[] list1 = this.buildList(LONG_LIST_SIZE);
+        this.panel = this.buildPanel(list1, StringConverter.DEFAULT_INSTANCE);
+        this.setText("*45*");
+        this.waitForDisplayedList(this.expected(list1, "45", -1));
+
+        final Object[] list2 = this.buildList(LONG_LIST_SIZE + 100);
+        String[] strings = new String[list2.length];
+        for (int i = list2.length; i-- > 0; ) {
+            strings[i] = (String) list2[i];
+        }
+        final SubstringIndex index = new SubstringIndex(strings);
+        this.onEventDispatchThread(new Runnable() {
+            @Override
+            public void run() {
+                FilteringListPanelTests.this.panel.setCompleteList(list2, index);
+            }
+        });
+
+        this.waitForDisplayedList(this.expected(list2, "45", -1));
+    }
+
+    /**
+     * Replacing the list on the event-dispatch thread must not wait
+     * for a filter that is still running on the background thread.
+     */
+    public void testSetCompleteListWhileFiltering() throws Exception {
+        final Object blocker = "blocker";
+        final CountDownLatch started = new CountDownLatch(1);
+        this.release = new CountDownLatch(1);
+        StringConverter converter = new StringConverter() {
+            @Override
+            public String convertToString(Object o) {
+                if (o == blocker) {
+                    started.countDown();
+                    try {
+                        FilteringListPanelTests.this.release.await();
+                    } catch (InterruptedException ex) {
+                        throw new RuntimeException(ex);
+                    }
+                }
+                return (String) o;
+            }
+        };
+        Object[] list1 = this.buildList(LONG_LIST_SIZE);
+        list1[0] = blocker;
+        this.panel = this.buildPanel(list1, converter);
+        this.setText("*1*");
+        assertTrue(started.await(TIMEOUT, TimeUnit.MILLISECONDS));
+
+        // the background filter is now stuck in the converter
+        final Object[] list2 = this.buildList(100);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future future = executor.submit(new Callable() {
+                @Override
+                public Object call() throws Exception {
+                    FilteringListPanelTests.this.onEventDispatchThread(new Runnable() {
+                        @Override
+                        public void run() {
+                            FilteringListPanelTests.this.panel.setCompleteList(list2);
+                        }
+                    });
+                    return null;
+                }
+            });
+            future.get(TIMEOUT, TimeUnit.MILLISECONDS);
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(this.expected(list2, "1", -1), this.displayedList());
+
+        // the superseded filter must not replace the new list
+        this.release.countDown();
+        Thread.sleep(200);
+        assertEquals(this.expected(list2, "1", -1), this.displayedList());
+    }
+
+
+    // ********** helpers **********
+
+    private Object[] buildList(int size) {
+        Object[] list = new Object[size];
+        for (int i = 0; i < size; i++) {
+            list[i] = "Entry" + i;
+        }
+        return list;
+    }
+
+    /**
+     * Return the entries that contain the specified string; if a position
+     * is specified, the string must be at that position from the end.
+     */
+    private List expected(Object[] list, String string, int position) {
+        List result = new ArrayList();
+        for (int i = 0; i < list.length; i++) {
+            String entry = (String) list[i];
+            if (position == -1) {
+                if (entry.indexOf(string) != -1) {
+                    result.add(entry);
+                }
+            } else {
+                int index = entry.length() - string.length() - position;
+                if ((index >= 0) && entry.startsWith(string, index)) {
+                    result.add(entry);
+                }
+            }
+        }
+        return result;
+    }
+
+    private FilteringListPanel buildPanel(final Object[] list, final StringConverter converter) throws Exception {
+        final FilteringListPanel[] result = new FilteringListPanel[1];
+        this.onEventDispatchThread(new Runnable() {
+            @Override
+            public void run() {
+                result[0] = new FilteringListPanel(list, null, converter);
+            }
+        });
+        return result[0];
+    }
+
+    private void setText(final String text) throws Exception {
+        this.onEventDispatchThread(new Runnable() {
+            @Override
+            public void run() {
+                FilteringListPanelTests.this.panel.getTextField().setText(text);
+            }
+        });
+    }
+
+    List displayedList() throws Exception {
+        final Object[][] result = new Object[1][];
+        this.onEventDispatchThread(new Runnable() {
+            @Override
+            public void run() {
+                ListModel model = FilteringListPanelTests.this.panel.getListBox().getModel();
+                Object[] entries = new Object[model.getSize()];
+                for (int i = entries.length; i-- > 0; ) {
+                    entries[i] = model.getElementAt(i);
+                }
+                result[0] = entries;
+            }
+        });
+        return Arrays.asList(result[0]);
+    }
+
+    private void waitForDisplayedList(List expected) throws Exception {
+        long stop = System.currentTimeMillis() + TIMEOUT;
+        List actual = this.displayedList();
+        while ( ! actual.equals(expected) && (System.currentTimeMillis() < stop)) {
+            Thread.sleep(10);
+            actual = this.displayedList();
+        }
+        assertEquals(expected, actual);
+    }
+
+    void onEventDispatchThread(Runnable runnable) throws Exception {
+        EventQueue.invokeAndWait(runnable);
+    }
+
+}
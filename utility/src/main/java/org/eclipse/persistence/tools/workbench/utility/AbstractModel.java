@@ -732,6 +732,27 @@ protected final boolean attributeValueHasChanged(Object oldValue, Object newValu
     }
 
 
+    // ********** batch support **********
+
+    /**
+     * Start coalescing the property and collection change events
+     * fired by the current thread; match every call to this method
+     * with a call to #endChangeBatch(), typically in a "finally" clause.
+     * @see ChangeSupport#startBatch()
+     */
+    protected final void startChangeBatch() {
+        this.changeSupport().startBatch();
+    }
+
+    /**
+     * Fire the events coalesced since the matching call to #startChangeBatch().
+     * @see ChangeSupport#endBatch()
+     */
+    protected final void endChangeBatch() {
+        this.changeSupport().endBatch();
+    }
+
+
     // ********** standard methods **********
 
     /**
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 1998, 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation from Oracle TopLink
+package org.eclipse.persistence.tools.workbench.utility;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import org.eclipse.persistence.tools.workbench.utility.string.StringTools;
+
+
+/**
+ * This class keeps a limited number of archive (JAR/ZIP) files open,
+ * so a client reading many entries from the same archives does not
+ * need to open the archive (and read its central directory) for
+ * every entry. When more than the maximum number of archives are
+ * open, the least-recently-used archive is closed.
+ *
+ * An archive is locked only while one of its entries is being read,
+ * so entries from different archives can be read concurrently.
+ * Archives are keyed by the files passed in, so clients should
+ * consistently use the same (typically canonical) files.
+ * Clients must #close() the cache once they are finished with it.
+ */
+public class ArchiveCache {
+
+    /** file => Archive, in access order */
+    private final Map archives;
+
+    /** the maximum number of archives held open at any one time */
+    private final int maximumOpenArchives;
+
+    /** the default maximum number of open archives */
+    public static final int DEFAULT_MAXIMUM_OPEN_ARCHIVES = 16;
+
+
+    // ********** constructors **********
+
+    /**
+     * Construct a cache that will hold open the default
+     * maximum number of archives.
+     */
+    public ArchiveCache() {
+        this(DEFAULT_MAXIMUM_OPEN_ARCHIVES);
+    }
+
+    /**
+     * Construct a cache that will hold open, at most,
+     * the specified number of archives.
+     */
+    public ArchiveCache(int maximumOpenArchives) {
+        super();
+        if (maximumOpenArchives < 1) {
+            throw new IllegalArgumentException("maximum open archives must be positive: " + maximumOpenArchives);
+        }
+        this.maximumOpenArchives = maximumOpenArchives;
+        this.archives = new LinkedHashMap(maximumOpenArchives + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry eldest) {
+                if (this.size() > ArchiveCache.this.maximumOpenArchives) {
+                    ((Archive) eldest.getValue()).close();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+
+    // ********** queries **********
+
+    /**
+     * Return the contents of the specified archive entry;
+     * return null if the archive does not contain the entry.
+     */
+    public byte[] read(File archiveFile, String entryName) throws IOException {
+        while (true) {
+            Archive archive = this.archive(archiveFile);
+            synchronized (archive) {
+                if ( ! archive.isClosed()) {
+                    return archive.read(entryName);
+                }
+            }
+            // the archive was closed by another thread; try again
+        }
+    }
+
+    /**
+     * Return the number of archives currently cached.
+     */
+    public int size() {
+        synchronized (this.archives) {
+            return this.archives.size();
+        }
+    }
+
+    private Archive archive(File archiveFile) {
+        synchronized (this.archives) {
+            Archive archive = (Archive) this.archives.get(archiveFile);
+            if (archive == null) {
+                archive = new Archive(archiveFile);
+                this.archives.put(archiveFile, archive);
+            }
+            return archive;
+        }
+    }
+
+
+    // ********** behavior **********
+
+    /**
+     * Close all the open archives. The cache can still be used
+     * afterwards; it will simply re-open archives as needed.
+     */
+    public void close() {
+        Archive[] openArchives;
+        synchronized (this.archives) {
+            openArchives = (Archive[]) this.archives.values().toArray(new Archive[this.archives.size()]);
+            this.archives.clear();
+        }
+        for (int i = 0; i < openArchives.length; i++) {
+            openArchives[i].close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return StringTools.buildToStringFor(this, this.size() + " archives");
+    }
+
+
+    // ********** member class **********
+
+    /**
+     * Hold a lazily-opened JAR file. All access must be synchronized
+     * on the archive.
+     */
+    private static class Archive {
+        private final File file;
+        private JarFile jarFile;
+        private boolean closed;
+
+        Archive(File file) {
+            super();
+            this.file = file;
+        }
+
+        boolean isClosed() {
+            return this.closed;
+        }
+
+        private JarFile jarFile() throws IOException {
+            if (this.jarFile == null) {
+                this.jarFile = new JarFile(this.file);
+            }
+            return this.jarFile;
+        }
+
+        byte[] read(String entryName) throws IOException {
+            JarFile jf = this.jarFile();
+            JarEntry entry = jf.getJarEntry(entryName);
+            if (entry == null) {
+                return null;
+            }
+            long size = entry.getSize();
+            ByteArrayOutputStream baos = new ByteArrayOutputStream((size < 0) ? 8192 : (int) size);
+            InputStream stream = jf.getInputStream(entry);
+            try {
+                byte[] buffer = new byte[8192];
+                int count;
+                while ((count = stream.read(buffer)) != -1) {
+                    baos.write(buffer, 0, count);
+                }
+            } finally {
+                stream.close();
+            }
+            return baos.toByteArray();
+        }
+
+        synchronized void close() {
+            this.closed = true;
+            if (this.jarFile != null) {
+                try {
+                    this.jarFile.close();
+                } catch (IOException ex) {
+                    // ignore - we are finished with the file
+                }
+                this.jarFile = null;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return StringTools.buildToStringFor(this, this.file);
+        }
+    }
+
+}
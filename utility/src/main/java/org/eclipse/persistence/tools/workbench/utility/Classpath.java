@@ -55,10 +55,20 @@
     // ***** factory methods for "standard" classpaths *****
 
     /**
-     * Return the Java "boot" classpath. This includes rt.jar.
+     * Return the Java "boot" classpath. This includes rt.jar or,
+     * with jdk9 and later, the modules in the JDK's module image.
      */
     public static Classpath bootClasspath() {
-        return new Classpath(System.getProperty("sun.boot.class.path"));
+        String path = System.getProperty("sun.boot.class.path");
+        if (path != null) {
+            return new Classpath(path);
+        }
+        String[] moduleNames = ModuleImage.moduleNames();
+        String[] fileNames = new String[moduleNames.length];
+        for (int i = moduleNames.length; i-- > 0; ) {
+            fileNames[i] = ModuleImage.fileNameFor(moduleNames[i]);
+        }
+        return new Classpath(fileNames);
     }
 
     /**
@@ -318,6 +328,8 @@ public static boolean fileIsArchive(File file) {
      * Return what should be the fully-qualified file name
      * for the JRE runtime JAR;
      * e.g. "C:\jdk1.4.2_04\jre\lib\rt.jar".
+     * With jdk9 and later this is the module holding java.lang.Object;
+     * i.e. "jrt:/java.base".
      */
     public static String rtJarName() {
         return locationFor(java.lang.Object.class);
@@ -328,13 +340,19 @@ public static String rtJarName() {
      */
     public static String locationFor(Class javaClass) {
         URL url = convertToResource(javaClass);
+        String protocol = url.getProtocol().toLowerCase();
+        if ("jrt".equals(protocol)) {
+            // jdk9 - jrt:/java.base/java/lang/Object.class
+            // the URL path always uses '/', whatever the O/S
+            String path = url.getPath();
+            return ModuleImage.fileNameFor(path.substring(1, path.indexOf('/', 1)));
+        }
         String path;
         try {
             path = FileTools.buildFile(url).getPath();
         } catch (URISyntaxException ex) {
             throw new RuntimeException(ex);
         }
-        String protocol = url.getProtocol().toLowerCase();
         if (protocol.equals("jar")) {
             // if the class is in a JAR, the URL will look something like this:
             //     jar:file:/C:/jdk/1.4.2_04/jre/lib/rt.jar!/java/lang/String.class
@@ -343,9 +361,6 @@ public static String locationFor(Class javaClass) {
             // if the class is in a directory, the URL will look something like this:
             //     file:/C:/dev/main/mwdev/class/oracle/toplink/workbench/utility/ClasspathTools.class
             return path.substring(0, path.length() - convertToClassFileName(javaClass).length() - 1);
-        } else if ("jrt".equals(protocol)) {
-            // jdk9 - jrt:/java.base/java/lang/Object.class
-            return path.substring(0, path.indexOf(File.separatorChar, 5));
         }
 
         throw new IllegalStateException(url.toString());
@@ -627,6 +642,8 @@ public static class Entry implements Serializable {
         private final String fileName;
         private final File file;
         private final File canonicalFile;
+        /** the name of the module in the JDK's module image; null for files and directories */
+        private final String moduleName;
 
         private static final long serialVersionUID = 1L;
 
@@ -638,6 +655,7 @@ public static class Entry implements Serializable {
             this.fileName = fileName;
             this.file = new File(fileName);
             this.canonicalFile = FileTools.canonicalFile(this.file);
+            this.moduleName = ModuleImage.fileNameIsModule(fileName) ? ModuleImage.moduleNameFor(fileName) : null;
         }
 
         public String fileName() {
@@ -653,7 +671,23 @@ public File canonicalFile() {
         }
 
         public String canonicalFileName() {
-            return this.canonicalFile.getAbsolutePath();
+            return this.isModule() ? ModuleImage.fileNameFor(this.moduleName) : this.canonicalFile.getAbsolutePath();
+        }
+
+        /**
+         * Return whether the entry is a module in the JDK's module image
+         * (e.g. "jrt:/java.base").
+         */
+        public boolean isModule() {
+            return this.moduleName != null;
+        }
+
+        /**
+         * Return the name of the entry's module in the JDK's module image;
+         * return null if the entry is a file or directory.
+         */
+        public String moduleName() {
+            return this.moduleName;
         }
 
         @Override
@@ -674,6 +708,9 @@ public int hashCode() {
          */
         public URL url() {
             try {
+                if (this.isModule()) {
+                    return new URL(this.canonicalFileName());
+                }
                 return this.canonicalFile.toURL();
             } catch (IOException ex) {
                 throw new RuntimeException(ex);
@@ -700,6 +737,9 @@ public boolean contains(String className) {
          * Not the prettiest signature, but it's internal....
          */
         boolean contains(String relativeClassFileName, String archiveEntryName) {
+            if (this.isModule()) {
+                return ModuleImage.containsEntry(this.moduleName, archiveEntryName);
+            }
             if ( ! this.canonicalFile.exists()) {
                 return false;
             }
@@ -762,7 +802,9 @@ public void addClassNamesTo(Collection classNames) {
          * and accepted by the specified filter to the specified collection.
          */
         public void addClassNamesTo(Collection classNames, Filter filter) {
-            if (this.canonicalFile.exists()) {
+            if (this.isModule()) {
+                this.addClassNamesForModuleTo(classNames, filter);
+            } else if (this.canonicalFile.exists()) {
                 if (this.canonicalFile.isDirectory()) {
                     this.addClassNamesForDirectoryTo(classNames, filter);
                 } else if (fileIsArchive(this.canonicalFile)) {
@@ -828,6 +870,19 @@ private void addClassNamesForArchiveTo(Collection classNames, Filter filter) {
             }
         }
 
+        /**
+         * Add the names of all the classes in the entry's module
+         * and accepted by the specified filter to the specified collection.
+         */
+        private void addClassNamesForModuleTo(Collection classNames, Filter filter) {
+            String[] moduleClassNames = ModuleImage.classNames(this.moduleName);
+            for (int i = 0; i < moduleClassNames.length; i++) {
+                if (filter.accept(moduleClassNames[i])) {
+                    classNames.add(moduleClassNames[i]);
+                }
+            }
+        }
+
         /**
          * Return whether the specified file might be a Java class file.
          * The file name must at least end with ".class" and contain no spaces.
@@ -854,6 +909,9 @@ public Iterator classNamesStream() {
          * Just a bit more performant than #classNames(Filter).
          */
         public Iterator classNamesStream(Filter filter) {
+            if (this.isModule()) {
+                return new FilteringIterator(new ArrayIterator(ModuleImage.classNames(this.moduleName)), filter);
+            }
             if (this.canonicalFile.exists()) {
                 if (this.canonicalFile.isDirectory()) {
                     return this.classNamesForDirectory(filter);
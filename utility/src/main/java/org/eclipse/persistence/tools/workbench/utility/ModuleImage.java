@@ -0,0 +1,337 @@
+/*
+ * Copyright (c) 1998, 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation from Oracle TopLink
+package org.eclipse.persistence.tools.workbench.utility;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.eclipse.persistence.tools.workbench.utility.io.FileTools;
+
+
+/**
+ * This class provides access to the classes held in the current JDK's
+ * module image (Java 9 and later), via the "jrt:" file system. On older
+ * JDKs the image is simply not available, and the boot classes are found
+ * in rt.jar on the "sun.boot.class.path".
+ *
+ * Enumerating the tens of thousands of classes in the image is slow,
+ * so the class names are indexed, per module, in a file under the user's
+ * temporary directory. The index is keyed by the JDK's version and
+ * location and is rebuilt whenever the image itself changes.
+ */
+public final class ModuleImage {
+
+    /** module name => class names (String[]); null until first needed */
+    private static Map classNames;
+
+    /** the file system for the module image; null if it is not available */
+    private static FileSystem fileSystem;
+    private static boolean fileSystemInitialized = false;
+
+    /** the prefix used to name a module in a classpath, e.g. "jrt:/java.base" */
+    public static final String PROTOCOL = "jrt:";
+
+    private static final String MODULES_DIRECTORY_NAME = "/modules";
+    private static final String INDEX_DIRECTORY_NAME = "workbench-module-index";
+    private static final String INDEX_VERSION = "1";
+
+
+    // ********** queries **********
+
+    /**
+     * Return whether the current JDK has a module image.
+     */
+    public static boolean isAvailable() {
+        return fileSystem() != null;
+    }
+
+    /**
+     * Return the names of the modules in the image, sorted.
+     */
+    public static String[] moduleNames() {
+        Map map = classNames();
+        return (String[]) map.keySet().toArray(new String[map.size()]);
+    }
+
+    /**
+     * Return the names of the classes in the specified module.
+     */
+    public static String[] classNames(String moduleName) {
+        String[] names = (String[]) classNames().get(moduleName);
+        return (names == null) ? new String[0] : names;
+    }
+
+    /**
+     * Return whether the specified module contains the specified archive entry
+     * (e.g. "java/lang/Object.class").
+     */
+    public static boolean containsEntry(String moduleName, String entryName) {
+        FileSystem fs = fileSystem();
+        return (fs != null) && Files.exists(fs.getPath(MODULES_DIRECTORY_NAME, moduleName, entryName));
+    }
+
+    /**
+     * Return a stream on the specified entry (e.g. "java/lang/Object.class")
+     * in the specified module.
+     */
+    public static InputStream getInputStream(String moduleName, String entryName) throws IOException {
+        FileSystem fs = fileSystem();
+        if (fs == null) {
+            throw new IOException("module image not available: " + PROTOCOL + "/" + moduleName);
+        }
+        return Files.newInputStream(fs.getPath(MODULES_DIRECTORY_NAME, moduleName, entryName));
+    }
+
+    /**
+     * Return whether the specified classpath entry name
+     * refers to a module in the image (e.g. "jrt:/java.base").
+     */
+    public static boolean fileNameIsModule(String fileName) {
+        return fileName.startsWith(PROTOCOL);
+    }
+
+    /**
+     * Return the name of the module referred to by the specified
+     * classpath entry name; e.g. "jrt:/java.base" => "java.base".
+     * The separator can be mangled by java.io.File, so we allow either.
+     */
+    public static String moduleNameFor(String fileName) {
+        int start = PROTOCOL.length();
+        int len = fileName.length();
+        while ((start < len) && ((fileName.charAt(start) == '/') || (fileName.charAt(start) == '\\'))) {
+            start++;
+        }
+        return fileName.substring(start);
+    }
+
+    /**
+     * Return the classpath entry name for the specified module;
+     * e.g. "java.base" => "jrt:/java.base".
+     */
+    public static String fileNameFor(String moduleName) {
+        return PROTOCOL + "/" + moduleName;
+    }
+
+
+    // ********** internal **********
+
+    private static synchronized FileSystem fileSystem() {
+        if ( ! fileSystemInitialized) {
+            fileSystemInitialized = true;
+            try {
+                fileSystem = FileSystems.getFileSystem(URI.create(PROTOCOL + "/"));
+            } catch (RuntimeException ex) {
+                // pre-Java 9 - ProviderNotFoundException etc.
+                fileSystem = null;
+            }
+        }
+        return fileSystem;
+    }
+
+    private static synchronized Map classNames() {
+        if (classNames == null) {
+            classNames = buildClassNames();
+        }
+        return classNames;
+    }
+
+    private static Map buildClassNames() {
+        if (fileSystem() == null) {
+            return Collections.EMPTY_MAP;
+        }
+        File indexFile = indexFile();
+        String stamp = imageStamp();
+        Map result = readIndex(indexFile, stamp);
+        if (result == null) {
+            result = scanImage();
+            writeIndex(indexFile, stamp, result);
+        }
+        return result;
+    }
+
+    /**
+     * the index is per JDK (version and location)
+     */
+    private static File indexFile() {
+        String jdk = System.getProperty("java.runtime.version") + "-" + Integer.toHexString(System.getProperty("java.home").hashCode());
+        File dir = new File(FileTools.userTemporaryDirectory(), INDEX_DIRECTORY_NAME);
+        return new File(dir, FileTools.convertToValidFileName(jdk) + ".txt");
+    }
+
+    /**
+     * the stamp changes whenever the image is replaced (e.g. patched in place)
+     */
+    private static String imageStamp() {
+        File image = new File(new File(System.getProperty("java.home"), "lib"), "modules");
+        return INDEX_VERSION + " " + image.length() + " " + image.lastModified();
+    }
+
+    /**
+     * The index file holds the stamp on the first line, followed by
+     * a line for each module:
+     *     module-name class-name class-name ...
+     * Return null if the file is missing, stale, or corrupt.
+     */
+    private static Map readIndex(File indexFile, String stamp) {
+        if ( ! indexFile.exists()) {
+            return null;
+        }
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(indexFile), "UTF-8"));
+            try {
+                if ( ! stamp.equals(reader.readLine())) {
+                    return null;
+                }
+                Map result = new TreeMap();
+                for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                    String[] tokens = line.split(" ");
+                    String[] names = new String[tokens.length - 1];
+                    System.arraycopy(tokens, 1, names, 0, names.length);
+                    result.put(tokens[0], names);
+                }
+                return result;
+            } finally {
+                reader.close();
+            }
+        } catch (IOException ex) {
+            return null;    // rebuild the index
+        }
+    }
+
+    /**
+     * Write the index to a temporary file and move it into place atomically,
+     * so concurrent workbenches never read a partial (or missing) index.
+     * The index is only a cache, so any problems are ignored.
+     */
+    private static void writeIndex(File indexFile, String stamp, Map index) {
+        File dir = indexFile.getParentFile();
+        dir.mkdirs();
+        try {
+            File tempFile = File.createTempFile(indexFile.getName(), ".tmp", dir);
+            Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tempFile), "UTF-8"));
+            try {
+                writer.write(stamp);
+                writer.write('\n');
+                for (Iterator stream = index.entrySet().iterator(); stream.hasNext(); ) {
+                    Map.Entry entry = (Map.Entry) stream.next();
+                    writer.write((String) entry.getKey());
+                    String[] names = (String[]) entry.getValue();
+                    for (int i = 0; i < names.length; i++) {
+                        writer.write(' ');
+                        writer.write(names[i]);
+                    }
+                    writer.write('\n');
+                }
+            } finally {
+                writer.close();
+            }
+            try {
+                moveIndex(tempFile, indexFile);
+            } finally {
+                tempFile.delete();    // if the move failed
+            }
+        } catch (IOException ex) {
+            // ignore - we will simply scan the image again next time
+        }
+    }
+
+    /**
+     * Replace the index file with the temporary file. Fall back to a
+     * non-atomic replace on file systems that cannot move atomically;
+     * a reader that catches the index mid-move will simply scan the image.
+     */
+    private static void moveIndex(File tempFile, File indexFile) throws IOException {
+        try {
+            Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Walk the image and gather up the names of the classes in each module.
+     */
+    private static Map scanImage() {
+        Map result = new TreeMap();
+        try {
+            DirectoryStream modules = Files.newDirectoryStream(fileSystem().getPath(MODULES_DIRECTORY_NAME));
+            try {
+                for (Iterator stream = modules.iterator(); stream.hasNext(); ) {
+                    Path module = (Path) stream.next();
+                    result.put(module.getFileName().toString().replace("/", ""), scanModule(module));
+                }
+            } finally {
+                modules.close();
+            }
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+        return result;
+    }
+
+    private static String[] scanModule(final Path module) throws IOException {
+        final List names = new ArrayList(1000);
+        Files.walkFileTree(module, new SimpleFileVisitor() {
+            @Override
+            public FileVisitResult visitFile(Object file, BasicFileAttributes attributes) {
+                // the image's paths always use '/', whatever the O/S
+                String entryName = module.relativize((Path) file).toString();
+                if (entryName.endsWith(".class") && (entryName.indexOf(' ') == -1) && ! entryName.equals("module-info.class")) {
+                    names.add(entryName.substring(0, entryName.length() - 6).replace('/', '.'));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        Collections.sort(names);
+        return (String[]) names.toArray(new String[names.size()]);
+    }
+
+
+    // ********** constructor **********
+
+    /**
+     * Suppress default constructor, ensuring non-instantiability.
+     */
+    private ModuleImage() {
+        super();
+        throw new UnsupportedOperationException();
+    }
+
+}
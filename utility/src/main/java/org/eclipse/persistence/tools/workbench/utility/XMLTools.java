@@ -32,6 +32,10 @@
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.Result;
 import javax.xml.transform.Source;
 import javax.xml.transform.Transformer;
@@ -53,21 +57,49 @@
  * In particular, it facilitates the getting and setting of the values
  * of the children of a particular node (e.g. when reading and writing
  * the attributes of an object from and to an XML document).
+ *
+ * The parsers and transformers are not thread-safe, so each thread
+ * gets its own, which it re-uses; documents can be read and written
+ * on multiple threads at once. Clients that only need a few elements
+ * near the top of a (possibly large) document can use the streaming
+ * methods, which do not build a DOM.
  */
 public final class XMLTools {
 
     /**The DOM parser factory. */
     private static DocumentBuilderFactory documentBuilderFactory;
 
-    /**The DOM parser. Just keep one around and synchronize access to it. */
-    private static DocumentBuilder documentBuilder;
+    /**The DOM parsers. Each thread keeps one around and re-uses it. */
+    private static final ThreadLocal documentBuilders =
+        new ThreadLocal() {
+            @Override
+            protected Object initialValue() {
+                return buildDocumentBuilder();
+            }
+        };
 
 
     /**The transformer factory. */
     private static TransformerFactory transformerFactory;
 
-    /**The transformer. Just keep one around and synchronize access to it. */
-    private static Transformer transformer;
+    /**The transformers. Each thread keeps one around and re-uses it. */
+    private static final ThreadLocal transformers =
+        new ThreadLocal() {
+            @Override
+            protected Object initialValue() {
+                return buildTransformer();
+            }
+        };
+
+
+    /**The streaming parser factories. Each thread keeps one around and re-uses it. */
+    private static final ThreadLocal xmlInputFactories =
+        new ThreadLocal() {
+            @Override
+            protected Object initialValue() {
+                return XMLInputFactory.newInstance();
+            }
+        };
 
 
     // ********** parsing **********
@@ -83,15 +115,22 @@ private static synchronized DocumentBuilderFactory documentBuilderFactory() {
         return documentBuilderFactory;
     }
 
-    private static synchronized DocumentBuilder documentBuilder() {
-        if (documentBuilder == null) {
+    private static DocumentBuilder documentBuilder() {
+        return (DocumentBuilder) documentBuilders.get();
+    }
+
+    /**
+     * the factory itself is not guaranteed to be thread-safe
+     */
+    private static DocumentBuilder buildDocumentBuilder() {
+        DocumentBuilderFactory factory = documentBuilderFactory();
+        synchronized (factory) {
             try {
-                documentBuilder = documentBuilderFactory().newDocumentBuilder();
+                return factory.newDocumentBuilder();
             } catch (ParserConfigurationException ex) {
                 throw new RuntimeException(ex);
             }
         }
-        return documentBuilder;
     }
 
     /**
@@ -99,7 +138,7 @@ private static synchronized DocumentBuilder documentBuilder() {
      * of the specified input source.
      * DocumentBuilder#parse(InputSource inputSource) throws RuntimeExceptions
      */
-    public static synchronized Document parse(InputSource inputSource) {
+    public static Document parse(InputSource inputSource) {
         try {
             return documentBuilder().parse(inputSource);
         } catch (SAXException ex) {
@@ -163,6 +202,102 @@ public static Document parse(File file) {
     }
 
 
+    // ********** streaming **********
+
+    /**
+     * Return a streaming reader on the specified input stream.
+     * The reader must be closed by the client; closing the reader
+     * does not close the stream.
+     * XMLInputFactory#createXMLStreamReader(InputStream inputStream) throws RuntimeExceptions
+     */
+    public static XMLStreamReader streamReader(InputStream inputStream) {
+        try {
+            return ((XMLInputFactory) xmlInputFactories.get()).createXMLStreamReader(inputStream);
+        } catch (XMLStreamException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Move the specified reader to the document's root element
+     * and return the root element's name. Return null if the
+     * document does not have a root element.
+     */
+    public static String moveToRootElement(XMLStreamReader reader) {
+        try {
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                    return reader.getLocalName();
+                }
+            }
+        } catch (XMLStreamException ex) {
+            throw new RuntimeException(ex);
+        }
+        return null;
+    }
+
+    /**
+     * Return the text content of the first child element with the
+     * specified name of the element the specified reader is positioned on.
+     * Return null if the child is not found. The reader stops as soon as
+     * the child is found, leaving the reader on the child's end element;
+     * otherwise the reader is left on the parent's end element.
+     */
+    public static String childTextContent(XMLStreamReader reader, String childName) {
+        int depth = 0;    // the depth below the parent element
+        try {
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    if ((depth == 0) && reader.getLocalName().equals(childName)) {
+                        return reader.getElementText();
+                    }
+                    depth++;
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    if (depth == 0) {
+                        break;        // end of the parent element
+                    }
+                    depth--;
+                }
+            }
+        } catch (XMLStreamException ex) {
+            throw new RuntimeException(ex);
+        }
+        return null;
+    }
+
+    /**
+     * Return the text content of the first child element with the
+     * specified name of the specified file's root element, reading only
+     * as much of the file as necessary. Return null if the child
+     * is not found.
+     */
+    public static String rootChildTextContent(File file, String childName) {
+        InputStream inputStream;
+        try {
+            inputStream = new BufferedInputStream(new FileInputStream(file), 8192);    // 8KB
+        } catch (FileNotFoundException ex) {
+            throw new RuntimeException(ex);
+        }
+        try {
+            XMLStreamReader reader = streamReader(inputStream);
+            try {
+                return (moveToRootElement(reader) == null) ? null : childTextContent(reader, childName);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException ex) {
+            throw new RuntimeException(ex);
+        } finally {
+            try {
+                inputStream.close();
+            } catch (IOException ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+    }
+
+
     // ********** reading **********
 
     /**
@@ -456,19 +591,28 @@ private static synchronized TransformerFactory transformerFactory() {
         return transformerFactory;
     }
 
-    private static synchronized Transformer transformer() {
-        if (transformer == null) {
+    private static Transformer transformer() {
+        return (Transformer) transformers.get();
+    }
+
+    /**
+     * the factory itself is not guaranteed to be thread-safe
+     */
+    private static Transformer buildTransformer() {
+        TransformerFactory factory = transformerFactory();
+        Transformer transformer;
+        synchronized (factory) {
             try {
-                transformer = transformerFactory().newTransformer();
+                transformer = factory.newTransformer();
             } catch (TransformerConfigurationException ex) {
                 throw new RuntimeException(ex);
             }
-            try {
-                transformer.setOutputProperty("indent", "yes");
-                transformer.setOutputProperty("{http://xml.apache.org/xalan}indent-amount", "3");
-            } catch (IllegalArgumentException ex) {
-                // ignore exception - the output will still be valid XML, it just won't be very user-friendly
-            }
+        }
+        try {
+            transformer.setOutputProperty("indent", "yes");
+            transformer.setOutputProperty("{http://xml.apache.org/xalan}indent-amount", "3");
+        } catch (IllegalArgumentException ex) {
+            // ignore exception - the output will still be valid XML, it just won't be very user-friendly
         }
         return transformer;
     }
@@ -476,7 +620,7 @@ private static synchronized Transformer transformer() {
     /**
      * Print the specified source to the specified result.
      */
-    public static synchronized void print(Source source, Result result) {
+    public static void print(Source source, Result result) {
         try {
             transformer().transform(source, result);
         } catch (TransformerException ex) {
@@ -49,6 +49,10 @@ static Attribute read(ClassFileDataInputStream stream, AttributePool pool) throw
         short nameIndex = stream.readU2();
         String name = pool.constantPool().getUTF8String(nameIndex);
 
+        if (stream.isSkimming() && isSkimmable(name)) {
+            return new SkippedAttribute(stream, nameIndex, pool);
+        }
+
         if (name.equals("ConstantValue")) {
             return new ConstantValueAttribute(stream, nameIndex, pool);
 
@@ -108,6 +112,19 @@ static Attribute read(ClassFileDataInputStream stream, AttributePool pool) throw
         }
     }
 
+    /**
+     * Return whether the specified attribute can be skipped when the
+     * class file is "skimmed": method bodies and debugging information
+     * do not contribute to the class's declarations.
+     */
+    private static boolean isSkimmable(String name) {
+        return name.equals("Code")
+            || name.equals("LineNumberTable")
+            || name.equals("LocalVariableTable")
+            || name.equals("LocalVariableTypeTable")
+            || name.equals("SourceDebugExtension");
+    }
+
     /**
      * Construct a class file attribute from the specified stream
      * of byte codes.
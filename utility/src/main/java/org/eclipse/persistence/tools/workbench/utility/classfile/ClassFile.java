@@ -15,18 +15,23 @@
 package org.eclipse.persistence.tools.workbench.utility.classfile;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 
+import org.eclipse.persistence.tools.workbench.utility.ArchiveCache;
 import org.eclipse.persistence.tools.workbench.utility.ClassTools;
 import org.eclipse.persistence.tools.workbench.utility.Classpath;
+import org.eclipse.persistence.tools.workbench.utility.ModuleImage;
 import org.eclipse.persistence.tools.workbench.utility.classfile.descriptor.ObjectType;
 import org.eclipse.persistence.tools.workbench.utility.classfile.tools.ClassFileDataInputStream;
 import org.eclipse.persistence.tools.workbench.utility.io.IndentingPrintWriter;
@@ -35,6 +40,13 @@
 /**
  * This class models the information held in a Java .class file.
  *
+ * A class file can also be "skimmed" from a byte buffer: the buffer is
+ * read in place, method bodies and debugging attributes are skipped,
+ * and the constant pool's strings are only decoded when they are first
+ * requested. A skimmed class file describes the class's declarations
+ * (including its members' signatures and generic signatures) at a
+ * fraction of the cost of a fully-parsed class file.
+ *
  * See "The Java Virtual Machine Specification" Chapter 4.
  */
 /*
@@ -49,6 +61,7 @@ public class ClassFile {
     private FieldPool fieldPool;
     private MethodPool methodPool;
     private AttributePool attributePool;
+    private boolean skimmed;
 
 
     // ********** static methods **********
@@ -109,6 +122,14 @@ public static ClassFile fromArchiveEntry(File file, String className) throws IOE
         }
     }
 
+    /**
+     * Construct a class file for the specified class in the specified
+     * module of the JDK's module image (jdk9 and later).
+     */
+    public static ClassFile fromModule(String moduleName, String className) throws IOException {
+        return ClassFile.fromInputStream(ModuleImage.getInputStream(moduleName, Classpath.convertToArchiveClassFileEntryName(className)));
+    }
+
     /**
      * Construct a class file from the specified file.
      */
@@ -127,6 +148,9 @@ public static ClassFile fromClassFile(File classpathEntryDirectory, String class
      * Construct a class file for the specified class.
      */
     public static ClassFile forClass(File classPathEntry, String className) throws IOException {
+        if (ModuleImage.fileNameIsModule(classPathEntry.getPath())) {
+            return ClassFile.fromModule(ModuleImage.moduleNameFor(classPathEntry.getPath()), className);
+        }
         if (Classpath.fileNameIsArchive(classPathEntry.getPath())) {
             return ClassFile.fromArchiveEntry(classPathEntry, className);
         }
@@ -140,6 +164,57 @@ public static ClassFile forClass(Class javaClass) throws IOException {
         return ClassFile.forClass(new File(Classpath.locationFor(javaClass)), javaClass.getName());
     }
 
+    /**
+     * Skim a class file from the specified buffer, starting at the buffer's
+     * current position. The class file reads the buffer lazily, so the
+     * buffer's contents must not be changed once the class file is built.
+     */
+    public static ClassFile skim(ByteBuffer buffer) throws IOException {
+        return new ClassFile(buffer);
+    }
+
+    /**
+     * Skim a class file for the specified class,
+     * reading any archive through the specified cache.
+     */
+    public static ClassFile skimForClass(File classPathEntry, String className, ArchiveCache archiveCache) throws IOException {
+        return ClassFile.skim(ByteBuffer.wrap(ClassFile.bytesForClass(classPathEntry, className, archiveCache)));
+    }
+
+    /**
+     * Return the bytes of the class file for the specified class.
+     */
+    private static byte[] bytesForClass(File classPathEntry, String className, ArchiveCache archiveCache) throws IOException {
+        String entryName = Classpath.convertToArchiveClassFileEntryName(className);
+        if (ModuleImage.fileNameIsModule(classPathEntry.getPath())) {
+            return ClassFile.readFully(ModuleImage.getInputStream(ModuleImage.moduleNameFor(classPathEntry.getPath()), entryName));
+        }
+        if (Classpath.fileNameIsArchive(classPathEntry.getPath())) {
+            byte[] bytes = archiveCache.read(classPathEntry, entryName);
+            if (bytes == null) {
+                throw new IOException("missing archive entry: " + classPathEntry + "!/" + entryName);
+            }
+            return bytes;
+        }
+        return Files.readAllBytes(new File(classPathEntry, Classpath.convertToClassFileName(className)).toPath());
+    }
+
+    /**
+     * Read the specified stream completely, then close it.
+     */
+    private static byte[] readFully(InputStream stream) throws IOException {
+        try {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream(8192);
+            byte[] buffer = new byte[8192];
+            for (int count = stream.read(buffer); count != -1; count = stream.read(buffer)) {
+                baos.write(buffer, 0, count);
+            }
+            return baos.toByteArray();
+        } finally {
+            stream.close();
+        }
+    }
+
 
     // ********** constructor **********
 
@@ -152,6 +227,17 @@ public ClassFile(InputStream stream) throws IOException {
         this.initialize(new ClassFileDataInputStream(stream));
     }
 
+    /**
+     * Skim a class file from the specified buffer of byte codes,
+     * starting at the buffer's current position.
+     * @see #skim(ByteBuffer)
+     */
+    public ClassFile(ByteBuffer buffer) throws IOException {
+        super();
+        this.skimmed = true;
+        this.initialize(new ClassFileDataInputStream(buffer));
+    }
+
 
     // ********** instance methods **********
 
@@ -171,6 +257,15 @@ public String className() {
         return this.declaration.thisClassName();
     }
 
+    /**
+     * Return whether the class file was skimmed, in which case its
+     * methods' Code attributes and its debugging attributes are not
+     * available.
+     */
+    public boolean isSkimmed() {
+        return this.skimmed;
+    }
+
     public String displayString() {
         StringWriter sw = new StringWriter(2000);
         IndentingPrintWriter writer = new IndentingPrintWriter(sw);
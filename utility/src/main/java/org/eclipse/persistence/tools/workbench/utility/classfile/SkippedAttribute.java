@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 1998, 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation from Oracle TopLink
+package org.eclipse.persistence.tools.workbench.utility.classfile;
+
+import java.io.IOException;
+
+import org.eclipse.persistence.tools.workbench.utility.classfile.tools.ClassFileDataInputStream;
+import org.eclipse.persistence.tools.workbench.utility.io.IndentingPrintWriter;
+
+
+/**
+ * This class models an attribute that was skipped, by length, because
+ * the class file was "skimmed" and the attribute does not contribute to
+ * the class's declarations (e.g. a method's Code attribute or any of the
+ * debugging attributes):
+ *     u2 attribute_name_index;
+ *     u4 attribute_length;
+ *     u1[attribute_length] info;
+ *
+ * See "The Java Virtual Machine Specification" Chapter 4.
+ */
+public class SkippedAttribute extends Attribute {
+
+    /**
+     * Construct a skipped attribute from the specified stream
+     * of byte codes.
+     */
+    SkippedAttribute(ClassFileDataInputStream stream, short nameIndex, AttributePool pool) throws IOException {
+        super(stream, nameIndex, pool);
+    }
+
+    /**
+     * Skip the info altogether.
+     */
+    @Override
+    void initializeInfo(ClassFileDataInputStream stream) throws IOException {
+        stream.skipFully(this.getLength());
+    }
+
+    @Override
+    void displayInfoStringOn(IndentingPrintWriter writer) {
+        writer.print("skipped: ");
+        writer.print(this.getLength());
+        writer.println(" bytes");
+    }
+
+    @Override
+    public void accept(Visitor visitor) {
+        visitor.visit(this);
+    }
+
+    @Override
+    void toString(StringBuffer sb) {
+        sb.append("skipped: ");
+        sb.append(this.getLength());
+        sb.append(" bytes");
+    }
+
+}
@@ -15,6 +15,7 @@
 package org.eclipse.persistence.tools.workbench.utility.classfile;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import org.eclipse.persistence.tools.workbench.utility.classfile.tools.ClassFileDataInputStream;
 import org.eclipse.persistence.tools.workbench.utility.io.IndentingPrintWriter;
@@ -31,6 +32,14 @@
 public class UTF8Constant extends Constant {
     private String value;
 
+    /**
+     * When the class file is "skimmed", the string is not decoded until
+     * it is first requested; until then we hold its location in the buffer.
+     */
+    private ByteBuffer buffer;
+    private int offset;
+    private int length;
+
     /**
      * Construct a class file constant from the specified stream
      * of byte codes.
@@ -41,43 +50,63 @@ public class UTF8Constant extends Constant {
 
     @Override
     void initialize(ClassFileDataInputStream stream) throws IOException {
-        this.value = this.readStringFrom(stream);
+        int len = stream.readU2() & 0xFFFF;
+        if (stream.isSkimming()) {
+            this.buffer = stream.getBuffer();
+            this.offset = stream.position();
+            this.length = len;
+            stream.skipFully(len);
+        } else {
+            byte[] bytes = new byte[len];
+            stream.readFully(bytes);
+            this.value = this.decode(ByteBuffer.wrap(bytes), 0, len);
+        }
     }
 
-    private String readStringFrom(ClassFileDataInputStream stream) throws IOException {
-        short len = stream.readU2();
-        StringBuffer sb = new StringBuffer(len);
-        for (short count = 0; count < len; count++) {
-            byte b = stream.readU1();
+    /**
+     * Decode the "modified" UTF-8 bytes at the specified location,
+     * using the buffer's "absolute" get, so the buffer is not modified.
+     */
+    private String decode(ByteBuffer bytes, int start, int len) throws IOException {
+        char[] chars = new char[len];
+        int charCount = 0;
+        int end = start + len;
+        for (int i = start; i < end; i++) {
+            byte b = bytes.get(i);
             if ((b & 0x80) == 0) {
                 // if the first bit is 0, we have a single-byte character
-                sb.append((char) b);
+                chars[charCount++] = (char) b;
             } else {
                 // if the first bit is 1, we have a multi-byte character
                 if ((b & 0x40) == 0) {
                     // if the second bit is 0 at this point, something is wrong...
                     throw this.badByte(b);
                 }
-                short s;
+                int s;
                 if ((b & 0x20) == 0) {
                     // if the third bit is 0, we have a 2-byte character
-                    s = (short) ((b & 0x1F) << 6);        // bits 4-0 become bits 10-6
+                    s = (b & 0x1F) << 6;        // bits 4-0 become bits 10-6
                 } else {
                     // if the third bit is 1, we have a 3-byte character
-                    s = (short) ((b & 0x0F) << 12);        // bits 3-0 become bits 15-12
-                    b = stream.readU1();
-                    this.checkContinuation(b);
-                    count++;
+                    s = (b & 0x0F) << 12;        // bits 3-0 become bits 15-12
+                    b = this.continuation(bytes, ++i, end);
                     s |= ((b & 0x3f) << 6);        // bits 5-0 become bits 11-6
                 }
-                b = stream.readU1();
-                this.checkContinuation(b);
-                count++;
+                b = this.continuation(bytes, ++i, end);
                 s |= (b & 0x3f);        // bits 5-0 become bits 5-0
-                sb.append((char) s);
+                chars[charCount++] = (char) s;
             }
         }
-        return sb.toString();
+        return new String(chars, 0, charCount);
+    }
+
+    private byte continuation(ByteBuffer bytes, int index, int end) throws IOException {
+        if (index >= end) {
+            throw new IOException("Truncated UTF-8 character");
+        }
+        byte b = bytes.get(index);
+        this.checkContinuation(b);
+        return b;
     }
 
     private final IOException badByte(byte b) {
@@ -95,7 +124,7 @@ private final void checkContinuation(byte b) throws IOException {
     public void displayStringOn(IndentingPrintWriter writer) {
         super.displayStringOn(writer);
         writer.print(" value: \"");
-        writer.print(this.value);
+        writer.print(this.string());
         writer.println("\"");
     }
 
@@ -104,13 +133,27 @@ public String description() {
         return "UTF8";
     }
 
+    /**
+     * The string is decoded lazily when the class file is "skimmed";
+     * this can be called by multiple threads, but the result is always
+     * the same.
+     */
     public String string() {
-        return this.value;
+        String result = this.value;
+        if (result == null) {
+            try {
+                result = this.decode(this.buffer, this.offset, this.length);
+            } catch (IOException ex) {
+                throw new IllegalStateException(ex.getMessage());
+            }
+            this.value = result;
+        }
+        return result;
     }
 
     @Override
     public Object value() {
-        return this.value;
+        return this.string();
     }
 
     @Override
@@ -114,6 +114,8 @@ public interface Visitor {
 
     void visit(SignatureAttribute signatureAttribute);
 
+    void visit(SkippedAttribute skippedAttribute);
+
     void visit(SourceDebugExtensionAttribute sourceDebugExtensionAttribute);
 
     void visit(SourceFileAttribute sourceFileAttribute);
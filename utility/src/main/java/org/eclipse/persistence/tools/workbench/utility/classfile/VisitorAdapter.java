@@ -258,6 +258,11 @@ public void visit(SourceDebugExtensionAttribute sourceDebugExtensionAttribute) {
         // do nothing
     }
 
+    @Override
+    public void visit(SkippedAttribute skippedAttribute) {
+        // do nothing
+    }
+
     @Override
     public void visit(SourceFileAttribute sourceFileAttribute) {
         // do nothing
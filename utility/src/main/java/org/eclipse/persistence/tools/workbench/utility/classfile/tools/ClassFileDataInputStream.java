@@ -15,33 +15,174 @@
 package org.eclipse.persistence.tools.workbench.utility.classfile.tools;
 
 import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 /**
  * Add a few helper methods to DataInputStream.
  *
+ * A stream built on a ByteBuffer "skims" the buffer: it reads the buffer
+ * directly, without copying its bytes, and allows the class file elements
+ * to skip over (or postpone the decoding of) anything that is not needed
+ * to describe the class's declarations.
+ *
  * See "The Java Virtual Machine Specification" Chapter 4.
  */
 public class ClassFileDataInputStream extends DataInputStream {
 
+    /** the buffer being skimmed; null if we are reading a normal stream */
+    private final ByteBuffer buffer;
+
     /**
      * Public constructor.
      */
     public ClassFileDataInputStream(InputStream in) {
         super(in);
+        this.buffer = null;
+    }
+
+    /**
+     * Construct a stream that skims the specified buffer, starting at its
+     * current position. The buffer itself is not modified.
+     */
+    public ClassFileDataInputStream(ByteBuffer buffer) {
+        this(new BufferInputStream(buffer.duplicate().order(ByteOrder.BIG_ENDIAN)));
+    }
+
+    private ClassFileDataInputStream(BufferInputStream in) {
+        super(in);
+        this.buffer = in.buffer;
     }
 
     public final byte readU1() throws IOException {
+        if (this.buffer != null) {
+            try {
+                return this.buffer.get();
+            } catch (BufferUnderflowException ex) {
+                throw new EOFException();
+            }
+        }
         return (byte) this.readUnsignedByte();
     }
 
     public final short readU2() throws IOException {
+        if (this.buffer != null) {
+            try {
+                return this.buffer.getShort();
+            } catch (BufferUnderflowException ex) {
+                throw new EOFException();
+            }
+        }
         return (short) this.readUnsignedShort();
     }
 
     public final int readU4() throws IOException {
+        if (this.buffer != null) {
+            try {
+                return this.buffer.getInt();
+            } catch (BufferUnderflowException ex) {
+                throw new EOFException();
+            }
+        }
         return this.readInt();
     }
 
+    /**
+     * Return whether the stream is skimming a buffer.
+     */
+    public final boolean isSkimming() {
+        return this.buffer != null;
+    }
+
+    /**
+     * Return the buffer being skimmed; null if the stream is not skimming.
+     * Clients must not change the buffer's position; they should only
+     * use the buffer's "absolute" get methods.
+     */
+    public final ByteBuffer getBuffer() {
+        return this.buffer;
+    }
+
+    /**
+     * Return the position of the next byte to be read from the buffer
+     * being skimmed.
+     */
+    public final int position() {
+        return this.buffer.position();
+    }
+
+    /**
+     * Skip exactly the specified number of bytes.
+     */
+    public final void skipFully(int length) throws IOException {
+        if (this.buffer != null) {
+            if (length > this.buffer.remaining()) {
+                throw new EOFException();
+            }
+            this.buffer.position(this.buffer.position() + length);
+            return;
+        }
+        while (length > 0) {
+            int skipped = this.skipBytes(length);
+            if (skipped <= 0) {
+                // skipBytes() can stop early - make sure we are at the end
+                if (this.read() == -1) {
+                    throw new EOFException();
+                }
+                skipped = 1;
+            }
+            length -= skipped;
+        }
+    }
+
+
+    // ********** member class **********
+
+    /**
+     * Read a byte buffer, without copying it.
+     */
+    private static class BufferInputStream extends InputStream {
+        final ByteBuffer buffer;
+
+        BufferInputStream(ByteBuffer buffer) {
+            super();
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return this.buffer.hasRemaining() ? (this.buffer.get() & 0xFF) : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            int remaining = this.buffer.remaining();
+            if (remaining == 0) {
+                return -1;
+            }
+            int count = Math.min(len, remaining);
+            this.buffer.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public long skip(long n) {
+            int count = (int) Math.max(0, Math.min(n, this.buffer.remaining()));
+            this.buffer.position(this.buffer.position() + count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return this.buffer.remaining();
+        }
+    }
+
 }
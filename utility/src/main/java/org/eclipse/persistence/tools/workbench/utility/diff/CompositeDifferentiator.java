@@ -23,7 +23,7 @@
  * Delegate behavior to the component differentiators,
  * and gather up the results in a composite diff.
  */
-public class CompositeDifferentiator implements Differentiator {
+public class CompositeDifferentiator implements Differentiator, KeyHasher {
     /** the component differentiators */
     private final Differentiator[] differentiators;
 
@@ -81,6 +81,20 @@ private Diff diff(Object object1, Object object2, DifferentiatorAdapter adapter)
         return new CompositeDiff(object1, object2, diffs, this);
     }
 
+    /**
+     * the composite "key diff" is "identical" only if all
+     * the component "key diffs" are "identical"
+     * @see KeyHasher#keyHashCode(Object)
+     */
+    @Override
+    public int keyHashCode(Object object) {
+        int hash = 0;
+        for (int i = 0; i < this.differentiators.length; i++) {
+            hash = 31 * hash + ContainerDifferentiator.keyHashCode(this.differentiators[i], object);
+        }
+        return hash;
+    }
+
     /**
      * @see Differentiator#comparesValueObjects()
      */
@@ -16,9 +16,13 @@
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import org.eclipse.persistence.tools.workbench.utility.ClassTools;
 import org.eclipse.persistence.tools.workbench.utility.Counter;
@@ -31,9 +35,18 @@
  * Elements are matched up by using "key diffs": if the "key diff" indicates
  * that two elements have the same "key", they are then compared with
  * a "normal diff".
+ *
+ * If the element differentiator is a KeyHasher, the elements of the
+ * second container are bucketed by their "key" hash codes, and each element
+ * of the first container is "key diffed" only with the elements in its
+ * bucket; otherwise every pair of elements may be "key diffed".
+ *
+ * The differentiator can be configured to execute the "normal diffs" of the
+ * matched elements in parallel; in which case the element differentiator
+ * must be thread-safe.
  */
 public class ContainerDifferentiator
-    implements Differentiator
+    implements Differentiator, KeyHasher
 {
     /** the adapter used to adapter the containers */
     private Adapter adapter;
@@ -41,6 +54,12 @@
     /** the differentiator used to compare the containers' elements */
     private Differentiator elementDifferentiator;
 
+    /** whether the matched elements are compared in parallel */
+    private boolean parallel;
+
+    /** the number of matched elements compared by a single parallel task */
+    private static final int ELEMENTS_PER_TASK = 4;
+
 
     // ********** convenience static methods **********
 
@@ -103,6 +122,7 @@ public ContainerDifferentiator(Adapter adapter, Differentiator elementDifferenti
         super();
         this.adapter = adapter;
         this.elementDifferentiator = elementDifferentiator;
+        this.parallel = false;
     }
 
 
@@ -137,32 +157,39 @@ private Diff diff(Object object1, Object object2, boolean fullDiff) {
 
         Map counters1 = this.buildCounters(object1);
         Map counters2 = this.buildCounters(object2);
+        Map buckets2 = this.buildBuckets(counters2);
 
         Collection removedElements = new ArrayList();
+        List matchedElements1 = new ArrayList();
+        List matchedElements2 = new ArrayList();
         Collection keyMatchedDiffs = new ArrayList();
         for (Iterator stream1 = counters1.entrySet().iterator(); stream1.hasNext(); ) {
             Map.Entry entry1 = (Map.Entry) stream1.next();
             Object element1 = entry1.getKey();
             Counter counter1 = (Counter) entry1.getValue();
+            List bucket2 = (List) buckets2.get(Integer.valueOf(this.elementKeyHashCode(element1)));
             for (int i = counter1.count(); i-- > 0; ) {
                 boolean keyMatchFound = false;
-                for (Iterator stream2 = counters2.entrySet().iterator(); stream2.hasNext(); ) {
-                    Map.Entry entry2 = (Map.Entry) stream2.next();
-                    Object element2 = entry2.getKey();
-                    Diff keyDiff = this.elementDifferentiator.keyDiff(element1, element2);
-                    if (keyDiff.identical()) {
-                        keyMatchFound = true;
-                        Counter counter2 = (Counter) entry2.getValue();
-                        counter2.decrement();
-                        if (counter2.count() == 0) {
-                            stream2.remove();
-                        }
-                        if (fullDiff) {
-                            keyMatchedDiffs.add(this.elementDifferentiator.diff(element1, element2));
-                        } else {
-                            keyMatchedDiffs.add(keyDiff);
+                if (bucket2 != null) {
+                    for (Iterator stream2 = bucket2.iterator(); stream2.hasNext(); ) {
+                        Object element2 = stream2.next();
+                        Diff keyDiff = this.elementDifferentiator.keyDiff(element1, element2);
+                        if (keyDiff.identical()) {
+                            keyMatchFound = true;
+                            Counter counter2 = (Counter) counters2.get(element2);
+                            counter2.decrement();
+                            if (counter2.count() == 0) {
+                                stream2.remove();
+                                counters2.remove(element2);
+                            }
+                            if (fullDiff) {
+                                matchedElements1.add(element1);
+                                matchedElements2.add(element2);
+                            } else {
+                                keyMatchedDiffs.add(keyDiff);
+                            }
+                            break;    // skip remainder of elements in container 2 and go to the next element in container 1
                         }
-                        break;    // skip remainder of elements in container 2 and go to the next element in container 1
                     }
                 }
                 // if a "key" match was not found, the element must have been removed
@@ -187,7 +214,10 @@ private Diff diff(Object object1, Object object2, boolean fullDiff) {
                 this.containerClass(),
                 object1,
                 object2,
-                (Diff[]) keyMatchedDiffs.toArray(new Diff[keyMatchedDiffs.size()]),
+                fullDiff ?
+                        this.diffElements(matchedElements1.toArray(), matchedElements2.toArray())
+                    :
+                        (Diff[]) keyMatchedDiffs.toArray(new Diff[keyMatchedDiffs.size()]),
                 removedElements.toArray(),
                 addedElements.toArray(),
                 this
@@ -208,10 +238,77 @@ private Map buildCounters(Object container) {
         return counters;
     }
 
+    /**
+     * bucket the distinct elements by their "key" hash codes, preserving
+     * their order, so an element is matched with the same element it
+     * would be matched with if we searched all the elements
+     */
+    private Map buildBuckets(Map counters) {
+        Map buckets = new HashMap(counters.size());
+        for (Iterator stream = counters.keySet().iterator(); stream.hasNext(); ) {
+            Object element = stream.next();
+            Integer hash = Integer.valueOf(this.elementKeyHashCode(element));
+            List bucket = (List) buckets.get(hash);
+            if (bucket == null) {
+                bucket = new ArrayList();
+                buckets.put(hash, bucket);
+            }
+            bucket.add(element);
+        }
+        return buckets;
+    }
+
+    private int elementKeyHashCode(Object element) {
+        return keyHashCode(this.elementDifferentiator, element);
+    }
+
+    /**
+     * Return the "key" hash code calculated by the specified differentiator;
+     * a differentiator that is not a KeyHasher puts every object in
+     * the same bucket.
+     */
+    static int keyHashCode(Object differentiator, Object object) {
+        return (differentiator instanceof KeyHasher) ? ((KeyHasher) differentiator).keyHashCode(object) : 0;
+    }
+
+    /**
+     * "value" objects are cheap to compare, so they are always compared
+     * in the current thread
+     */
+    private Diff[] diffElements(Object[] elements1, Object[] elements2) {
+        Diff[] diffs = new Diff[elements1.length];
+        if (this.parallel && (diffs.length > ELEMENTS_PER_TASK) && ! this.elementDifferentiator.comparesValueObjects()) {
+            ForkJoinPool.commonPool().invoke(new DiffTask(this.elementDifferentiator, elements1, elements2, diffs, 0, diffs.length));
+        } else {
+            for (int i = 0; i < diffs.length; i++) {
+                diffs[i] = this.elementDifferentiator.diff(elements1[i], elements2[i]);
+            }
+        }
+        return diffs;
+    }
+
     private String fatalDescriptionTitle() {
         return "The two " + ClassTools.shortNameFor(this.containerClass()) + "s cannot be compared";
     }
 
+    /**
+     * the "container key diff" is "identical" only if every element in
+     * container 1 is "key matched" with an element in container 2 (and
+     * vice versa), so the sum of the elements' "key" hash codes will do
+     * @see KeyHasher#keyHashCode(Object)
+     */
+    @Override
+    public int keyHashCode(Object object) {
+        if (this.diffIsFatal(object, object)) {
+            return 0;
+        }
+        int hash = 0;
+        for (Iterator stream = this.iterator(object); stream.hasNext(); ) {
+            hash += this.elementKeyHashCode(stream.next());
+        }
+        return hash;
+    }
+
     /**
      * this will probably never be called, but we'll try 'false' for now
      * @see Differentiator#comparesValueObjects()
@@ -232,6 +329,18 @@ public void setElementDifferentiator(Differentiator elementDifferentiator) {
         this.elementDifferentiator = elementDifferentiator;
     }
 
+    public boolean isParallel() {
+        return this.parallel;
+    }
+
+    /**
+     * Set whether the "normal diffs" of the matched elements are executed
+     * in parallel; the element differentiator must be thread-safe.
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
 
     // ********** "adapter" methods **********
 
@@ -278,7 +387,50 @@ public String toString() {
     }
 
 
-    // ********** member interface **********
+    // ********** member classes **********
+
+    /**
+     * Compare the matched elements at the same indices, in parallel.
+     * Each diff is stored in its own slot, so the tasks can run
+     * concurrently without any locking.
+     */
+    private static class DiffTask extends RecursiveAction {
+        private final Differentiator elementDifferentiator;
+        private final Object[] elements1;
+        private final Object[] elements2;
+        private final Diff[] diffs;
+        private final int start;
+        private final int end;
+
+        private static final long serialVersionUID = 1L;
+
+        DiffTask(Differentiator elementDifferentiator, Object[] elements1, Object[] elements2, Diff[] diffs, int start, int end) {
+            super();
+            this.elementDifferentiator = elementDifferentiator;
+            this.elements1 = elements1;
+            this.elements2 = elements2;
+            this.diffs = diffs;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.end - this.start <= ELEMENTS_PER_TASK) {
+                for (int i = this.start; i < this.end; i++) {
+                    this.diffs[i] = this.elementDifferentiator.diff(this.elements1[i], this.elements2[i]);
+                }
+            } else {
+                int mid = (this.start + this.end) >>> 1;
+                invokeAll(
+                    new DiffTask(this.elementDifferentiator, this.elements1, this.elements2, this.diffs, this.start, mid),
+                    new DiffTask(this.elementDifferentiator, this.elements1, this.elements2, this.diffs, mid, this.end)
+                );
+            }
+        }
+
+    }
+
 
     /**
      * This adapter is used by the differentiator to adapt
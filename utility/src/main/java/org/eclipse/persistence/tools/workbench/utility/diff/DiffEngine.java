@@ -27,6 +27,7 @@
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.persistence.tools.workbench.utility.CollectionTools;
 import org.eclipse.persistence.tools.workbench.utility.io.IndentingPrintWriter;
@@ -41,6 +42,15 @@
  *
  * The diff engine logs all of its diffs. By default this log does nothing;
  * but a client-supplied log can be used to debug any unexpected diffs.
+ *
+ * The diff engine can be configured to compare the elements of unordered
+ * "container" fields in parallel; in which case any user-supplied
+ * differentiators must be thread-safe and the diffs will be logged in
+ * no particular order.
+ *
+ * An engine executes only one diff at a time. To execute several diffs at
+ * the same time, build an engine for each diff; the reflective differentiators
+ * share their field accessors, per class, so building an engine is cheap.
  */
 public class DiffEngine implements Differentiator {
 
@@ -69,6 +79,8 @@ public class DiffEngine implements Differentiator {
      * is built up during a diff, keyed by the class of the
      * objects being compared.
      * It is cleared out at the end of the diff.
+     * This is a concurrent map so it can be read without locking
+     * during a parallel diff; it is modified while holding its lock.
      */
     private final Map differentiatorCache;
 
@@ -78,6 +90,12 @@ public class DiffEngine implements Differentiator {
      */
     private boolean diffInProgress;
 
+    /**
+     * Whether the elements of unordered "container" fields
+     * are compared in parallel.
+     */
+    private boolean parallel;
+
     /**
      * All the diffs are logged here. By default this is a "null" log.
      */
@@ -97,8 +115,9 @@ public DiffEngine() {
         // the "equality" differentiator works best with primitives, strings, etc.
         this.userDifferentiators.put(OBJECT_CLASS, EqualityDifferentiator.instance());
         this.reflectiveDifferentiatorCache = new HashMap();
-        this.differentiatorCache = new HashMap();
+        this.differentiatorCache = new ConcurrentHashMap();
         this.diffInProgress = false;
+        this.parallel = false;
         this.log = Log.NULL_INSTANCE;
     }
 
@@ -151,6 +170,17 @@ private Differentiator differentiatorForClass(Class javaClass) {
         if (differentiator != null) {
             return differentiator;
         }
+        synchronized (this.differentiatorCache) {
+            return this.buildDifferentiatorForClass(javaClass);
+        }
+    }
+
+    private Differentiator buildDifferentiatorForClass(Class javaClass) {
+        // check the cache again, in case another thread beat us here
+        Differentiator differentiator = (Differentiator) this.differentiatorCache.get(javaClass);
+        if (differentiator != null) {
+            return differentiator;
+        }
         // then look for a user differentiator for the class or its superclass
         Class tempClass = javaClass;
         while (tempClass != null) {
@@ -183,6 +213,10 @@ public synchronized Differentiator getRecordingDifferentiator() {
         return this.recordingDifferentiator;
     }
 
+    public synchronized boolean isParallel() {
+        return this.parallel;
+    }
+
     // ********** behavior **********
 
     private void setUp() {
@@ -193,6 +227,7 @@ private void setUp() {
 
         this.checkUserReflectiveDifferentiators();
         this.expandReflectiveDifferentiatorCache();
+        this.configureReflectiveDifferentiators();
         this.recordingDifferentiator.setUp();
     }
 
@@ -256,6 +291,7 @@ private void expandReflectiveDifferentiatorCache(Class javaClass, boolean compar
         if (rd == null) {
             rd = new ReflectiveDifferentiator(javaClass, this.recordingDifferentiator);
             rd.setComparesValueObjects(comparesValueObjects);
+            rd.setParallel(this.parallel);
             this.reflectiveDifferentiatorCache.put(javaClass, rd);
         }
         this.expandReflectiveDifferentiatorCache(javaClass.getSuperclass(), comparesValueObjects);        // recurse
@@ -264,6 +300,15 @@ private void expandReflectiveDifferentiatorCache(Class javaClass, boolean compar
         this.setUpDifferentiatorCache(javaClass);
     }
 
+    /**
+     * configure the reflective differentiators to match the engine
+     */
+    private void configureReflectiveDifferentiators() {
+        for (Iterator stream = this.reflectiveDifferentiatorCache.values().iterator(); stream.hasNext(); ) {
+            ((ReflectiveDifferentiator) stream.next()).setParallel(this.parallel);
+        }
+    }
+
     /**
      * gather up all the differentiators for the specified class;
      * there should be one reflective differentiator per class in the
@@ -349,8 +394,23 @@ public void setLog(Log log) {
         this.log = log;
     }
 
+    /**
+     * Set whether the elements of unordered "container" fields are compared
+     * in parallel. Any user-supplied differentiators must be thread-safe.
+     * @see ContainerDifferentiator#setParallel(boolean)
+     */
+    public synchronized void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
     void log(Diff diff) {
-        this.log.log(diff);
+        if (this.parallel) {
+            synchronized (this.log) {
+                this.log.log(diff);
+            }
+        } else {
+            this.log.log(diff);
+        }
     }
 
     private void tearDown() {
@@ -471,7 +531,7 @@ public void setLogsValueDiffs(boolean logsValueDiffs) {
      * exception if a "reference object" is compared twice. Though
      * multiple "key diffs" are allowed.
      */
-    private class RecordingDifferentiator implements Differentiator {
+    private class RecordingDifferentiator implements Differentiator, KeyHasher {
         private IdentityHashMap previousDiffs1;
         private IdentityHashMap previousDiffs2;
 
@@ -514,6 +574,14 @@ public Diff keyDiff(Object object1, Object object2) {
             return diff;
         }
 
+        /**
+         * @see KeyHasher#keyHashCode(Object)
+         */
+        @Override
+        public int keyHashCode(Object object) {
+            return ContainerDifferentiator.keyHashCode(DiffEngine.this.differentiatorFor(object), object);
+        }
+
         /**
          * @see Differentiator#comparesValueObjects()
          */
@@ -531,7 +599,10 @@ void setUp() {
 
         private void checkDiff(Object object, IdentityHashMap previousDiffs) {
             // "reference objects" should only be diffed once...
-            Object prev = previousDiffs.put(object, object);    // "identity set"
+            Object prev;
+            synchronized (previousDiffs) {
+                prev = previousDiffs.put(object, object);    // "identity set"
+            }
             if (prev != null) {
                 // if this exception is thrown that means you probably have two
                 // fields that claim to "own" the same object - only one of them
@@ -19,7 +19,7 @@
 /**
  * Wrap another differentiator.
  */
-public class DifferentiatorWrapper implements Differentiator {
+public class DifferentiatorWrapper implements Differentiator, KeyHasher {
     protected final Differentiator differentiator;
 
     /**
@@ -46,6 +46,14 @@ public Diff keyDiff(Object object1, Object object2) {
         return this.differentiator.keyDiff(object1, object2);
     }
 
+    /**
+     * @see KeyHasher#keyHashCode(Object)
+     */
+    @Override
+    public int keyHashCode(Object object) {
+        return ContainerDifferentiator.keyHashCode(this.differentiator, object);
+    }
+
     /**
      * @see Differentiator#comparesValueObjects()
      */
@@ -24,18 +24,15 @@
  * All of the behavior for this class is parameterized,
  * allowing us to use a singleton.
  */
-public class EqualityDifferentiator implements Differentiator {
+public class EqualityDifferentiator implements Differentiator, KeyHasher {
 
-    // singleton
-    private static EqualityDifferentiator INSTANCE;
+    // singleton; built eagerly, since it is used by concurrent diffs
+    private static final EqualityDifferentiator INSTANCE = new EqualityDifferentiator();
 
     /**
      * Return the singleton.
      */
-    public static synchronized Differentiator instance() {
-        if (INSTANCE == null) {
-            INSTANCE = new EqualityDifferentiator();
-        }
+    public static Differentiator instance() {
         return INSTANCE;
     }
 
@@ -79,6 +76,14 @@ public Diff keyDiff(Object object1, Object object2) {
         return this.diff(object1, object2);
     }
 
+    /**
+     * @see KeyHasher#keyHashCode(Object)
+     */
+    @Override
+    public int keyHashCode(Object object) {
+        return (object == null) ? 0 : object.hashCode();
+    }
+
     /**
      * @see Differentiator#comparesValueObjects()
      */
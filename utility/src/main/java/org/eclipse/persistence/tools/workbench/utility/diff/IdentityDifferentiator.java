@@ -21,18 +21,15 @@
  * All of the behavior for this class is parameterized,
  * allowing us to use a singleton.
  */
-public class IdentityDifferentiator implements Differentiator {
+public class IdentityDifferentiator implements Differentiator, KeyHasher {
 
-    // singleton
-    private static IdentityDifferentiator INSTANCE;
+    // singleton; built eagerly, since it is used by concurrent diffs
+    private static final IdentityDifferentiator INSTANCE = new IdentityDifferentiator();
 
     /**
      * Return the singleton.
      */
-    public static synchronized Differentiator instance() {
-        if (INSTANCE == null) {
-            INSTANCE = new IdentityDifferentiator();
-        }
+    public static Differentiator instance() {
         return INSTANCE;
     }
 
@@ -66,6 +63,14 @@ public Diff keyDiff(Object object1, Object object2) {
         return this.diff(object1, object2);
     }
 
+    /**
+     * @see KeyHasher#keyHashCode(Object)
+     */
+    @Override
+    public int keyHashCode(Object object) {
+        return System.identityHashCode(object);
+    }
+
     /**
      * @see Differentiator#comparesValueObjects()
      */
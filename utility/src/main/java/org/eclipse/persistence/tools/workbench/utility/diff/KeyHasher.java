@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 1998, 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation from Oracle TopLink
+package org.eclipse.persistence.tools.workbench.utility.diff;
+
+/**
+ * A differentiator (or a ReflectiveDifferentiator.KeyDifferentiator)
+ * can implement this interface to allow a ContainerDifferentiator to match
+ * up the elements of two containers without executing a "key diff" on every
+ * possible pair of elements: the elements are bucketed by their "key"
+ * hash codes and only the elements in the same bucket are compared.
+ *
+ * Any two objects whose "key diff" is "identical" must have the same
+ * "key" hash code (the reverse is not required). A differentiator that does
+ * not implement this interface is treated as if it returned the same
+ * hash code for every object.
+ *
+ * @see ContainerDifferentiator
+ */
+public interface KeyHasher {
+
+    /**
+     * Return a hash code for the "key" of the specified object,
+     * which can be null.
+     */
+    int keyHashCode(Object object);
+
+}
@@ -25,7 +25,7 @@
  * both "identical". This applies to both #keyDiff(Object, Object)
  * and #diff(Object, Object).
  */
-public class MapEntryDifferentiator implements Differentiator {
+public class MapEntryDifferentiator implements Differentiator, KeyHasher {
     private Differentiator keyDifferentiator;
     private Differentiator valueDifferentiator;
 
@@ -71,6 +71,16 @@ private Diff diff(Object object1, Object object2, DifferentiatorAdapter adapter)
         return new MapEntryDiff(entry1, entry2, keyDiff, valueDiff, this);
     }
 
+    /**
+     * @see KeyHasher#keyHashCode(Object)
+     */
+    @Override
+    public int keyHashCode(Object object) {
+        Map.Entry entry = (Map.Entry) object;
+        int hash = ContainerDifferentiator.keyHashCode(this.keyDifferentiator, entry.getKey());
+        return 31 * hash + ContainerDifferentiator.keyHashCode(this.valueDifferentiator, entry.getValue());
+    }
+
     /**
      * map entries should only belong to a single map
      * @see Differentiator#comparesValueObjects()
@@ -20,18 +20,15 @@
  * All of the behavior for this class is parameterized,
  * allowing us to use a singleton.
  */
-public class NullDifferentiator implements Differentiator {
+public class NullDifferentiator implements Differentiator, KeyHasher {
 
-    // singleton
-    private static NullDifferentiator INSTANCE;
+    // singleton; built eagerly, since it is used by concurrent diffs
+    private static final NullDifferentiator INSTANCE = new NullDifferentiator();
 
     /**
      * Return the singleton.
      */
-    public static synchronized Differentiator instance() {
-        if (INSTANCE == null) {
-            INSTANCE = new NullDifferentiator();
-        }
+    public static Differentiator instance() {
         return INSTANCE;
     }
 
@@ -58,6 +55,15 @@ public Diff keyDiff(Object object1, Object object2) {
         return this.diff(object1, object2);
     }
 
+    /**
+     * every object has the same "key"
+     * @see KeyHasher#keyHashCode(Object)
+     */
+    @Override
+    public int keyHashCode(Object object) {
+        return 0;
+    }
+
     /**
      * @see Differentiator#comparesValueObjects()
      */
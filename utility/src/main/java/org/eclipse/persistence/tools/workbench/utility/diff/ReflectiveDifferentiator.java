@@ -14,16 +14,22 @@
 //     Oracle - initial API and implementation from Oracle TopLink
 package org.eclipse.persistence.tools.workbench.utility.diff;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.text.Collator;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.eclipse.persistence.tools.workbench.utility.ClassTools;
-import org.eclipse.persistence.tools.workbench.utility.CollectionTools;
 import org.eclipse.persistence.tools.workbench.utility.string.StringTools;
 
 
@@ -46,10 +52,15 @@
  * Map get the appropriate differentiators. The same applies to any
  * fields whose declared type is an array.
  *
+ * The fields are read via method handles, which are built once per class
+ * and shared by all the reflective differentiators. Each differentiator
+ * compiles its field differentiators into a "plan" that is sorted by field
+ * name and rebuilt only when the field differentiators change.
+ *
  * @see DiffEngine
  * TODO add support for multi-dimensional arrays and collections
  */
-public class ReflectiveDifferentiator implements Differentiator {
+public class ReflectiveDifferentiator implements Differentiator, KeyHasher {
 
     /** the class of objects the differentiator will compare */
     private final Class javaClass;
@@ -65,6 +76,9 @@ public class ReflectiveDifferentiator implements Differentiator {
     /** the field differentiators, keyed by field */
     private final Map fieldDifferentiators;
 
+    /** the field differentiators, compiled for comparing objects; null until needed */
+    private volatile FieldPlan[] fieldPlan;
+
     /**
      * the key differentiator; by default this compares "key" fields
      */
@@ -88,6 +102,13 @@ public class ReflectiveDifferentiator implements Differentiator {
     private ContainerDifferentiator unorderedArrayDifferentiator;
     private ContainerDifferentiator mapDifferentiator;
 
+    /**
+     * whether the unordered "container" field differentiators
+     * compare the containers' elements in parallel
+     * @see ContainerDifferentiator#setParallel(boolean)
+     */
+    private boolean parallel;
+
 
     // ********** constructors/initialization **********
 
@@ -109,14 +130,13 @@ public ReflectiveDifferentiator(Class javaClass, Differentiator defaultFieldDiff
         this.fieldDifferentiators = this.buildDefaultFieldDifferentiators(false);
         this.keyDifferentiator = new DefaultKeyDifferentiator();
         this.comparesValueObjects = false;
+        this.parallel = false;
     }
 
     private Map buildDefaultFieldDifferentiators(boolean compareStaticFields) {
         Map differentiators = new HashMap();
-        Field[] declaredFields = this.javaClass.getDeclaredFields();
-        for (int i = declaredFields.length; i-- > 0; ) {
-            Field field = declaredFields[i];
-            field.setAccessible(true);
+        for (Iterator stream = this.fieldAccessors().values().iterator(); stream.hasNext(); ) {
+            Field field = ((FieldAccessor) stream.next()).field;
             if (Modifier.isStatic(field.getModifiers()) && ! compareStaticFields) {
                 continue;    // skip static fields unless the flag is true
             }
@@ -160,7 +180,7 @@ private Differentiator defaultFieldDifferentiator(String fieldName) {
      */
     @Override
     public Diff diff(Object object1, Object object2) {
-        return this.diff(object1, object2, this.fieldDifferentiators, DifferentiatorAdapter.NORMAL);
+        return this.diff(object1, object2, this.fieldPlan(), DifferentiatorAdapter.NORMAL);
     }
 
     /**
@@ -171,7 +191,15 @@ public Diff keyDiff(Object object1, Object object2) {
         return this.keyDifferentiator.keyDiff(object1, object2);
     }
 
-    Diff diff(Object object1, Object object2, Map differentiators, DifferentiatorAdapter adapter) {
+    /**
+     * @see KeyHasher#keyHashCode(Object)
+     */
+    @Override
+    public int keyHashCode(Object object) {
+        return ContainerDifferentiator.keyHashCode(this.keyDifferentiator, object);
+    }
+
+    private Diff diff(Object object1, Object object2, FieldPlan[] plan, DifferentiatorAdapter adapter) {
         if (object1 == object2) {
             return new NullDiff(object1, object2, this);
         }
@@ -179,19 +207,47 @@ Diff diff(Object object1, Object object2, Map differentiators, DifferentiatorAda
             return new SimpleDiff(object1, object2, this.fatalDescriptionTitle(), this);
         }
 
-        ReflectiveFieldDiff[] diffs = new ReflectiveFieldDiff[differentiators.size()];
+        // the plan is already in alphabetical order
+        ReflectiveFieldDiff[] diffs = new ReflectiveFieldDiff[plan.length];
+        for (int i = 0; i < plan.length; i++) {
+            FieldPlan fieldPlan = plan[i];
+            Object fieldValue1 = fieldPlan.accessor.get(object1);
+            Object fieldValue2 = fieldPlan.accessor.get(object2);
+            Diff fieldDiff = adapter.diff(fieldPlan.differentiator, fieldValue1, fieldValue2);
+            diffs[i] = new ReflectiveFieldDiff(fieldPlan.accessor.field, fieldDiff, this);
+        }
+        return new ReflectiveDiff(this.javaClass, object1, object2, diffs, this);
+    }
+
+    private FieldPlan[] fieldPlan() {
+        FieldPlan[] plan = this.fieldPlan;
+        if (plan == null) {
+            plan = this.buildPlan(this.fieldDifferentiators);
+            this.fieldPlan = plan;
+        }
+        return plan;
+    }
+
+    /**
+     * compile the specified field differentiators, sorted by field name;
+     * the field diffs are returned in alphabetical order
+     */
+    private FieldPlan[] buildPlan(Map differentiators) {
+        FieldPlan[] plan = new FieldPlan[differentiators.size()];
         int i = 0;
         for (Iterator stream = differentiators.entrySet().iterator(); stream.hasNext(); ) {
             Map.Entry entry = (Map.Entry) stream.next();
-            Field field = (Field) entry.getKey();
-            Differentiator fieldDifferentiator = (Differentiator) entry.getValue();
-            Object fieldValue1 = this.fieldValue(field, object1);
-            Object fieldValue2 = this.fieldValue(field, object2);
-            Diff fieldDiff = adapter.diff(fieldDifferentiator, fieldValue1, fieldValue2);
-            diffs[i++] = new ReflectiveFieldDiff(field, fieldDiff, this);
+            FieldAccessor accessor = this.fieldAccessor(((Field) entry.getKey()).getName());
+            plan[i++] = new FieldPlan(accessor, (Differentiator) entry.getValue());
         }
-        // put the field diffs in alphabetical order
-        return new ReflectiveDiff(this.javaClass, object1, object2, (ReflectiveFieldDiff[]) CollectionTools.sort(diffs), this);
+        final Collator collator = Collator.getInstance();
+        Arrays.sort(plan, new Comparator() {
+            @Override
+            public int compare(Object o1, Object o2) {
+                return collator.compare(((FieldPlan) o1).accessor.field.getName(), ((FieldPlan) o2).accessor.field.getName());
+            }
+        });
+        return plan;
     }
 
     /**
@@ -222,6 +278,7 @@ private OrderedContainerDifferentiator getArrayDifferentiator() {
     private ContainerDifferentiator getCollectionDifferentiator() {
         if (this.collectionDifferentiator == null) {
             this.collectionDifferentiator = ContainerDifferentiator.forCollections(this.defaultFieldDifferentiator);
+            this.collectionDifferentiator.setParallel(this.parallel);
         }
         return this.collectionDifferentiator;
     }
@@ -229,6 +286,7 @@ private ContainerDifferentiator getCollectionDifferentiator() {
     private ContainerDifferentiator getUnorderedArrayDifferentiator() {
         if (this.unorderedArrayDifferentiator == null) {
             this.unorderedArrayDifferentiator = ContainerDifferentiator.forArrays(this.defaultFieldDifferentiator);
+            this.unorderedArrayDifferentiator.setParallel(this.parallel);
         }
         return this.unorderedArrayDifferentiator;
     }
@@ -236,6 +294,7 @@ private ContainerDifferentiator getUnorderedArrayDifferentiator() {
     private ContainerDifferentiator getMapDifferentiator() {
         if (this.mapDifferentiator == null) {
             this.mapDifferentiator = ContainerDifferentiator.forMaps(this.defaultFieldDifferentiator, this.defaultFieldDifferentiator);
+            this.mapDifferentiator.setParallel(this.parallel);
         }
         return this.mapDifferentiator;
     }
@@ -255,6 +314,10 @@ public KeyDifferentiator getKeyDifferentiator() {
         return this.keyDifferentiator;
     }
 
+    public boolean isParallel() {
+        return this.parallel;
+    }
+
     private boolean diffIsFatal(Object object1, Object object2) {
         if (object1 == null) {
             return true;
@@ -294,6 +357,24 @@ public void setComparesValueObjects(boolean comparesValueObjects) {
         this.comparesValueObjects = comparesValueObjects;
     }
 
+    /**
+     * allow clients to configure the default unordered "container" field
+     * differentiators to compare the containers' elements in parallel
+     * @see ContainerDifferentiator#setParallel(boolean)
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+        if (this.collectionDifferentiator != null) {
+            this.collectionDifferentiator.setParallel(parallel);
+        }
+        if (this.unorderedArrayDifferentiator != null) {
+            this.unorderedArrayDifferentiator.setParallel(parallel);
+        }
+        if (this.mapDifferentiator != null) {
+            this.mapDifferentiator.setParallel(parallel);
+        }
+    }
+
     public Differentiator setFieldDifferentiator(String fieldName, Differentiator differentiator) {
         return this.setFieldDifferentiator(this.field(fieldName), differentiator);
     }
@@ -303,6 +384,7 @@ private Differentiator setFieldDifferentiator(Field field, Differentiator differ
             throw new NullPointerException();
         }
         Object prev = this.fieldDifferentiators.put(field, differentiator);
+        this.fieldPlan = null;
         if (prev != this.defaultFieldDifferentiator(field)) {
             throw new IllegalArgumentException("duplicate field differentiator: " + field.getName());
         }
@@ -318,6 +400,7 @@ private Differentiator replaceFieldDifferentiator(Field field, Differentiator di
             throw new NullPointerException();
         }
         Object prev = this.fieldDifferentiators.put(field, differentiator);
+        this.fieldPlan = null;
         if (prev == this.defaultFieldDifferentiator(field)) {
             throw new IllegalArgumentException("field differentiator not present: " + field.getName());
         }
@@ -388,29 +471,20 @@ public Differentiator removeKeyFieldDifferentiator(String fieldName) {
         throw new IllegalStateException("the default key differentiator is not being used");
     }
 
-    /**
-     * "checked" exceptions suck
-     */
-    private Object fieldValue(Field field, Object object) {
-        try {
-            return field.get(object);
-        } catch (IllegalAccessException ex) {
-            throw new RuntimeException(ex);
-        }
+    private Field field(String fieldName) {
+        return this.fieldAccessor(fieldName).field;
     }
 
-    /**
-     * "checked" exceptions suck
-     */
-    private Field field(String fieldName) {
-        Field field = null;
-        try {
-            field = this.javaClass.getDeclaredField(fieldName);
-        } catch (NoSuchFieldException ex) {
+    private FieldAccessor fieldAccessor(String fieldName) {
+        FieldAccessor accessor = (FieldAccessor) this.fieldAccessors().get(fieldName);
+        if (accessor == null) {
             throw new IllegalArgumentException(fieldName);
         }
-        field.setAccessible(true);
-        return field;
+        return accessor;
+    }
+
+    private Map fieldAccessors() {
+        return (Map) FIELD_ACCESSORS.get(this.javaClass);
     }
 
 
@@ -768,7 +842,9 @@ public void addReferenceMapFieldsNamed(String[] fieldNames) {
     /**
      * This defines the interface required of a "key" differentiator. The "key"
      * differentiator is used by the reflective differentiator when it is
-     * executing a "key" diff.
+     * executing a "key" diff. A "key" differentiator can also implement
+     * KeyHasher, allowing the elements of unordered containers to be
+     * matched up more quickly.
      * See the default implementation below.
      */
     public interface KeyDifferentiator {
@@ -785,10 +861,13 @@ public interface KeyDifferentiator {
      * @see ReflectiveDifferentiator#addKeyFieldNamed(String) and
      * related methods
      */
-    private class DefaultKeyDifferentiator implements KeyDifferentiator {
+    private class DefaultKeyDifferentiator implements KeyDifferentiator, KeyHasher {
         /** the key field differentiators, keyed by field; if this is empty, there is no "primary key" */
         private Map keyFieldDifferentiators;
 
+        /** the key field differentiators, compiled for comparing objects; null until needed */
+        private volatile FieldPlan[] keyFieldPlan;
+
         DefaultKeyDifferentiator() {
             super();
             this.keyFieldDifferentiators = new HashMap();
@@ -797,7 +876,36 @@ private class DefaultKeyDifferentiator implements KeyDifferentiator {
         @Override
         public Diff keyDiff(Object object1, Object object2) {
             // borrow some of ReflectiveDifferentiator's code
-            return ReflectiveDifferentiator.this.diff(object1, object2, this.keyFieldDifferentiators, DifferentiatorAdapter.KEY);
+            return ReflectiveDifferentiator.this.diff(object1, object2, this.keyFieldPlan(), DifferentiatorAdapter.KEY);
+        }
+
+        private FieldPlan[] keyFieldPlan() {
+            FieldPlan[] plan = this.keyFieldPlan;
+            if (plan == null) {
+                plan = ReflectiveDifferentiator.this.buildPlan(this.keyFieldDifferentiators);
+                this.keyFieldPlan = plan;
+            }
+            return plan;
+        }
+
+        /**
+         * the "key diff" is "identical" only if the objects are the same
+         * class and all the "key field diffs" are "identical"
+         */
+        @Override
+        public int keyHashCode(Object object) {
+            if (object == null) {
+                return 0;
+            }
+            int hash = object.getClass().hashCode();
+            if ( ! ReflectiveDifferentiator.this.javaClass.isInstance(object)) {
+                return hash;    // the object's fields cannot be compared
+            }
+            FieldPlan[] plan = this.keyFieldPlan();
+            for (int i = 0; i < plan.length; i++) {
+                hash = 31 * hash + ContainerDifferentiator.keyHashCode(plan[i].differentiator, plan[i].accessor.get(object));
+            }
+            return hash;
         }
 
         Differentiator setKeyFieldDifferentiator(Field field, Differentiator differentiator) {
@@ -812,6 +920,7 @@ Differentiator replaceKeyFieldDifferentiator(Field field, Differentiator differe
             if (differentiator == null) {
                 throw new NullPointerException();
             }
+            this.keyFieldPlan = null;
             return (Differentiator) this.keyFieldDifferentiators.put(field, differentiator);
         }
 
@@ -820,6 +929,7 @@ Differentiator getKeyFieldDifferentiator(Field field) {
         }
 
         Differentiator removeKeyFieldDifferentiator(Field field) {
+            this.keyFieldPlan = null;
             return (Differentiator) this.keyFieldDifferentiators.remove(field);
         }
 
@@ -830,9 +940,9 @@ Differentiator removeKeyFieldDifferentiator(Field field) {
      * This key differentiator will reflectively invoke the specified method
      * on both of the objects and diff the return values with an equality
      * differentiator. Subclasses can override #diffKeys(Object, Object)
-     * to use a different differentiator.
+     * to use a different differentiator (and #hashKey(Object) to match).
      */
-    public static class SimpleMethodKeyDifferentiator implements KeyDifferentiator {
+    public static class SimpleMethodKeyDifferentiator implements KeyDifferentiator, KeyHasher {
         protected String methodName;
         protected static final Object NULL_KEY = new Object();
 
@@ -850,6 +960,19 @@ protected Diff diffKeys(Object key1, Object key2) {
             return EqualityDifferentiator.instance().diff(key1, key2);
         }
 
+        @Override
+        public int keyHashCode(Object object) {
+            return this.hashKey(this.key(object));
+        }
+
+        /**
+         * Keys that are "identical" as determined by #diffKeys(Object, Object)
+         * must have the same hash code.
+         */
+        protected int hashKey(Object key) {
+            return (key == null) ? 0 : key.hashCode();
+        }
+
         /**
          * If the object is null, we return a unique key that can be used
          * to match up null objects.
@@ -869,4 +992,97 @@ public String toString() {
 
     }
 
+
+
+    // ********** field accessors **********
+
+    /**
+     * The accessors for the fields declared by each class, keyed by field
+     * name, in declaration order. These are shared by all the reflective
+     * differentiators, so a class's fields are looked up, made accessible,
+     * and bound to method handles only once.
+     */
+    private static final ClassValue FIELD_ACCESSORS =
+        new ClassValue() {
+            @Override
+            protected Object computeValue(Class javaClass) {
+                Field[] declaredFields = javaClass.getDeclaredFields();
+                Map accessors = new LinkedHashMap(declaredFields.length);
+                for (int i = 0; i < declaredFields.length; i++) {
+                    Field field = declaredFields[i];
+                    field.setAccessible(true);
+                    accessors.put(field.getName(), new FieldAccessor(field));
+                }
+                return accessors;
+            }
+        };
+
+
+    /**
+     * Read a field's value via a method handle; primitive values are boxed.
+     */
+    private static class FieldAccessor {
+        final Field field;
+        private final MethodHandle getter;
+
+        private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+        FieldAccessor(Field field) {
+            super();
+            this.field = field;
+            this.getter = buildGetter(field);
+        }
+
+        /**
+         * a static field's getter ignores the object
+         */
+        private static MethodHandle buildGetter(Field field) {
+            MethodHandle getter;
+            try {
+                getter = MethodHandles.lookup().unreflectGetter(field);
+            } catch (IllegalAccessException ex) {
+                throw new RuntimeException(ex);
+            }
+            if (Modifier.isStatic(field.getModifiers())) {
+                getter = MethodHandles.dropArguments(getter, 0, Object.class);
+            }
+            return getter.asType(GETTER_TYPE);
+        }
+
+        Object get(Object object) {
+            try {
+                return (Object) this.getter.invokeExact(object);
+            } catch (RuntimeException ex) {
+                throw ex;
+            } catch (Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return StringTools.buildToStringFor(this, this.field.getName());
+        }
+
+    }
+
+
+    /**
+     * A field accessor paired with the differentiator
+     * used to compare the field's values.
+     */
+    private static class FieldPlan {
+        final FieldAccessor accessor;
+        final Differentiator differentiator;
+
+        FieldPlan(FieldAccessor accessor, Differentiator differentiator) {
+            super();
+            this.accessor = accessor;
+            this.differentiator = differentiator;
+        }
+
+    }
+
 }
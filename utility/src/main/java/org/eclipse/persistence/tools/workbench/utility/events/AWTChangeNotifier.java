@@ -18,15 +18,33 @@
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.persistence.tools.workbench.utility.string.StringTools;
 
 /**
  * AWT-aware implementation of ChangeNotifier interface:
  * If we are executing on the AWT event-dispatch thread,
  * simply forward the change notification directly to the listener.
  * If we are executing on some other thread, queue up the
- * notification on the AWT event queue so it can be executed
- * on the event-dispatch thread (after the pending events have
- * been dispatched).
+ * notification so it can be executed on the event-dispatch thread
+ * (after the pending events have been dispatched).
+ *
+ * Rather than posting a separate event to the AWT event queue for every
+ * notification, the notifications are held in a single (non-blocking)
+ * queue that is drained by the event-dispatch thread in short time slices,
+ * allowing the UI to repaint and respond to the user while a background
+ * thread is generating a large number of changes. While the queue is
+ * drained, redundant state and property change notifications (i.e. for
+ * the same listener, source, and property) are collapsed into a single
+ * notification, delivered at the position of the last one.
  */
 public final class AWTChangeNotifier
     implements ChangeNotifier, Serializable
@@ -34,6 +52,38 @@
     // singleton
     private static ChangeNotifier INSTANCE;
 
+    /** notifications posted by threads other than the event-dispatch thread */
+    private final transient Queue queue;
+
+    /** whether the drainer has been posted to the AWT event queue */
+    private final transient AtomicBoolean drainScheduled;
+
+    /** posts the notifications in the queue to their listeners */
+    private final transient Runnable drainer;
+
+    /**
+     * notifications removed from the queue but not yet delivered;
+     * only accessed by the event-dispatch thread
+     */
+    private final transient List pending;
+    private transient int pendingIndex;
+
+    /** the number of notifications posted but not yet delivered or collapsed */
+    private final transient AtomicInteger queueDepth;
+
+    // statistics - only modified by the event-dispatch thread
+    private transient volatile int peakQueueDepth;
+    private transient volatile long deliveredCount;
+    private transient volatile long coalescedCount;
+    private transient volatile long totalDrainLatency;
+    private transient volatile long maximumDrainLatency;
+
+    /** the maximum time the event-dispatch thread spends delivering notifications before yielding */
+    private static final long DRAIN_SLICE = 10000000L;        // 10 milliseconds
+
+    /** the maximum number of notifications collapsed together */
+    private static final int CHUNK_SIZE = 1000;
+
     private static final long serialVersionUID = 1L;
 
 
@@ -52,27 +102,32 @@ public synchronized static ChangeNotifier instance() {
      */
     private AWTChangeNotifier() {
         super();
+        this.queue = new ConcurrentLinkedQueue();
+        this.drainScheduled = new AtomicBoolean(false);
+        this.drainer = new Runnable() {
+            @Override
+                public void run() {
+                    AWTChangeNotifier.this.drain();
+                }
+            @Override
+                public String toString() {
+                    return "drain";
+                }
+            };
+        this.pending = new ArrayList(CHUNK_SIZE);
+        this.pendingIndex = 0;
+        this.queueDepth = new AtomicInteger(0);
     }
 
     /**
      * @see ChangeNotifier#stateChanged(StateChangeListener, StateChangeEvent)
      */
     @Override
-    public void stateChanged(final StateChangeListener listener, final StateChangeEvent event) {
+    public void stateChanged(StateChangeListener listener, StateChangeEvent event) {
         if (EventQueue.isDispatchThread()) {
             listener.stateChanged(event);
         } else {
-            this.invoke(new Runnable() {
-                @Override
-                    public void run() {
-                        listener.stateChanged(event);
-                    }
-                @Override
-                    public String toString() {
-                        return "stateChanged";
-                    }
-                }
-            );
+            this.enqueue(new Notification(Notification.STATE_CHANGED, listener, event));
         }
     }
 
@@ -80,21 +135,11 @@ public String toString() {
      * @see ChangeNotifier#propertyChange(java.beans.PropertyChangeListener, java.beans.PropertyChangeEvent)
      */
     @Override
-    public void propertyChange(final PropertyChangeListener listener, final PropertyChangeEvent event) {
+    public void propertyChange(PropertyChangeListener listener, PropertyChangeEvent event) {
         if (EventQueue.isDispatchThread()) {
             listener.propertyChange(event);
         } else {
-            this.invoke(new Runnable() {
-                @Override
-                    public void run() {
-                        listener.propertyChange(event);
-                    }
-                @Override
-                    public String toString() {
-                        return "propertyChange";
-                    }
-                }
-            );
+            this.enqueue(new Notification(Notification.PROPERTY_CHANGE, listener, event));
         }
     }
 
@@ -102,21 +147,11 @@ public String toString() {
      * @see ChangeNotifier#itemsAdded(CollectionChangeListener, CollectionChangeEvent)
      */
     @Override
-    public void itemsAdded(final CollectionChangeListener listener, final CollectionChangeEvent event) {
+    public void itemsAdded(CollectionChangeListener listener, CollectionChangeEvent event) {
         if (EventQueue.isDispatchThread()) {
             listener.itemsAdded(event);
         } else {
-            this.invoke(new Runnable() {
-                @Override
-                    public void run() {
-                        listener.itemsAdded(event);
-                    }
-                @Override
-                    public String toString() {
-                        return "itemsAdded (Collection)";
-                    }
-                }
-            );
+            this.enqueue(new Notification(Notification.COLLECTION_ITEMS_ADDED, listener, event));
         }
     }
 
@@ -124,21 +159,11 @@ public String toString() {
      * @see ChangeNotifier#itemsRemoved(CollectionChangeListener, CollectionChangeEvent)
      */
     @Override
-    public void itemsRemoved(final CollectionChangeListener listener, final CollectionChangeEvent event) {
+    public void itemsRemoved(CollectionChangeListener listener, CollectionChangeEvent event) {
         if (EventQueue.isDispatchThread()) {
             listener.itemsRemoved(event);
         } else {
-            this.invoke(new Runnable() {
-                @Override
-                    public void run() {
-                        listener.itemsRemoved(event);
-                    }
-                @Override
-                    public String toString() {
-                        return "itemsRemoved (Collection)";
-                    }
-                }
-            );
+            this.enqueue(new Notification(Notification.COLLECTION_ITEMS_REMOVED, listener, event));
         }
     }
 
@@ -146,21 +171,11 @@ public String toString() {
      * @see ChangeNotifier#collectionChanged(CollectionChangeListener, CollectionChangeEvent)
      */
     @Override
-    public void collectionChanged(final CollectionChangeListener listener, final CollectionChangeEvent event) {
+    public void collectionChanged(CollectionChangeListener listener, CollectionChangeEvent event) {
         if (EventQueue.isDispatchThread()) {
             listener.collectionChanged(event);
         } else {
-            this.invoke(new Runnable() {
-                @Override
-                    public void run() {
-                        listener.collectionChanged(event);
-                    }
-                @Override
-                    public String toString() {
-                        return "collectionChanged";
-                    }
-                }
-            );
+            this.enqueue(new Notification(Notification.COLLECTION_CHANGED, listener, event));
         }
     }
 
@@ -168,21 +183,11 @@ public String toString() {
      * @see ChangeNotifier#itemsAdded(ListChangeListener, ListChangeEvent)
      */
     @Override
-    public void itemsAdded(final ListChangeListener listener, final ListChangeEvent event) {
+    public void itemsAdded(ListChangeListener listener, ListChangeEvent event) {
         if (EventQueue.isDispatchThread()) {
             listener.itemsAdded(event);
         } else {
-            this.invoke(new Runnable() {
-                @Override
-                    public void run() {
-                        listener.itemsAdded(event);
-                    }
-                @Override
-                    public String toString() {
-                        return "itemsAdded (List)";
-                    }
-                }
-            );
+            this.enqueue(new Notification(Notification.LIST_ITEMS_ADDED, listener, event));
         }
     }
 
@@ -190,21 +195,11 @@ public String toString() {
      * @see ChangeNotifier#itemsRemoved(ListChangeListener, ListChangeEvent)
      */
     @Override
-    public void itemsRemoved(final ListChangeListener listener, final ListChangeEvent event) {
+    public void itemsRemoved(ListChangeListener listener, ListChangeEvent event) {
         if (EventQueue.isDispatchThread()) {
             listener.itemsRemoved(event);
         } else {
-            this.invoke(new Runnable() {
-                @Override
-                    public void run() {
-                        listener.itemsRemoved(event);
-                    }
-                @Override
-                    public String toString() {
-                        return "itemsRemoved (List)";
-                    }
-                }
-            );
+            this.enqueue(new Notification(Notification.LIST_ITEMS_REMOVED, listener, event));
         }
     }
 
@@ -212,21 +207,11 @@ public String toString() {
      * @see ChangeNotifier#itemsReplaced(ListChangeListener, ListChangeEvent)
      */
     @Override
-    public void itemsReplaced(final ListChangeListener listener, final ListChangeEvent event) {
+    public void itemsReplaced(ListChangeListener listener, ListChangeEvent event) {
         if (EventQueue.isDispatchThread()) {
             listener.itemsReplaced(event);
         } else {
-            this.invoke(new Runnable() {
-                @Override
-                    public void run() {
-                        listener.itemsReplaced(event);
-                    }
-                @Override
-                    public String toString() {
-                        return "itemsReplaced (List)";
-                    }
-                }
-            );
+            this.enqueue(new Notification(Notification.LIST_ITEMS_REPLACED, listener, event));
         }
     }
 
@@ -234,21 +219,11 @@ public String toString() {
      * @see ChangeNotifier#listChanged(ListChangeListener, ListChangeEvent)
      */
     @Override
-    public void listChanged(final ListChangeListener listener, final ListChangeEvent event) {
+    public void listChanged(ListChangeListener listener, ListChangeEvent event) {
         if (EventQueue.isDispatchThread()) {
             listener.listChanged(event);
         } else {
-            this.invoke(new Runnable() {
-                @Override
-                    public void run() {
-                        listener.listChanged(event);
-                    }
-                @Override
-                    public String toString() {
-                        return "listChanged";
-                    }
-                }
-            );
+            this.enqueue(new Notification(Notification.LIST_CHANGED, listener, event));
         }
     }
 
@@ -256,21 +231,11 @@ public String toString() {
      * @see ChangeNotifier#nodeAdded(TreeChangeListener, TreeChangeEvent)
      */
     @Override
-    public void nodeAdded(final TreeChangeListener listener, final TreeChangeEvent event) {
+    public void nodeAdded(TreeChangeListener listener, TreeChangeEvent event) {
         if (EventQueue.isDispatchThread()) {
             listener.nodeAdded(event);
         } else {
-            this.invoke(new Runnable() {
-                @Override
-                    public void run() {
-                        listener.nodeAdded(event);
-                    }
-                @Override
-                    public String toString() {
-                        return "nodeAdded";
-                    }
-                }
-            );
+            this.enqueue(new Notification(Notification.TREE_NODE_ADDED, listener, event));
         }
     }
 
@@ -278,21 +243,11 @@ public String toString() {
      * @see ChangeNotifier#nodeRemoved(TreeChangeListener, TreeChangeEvent)
      */
     @Override
-    public void nodeRemoved(final TreeChangeListener listener, final TreeChangeEvent event) {
+    public void nodeRemoved(TreeChangeListener listener, TreeChangeEvent event) {
         if (EventQueue.isDispatchThread()) {
             listener.nodeRemoved(event);
         } else {
-            this.invoke(new Runnable() {
-                @Override
-                    public void run() {
-                        listener.nodeRemoved(event);
-                    }
-                @Override
-                    public String toString() {
-                        return "nodeRemoved";
-                    }
-                }
-            );
+            this.enqueue(new Notification(Notification.TREE_NODE_REMOVED, listener, event));
         }
     }
 
@@ -300,21 +255,109 @@ public String toString() {
      * @see ChangeNotifier#treeChanged(TreeChangeListener, TreeChangeEvent)
      */
     @Override
-    public void treeChanged(final TreeChangeListener listener, final TreeChangeEvent event) {
+    public void treeChanged(TreeChangeListener listener, TreeChangeEvent event) {
         if (EventQueue.isDispatchThread()) {
             listener.treeChanged(event);
         } else {
-            this.invoke(new Runnable() {
-                @Override
-                    public void run() {
-                        listener.treeChanged(event);
-                    }
-                @Override
-                    public String toString() {
-                        return "treeChanged";
+            this.enqueue(new Notification(Notification.TREE_CHANGED, listener, event));
+        }
+    }
+
+    // ********** queue **********
+
+    /**
+     * Add the specified notification to the queue and, if necessary,
+     * post the drainer to the AWT event queue.
+     */
+    private void enqueue(Notification notification) {
+        this.queue.add(notification);
+        int depth = this.queueDepth.incrementAndGet();
+        if (depth > this.peakQueueDepth) {
+            this.peakQueueDepth = depth;        // not exact, but close enough
+        }
+        if (this.drainScheduled.compareAndSet(false, true)) {
+            this.invoke(this.drainer);
+        }
+    }
+
+    /**
+     * Deliver the queued notifications until the queue is empty or the
+     * time slice has expired; in the latter case, post the drainer again
+     * so the event-dispatch thread can process any other pending events.
+     * The drainer is also re-posted if a listener throws an exception.
+     */
+    void drain() {
+        long deadline = System.nanoTime() + DRAIN_SLICE;
+        try {
+            do {
+                if (this.pendingIndex == this.pending.size()) {
+                    this.pending.clear();
+                    this.pendingIndex = 0;
+                    if ( ! this.fillPending()) {
+                        break;        // the queue is empty
                     }
                 }
-            );
+                Notification notification = (Notification) this.pending.set(this.pendingIndex++, null);
+                if ( ! notification.superseded) {
+                    this.deliver(notification);
+                }
+            } while (System.nanoTime() < deadline);
+        } finally {
+            this.rescheduleDrain();
+        }
+    }
+
+    /**
+     * Move the next chunk of notifications from the queue to the
+     * pending list, collapsing any redundant notifications.
+     * Return false if the queue is empty.
+     */
+    private boolean fillPending() {
+        Map latest = null;
+        for (Notification notification = (Notification) this.queue.poll(); notification != null; ) {
+            Object key = notification.coalescingKey();
+            if (key != null) {
+                if (latest == null) {
+                    latest = new HashMap();
+                }
+                Notification previous = (Notification) latest.put(key, notification);
+                if (previous != null) {
+                    notification.supersede(previous);
+                    this.queueDepth.decrementAndGet();
+                    this.coalescedCount++;
+                }
+            }
+            this.pending.add(notification);
+            notification = (this.pending.size() < CHUNK_SIZE) ? (Notification) this.queue.poll() : null;
+        }
+        return ! this.pending.isEmpty();
+    }
+
+    private void deliver(Notification notification) {
+        this.queueDepth.decrementAndGet();
+        long latency = System.nanoTime() - notification.enqueueTime;
+        this.deliveredCount++;
+        this.totalDrainLatency += latency;
+        if (latency > this.maximumDrainLatency) {
+            this.maximumDrainLatency = latency;
+        }
+        notification.deliver();
+    }
+
+    /**
+     * Post the drainer again if there are any notifications left;
+     * otherwise, clear the "scheduled" flag - then check the queue
+     * one more time, since another thread may have added a notification
+     * after we last checked but before we cleared the flag.
+     */
+    private void rescheduleDrain() {
+        if ((this.pendingIndex < this.pending.size()) || ! this.queue.isEmpty()) {
+            this.invoke(this.drainer);
+            return;
+        }
+        this.drainScheduled.set(false);
+        if ( ! this.queue.isEmpty() && this.drainScheduled.compareAndSet(false, true)) {
+            this.invoke(this.drainer);
         }
     }
 
@@ -334,6 +377,74 @@ private void invoke(Runnable r) {
 //        }
     }
 
+
+    // ********** statistics **********
+
+    /**
+     * Return the number of notifications posted by other threads
+     * that have not yet been delivered to their listeners.
+     */
+    public int queueDepth() {
+        return this.queueDepth.get();
+    }
+
+    /**
+     * Return the largest queue depth since the statistics were last reset.
+     */
+    public int peakQueueDepth() {
+        return this.peakQueueDepth;
+    }
+
+    /**
+     * Return the number of queued notifications delivered
+     * since the statistics were last reset.
+     */
+    public long deliveredCount() {
+        return this.deliveredCount;
+    }
+
+    /**
+     * Return the number of queued notifications collapsed into
+     * later notifications since the statistics were last reset.
+     */
+    public long coalescedCount() {
+        return this.coalescedCount;
+    }
+
+    /**
+     * Return the average time, in nanoseconds, between a notification
+     * being queued and its delivery, since the statistics were last reset.
+     */
+    public long averageDrainLatency() {
+        long count = this.deliveredCount;
+        return (count == 0) ? 0 : this.totalDrainLatency / count;
+    }
+
+    /**
+     * Return the longest time, in nanoseconds, between a notification
+     * being queued and its delivery, since the statistics were last reset.
+     */
+    public long maximumDrainLatency() {
+        return this.maximumDrainLatency;
+    }
+
+    /**
+     * Reset the statistics. This should be called on the
+     * event-dispatch thread.
+     */
+    public void resetStatistics() {
+        this.peakQueueDepth = this.queueDepth.get();
+        this.deliveredCount = 0;
+        this.coalescedCount = 0;
+        this.totalDrainLatency = 0;
+        this.maximumDrainLatency = 0;
+    }
+
+    @Override
+    public String toString() {
+        return StringTools.buildToStringFor(this, "queue depth: " + this.queueDepth());
+    }
+
     /**
      * Serializable singleton support
      */
@@ -341,4 +452,154 @@ private Object readResolve() {
         return instance();
     }
 
+
+    // ********** member classes **********
+
+    /**
+     * A change notification to be delivered on the event-dispatch thread.
+     */
+    private static final class Notification {
+        private final int type;
+        private final Object listener;
+        private Object event;
+        long enqueueTime;
+        boolean superseded;
+
+        static final int STATE_CHANGED = 0;
+        static final int PROPERTY_CHANGE = 1;
+        static final int COLLECTION_ITEMS_ADDED = 2;
+        static final int COLLECTION_ITEMS_REMOVED = 3;
+        static final int COLLECTION_CHANGED = 4;
+        static final int LIST_ITEMS_ADDED = 5;
+        static final int LIST_ITEMS_REMOVED = 6;
+        static final int LIST_ITEMS_REPLACED = 7;
+        static final int LIST_CHANGED = 8;
+        static final int TREE_NODE_ADDED = 9;
+        static final int TREE_NODE_REMOVED = 10;
+        static final int TREE_CHANGED = 11;
+
+        Notification(int type, Object listener, Object event) {
+            super();
+            this.type = type;
+            this.listener = listener;
+            this.event = event;
+            this.enqueueTime = System.nanoTime();
+        }
+
+        /**
+         * Return the key used to collapse redundant notifications;
+         * return null if the notification cannot be collapsed.
+         */
+        Object coalescingKey() {
+            switch (this.type) {
+                case STATE_CHANGED:
+                    return new CoalescingKey(this.listener, ((StateChangeEvent) this.event).getSource(), null);
+                case PROPERTY_CHANGE:
+                    PropertyChangeEvent pce = (PropertyChangeEvent) this.event;
+                    // a null property name indicates that any, or all, properties have changed
+                    return (pce.getPropertyName() == null) ? null : new CoalescingKey(this.listener, pce.getSource(), pce.getPropertyName());
+                default:
+                    return null;
+            }
+        }
+
+        /**
+         * Replace the specified, earlier, redundant notification:
+         * a property change notification will now span the value changes
+         * of both notifications.
+         */
+        void supersede(Notification previous) {
+            previous.superseded = true;
+            this.enqueueTime = previous.enqueueTime;
+            if (this.type == PROPERTY_CHANGE) {
+                PropertyChangeEvent previousEvent = (PropertyChangeEvent) previous.event;
+                PropertyChangeEvent pce = (PropertyChangeEvent) this.event;
+                this.event = new PropertyChangeEvent(pce.getSource(), pce.getPropertyName(), previousEvent.getOldValue(), pce.getNewValue());
+            }
+        }
+
+        void deliver() {
+            switch (this.type) {
+                case STATE_CHANGED:
+                    ((StateChangeListener) this.listener).stateChanged((StateChangeEvent) this.event);
+                    break;
+                case PROPERTY_CHANGE:
+                    ((PropertyChangeListener) this.listener).propertyChange((PropertyChangeEvent) this.event);
+                    break;
+                case COLLECTION_ITEMS_ADDED:
+                    ((CollectionChangeListener) this.listener).itemsAdded((CollectionChangeEvent) this.event);
+                    break;
+                case COLLECTION_ITEMS_REMOVED:
+                    ((CollectionChangeListener) this.listener).itemsRemoved((CollectionChangeEvent) this.event);
+                    break;
+                case COLLECTION_CHANGED:
+                    ((CollectionChangeListener) this.listener).collectionChanged((CollectionChangeEvent) this.event);
+                    break;
+                case LIST_ITEMS_ADDED:
+                    ((ListChangeListener) this.listener).itemsAdded((ListChangeEvent) this.event);
+                    break;
+                case LIST_ITEMS_REMOVED:
+                    ((ListChangeListener) this.listener).itemsRemoved((ListChangeEvent) this.event);
+                    break;
+                case LIST_ITEMS_REPLACED:
+                    ((ListChangeListener) this.listener).itemsReplaced((ListChangeEvent) this.event);
+                    break;
+                case LIST_CHANGED:
+                    ((ListChangeListener) this.listener).listChanged((ListChangeEvent) this.event);
+                    break;
+                case TREE_NODE_ADDED:
+                    ((TreeChangeListener) this.listener).nodeAdded((TreeChangeEvent) this.event);
+                    break;
+                case TREE_NODE_REMOVED:
+                    ((TreeChangeListener) this.listener).nodeRemoved((TreeChangeEvent) this.event);
+                    break;
+                case TREE_CHANGED:
+                    ((TreeChangeListener) this.listener).treeChanged((TreeChangeEvent) this.event);
+                    break;
+                default:
+                    throw new IllegalStateException("unknown notification type: " + this.type);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return StringTools.buildToStringFor(this, this.event);
+        }
+    }
+
+
+    /**
+     * Notifications with equal keys are redundant: the listener and
+     * source are compared by identity, the aspect name by equality.
+     */
+    private static final class CoalescingKey {
+        private final Object listener;
+        private final Object source;
+        private final String aspectName;
+
+        CoalescingKey(Object listener, Object source, String aspectName) {
+            super();
+            this.listener = listener;
+            this.source = source;
+            this.aspectName = aspectName;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if ( ! (o instanceof CoalescingKey)) {
+                return false;
+            }
+            CoalescingKey other = (CoalescingKey) o;
+            return (this.listener == other.listener)
+                && (this.source == other.source)
+                && ((this.aspectName == null) ? (other.aspectName == null) : this.aspectName.equals(other.aspectName));
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = System.identityHashCode(this.listener) * 31 + System.identityHashCode(this.source);
+            return (this.aspectName == null) ? hash : hash * 31 + this.aspectName.hashCode();
+        }
+    }
+
 }
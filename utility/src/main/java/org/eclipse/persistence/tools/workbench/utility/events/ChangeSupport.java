@@ -21,10 +21,12 @@
 import java.util.Collections;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
-import org.eclipse.persistence.tools.workbench.utility.IdentityHashBag;
 import org.eclipse.persistence.tools.workbench.utility.string.StringTools;
 
 
@@ -51,11 +53,22 @@
     /** The object to be provided as the "source" for any generated events. */
     protected final Object source;
 
-    /** Maps a listener class to a collection of listeners for that class. */
-    transient private Map listeners;
+    /**
+     * Maps a listener class to an array of listeners for that class.
+     * The map and its arrays are never modified once they are built;
+     * they are replaced whenever a listener is added or removed,
+     * so the events can be fired without locking or copying.
+     */
+    transient private volatile Map listeners;
+
+    /**
+     * Maps property names to child ChangeSupport objects.
+     * Like the listeners, the map is replaced whenever it changes.
+     */
+    private volatile Map children;
 
-    /** Maps property names to child ChangeSupport objects. */
-    private Map children;
+    /** The events coalesced by the current batch; null if there is no batch. */
+    transient private volatile Batch batch;
 
     private static final long serialVersionUID = 1L;
 
@@ -87,15 +100,14 @@ protected void addListener(Class listenerClass, Object listener) {
             throw new NullPointerException();        // better sooner than later
         }
         synchronized (this) {
-            if (this.listeners == null) {
-                this.listeners = new IdentityHashMap();
+            Object[] oldListeners = this.listeners(listenerClass);
+            int len = (oldListeners == null) ? 0 : oldListeners.length;
+            Object[] newListeners = new Object[len + 1];
+            if (len != 0) {
+                System.arraycopy(oldListeners, 0, newListeners, 0, len);
             }
-            IdentityHashBag listenerClassSpecificListeners = (IdentityHashBag) this.listeners.get(listenerClass);
-            if (listenerClassSpecificListeners == null) {
-                listenerClassSpecificListeners = new IdentityHashBag();
-                this.listeners.put(listenerClass, listenerClassSpecificListeners);
-            }
-            listenerClassSpecificListeners.add(listener);
+            newListeners[len] = listener;
+            this.setListeners(listenerClass, newListeners);
         }
     }
 
@@ -109,13 +121,12 @@ protected void addListener(String aspectName, Class listenerClass, Object listen
             throw new NullPointerException();        // better sooner than later
         }
         synchronized (this) {
-            if (this.children == null) {
-                this.children = new IdentityHashMap();
-            }
-            ChangeSupport child = (ChangeSupport) this.children.get(aspectName);
+            ChangeSupport child = this.child(aspectName);
             if (child == null) {
                 child = this.buildChildChangeSupport();
-                this.children.put(aspectName, child);
+                Map newChildren = (this.children == null) ? new IdentityHashMap() : new IdentityHashMap(this.children);
+                newChildren.put(aspectName, child);
+                this.children = newChildren;
             }
             child.addListener(listenerClass, listener);
         }
@@ -132,17 +143,20 @@ protected ChangeSupport buildChildChangeSupport() {
      * Removes a listener that has been registered for all events appropriate to that listener.
      */
     protected void removeListener(Class listenerClass, Object listener) {
-        if (this.listeners == null) {
-            throw new IllegalArgumentException("listener not registered");
-        }
         synchronized (this) {
-            IdentityHashBag listenerClassSpecificListeners = (IdentityHashBag) this.listeners.get(listenerClass);
-            if (listenerClassSpecificListeners == null) {
+            Object[] oldListeners = this.listeners(listenerClass);
+            int index = (oldListeners == null) ? -1 : indexOf(oldListeners, listener);
+            if (index == -1) {
                 throw new IllegalArgumentException("listener not registered");
             }
-            if ( ! listenerClassSpecificListeners.remove(listener)) {
-                throw new IllegalArgumentException("listener not registered");
+            int len = oldListeners.length - 1;
+            Object[] newListeners = null;
+            if (len != 0) {
+                newListeners = new Object[len];
+                System.arraycopy(oldListeners, 0, newListeners, 0, index);
+                System.arraycopy(oldListeners, index + 1, newListeners, index, len - index);
             }
+            this.setListeners(listenerClass, newListeners);
         }
     }
 
@@ -151,16 +165,38 @@ protected void removeListener(Class listenerClass, Object listener) {
      * events carrying the specified property name.
      */
     protected void removeListener(String aspectName, Class listenerClass, Object listener) {
-        if (this.children == null) {
+        ChangeSupport child = this.child(aspectName);
+        if (child == null) {
             throw new IllegalArgumentException("listener not registered");
         }
-        synchronized (this) {
-            ChangeSupport child = (ChangeSupport) this.children.get(aspectName);
-            if (child == null) {
-                throw new IllegalArgumentException("listener not registered");
+        child.removeListener(listenerClass, listener);
+    }
+
+    /**
+     * Replace the listeners map with a copy holding the specified listeners;
+     * a null array will remove the listener class from the map.
+     * The caller must synchronize on this change support.
+     */
+    private void setListeners(Class listenerClass, Object[] listenerClassSpecificListeners) {
+        Map newListeners = (this.listeners == null) ? new IdentityHashMap() : new IdentityHashMap(this.listeners);
+        if (listenerClassSpecificListeners == null) {
+            newListeners.remove(listenerClass);
+        } else {
+            newListeners.put(listenerClass, listenerClassSpecificListeners);
+        }
+        this.listeners = newListeners.isEmpty() ? null : newListeners;
+    }
+
+    /**
+     * Return the index of the specified listener, using object identity.
+     */
+    private static int indexOf(Object[] listenerClassSpecificListeners, Object listener) {
+        for (int i = 0; i < listenerClassSpecificListeners.length; i++) {
+            if (listenerClassSpecificListeners[i] == listener) {
+                return i;
             }
-            child.removeListener(listenerClass, listener);
         }
+        return -1;
     }
 
 
@@ -173,31 +209,51 @@ protected ChangeNotifier notifier() {
         return DefaultChangeNotifier.instance();
     }
 
+    /**
+     * Return the current "generic" listeners for the specified listener class;
+     * return null if there are none. The returned array must not be modified.
+     */
+    protected Object[] listeners(Class listenerClass) {
+        Map map = this.listeners;
+        return (map == null) ? null : (Object[]) map.get(listenerClass);
+    }
+
+    /**
+     * Return the child change support holding the listeners for the
+     * specified aspect; return null if there are none.
+     */
+    protected ChangeSupport child(String aspectName) {
+        Map map = this.children;
+        return ((aspectName == null) || (map == null)) ? null : (ChangeSupport) map.get(aspectName);
+    }
+
+    /**
+     * Return whether the specified listener, which is in the specified
+     * snapshot of listeners, is still registered (i.e. it was not removed
+     * by another listener while the event was being fired).
+     */
+    protected boolean stillListening(Class listenerClass, Object[] targets, Object target) {
+        Object[] current = this.listeners(listenerClass);
+        return (current == targets) || ((current != null) && (indexOf(current, target) != -1));
+    }
+
     /**
      * Return whether there are any "generic" listeners for the specified
      * listener class.
      */
-    protected synchronized boolean hasAnyListeners(Class listenerClass) {
-        if (this.listeners == null) {
-            return false;
-        }
-        IdentityHashBag listenerClassSpecificListeners = (IdentityHashBag) this.listeners.get(listenerClass);
-        return (listenerClassSpecificListeners != null) &&
-            ! listenerClassSpecificListeners.isEmpty();
+    protected boolean hasAnyListeners(Class listenerClass) {
+        return this.listeners(listenerClass) != null;
     }
 
     /**
      * Return whether there are any listeners for the specified
      * listener class and property name.
      */
-    protected synchronized boolean hasAnyListeners(Class listenerClass, String aspectName) {
+    protected boolean hasAnyListeners(Class listenerClass, String aspectName) {
         if (this.hasAnyListeners(listenerClass)) {
             return true;        // there's a "generic" listener
         }
-        if (this.children == null) {
-            return false;
-        }
-        ChangeSupport child = (ChangeSupport) this.children.get(aspectName);
+        ChangeSupport child = this.child(aspectName);
         return (child != null) &&
             child.hasAnyListeners(listenerClass);
     }
@@ -216,6 +272,58 @@ protected void sourceChanged(String aspectName) {
     }
 
 
+    // ******************** batch support ********************
+
+    /**
+     * Start coalescing the property and collection change events fired
+     * by the current thread: all the events for the same property are
+     * combined into a single property change event (from the first old value
+     * to the last new value) and all the events for the same collection
+     * are combined into a single "collection changed" event. The coalesced
+     * events are fired, in the order their aspects first changed, when
+     * the batch ends. Any other events are fired immediately, as are any
+     * events fired by other threads.
+     * Batches can be nested; be sure to match every call to this method
+     * with a call to #endBatch(), typically in a "finally" clause.
+     */
+    public synchronized void startBatch() {
+        if (this.batch == null) {
+            this.batch = new Batch();
+        } else {
+            this.batch.start();
+        }
+    }
+
+    /**
+     * End the current batch; if it is the outermost batch,
+     * fire the coalesced events.
+     * @see #startBatch()
+     */
+    public void endBatch() {
+        Batch completedBatch;
+        synchronized (this) {
+            if ((this.batch == null) || (this.batch.thread != Thread.currentThread())) {
+                throw new IllegalStateException("no batch in progress on this thread");
+            }
+            if ( ! this.batch.end()) {
+                return;        // nested batch
+            }
+            completedBatch = this.batch;
+            this.batch = null;
+        }
+        completedBatch.fire(this);
+    }
+
+    /**
+     * Return whether the events fired by the current thread
+     * are being coalesced.
+     */
+    protected boolean batching() {
+        Batch b = this.batch;
+        return (b != null) && (b.thread == Thread.currentThread());
+    }
+
+
     // ******************** state change support ********************
 
     /**
@@ -244,26 +352,12 @@ public boolean hasAnyStateChangeListeners() {
      */
     public void fireStateChanged(StateChangeEvent event) {
 
-        IdentityHashBag stateChangeListeners = null;
-        IdentityHashBag targets = null;
-
-        synchronized (this) {
-            if (this.listeners != null) {
-                stateChangeListeners = (IdentityHashBag) this.listeners.get(StateChangeListener.class);
-                if (stateChangeListeners != null) {
-                    targets = (IdentityHashBag) stateChangeListeners.clone();
-                }
-            }
-        }
+        Object[] targets = this.listeners(StateChangeListener.class);
 
         if (targets != null) {
-            for (Iterator stream = targets.iterator(); stream.hasNext(); ) {
-                StateChangeListener target = (StateChangeListener) stream.next();
-                boolean stillListening;
-                synchronized (this) {
-                    stillListening = stateChangeListeners.contains(target);
-                }
-                if (stillListening) {
+            for (int i = 0; i < targets.length; i++) {
+                StateChangeListener target = (StateChangeListener) targets[i];
+                if (this.stillListening(StateChangeListener.class, targets, target)) {
                     this.notifier().stateChanged(target, event);
                 }
             }
@@ -278,27 +372,13 @@ public void fireStateChanged(StateChangeEvent event) {
     public void fireStateChanged() {
 //        this.fireStateChange(new StateChangeEvent(this.source));
 
-        IdentityHashBag stateChangeListeners = null;
-        IdentityHashBag targets = null;
-
-        synchronized (this) {
-            if (this.listeners != null) {
-                stateChangeListeners = (IdentityHashBag) this.listeners.get(StateChangeListener.class);
-                if (stateChangeListeners != null) {
-                    targets = (IdentityHashBag) stateChangeListeners.clone();
-                }
-            }
-        }
+        Object[] targets = this.listeners(StateChangeListener.class);
 
         if (targets != null) {
             StateChangeEvent event = null;
-            for (Iterator stream = targets.iterator(); stream.hasNext(); ) {
-                StateChangeListener target = (StateChangeListener) stream.next();
-                boolean stillListening;
-                synchronized (this) {
-                    stillListening = stateChangeListeners.contains(target);
-                }
-                if (stillListening) {
+            for (int i = 0; i < targets.length; i++) {
+                StateChangeListener target = (StateChangeListener) targets[i];
+                if (this.stillListening(StateChangeListener.class, targets, target)) {
                     if (event == null) {
                         // here's the reason for the duplicate code...
                         event = new StateChangeEvent(this.source);
@@ -394,30 +474,18 @@ public void firePropertyChanged(PropertyChangeEvent event) {
 
         String propertyName = event.getPropertyName();
 
-        IdentityHashBag propertyChangeListeners = null;
-        IdentityHashBag targets = null;
-        ChangeSupport child = null;
-
-        synchronized (this) {
-            if (this.listeners != null) {
-                propertyChangeListeners = (IdentityHashBag) this.listeners.get(PropertyChangeListener.class);
-                if (propertyChangeListeners != null) {
-                    targets = (IdentityHashBag) propertyChangeListeners.clone();
-                }
-            }
-            if ((propertyName != null) && (this.children != null)) {
-                child = (ChangeSupport) this.children.get(propertyName);
-            }
+        if (this.batching() && (event.getSource() == this.source)) {
+            this.batch.propertyChanged(propertyName, event.getOldValue(), event.getNewValue());
+            return;
         }
 
+        Object[] targets = this.listeners(PropertyChangeListener.class);
+        ChangeSupport child = this.child(propertyName);
+
         if (targets != null) {
-            for (Iterator stream = targets.iterator(); stream.hasNext(); ) {
-                PropertyChangeListener target = (PropertyChangeListener) stream.next();
-                boolean stillListening;
-                synchronized (this) {
-                    stillListening = propertyChangeListeners.contains(target);
-                }
-                if (stillListening) {
+            for (int i = 0; i < targets.length; i++) {
+                PropertyChangeListener target = (PropertyChangeListener) targets[i];
+                if (this.stillListening(PropertyChangeListener.class, targets, target)) {
                     this.notifier().propertyChange(target, event);
                 }
             }
@@ -447,32 +515,20 @@ public void firePropertyChanged(String propertyName, Object oldValue, Object new
      * Fire a property change event if there are any listeners.
      */
     protected void firePropertyChangedInternal(String propertyName, Object oldValue, Object newValue) {
-        IdentityHashBag propertyChangeListeners = null;
-        IdentityHashBag targets = null;
-        ChangeSupport child = null;
-
-        synchronized (this) {
-            if (this.listeners != null) {
-                propertyChangeListeners = (IdentityHashBag) this.listeners.get(PropertyChangeListener.class);
-                if (propertyChangeListeners != null) {
-                    targets = (IdentityHashBag) propertyChangeListeners.clone();
-                }
-            }
-            if ((propertyName != null) && (this.children != null)) {
-                child = (ChangeSupport) this.children.get(propertyName);
-            }
+        if (this.batching()) {
+            this.batch.propertyChanged(propertyName, oldValue, newValue);
+            return;
         }
 
+        Object[] targets = this.listeners(PropertyChangeListener.class);
+        ChangeSupport child = this.child(propertyName);
+
         PropertyChangeEvent event = null;
 
         if (targets != null) {
-            for (Iterator stream = targets.iterator(); stream.hasNext(); ) {
-                PropertyChangeListener target = (PropertyChangeListener) stream.next();
-                boolean stillListening;
-                synchronized (this) {
-                    stillListening = propertyChangeListeners.contains(target);
-                }
-                if (stillListening) {
+            for (int i = 0; i < targets.length; i++) {
+                PropertyChangeListener target = (PropertyChangeListener) targets[i];
+                if (this.stillListening(PropertyChangeListener.class, targets, target)) {
                     if (event == null) {
                         // here's the reason for the duplicate code...
                         event = new PropertyChangeEvent(this.source, propertyName, oldValue, newValue);
@@ -505,35 +561,23 @@ public void firePropertyChanged(String propertyName, int oldValue, int newValue)
             return;
         }
 
-        IdentityHashBag propertyChangeListeners = null;
-        IdentityHashBag targets = null;
-        ChangeSupport child = null;
-
-        synchronized (this) {
-            if (this.listeners != null) {
-                propertyChangeListeners = (IdentityHashBag) this.listeners.get(PropertyChangeListener.class);
-                if (propertyChangeListeners != null) {
-                    targets = (IdentityHashBag) propertyChangeListeners.clone();
-                }
-            }
-            if ((propertyName != null) && (this.children != null)) {
-                child = (ChangeSupport) this.children.get(propertyName);
-            }
+        if (this.batching()) {
+            this.batch.propertyChanged(propertyName, Integer.valueOf(oldValue), Integer.valueOf(newValue));
+            return;
         }
 
+        Object[] targets = this.listeners(PropertyChangeListener.class);
+        ChangeSupport child = this.child(propertyName);
+
         PropertyChangeEvent event = null;
 
         if (targets != null) {
-            for (Iterator stream = targets.iterator(); stream.hasNext(); ) {
-                PropertyChangeListener target = (PropertyChangeListener) stream.next();
-                boolean stillListening;
-                synchronized (this) {
-                    stillListening = propertyChangeListeners.contains(target);
-                }
-                if (stillListening) {
+            for (int i = 0; i < targets.length; i++) {
+                PropertyChangeListener target = (PropertyChangeListener) targets[i];
+                if (this.stillListening(PropertyChangeListener.class, targets, target)) {
                     if (event == null) {
                         // here's the reason for the duplicate code...
-                        event = new PropertyChangeEvent(this.source, propertyName, new Integer(oldValue), new Integer(newValue));
+                        event = new PropertyChangeEvent(this.source, propertyName, Integer.valueOf(oldValue), Integer.valueOf(newValue));
                     }
                     this.notifier().propertyChange(target, event);
                 }
@@ -621,30 +665,18 @@ public void fireItemsAdded(CollectionChangeEvent event) {
 
         String collectionName = event.getCollectionName();
 
-        IdentityHashBag collectionChangeListeners = null;
-        IdentityHashBag targets = null;
-        ChangeSupport child = null;
-
-        synchronized (this) {
-            if (this.listeners != null) {
-                collectionChangeListeners = (IdentityHashBag) this.listeners.get(CollectionChangeListener.class);
-                if (collectionChangeListeners != null) {
-                    targets = (IdentityHashBag) collectionChangeListeners.clone();
-                }
-            }
-            if ((collectionName != null) && (this.children != null)) {
-                child = (ChangeSupport) this.children.get(collectionName);
-            }
+        if (this.batching() && (event.getSource() == this.source)) {
+            this.batch.collectionChanged(collectionName);
+            return;
         }
 
+        Object[] targets = this.listeners(CollectionChangeListener.class);
+        ChangeSupport child = this.child(collectionName);
+
         if (targets != null) {
-            for (Iterator stream = targets.iterator(); stream.hasNext(); ) {
-                CollectionChangeListener target = (CollectionChangeListener) stream.next();
-                boolean stillListening;
-                synchronized (this) {
-                    stillListening = collectionChangeListeners.contains(target);
-                }
-                if (stillListening) {
+            for (int i = 0; i < targets.length; i++) {
+                CollectionChangeListener target = (CollectionChangeListener) targets[i];
+                if (this.stillListening(CollectionChangeListener.class, targets, target)) {
                     this.notifier().itemsAdded(target, event);
                 }
             }
@@ -665,32 +697,20 @@ public void fireItemsAdded(String collectionName, Collection addedItems) {
             return;
         }
 
-        IdentityHashBag collectionChangeListeners = null;
-        IdentityHashBag targets = null;
-        ChangeSupport child = null;
-
-        synchronized (this) {
-            if (this.listeners != null) {
-                collectionChangeListeners = (IdentityHashBag) this.listeners.get(CollectionChangeListener.class);
-                if (collectionChangeListeners != null) {
-                    targets = (IdentityHashBag) collectionChangeListeners.clone();
-                }
-            }
-            if ((collectionName != null) && (this.children != null)) {
-                child = (ChangeSupport) this.children.get(collectionName);
-            }
+        if (this.batching()) {
+            this.batch.collectionChanged(collectionName);
+            return;
         }
 
+        Object[] targets = this.listeners(CollectionChangeListener.class);
+        ChangeSupport child = this.child(collectionName);
+
         CollectionChangeEvent event = null;
 
         if (targets != null) {
-            for (Iterator stream = targets.iterator(); stream.hasNext(); ) {
-                CollectionChangeListener target = (CollectionChangeListener) stream.next();
-                boolean stillListening;
-                synchronized (this) {
-                    stillListening = collectionChangeListeners.contains(target);
-                }
-                if (stillListening) {
+            for (int i = 0; i < targets.length; i++) {
+                CollectionChangeListener target = (CollectionChangeListener) targets[i];
+                if (this.stillListening(CollectionChangeListener.class, targets, target)) {
                     if (event == null) {
                         // here's the reason for the duplicate code...
                         event = new CollectionChangeEvent(this.source, collectionName, addedItems);
@@ -716,32 +736,20 @@ public void fireItemsAdded(String collectionName, Collection addedItems) {
     public void fireItemAdded(String collectionName, Object addedItem) {
 //        this.fireItemsAdded(collectionName, Collections.singleton(addedItem));
 
-        IdentityHashBag collectionChangeListeners = null;
-        IdentityHashBag targets = null;
-        ChangeSupport child = null;
-
-        synchronized (this) {
-            if (this.listeners != null) {
-                collectionChangeListeners = (IdentityHashBag) this.listeners.get(CollectionChangeListener.class);
-                if (collectionChangeListeners != null) {
-                    targets = (IdentityHashBag) collectionChangeListeners.clone();
-                }
-            }
-            if ((collectionName != null) && (this.children != null)) {
-                child = (ChangeSupport) this.children.get(collectionName);
-            }
+        if (this.batching()) {
+            this.batch.collectionChanged(collectionName);
+            return;
         }
 
+        Object[] targets = this.listeners(CollectionChangeListener.class);
+        ChangeSupport child = this.child(collectionName);
+
         CollectionChangeEvent event = null;
 
         if (targets != null) {
-            for (Iterator stream = targets.iterator(); stream.hasNext(); ) {
-                CollectionChangeListener target = (CollectionChangeListener) stream.next();
-                boolean stillListening;
-                synchronized (this) {
-                    stillListening = collectionChangeListeners.contains(target);
-                }
-                if (stillListening) {
+            for (int i = 0; i < targets.length; i++) {
+                CollectionChangeListener target = (CollectionChangeListener) targets[i];
+                if (this.stillListening(CollectionChangeListener.class, targets, target)) {
                     if (event == null) {
                         // here's the reason for the duplicate code...
                         event = new CollectionChangeEvent(this.source, collectionName, Collections.singleton(addedItem));
@@ -771,30 +779,18 @@ public void fireItemsRemoved(CollectionChangeEvent event) {
 
         String collectionName = event.getCollectionName();
 
-        IdentityHashBag collectionChangeListeners = null;
-        IdentityHashBag targets = null;
-        ChangeSupport child = null;
-
-        synchronized (this) {
-            if (this.listeners != null) {
-                collectionChangeListeners = (IdentityHashBag) this.listeners.get(CollectionChangeListener.class);
-                if (collectionChangeListeners != null) {
-                    targets = (IdentityHashBag) collectionChangeListeners.clone();
-                }
-            }
-            if ((collectionName != null) && (this.children != null)) {
-                child = (ChangeSupport) this.children.get(collectionName);
-            }
+        if (this.batching() && (event.getSource() == this.source)) {
+            this.batch.collectionChanged(collectionName);
+            return;
         }
 
+        Object[] targets = this.listeners(CollectionChangeListener.class);
+        ChangeSupport child = this.child(collectionName);
+
         if (targets != null) {
-            for (Iterator stream = targets.iterator(); stream.hasNext(); ) {
-                CollectionChangeListener target = (CollectionChangeListener) stream.next();
-                boolean stillListening;
-                synchronized (this) {
-                    stillListening = collectionChangeListeners.contains(target);
-                }
-                if (stillListening) {
+            for (int i = 0; i < targets.length; i++) {
+                CollectionChangeListener target = (CollectionChangeListener) targets[i];
+                if (this.stillListening(CollectionChangeListener.class, targets, target)) {
                     this.notifier().itemsRemoved(target, event);
                 }
             }
@@ -815,32 +811,20 @@ public void fireItemsRemoved(String collectionName, Collection removedItems) {
             return;
         }
 
-        IdentityHashBag collectionChangeListeners = null;
-        IdentityHashBag targets = null;
-        ChangeSupport child = null;
-
-        synchronized (this) {
-            if (this.listeners != null) {
-                collectionChangeListeners = (IdentityHashBag) this.listeners.get(CollectionChangeListener.class);
-                if (collectionChangeListeners != null) {
-                    targets = (IdentityHashBag) collectionChangeListeners.clone();
-                }
-            }
-            if ((collectionName != null) && (this.children != null)) {
-                child = (ChangeSupport) this.children.get(collectionName);
-            }
+        if (this.batching()) {
+            this.batch.collectionChanged(collectionName);
+            return;
         }
 
+        Object[] targets = this.listeners(CollectionChangeListener.class);
+        ChangeSupport child = this.child(collectionName);
+
         CollectionChangeEvent event = null;
 
         if (targets != null) {
-            for (Iterator stream = targets.iterator(); stream.hasNext(); ) {
-                CollectionChangeListener target = (CollectionChangeListener) stream.next();
-                boolean stillListening;
-                synchronized (this) {
-                    stillListening = collectionChangeListeners.contains(target);
-                }
-                if (stillListening) {
+            for (int i = 0; i < targets.length; i++) {
+                CollectionChangeListener target = (CollectionChangeListener) targets[i];
+                if (this.stillListening(CollectionChangeListener.class, targets, target)) {
                     if (event == null) {
                         // here's the reason for the duplicate code...
                         event = new CollectionChangeEvent(this.source, collectionName, removedItems);
@@ -866,32 +850,20 @@ public void fireItemsRemoved(String collectionName, Collection removedItems) {
     public void fireItemRemoved(String collectionName, Object removedItem) {
 //        this.fireItemsRemoved(collectionName, Collections.singleton(removedItem));
 
-        IdentityHashBag collectionChangeListeners = null;
-        IdentityHashBag targets = null;
-        ChangeSupport child = null;
-
-        synchronized (this) {
-            if (this.listeners != null) {
-                collectionChangeListeners = (IdentityHashBag) this.listeners.get(CollectionChangeListener.class);
-                if (collectionChangeListeners != null) {
-                    targets = (IdentityHashBag) collectionChangeListeners.clone();
-                }
-            }
-            if ((collectionName != null) && (this.children != null)) {
-                child = (ChangeSupport) this.children.get(collectionName);
-            }
+        if (this.batching()) {
+            this.batch.collectionChanged(collectionName);
+            return;
         }
 
+        Object[] targets = this.listeners(CollectionChangeListener.class);
+        ChangeSupport child = this.child(collectionName);
+
         CollectionChangeEvent event = null;
 
         if (targets != null) {
-            for (Iterator stream = targets.iterator(); stream.hasNext(); ) {
-                CollectionChangeListener target = (CollectionChangeListener) stream.next();
-                boolean stillListening;
-                synchronized (this) {
-                    stillListening = collectionChangeListeners.contains(target);
-                }
-                if (stillListening) {
+            for (int i = 0; i < targets.length; i++) {
+                CollectionChangeListener target = (CollectionChangeListener) targets[i];
+                if (this.stillListening(CollectionChangeListener.class, targets, target)) {
                     if (event == null) {
                         // here's the reason for the duplicate code...
                         event = new CollectionChangeEvent(this.source, collectionName, Collections.singleton(removedItem));
@@ -917,30 +889,18 @@ public void fireItemRemoved(String collectionName, Object removedItem) {
     public void fireCollectionChanged(CollectionChangeEvent event) {
         String collectionName = event.getCollectionName();
 
-        IdentityHashBag collectionChangeListeners = null;
-        IdentityHashBag targets = null;
-        ChangeSupport child = null;
-
-        synchronized (this) {
-            if (this.listeners != null) {
-                collectionChangeListeners = (IdentityHashBag) this.listeners.get(CollectionChangeListener.class);
-                if (collectionChangeListeners != null) {
-                    targets = (IdentityHashBag) collectionChangeListeners.clone();
-                }
-            }
-            if ((collectionName != null) && (this.children != null)) {
-                child = (ChangeSupport) this.children.get(collectionName);
-            }
+        if (this.batching() && (event.getSource() == this.source)) {
+            this.batch.collectionChanged(collectionName);
+            return;
         }
 
+        Object[] targets = this.listeners(CollectionChangeListener.class);
+        ChangeSupport child = this.child(collectionName);
+
         if (targets != null) {
-            for (Iterator stream = targets.iterator(); stream.hasNext(); ) {
-                CollectionChangeListener target = (CollectionChangeListener) stream.next();
-                boolean stillListening;
-                synchronized (this) {
-                    stillListening = collectionChangeListeners.contains(target);
-                }
-                if (stillListening) {
+            for (int i = 0; i < targets.length; i++) {
+                CollectionChangeListener target = (CollectionChangeListener) targets[i];
+                if (this.stillListening(CollectionChangeListener.class, targets, target)) {
                     this.notifier().collectionChanged(target, event);
                 }
             }
@@ -958,32 +918,20 @@ public void fireCollectionChanged(CollectionChangeEvent event) {
     public void fireCollectionChanged(String collectionName) {
 //        this.fireCollectionChanged(new CollectionChangeEvent(this.source, collectionName));
 
-        IdentityHashBag collectionChangeListeners = null;
-        IdentityHashBag targets = null;
-        ChangeSupport child = null;
-
-        synchronized (this) {
-            if (this.listeners != null) {
-                collectionChangeListeners = (IdentityHashBag) this.listeners.get(CollectionChangeListener.class);
-                if (collectionChangeListeners != null) {
-                    targets = (IdentityHashBag) collectionChangeListeners.clone();
-                }
-            }
-            if ((collectionName != null) && (this.children != null)) {
-                child = (ChangeSupport) this.children.get(collectionName);
-            }
+        if (this.batching()) {
+            this.batch.collectionChanged(collectionName);
+            return;
         }
 
+        Object[] targets = this.listeners(CollectionChangeListener.class);
+        ChangeSupport child = this.child(collectionName);
+
         CollectionChangeEvent event = null;
 
         if (targets != null) {
-            for (Iterator stream = targets.iterator(); stream.hasNext(); ) {
-                CollectionChangeListener target = (CollectionChangeListener) stream.next();
-                boolean stillListening;
-                synchronized (this) {
-                    stillListening = collectionChangeListeners.contains(target);
-                }
-                if (stillListening) {
+            for (int i = 0; i < targets.length; i++) {
+                CollectionChangeListener target = (CollectionChangeListener) targets[i];
+                if (this.stillListening(CollectionChangeListener.class, targets, target)) {
                     if (event == null) {
                         // here's the reason for the duplicate code...
                         event = new CollectionChangeEvent(this.source, collectionName);
@@ -1061,30 +1009,13 @@ public void fireItemsAdded(ListChangeEvent event) {
 
         String listName = event.getListName();
 
-        IdentityHashBag listChangeListeners = null;
-        IdentityHashBag targets = null;
-        ChangeSupport child = null;
-
-        synchronized (this) {
-            if (this.listeners != null) {
-                listChangeListeners = (IdentityHashBag) this.listeners.get(ListChangeListener.class);
-                if (listChangeListeners != null) {
-                    targets = (IdentityHashBag) listChangeListeners.clone();
-                }
-            }
-            if ((listName != null) && (this.children != null)) {
-                child = (ChangeSupport) this.children.get(listName);
-            }
-        }
+        Object[] targets = this.listeners(ListChangeListener.class);
+        ChangeSupport child = this.child(listName);
 
         if (targets != null) {
-            for (Iterator stream = targets.iterator(); stream.hasNext(); ) {
-                ListChangeListener target = (ListChangeListener) stream.next();
-                boolean stillListening;
-                synchronized (this) {
-                    stillListening = listChangeListeners.contains(target);
-                }
-                if (stillListening) {
+            for (int i = 0; i < targets.length; i++) {
+                ListChangeListener target = (ListChangeListener) targets[i];
+                if (this.stillListening(ListChangeListener.class, targets, target)) {
                     this.notifier().itemsAdded(target, event);
                 }
             }
@@ -1105,32 +1036,15 @@ public void fireItemsAdded(String listName, int index, List addedItems) {
             return;
         }
 
-        IdentityHashBag listChangeListeners = null;
-        IdentityHashBag targets = null;
-        ChangeSupport child = null;
-
-        synchronized (this) {
-            if (this.listeners != null) {
-                listChangeListeners = (IdentityHashBag) this.listeners.get(ListChangeListener.class);
-                if (listChangeListeners != null) {
-                    targets = (IdentityHashBag) listChangeListeners.clone();
-                }
-            }
-            if ((listName != null) && (this.children != null)) {
-                child = (ChangeSupport) this.children.get(listName);
-            }
-        }
+        Object[] targets = this.listeners(ListChangeListener.class);
+        ChangeSupport child = this.child(listName);
 
         ListChangeEvent event = null;
 
         if (targets != null) {
-            for (Iterator stream = targets.iterator(); stream.hasNext(); ) {
-                ListChangeListener target = (ListChangeListener) stream.next();
-                boolean stillListening;
-                synchronized (this) {
-                    stillListening = listChangeListeners.contains(target);
-                }
-                if (stillListening) {
+            for (int i = 0; i < targets.length; i++) {
+                ListChangeListener target = (ListChangeListener) targets[i];
+                if (this.stillListening(ListChangeListener.class, targets, target)) {
                     if (event == null) {
                         // here's the reason for the duplicate code...
                         event = new ListChangeEvent(this.source, listName, index, addedItems);
@@ -1156,32 +1070,15 @@ public void fireItemsAdded(String listName, int index, List addedItems) {
     public void fireItemAdded(String listName, int index, Object addedItem) {
 //        this.fireItemsAdded(listName, index, Collections.singletonList(addedItem));
 
-        IdentityHashBag listChangeListeners = null;
-        IdentityHashBag targets = null;
-        ChangeSupport child = null;
-
-        synchronized (this) {
-            if (this.listeners != null) {
-                listChangeListeners = (IdentityHashBag) this.listeners.get(ListChangeListener.class);
-                if (listChangeListeners != null) {
-                    targets = (IdentityHashBag) listChangeListeners.clone();
-                }
-            }
-            if ((listName != null) && (this.children != null)) {
-                child = (ChangeSupport) this.children.get(listName);
-            }
-        }
+        Object[] targets = this.listeners(ListChangeListener.class);
+        ChangeSupport child = this.child(listName);
 
         ListChangeEvent event = null;
 
         if (targets != null) {
-            for (Iterator stream = targets.iterator(); stream.hasNext(); ) {
-                ListChangeListener target = (ListChangeListener) stream.next();
-                boolean stillListening;
-                synchronized (this) {
-                    stillListening = listChangeListeners.contains(target);
-                }
-                if (stillListening) {
+            for (int i = 0; i < targets.length; i++) {
+                ListChangeListener target = (ListChangeListener) targets[i];
+                if (this.stillListening(ListChangeListener.class, targets, target)) {
                     if (event == null) {
                         // here's the reason for the duplicate code...
                         event = new ListChangeEvent(this.source, listName, index, Collections.singletonList(addedItem));
@@ -1211,30 +1108,13 @@ public void fireItemsRemoved(ListChangeEvent event) {
 
         String listName = event.getListName();
 
-        IdentityHashBag listChangeListeners = null;
-        IdentityHashBag targets = null;
-        ChangeSupport child = null;
-
-        synchronized (this) {
-            if (this.listeners != null) {
-                listChangeListeners = (IdentityHashBag) this.listeners.get(ListChangeListener.class);
-                if (listChangeListeners != null) {
-                    targets = (IdentityHashBag) listChangeListeners.clone();
-                }
-            }
-            if ((listName != null) && (this.children != null)) {
-                child = (ChangeSupport) this.children.get(listName);
-            }
-        }
+        Object[] targets = this.listeners(ListChangeListener.class);
+        ChangeSupport child = this.child(listName);
 
         if (targets != null) {
-            for (Iterator stream = targets.iterator(); stream.hasNext(); ) {
-                ListChangeListener target = (ListChangeListener) stream.next();
-                boolean stillListening;
-                synchronized (this) {
-                    stillListening = listChangeListeners.contains(target);
-                }
-                if (stillListening) {
+            for (int i = 0; i < targets.length; i++) {
+                ListChangeListener target = (ListChangeListener) targets[i];
+                if (this.stillListening(ListChangeListener.class, targets, target)) {
                     this.notifier().itemsRemoved(target, event);
                 }
             }
@@ -1255,32 +1135,15 @@ public void fireItemsRemoved(String listName, int index, List removedItems) {
             return;
         }
 
-        IdentityHashBag listChangeListeners = null;
-        IdentityHashBag targets = null;
-        ChangeSupport child = null;
-
-        synchronized (this) {
-            if (this.listeners != null) {
-                listChangeListeners = (IdentityHashBag) this.listeners.get(ListChangeListener.class);
-                if (listChangeListeners != null) {
-                    targets = (IdentityHashBag) listChangeListeners.clone();
-                }
-            }
-            if ((listName != null) && (this.children != null)) {
-                child = (ChangeSupport) this.children.get(listName);
-            }
-        }
+        Object[] targets = this.listeners(ListChangeListener.class);
+        ChangeSupport child = this.child(listName);
 
         ListChangeEvent event = null;
 
         if (targets != null) {
-            for (Iterator stream = targets.iterator(); stream.hasNext(); ) {
-                ListChangeListener target = (ListChangeListener) stream.next();
-                boolean stillListening;
-                synchronized (this) {
-                    stillListening = listChangeListeners.contains(target);
-                }
-                if (stillListening) {
+            for (int i = 0; i < targets.length; i++) {
+                ListChangeListener target = (ListChangeListener) targets[i];
+                if (this.stillListening(ListChangeListener.class, targets, target)) {
                     if (event == null) {
                         // here's the reason for the duplicate code...
                         event = new ListChangeEvent(this.source, listName, index, removedItems);
@@ -1306,32 +1169,15 @@ public void fireItemsRemoved(String listName, int index, List removedItems) {
     public void fireItemRemoved(String listName, int index, Object removedItem) {
 //        this.fireItemsRemoved(listName, index, Collections.singletonList(removedItem));
 
-        IdentityHashBag listChangeListeners = null;
-        IdentityHashBag targets = null;
-        ChangeSupport child = null;
-
-        synchronized (this) {
-            if (this.listeners != null) {
-                listChangeListeners = (IdentityHashBag) this.listeners.get(ListChangeListener.class);
-                if (listChangeListeners != null) {
-                    targets = (IdentityHashBag) listChangeListeners.clone();
-                }
-            }
-            if ((listName != null) && (this.children != null)) {
-                child = (ChangeSupport) this.children.get(listName);
-            }
-        }
+        Object[] targets = this.listeners(ListChangeListener.class);
+        ChangeSupport child = this.child(listName);
 
         ListChangeEvent event = null;
 
         if (targets != null) {
-            for (Iterator stream = targets.iterator(); stream.hasNext(); ) {
-                ListChangeListener target = (ListChangeListener) stream.next();
-                boolean stillListening;
-                synchronized (this) {
-                    stillListening = listChangeListeners.contains(target);
-                }
-                if (stillListening) {
+            for (int i = 0; i < targets.length; i++) {
+                ListChangeListener target = (ListChangeListener) targets[i];
+                if (this.stillListening(ListChangeListener.class, targets, target)) {
                     if (event == null) {
                         // here's the reason for the duplicate code...
                         event = new ListChangeEvent(this.source, listName, index, Collections.singletonList(removedItem));
@@ -1361,30 +1207,13 @@ public void fireItemsReplaced(ListChangeEvent event) {
 
         String listName = event.getListName();
 
-        IdentityHashBag listChangeListeners = null;
-        IdentityHashBag targets = null;
-        ChangeSupport child = null;
-
-        synchronized (this) {
-            if (this.listeners != null) {
-                listChangeListeners = (IdentityHashBag) this.listeners.get(ListChangeListener.class);
-                if (listChangeListeners != null) {
-                    targets = (IdentityHashBag) listChangeListeners.clone();
-                }
-            }
-            if ((listName != null) && (this.children != null)) {
-                child = (ChangeSupport) this.children.get(listName);
-            }
-        }
+        Object[] targets = this.listeners(ListChangeListener.class);
+        ChangeSupport child = this.child(listName);
 
         if (targets != null) {
-            for (Iterator stream = targets.iterator(); stream.hasNext(); ) {
-                ListChangeListener target = (ListChangeListener) stream.next();
-                boolean stillListening;
-                synchronized (this) {
-                    stillListening = listChangeListeners.contains(target);
-                }
-                if (stillListening) {
+            for (int i = 0; i < targets.length; i++) {
+                ListChangeListener target = (ListChangeListener) targets[i];
+                if (this.stillListening(ListChangeListener.class, targets, target)) {
                     this.notifier().itemsReplaced(target, event);
                 }
             }
@@ -1405,32 +1234,15 @@ public void fireItemsReplaced(String listName, int index, List newItems, List re
             return;
         }
 
-        IdentityHashBag listChangeListeners = null;
-        IdentityHashBag targets = null;
-        ChangeSupport child = null;
-
-        synchronized (this) {
-            if (this.listeners != null) {
-                listChangeListeners = (IdentityHashBag) this.listeners.get(ListChangeListener.class);
-                if (listChangeListeners != null) {
-                    targets = (IdentityHashBag) listChangeListeners.clone();
-                }
-            }
-            if ((listName != null) && (this.children != null)) {
-                child = (ChangeSupport) this.children.get(listName);
-            }
-        }
+        Object[] targets = this.listeners(ListChangeListener.class);
+        ChangeSupport child = this.child(listName);
 
         ListChangeEvent event = null;
 
         if (targets != null) {
-            for (Iterator stream = targets.iterator(); stream.hasNext(); ) {
-                ListChangeListener target = (ListChangeListener) stream.next();
-                boolean stillListening;
-                synchronized (this) {
-                    stillListening = listChangeListeners.contains(target);
-                }
-                if (stillListening) {
+            for (int i = 0; i < targets.length; i++) {
+                ListChangeListener target = (ListChangeListener) targets[i];
+                if (this.stillListening(ListChangeListener.class, targets, target)) {
                     if (event == null) {
                         // here's the reason for the duplicate code...
                         event = new ListChangeEvent(this.source, listName, index, newItems, replacedItems);
@@ -1456,32 +1268,15 @@ public void fireItemsReplaced(String listName, int index, List newItems, List re
     public void fireItemReplaced(String listName, int index, Object newItem, Object replacedItem) {
 //        this.fireItemsReplaced(listName, index, Collections.singletonList(newItem), Collections.singletonList(replacedItem));
 
-        IdentityHashBag listChangeListeners = null;
-        IdentityHashBag targets = null;
-        ChangeSupport child = null;
-
-        synchronized (this) {
-            if (this.listeners != null) {
-                listChangeListeners = (IdentityHashBag) this.listeners.get(ListChangeListener.class);
-                if (listChangeListeners != null) {
-                    targets = (IdentityHashBag) listChangeListeners.clone();
-                }
-            }
-            if ((listName != null) && (this.children != null)) {
-                child = (ChangeSupport) this.children.get(listName);
-            }
-        }
+        Object[] targets = this.listeners(ListChangeListener.class);
+        ChangeSupport child = this.child(listName);
 
         ListChangeEvent event = null;
 
         if (targets != null) {
-            for (Iterator stream = targets.iterator(); stream.hasNext(); ) {
-                ListChangeListener target = (ListChangeListener) stream.next();
-                boolean stillListening;
-                synchronized (this) {
-                    stillListening = listChangeListeners.contains(target);
-                }
-                if (stillListening) {
+            for (int i = 0; i < targets.length; i++) {
+                ListChangeListener target = (ListChangeListener) targets[i];
+                if (this.stillListening(ListChangeListener.class, targets, target)) {
                     if (event == null) {
                         // here's the reason for the duplicate code...
                         event = new ListChangeEvent(this.source, listName, index, Collections.singletonList(newItem), Collections.singletonList(replacedItem));
@@ -1507,30 +1302,13 @@ public void fireItemReplaced(String listName, int index, Object newItem, Object
     public void fireListChanged(ListChangeEvent event) {
         String listName = event.getListName();
 
-        IdentityHashBag listChangeListeners = null;
-        IdentityHashBag targets = null;
-        ChangeSupport child = null;
-
-        synchronized (this) {
-            if (this.listeners != null) {
-                listChangeListeners = (IdentityHashBag) this.listeners.get(ListChangeListener.class);
-                if (listChangeListeners != null) {
-                    targets = (IdentityHashBag) listChangeListeners.clone();
-                }
-            }
-            if ((listName != null) && (this.children != null)) {
-                child = (ChangeSupport) this.children.get(listName);
-            }
-        }
+        Object[] targets = this.listeners(ListChangeListener.class);
+        ChangeSupport child = this.child(listName);
 
         if (targets != null) {
-            for (Iterator stream = targets.iterator(); stream.hasNext(); ) {
-                ListChangeListener target = (ListChangeListener) stream.next();
-                boolean stillListening;
-                synchronized (this) {
-                    stillListening = listChangeListeners.contains(target);
-                }
-                if (stillListening) {
+            for (int i = 0; i < targets.length; i++) {
+                ListChangeListener target = (ListChangeListener) targets[i];
+                if (this.stillListening(ListChangeListener.class, targets, target)) {
                     this.notifier().listChanged(target, event);
                 }
             }
@@ -1548,32 +1326,15 @@ public void fireListChanged(ListChangeEvent event) {
     public void fireListChanged(String listName) {
 //        this.fireListChanged(new ListChangeEvent(this.source, listName));
 
-        IdentityHashBag listChangeListeners = null;
-        IdentityHashBag targets = null;
-        ChangeSupport child = null;
-
-        synchronized (this) {
-            if (this.listeners != null) {
-                listChangeListeners = (IdentityHashBag) this.listeners.get(ListChangeListener.class);
-                if (listChangeListeners != null) {
-                    targets = (IdentityHashBag) listChangeListeners.clone();
-                }
-            }
-            if ((listName != null) && (this.children != null)) {
-                child = (ChangeSupport) this.children.get(listName);
-            }
-        }
+        Object[] targets = this.listeners(ListChangeListener.class);
+        ChangeSupport child = this.child(listName);
 
         ListChangeEvent event = null;
 
         if (targets != null) {
-            for (Iterator stream = targets.iterator(); stream.hasNext(); ) {
-                ListChangeListener target = (ListChangeListener) stream.next();
-                boolean stillListening;
-                synchronized (this) {
-                    stillListening = listChangeListeners.contains(target);
-                }
-                if (stillListening) {
+            for (int i = 0; i < targets.length; i++) {
+                ListChangeListener target = (ListChangeListener) targets[i];
+                if (this.stillListening(ListChangeListener.class, targets, target)) {
                     if (event == null) {
                         // here's the reason for the duplicate code...
                         event = new ListChangeEvent(this.source, listName);
@@ -1647,30 +1408,13 @@ public boolean hasAnyTreeChangeListeners() {
     public void fireNodeAdded(TreeChangeEvent event) {
         String treeName = event.getTreeName();
 
-        IdentityHashBag treeChangeListeners = null;
-        IdentityHashBag targets = null;
-        ChangeSupport child = null;
-
-        synchronized (this) {
-            if (this.listeners != null) {
-                treeChangeListeners = (IdentityHashBag) this.listeners.get(TreeChangeListener.class);
-                if (treeChangeListeners != null) {
-                    targets = (IdentityHashBag) treeChangeListeners.clone();
-                }
-            }
-            if ((treeName != null) && (this.children != null)) {
-                child = (ChangeSupport) this.children.get(treeName);
-            }
-        }
+        Object[] targets = this.listeners(TreeChangeListener.class);
+        ChangeSupport child = this.child(treeName);
 
         if (targets != null) {
-            for (Iterator stream = targets.iterator(); stream.hasNext(); ) {
-                TreeChangeListener target = (TreeChangeListener) stream.next();
-                boolean stillListening;
-                synchronized (this) {
-                    stillListening = treeChangeListeners.contains(target);
-                }
-                if (stillListening) {
+            for (int i = 0; i < targets.length; i++) {
+                TreeChangeListener target = (TreeChangeListener) targets[i];
+                if (this.stillListening(TreeChangeListener.class, targets, target)) {
                     this.notifier().nodeAdded(target, event);
                 }
             }
@@ -1688,32 +1432,15 @@ public void fireNodeAdded(TreeChangeEvent event) {
     public void fireNodeAdded(String treeName, Object[] path) {
 //        this.fireNodeAdded(new TreeChangeEvent(this.source, treeName, path));
 
-        IdentityHashBag treeChangeListeners = null;
-        IdentityHashBag targets = null;
-        ChangeSupport child = null;
-
-        synchronized (this) {
-            if (this.listeners != null) {
-                treeChangeListeners = (IdentityHashBag) this.listeners.get(TreeChangeListener.class);
-                if (treeChangeListeners != null) {
-                    targets = (IdentityHashBag) treeChangeListeners.clone();
-                }
-            }
-            if ((treeName != null) && (this.children != null)) {
-                child = (ChangeSupport) this.children.get(treeName);
-            }
-        }
+        Object[] targets = this.listeners(TreeChangeListener.class);
+        ChangeSupport child = this.child(treeName);
 
         TreeChangeEvent event = null;
 
         if (targets != null) {
-            for (Iterator stream = targets.iterator(); stream.hasNext(); ) {
-                TreeChangeListener target = (TreeChangeListener) stream.next();
-                boolean stillListening;
-                synchronized (this) {
-                    stillListening = treeChangeListeners.contains(target);
-                }
-                if (stillListening) {
+            for (int i = 0; i < targets.length; i++) {
+                TreeChangeListener target = (TreeChangeListener) targets[i];
+                if (this.stillListening(TreeChangeListener.class, targets, target)) {
                     if (event == null) {
                         // here's the reason for the duplicate code...
                         event = new TreeChangeEvent(this.source, treeName, path);
@@ -1739,30 +1466,13 @@ public void fireNodeAdded(String treeName, Object[] path) {
     public void fireNodeRemoved(TreeChangeEvent event) {
         String treeName = event.getTreeName();
 
-        IdentityHashBag treeChangeListeners = null;
-        IdentityHashBag targets = null;
-        ChangeSupport child = null;
-
-        synchronized (this) {
-            if (this.listeners != null) {
-                treeChangeListeners = (IdentityHashBag) this.listeners.get(TreeChangeListener.class);
-                if (treeChangeListeners != null) {
-                    targets = (IdentityHashBag) treeChangeListeners.clone();
-                }
-            }
-            if ((treeName != null) && (this.children != null)) {
-                child = (ChangeSupport) this.children.get(treeName);
-            }
-        }
+        Object[] targets = this.listeners(TreeChangeListener.class);
+        ChangeSupport child = this.child(treeName);
 
         if (targets != null) {
-            for (Iterator stream = targets.iterator(); stream.hasNext(); ) {
-                TreeChangeListener target = (TreeChangeListener) stream.next();
-                boolean stillListening;
-                synchronized (this) {
-                    stillListening = treeChangeListeners.contains(target);
-                }
-                if (stillListening) {
+            for (int i = 0; i < targets.length; i++) {
+                TreeChangeListener target = (TreeChangeListener) targets[i];
+                if (this.stillListening(TreeChangeListener.class, targets, target)) {
                     this.notifier().nodeRemoved(target, event);
                 }
             }
@@ -1780,32 +1490,15 @@ public void fireNodeRemoved(TreeChangeEvent event) {
     public void fireNodeRemoved(String treeName, Object[] path) {
 //        this.fireNodeRemoved(new TreeChangeEvent(this.source, treeName, path));
 
-        IdentityHashBag treeChangeListeners = null;
-        IdentityHashBag targets = null;
-        ChangeSupport child = null;
-
-        synchronized (this) {
-            if (this.listeners != null) {
-                treeChangeListeners = (IdentityHashBag) this.listeners.get(TreeChangeListener.class);
-                if (treeChangeListeners != null) {
-                    targets = (IdentityHashBag) treeChangeListeners.clone();
-                }
-            }
-            if ((treeName != null) && (this.children != null)) {
-                child = (ChangeSupport) this.children.get(treeName);
-            }
-        }
+        Object[] targets = this.listeners(TreeChangeListener.class);
+        ChangeSupport child = this.child(treeName);
 
         TreeChangeEvent event = null;
 
         if (targets != null) {
-            for (Iterator stream = targets.iterator(); stream.hasNext(); ) {
-                TreeChangeListener target = (TreeChangeListener) stream.next();
-                boolean stillListening;
-                synchronized (this) {
-                    stillListening = treeChangeListeners.contains(target);
-                }
-                if (stillListening) {
+            for (int i = 0; i < targets.length; i++) {
+                TreeChangeListener target = (TreeChangeListener) targets[i];
+                if (this.stillListening(TreeChangeListener.class, targets, target)) {
                     if (event == null) {
                         // here's the reason for the duplicate code...
                         event = new TreeChangeEvent(this.source, treeName, path);
@@ -1831,30 +1524,13 @@ public void fireNodeRemoved(String treeName, Object[] path) {
     public void fireTreeChanged(TreeChangeEvent event) {
         String treeName = event.getTreeName();
 
-        IdentityHashBag treeChangeListeners = null;
-        IdentityHashBag targets = null;
-        ChangeSupport child = null;
-
-        synchronized (this) {
-            if (this.listeners != null) {
-                treeChangeListeners = (IdentityHashBag) this.listeners.get(TreeChangeListener.class);
-                if (treeChangeListeners != null) {
-                    targets = (IdentityHashBag) treeChangeListeners.clone();
-                }
-            }
-            if ((treeName != null) && (this.children != null)) {
-                child = (ChangeSupport) this.children.get(treeName);
-            }
-        }
+        Object[] targets = this.listeners(TreeChangeListener.class);
+        ChangeSupport child = this.child(treeName);
 
         if (targets != null) {
-            for (Iterator stream = targets.iterator(); stream.hasNext(); ) {
-                TreeChangeListener target = (TreeChangeListener) stream.next();
-                boolean stillListening;
-                synchronized (this) {
-                    stillListening = treeChangeListeners.contains(target);
-                }
-                if (stillListening) {
+            for (int i = 0; i < targets.length; i++) {
+                TreeChangeListener target = (TreeChangeListener) targets[i];
+                if (this.stillListening(TreeChangeListener.class, targets, target)) {
                     this.notifier().treeChanged(target, event);
                 }
             }
@@ -1872,32 +1548,15 @@ public void fireTreeChanged(TreeChangeEvent event) {
     public void fireTreeChanged(String treeName, Object[] path) {
 //        this.fireTreeChanged(new TreeChangeEvent(this.source, treeName, path));
 
-        IdentityHashBag treeChangeListeners = null;
-        IdentityHashBag targets = null;
-        ChangeSupport child = null;
-
-        synchronized (this) {
-            if (this.listeners != null) {
-                treeChangeListeners = (IdentityHashBag) this.listeners.get(TreeChangeListener.class);
-                if (treeChangeListeners != null) {
-                    targets = (IdentityHashBag) treeChangeListeners.clone();
-                }
-            }
-            if ((treeName != null) && (this.children != null)) {
-                child = (ChangeSupport) this.children.get(treeName);
-            }
-        }
+        Object[] targets = this.listeners(TreeChangeListener.class);
+        ChangeSupport child = this.child(treeName);
 
         TreeChangeEvent event = null;
 
         if (targets != null) {
-            for (Iterator stream = targets.iterator(); stream.hasNext(); ) {
-                TreeChangeListener target = (TreeChangeListener) stream.next();
-                boolean stillListening;
-                synchronized (this) {
-                    stillListening = treeChangeListeners.contains(target);
-                }
-                if (stillListening) {
+            for (int i = 0; i < targets.length; i++) {
+                TreeChangeListener target = (TreeChangeListener) targets[i];
+                if (this.stillListening(TreeChangeListener.class, targets, target)) {
                     if (event == null) {
                         // here's the reason for the duplicate code...
                         event = new TreeChangeEvent(this.source, treeName, path);
@@ -1925,6 +1584,73 @@ public void fireTreeChanged(String treeName) {
     }
 
 
+    // ******************** member class ********************
+
+    /**
+     * Hold the events coalesced by a batch, in the order
+     * their aspects first changed.
+     */
+    private static class Batch {
+        final Thread thread;
+        private int depth;
+
+        /** property name => Object[] {first old value, last new value} */
+        private final Map properties;
+
+        /** names of the collections that changed */
+        private final Set collectionNames;
+
+        Batch() {
+            super();
+            this.thread = Thread.currentThread();
+            this.depth = 1;
+            this.properties = new LinkedHashMap();
+            this.collectionNames = new LinkedHashSet();
+        }
+
+        void start() {
+            if (this.thread != Thread.currentThread()) {
+                throw new IllegalStateException("batch already in progress on another thread: " + this.thread);
+            }
+            this.depth++;
+        }
+
+        /**
+         * return whether the outermost batch has ended
+         */
+        boolean end() {
+            return --this.depth == 0;
+        }
+
+        void propertyChanged(String propertyName, Object oldValue, Object newValue) {
+            Object[] values = (Object[]) this.properties.get(propertyName);
+            if (values == null) {
+                this.properties.put(propertyName, new Object[] {oldValue, newValue});
+            } else {
+                values[1] = newValue;
+            }
+        }
+
+        void collectionChanged(String collectionName) {
+            this.collectionNames.add(collectionName);
+        }
+
+        /**
+         * no event is fired for a property that ends up with its original value
+         */
+        void fire(ChangeSupport changeSupport) {
+            for (Iterator stream = this.properties.entrySet().iterator(); stream.hasNext(); ) {
+                Map.Entry entry = (Map.Entry) stream.next();
+                Object[] values = (Object[]) entry.getValue();
+                changeSupport.firePropertyChanged((String) entry.getKey(), values[0], values[1]);
+            }
+            for (Iterator stream = this.collectionNames.iterator(); stream.hasNext(); ) {
+                changeSupport.fireCollectionChanged((String) stream.next());
+            }
+        }
+    }
+
+
     // ******************** standard methods ********************
 
     @Override
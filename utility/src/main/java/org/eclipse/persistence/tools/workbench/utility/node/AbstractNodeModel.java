@@ -24,6 +24,9 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import org.eclipse.persistence.tools.workbench.utility.AbstractModel;
 import org.eclipse.persistence.tools.workbench.utility.events.ChangeNotifier;
@@ -94,6 +97,22 @@
      */
     private List branchProblems;        // pseudo-final
 
+    /**
+     * Track whether the node, or any of its descendants, has had
+     * a "significant" change since it was last validated.
+     * These flags are set by any thread and cleared by the validation
+     * thread *before* the nodes are validated, so any changes made
+     * during a validation will be picked up by the next validation.
+     */
+    private volatile boolean needsValidation;
+    private volatile boolean branchNeedsValidation;
+
+    /**
+     * The node's problems, as calculated concurrently by
+     * #validateBranch(ForkJoinPool); these are consumed (and cleared)
+     * when the "branch" problems are rebuilt.
+     */
+    private volatile List calculatedProblems;
 
 
     /**
@@ -108,6 +127,19 @@
      */
     private static final Map insignificantAspectNameSets = new Hashtable();
 
+    /**
+     * The lists used by #forEachChild(ChildVisitor) to gather up the
+     * nodes' children; each thread keeps a stack of them, one for each
+     * level of the tree it is currently walking, and re-uses them.
+     */
+    private static final ThreadLocal childLists =
+        new ThreadLocal() {
+            @Override
+            protected Object initialValue() {
+                return new ChildLists();
+            }
+        };
+
 
     // ********** constructors **********
 
@@ -148,6 +180,10 @@ protected void initialize() {
         this.problems = new Vector();
         this.branchProblems = new Vector();
 
+        // a new object has never been validated
+        this.needsValidation = true;
+        this.branchNeedsValidation = true;
+
     // when you override this method, don't forget to include:
     //    super.initialize();
     }
@@ -292,6 +328,29 @@ protected void addChildrenTo(List list) {
     //    super.addChildrenTo(list);
     }
 
+    /**
+     * INTRA-NODE API?
+     * Do NOT override this method.
+     * Override #addChildrenTo(List).
+     * The children are gathered up, as always, by #addChildrenTo(List),
+     * but into a list that is re-used by the current thread; so the
+     * visitor can modify the node's children, and no locks are held
+     * while the children are visited.
+     * @see Node#forEachChild(Node.ChildVisitor)
+     */
+    @Override
+    public final void forEachChild(ChildVisitor visitor) {
+        ChildLists lists = (ChildLists) childLists.get();
+        List children = lists.acquire(this);
+        try {
+            for (int i = 0, size = children.size(); i < size; i++) {
+                visitor.visit((Node) children.get(i));
+            }
+        } finally {
+            lists.release(children);
+        }
+    }
+
     /**
      * Loop through the object's children setting their backpointers
      * to their parent, namely this object; then cascade down
@@ -300,11 +359,13 @@ protected void addChildrenTo(List list) {
      */
     @Override
     public final void setChildBackpointers() {
-        for (Iterator stream = this.children(); stream.hasNext(); ) {
-            Node child = (Node) stream.next();        // pull out the child to ease debugging
-            child.setParent(this);
-            child.setChildBackpointers();
-        }
+        this.forEachChild(new ChildVisitor() {
+            @Override
+            public void visit(Node child) {
+                child.setParent(AbstractNodeModel.this);
+                child.setChildBackpointers();
+            }
+        });
     }
 
     /**
@@ -335,11 +396,13 @@ public final Iterator branchReferences() {
      * @see Node#addBranchReferencesTo(java.util.Collection)
      */
     @Override
-    public final void addBranchReferencesTo(Collection branchReferences) {
-        for (Iterator stream = this.children(); stream.hasNext(); ) {
-            Node child = (Node) stream.next();        // pull out the child to ease debugging
-            child.addBranchReferencesTo(branchReferences);
-        }
+    public final void addBranchReferencesTo(final Collection branchReferences) {
+        this.forEachChild(new ChildVisitor() {
+            @Override
+            public void visit(Node child) {
+                child.addBranchReferencesTo(branchReferences);
+            }
+        });
     }
 
     /**
@@ -359,12 +422,14 @@ public final Iterator allNodes() {
      * @see Node#addAllNodesTo(java.util.Collection)
      */
     @Override
-    public final void addAllNodesTo(Collection nodes) {
+    public final void addAllNodesTo(final Collection nodes) {
         nodes.add(this);
-        for (Iterator stream = this.children(); stream.hasNext(); ) {
-            Node child = (Node) stream.next();        // pull out the child to ease debugging
-            child.addAllNodesTo(nodes);
-        }
+        this.forEachChild(new ChildVisitor() {
+            @Override
+            public void visit(Node child) {
+                child.addAllNodesTo(nodes);
+            }
+        });
     }
 
 
@@ -375,15 +440,31 @@ public final void addAllNodesTo(Collection nodes) {
      * @see Node#nodeRemoved(Node)
      */
     @Override
-    public void nodeRemoved(Node node) {
-        for (Iterator stream = this.children(); stream.hasNext(); ) {
-            Node child = (Node) stream.next();        // pull out the child to ease debugging
-            child.nodeRemoved(node);
-        }
+    public void nodeRemoved(final Node node) {
+        this.forEachChild(new ChildVisitor() {
+            @Override
+            public void visit(Node child) {
+                if (AbstractNodeModel.this.childNeedsSynchronization(child)) {
+                    child.nodeRemoved(node);
+                }
+            }
+        });
     // when you override this method, don't forget to include:
     //    super.nodeRemoved(node);
     }
 
+    /**
+     * Return whether the specified child must be notified when a node
+     * has been removed or renamed. By default, all of the children
+     * are notified; subclasses can override this method to skip the
+     * branches that cannot be affected.
+     * @see #nodeRemoved(Node)
+     * @see #nodeRenamed(Node)
+     */
+    protected boolean childNeedsSynchronization(Node child) {
+        return true;
+    }
+
     /**
      * convenience method
      * return whether node1 is a descendant of node2;
@@ -399,11 +480,15 @@ protected boolean nodeIsDescendantOf(Node node1, Node node2) {
      * @see Node#nodeRenamed(Node)
      */
     @Override
-    public void nodeRenamed(Node node) {
-        for (Iterator stream = this.children(); stream.hasNext(); ) {
-            Node child = (Node) stream.next();        // pull out the child to ease debugging
-            child.nodeRenamed(node);
-        }
+    public void nodeRenamed(final Node node) {
+        this.forEachChild(new ChildVisitor() {
+            @Override
+            public void visit(Node child) {
+                if (AbstractNodeModel.this.childNeedsSynchronization(child)) {
+                    child.nodeRenamed(node);
+                }
+            }
+        });
     // when you override this method, don't forget to include:
     //    super.nodeRenamed(node);
     }
@@ -462,7 +547,8 @@ public void setChangeNotifier(ChangeNotifier changeNotifier) {
     /**
      * An aspect of the node has changed:
      *     - if it is a persistent aspect, mark the object dirty
-     *     - if it is a significant aspect, validate the object
+     *     - if it is a significant aspect, mark the object as needing
+     *         validation and validate the object
      */
     protected void aspectChanged(String aspectName) {
         if (this.aspectIsPersistent(aspectName)) {
@@ -471,6 +557,7 @@ protected void aspectChanged(String aspectName) {
         }
         if (this.aspectIsSignificant(aspectName)) {
 //            System.out.println(Thread.currentThread() + " significant change: " + this + ": " + aspectName);
+            this.markNeedsValidation();
             this.getValidator().validate();
         }
     }
@@ -600,10 +687,7 @@ protected void markParentBranchDirty() {
     @Override
     public final void markEntireBranchDirty() {
         this.markDirty();
-        for (Iterator stream = this.children(); stream.hasNext(); ) {
-            Node child = (Node) stream.next();        // pull out the child to ease debugging
-            child.markEntireBranchDirty();
-        }
+        this.forEachChild(MARK_ENTIRE_BRANCH_DIRTY);
     }
 
     /**
@@ -633,10 +717,7 @@ protected void markParentBranchCleanIfPossible() {
      */
     @Override
     public final void cascadeMarkEntireBranchClean() {
-        for (Iterator stream = this.children(); stream.hasNext(); ) {
-            Node child = (Node) stream.next();        // pull out the child to ease debugging
-            child.cascadeMarkEntireBranchClean();
-        }
+        this.forEachChild(CASCADE_MARK_ENTIRE_BRANCH_CLEAN);
         this.dirty = false;
         this.setIsDirtyBranch(false);
     }
@@ -844,20 +925,140 @@ protected void rebuildParentBranchProblems() {
      */
     @Override
     public boolean validateBranchInternal() {
-        // rebuild "branch" problems in children first
-        for (Iterator stream = this.children(); stream.hasNext(); ) {
-            Node child = (Node) stream.next();        // pull out the child to ease debugging
-            // ignore the return value because we are going to rebuild our "branch"
-            // problems no matter what, to see if they have changed
-            child.validateBranchInternal();
+        if ( ! this.validatesBranch()) {
+            return this.clearAllBranchProblemsInternal();
         }
+        this.needsValidation = false;
+        this.branchNeedsValidation = false;
+
+        // rebuild "branch" problems in children first
+        this.forEachChild(VALIDATE_BRANCH_INTERNAL);
 
         this.problems.clear();
-        this.addProblemsTo(this.problems);
+        List calculated = this.calculatedProblems;
+        if (calculated == null) {
+            this.addProblemsTo(this.problems);
+        } else {
+            this.calculatedProblems = null;
+            this.problems.addAll(calculated);
+        }
 
         return this.checkBranchProblems();
     }
 
+    /**
+     * Return whether the node and its descendants should be validated.
+     * If they should not, their problems are cleared instead.
+     * By default, every node is validated.
+     */
+    protected boolean validatesBranch() {
+        return true;
+    }
+
+    /**
+     * Validate the node and all of its descendants, just like
+     * #validateBranch(); but calculate the nodes' problems concurrently,
+     * in the specified pool. The "branch" problems are then rebuilt on
+     * the current thread, in the same order as #validateBranch(), so the
+     * results are identical.
+     * This relies on #addProblemsTo(List) being read-only; and the
+     * branch must not be modified during the validation. Typically
+     * used by "headless" clients that validate an entire project.
+     */
+    public void validateBranch(ForkJoinPool pool) {
+        Collection calculatedNodes = new ConcurrentLinkedQueue();
+        try {
+            pool.invoke(new ProblemsCalculation(this, calculatedNodes));
+            this.validateBranch();
+        } finally {
+            // clear out any problems that were not consumed
+            for (Iterator stream = calculatedNodes.iterator(); stream.hasNext(); ) {
+                ((AbstractNodeModel) stream.next()).calculatedProblems = null;
+            }
+        }
+    }
+
+    /**
+     * Validate only the nodes that have changed since they were last
+     * validated, and update their sets of "branch" problems, along
+     * with those of their ancestors.
+     * If the node's "branch" problems have changed,
+     * notify the node's parent.
+     * @see Node#validateChangedBranch()
+     */
+    @Override
+    public void validateChangedBranch() {
+        if (this.validateChangedBranchInternal()) {
+            // if our "branch" problems have changed, then
+            // our parent must rebuild its "branch" problems also
+            this.rebuildParentBranchProblems();
+        }
+    }
+
+    /**
+     * INTRA-NODE API
+     * Validate the changed nodes in the node's branch and
+     * update the "branch" problems along the way, skipping
+     * any descendants whose branches have not changed.
+     * A changed node is validated along with all of its descendants,
+     * since a node's problems frequently depend on its ancestors.
+     * Return true if the collection of "branch" problems has changed.
+     * This method is for internal use only; it is not for
+     * client use.
+     * @see Node#validateChangedBranchInternal()
+     */
+    @Override
+    public boolean validateChangedBranchInternal() {
+        // short-circuit any unchanged branches
+        if ( ! this.branchNeedsValidation) {
+            return false;
+        }
+        if ( ! this.validatesBranch()) {
+            return this.clearAllBranchProblemsInternal();
+        }
+        if (this.needsValidation) {
+            return this.validateBranchInternal();
+        }
+        this.branchNeedsValidation = false;
+
+        ChangedBranchValidator validator = new ChangedBranchValidator();
+        this.forEachChild(validator);
+        if ( ! validator.branchProblemsChanged) {
+            return false;        // none of our descendants' problems changed
+        }
+        return this.checkBranchProblems();
+    }
+
+    /**
+     * Mark the object as needing validation and its branch
+     * as containing changes.
+     */
+    private void markNeedsValidation() {
+        this.needsValidation = true;
+        this.markBranchNeedsValidation();
+    }
+
+    /**
+     * INTRA-NODE API
+     * Mark the object and its parent as branches needing validation.
+     * Unlike the "dirty branch" flag, we do not short-circuit the
+     * propagation when the flag is already set, since the flags in a
+     * branch whose problems were cleared are not kept in synch with
+     * the flags of its ancestors; and the trees are not very deep.
+     * @see Node#markBranchNeedsValidation()
+     */
+    @Override
+    public void markBranchNeedsValidation() {
+        this.branchNeedsValidation = true;
+        this.markParentBranchNeedsValidation();
+    }
+
+    protected void markParentBranchNeedsValidation() {
+        if (this.parent != null) {
+            this.parent.markBranchNeedsValidation();
+        }
+    }
+
     /**
      * Check for any problems and add them to the specified list.
      * This method should ONLY add problems for this particular node;
@@ -890,10 +1091,12 @@ private boolean checkBranchProblems() {
 
         this.branchProblems.clear();
         this.branchProblems.addAll(this.problems);
-        for (Iterator stream = this.children(); stream.hasNext(); ) {
-            Node child = (Node) stream.next();        // pull out the child to ease debugging
-            child.addBranchProblemsTo(this.branchProblems);
-        }
+        this.forEachChild(new ChildVisitor() {
+            @Override
+            public void visit(Node child) {
+                child.addBranchProblemsTo(AbstractNodeModel.this.branchProblems);
+            }
+        });
 
         // if the size has changed to or from zero, our virtual flag has changed
         int newSize = this.branchProblems.size();
@@ -965,15 +1168,14 @@ public final void clearAllBranchProblems() {
      */
     @Override
     public final boolean clearAllBranchProblemsInternal() {
+        // the problems will need to be re-calculated once the
+        // branch changes again (e.g. an inactive branch is activated)
+        this.needsValidation = true;
+        this.branchNeedsValidation = false;
         if (this.branchProblems.isEmpty()) {
             return false;
         }
-        for (Iterator stream = this.children(); stream.hasNext(); ) {
-            Node child = (Node) stream.next();        // pull out the child to ease debugging
-            // ignore the return value because we are going to clear our "branch"
-            // problems no matter what
-            child.clearAllBranchProblemsInternal();
-        }
+        this.forEachChild(CLEAR_ALL_BRANCH_PROBLEMS_INTERNAL);
         this.problems.clear();
         this.branchProblems.clear();
         this.firePropertyChanged(HAS_BRANCH_PROBLEMS_PROPERTY, true, false);
@@ -1052,4 +1254,171 @@ public final String toString() {
         return super.toString();
     }
 
+
+    // ********** child visitors **********
+
+    private static final ChildVisitor MARK_ENTIRE_BRANCH_DIRTY =
+        new ChildVisitor() {
+            @Override
+            public void visit(Node child) {
+                child.markEntireBranchDirty();
+            }
+            @Override
+            public String toString() {
+                return "AbstractNodeModel.MARK_ENTIRE_BRANCH_DIRTY";
+            }
+        };
+
+    private static final ChildVisitor CASCADE_MARK_ENTIRE_BRANCH_CLEAN =
+        new ChildVisitor() {
+            @Override
+            public void visit(Node child) {
+                child.cascadeMarkEntireBranchClean();
+            }
+            @Override
+            public String toString() {
+                return "AbstractNodeModel.CASCADE_MARK_ENTIRE_BRANCH_CLEAN";
+            }
+        };
+
+    private static final ChildVisitor VALIDATE_BRANCH_INTERNAL =
+        new ChildVisitor() {
+            @Override
+            public void visit(Node child) {
+                // ignore the return value because we are going to rebuild our "branch"
+                // problems no matter what, to see if they have changed
+                child.validateBranchInternal();
+            }
+            @Override
+            public String toString() {
+                return "AbstractNodeModel.VALIDATE_BRANCH_INTERNAL";
+            }
+        };
+
+    private static final ChildVisitor CLEAR_ALL_BRANCH_PROBLEMS_INTERNAL =
+        new ChildVisitor() {
+            @Override
+            public void visit(Node child) {
+                // ignore the return value because we are going to clear our "branch"
+                // problems no matter what
+                child.clearAllBranchProblemsInternal();
+            }
+            @Override
+            public String toString() {
+                return "AbstractNodeModel.CLEAR_ALL_BRANCH_PROBLEMS_INTERNAL";
+            }
+        };
+
+    /**
+     * Validate the changed branches of a node's children
+     * and track whether any of their "branch" problems changed.
+     */
+    private static class ChangedBranchValidator implements ChildVisitor {
+        boolean branchProblemsChanged = false;
+        ChangedBranchValidator() {
+            super();
+        }
+        @Override
+        public void visit(Node child) {
+            if (child.validateChangedBranchInternal()) {
+                this.branchProblemsChanged = true;
+            }
+        }
+    }
+
+
+    // ********** member classes **********
+
+    /**
+     * A thread's stack of child lists: a walk of the tree only allocates
+     * a new list when it reaches a level deeper than any it has reached
+     * before. Lists that grow large are discarded rather than retained.
+     */
+    private static class ChildLists {
+        private final List lists = new ArrayList();
+        private int depth = 0;
+
+        private static final int MAX_RETAINED_SIZE = 1000;
+
+        ChildLists() {
+            super();
+        }
+
+        /**
+         * Gather up the specified node's children into the next list.
+         */
+        List acquire(AbstractNodeModel node) {
+            if (this.depth == this.lists.size()) {
+                this.lists.add(new ArrayList());
+            }
+            List children = (List) this.lists.get(this.depth++);
+            try {
+                node.addChildrenTo(children);
+            } catch (RuntimeException ex) {
+                this.release(children);
+                throw ex;
+            } catch (Error ex) {
+                this.release(children);
+                throw ex;
+            }
+            return children;
+        }
+
+        /**
+         * Clear out the specified list, so it does not hold on to the
+         * children, and return it to the stack.
+         */
+        void release(List children) {
+            this.depth--;
+            if (children.size() > MAX_RETAINED_SIZE) {
+                this.lists.set(this.depth, new ArrayList());
+            } else {
+                children.clear();
+            }
+        }
+    }
+
+
+    /**
+     * Calculate the problems of a node and, concurrently,
+     * those of its descendants. Only nodes that extend
+     * AbstractNodeModel are calculated here; any other nodes
+     * will calculate their problems when the "branch" problems
+     * are rebuilt.
+     */
+    private static class ProblemsCalculation extends RecursiveAction {
+        private final AbstractNodeModel node;
+        private final Collection calculatedNodes;
+
+        private static final long serialVersionUID = 1L;
+
+        ProblemsCalculation(AbstractNodeModel node, Collection calculatedNodes) {
+            super();
+            this.node = node;
+            this.calculatedNodes = calculatedNodes;
+        }
+
+        @Override
+        protected void compute() {
+            if ( ! this.node.validatesBranch()) {
+                return;
+            }
+            List subtasks = new ArrayList();
+            for (Iterator stream = this.node.children(); stream.hasNext(); ) {
+                Object child = stream.next();
+                if (child instanceof AbstractNodeModel) {
+                    subtasks.add(new ProblemsCalculation((AbstractNodeModel) child, this.calculatedNodes));
+                }
+            }
+            if ( ! subtasks.isEmpty()) {
+                invokeAll(subtasks);
+            }
+
+            List nodeProblems = new ArrayList();
+            this.node.addProblemsTo(nodeProblems);
+            this.node.calculatedProblems = nodeProblems;
+            this.calculatedNodes.add(this.node);
+        }
+    }
+
 }
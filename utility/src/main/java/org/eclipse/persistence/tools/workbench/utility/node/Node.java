@@ -45,6 +45,16 @@ public interface Node extends Comparable {
      */
     Iterator children();
 
+    /**
+     * INTRA-NODE API?
+     * Pass each of the node's children to the specified visitor.
+     * Unlike #children(), this does not build a new collection
+     * of the children every time it is called; so it should be
+     * used by any cascade through the tree.
+     * @see ChildVisitor
+     */
+    void forEachChild(ChildVisitor visitor);
+
     /**
      * Set the node's parent node.
      */
@@ -223,6 +233,34 @@ public interface Node extends Comparable {
      */
     boolean validateBranchInternal();
 
+    /**
+     * Validate only the nodes in the node's branch that have had
+     * "significant" changes since they were last validated, and
+     * update the "branch" problems of those nodes and their ancestors.
+     * Problems that depend on nodes other than the changed nodes
+     * are only refreshed by #validateBranch().
+     */
+    void validateChangedBranch();
+
+    /**
+     * INTRA-NODE API
+     * Validate only the nodes in the node's branch that have had
+     * "significant" changes since they were last validated,
+     * and update the "branch" problems along the way.
+     * Return true if the collection of "branch" problems has changed.
+     * This method is for internal use only; it is not for
+     * client use.
+     */
+    boolean validateChangedBranchInternal();
+
+    /**
+     * INTRA-NODE API
+     * Mark the node and its parent as branches that contain nodes
+     * needing validation. This message is propagated up the
+     * containment tree when a particular node has a "significant" change.
+     */
+    void markBranchNeedsValidation();
+
     /**
      * Return all the node's problems along with all the
      * node's descendants' problems.
@@ -312,6 +350,22 @@ interface Reference {
     }
 
 
+    /**
+     * A child visitor is passed each of a node's children in turn.
+     * Visitors that do not depend on the node being visited can be
+     * shared, making a cascade through the tree allocation-free.
+     * @see Node#forEachChild(ChildVisitor)
+     */
+    interface ChildVisitor {
+
+        /**
+         * Visit the specified child.
+         */
+        void visit(Node child);
+
+    }
+
+
     /**
      * A validator will validate a node as appropriate.
      * Typically the validation will
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 1998, 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation from Oracle TopLink
+package org.eclipse.persistence.tools.workbench.utility.node;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.persistence.tools.workbench.utility.string.StringTools;
+
+
+/**
+ * This class maintains an inverted index of the "references" held
+ * by the nodes in a tree: each referenced ("target") node is mapped to
+ * the nodes (typically handles) that reference it. The index allows
+ * a root node to limit the #nodeRemoved(Node) and #nodeRenamed(Node)
+ * cascades to the branches of the tree that actually hold references
+ * to the removed or renamed node.
+ *
+ * The index is built lazily, from the root's branch references, the
+ * first time it is needed; after that, the "source" nodes must notify
+ * the index whenever they change the node they reference. Clients can
+ * #clear() the index whenever that is not possible (e.g. while the tree
+ * is being read in); it will be rebuilt when it is next needed.
+ * @see Node#addBranchReferencesTo(Collection)
+ */
+public class NodeReferenceIndex {
+
+    /** the root of the tree whose references are indexed */
+    private final Node root;
+
+    /** target node => Set of source nodes; null until it is needed */
+    private Map references;
+
+
+    // ********** constructors **********
+
+    /**
+     * Construct an index of the references held by the nodes
+     * in the specified tree.
+     */
+    public NodeReferenceIndex(Node root) {
+        super();
+        if (root == null) {
+            throw new NullPointerException();
+        }
+        this.root = root;
+    }
+
+
+    // ********** queries **********
+
+    /**
+     * Return whether the index has been built.
+     */
+    public synchronized boolean isBuilt() {
+        return this.references != null;
+    }
+
+    /**
+     * Return the nodes that currently reference the specified node.
+     */
+    public synchronized Set sourcesReferencing(Node target) {
+        Set sources = (Set) this.references().get(target);
+        return (sources == null) ? new HashSet() : new HashSet(sources);
+    }
+
+    /**
+     * Return the nodes that must be notified when the specified node is
+     * removed or renamed: the nodes that reference the specified node,
+     * or any of its descendants, along with all their ancestors; plus
+     * the specified node's branch and all its ancestors. Any node that
+     * is in the returned set has all its ancestors in the set too.
+     */
+    public synchronized Set branchesAffectedBy(Node node) {
+        Collection branch = new ArrayList();
+        node.addAllNodesTo(branch);
+        Set result = new HashSet(branch);
+        addAncestorsTo(node.getParent(), result);
+        Map index = this.references();
+        for (Iterator stream = branch.iterator(); stream.hasNext(); ) {
+            Set sources = (Set) index.get(stream.next());
+            if (sources != null) {
+                for (Iterator sourceStream = sources.iterator(); sourceStream.hasNext(); ) {
+                    addAncestorsTo((Node) sourceStream.next(), result);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Add the specified node and its ancestors to the specified set;
+     * stop as soon as we reach a node that is already in the set,
+     * since its ancestors will already be there too.
+     */
+    private static void addAncestorsTo(Node node, Set nodes) {
+        while ((node != null) && nodes.add(node)) {
+            node = node.getParent();
+        }
+    }
+
+    private Map references() {
+        if (this.references == null) {
+            this.references = this.buildReferences();
+        }
+        return this.references;
+    }
+
+    private Map buildReferences() {
+        Collection branchReferences = new ArrayList(1000);        // start big
+        this.root.addBranchReferencesTo(branchReferences);
+        Map result = new HashMap(branchReferences.size());
+        for (Iterator stream = branchReferences.iterator(); stream.hasNext(); ) {
+            Node.Reference ref = (Node.Reference) stream.next();
+            addReferenceTo(result, ref.getSource(), ref.getTarget());
+        }
+        return result;
+    }
+
+    private static void addReferenceTo(Map index, Node source, Node target) {
+        Set sources = (Set) index.get(target);
+        if (sources == null) {
+            sources = new HashSet();
+            index.put(target, sources);
+        }
+        sources.add(source);
+    }
+
+    private static void removeReferenceFrom(Map index, Node source, Node target) {
+        Set sources = (Set) index.get(target);
+        if ((sources != null) && sources.remove(source) && sources.isEmpty()) {
+            index.remove(target);
+        }
+    }
+
+
+    // ********** behavior **********
+
+    /**
+     * The specified source node has changed the node it references;
+     * either node can be null. This is ignored if the index has
+     * not been built yet.
+     */
+    public synchronized void referenceChanged(Node source, Node oldTarget, Node newTarget) {
+        if (this.references == null) {
+            return;        // the index will be built when it is needed
+        }
+        if (oldTarget != null) {
+            removeReferenceFrom(this.references, source, oldTarget);
+        }
+        if (newTarget != null) {
+            addReferenceTo(this.references, source, newTarget);
+        }
+    }
+
+    /**
+     * The specified node has been removed from the tree:
+     * the nodes in its branch no longer reference anything.
+     */
+    public synchronized void branchRemoved(Node node) {
+        if (this.references == null) {
+            return;        // the index will be built when it is needed
+        }
+        Collection branchReferences = new ArrayList();
+        node.addBranchReferencesTo(branchReferences);
+        for (Iterator stream = branchReferences.iterator(); stream.hasNext(); ) {
+            Node.Reference ref = (Node.Reference) stream.next();
+            removeReferenceFrom(this.references, ref.getSource(), ref.getTarget());
+        }
+    }
+
+    /**
+     * Discard the index; it will be rebuilt when it is next needed.
+     */
+    public synchronized void clear() {
+        this.references = null;
+    }
+
+    @Override
+    public String toString() {
+        return StringTools.buildToStringFor(this, this.root);
+    }
+
+}
@@ -47,6 +47,22 @@
     /** When this flag is set to false, we allow this thread to die. */
     private SynchronizedBoolean continueFlag;
 
+    /**
+     * Once the branch has been quiet for this many milliseconds after
+     * a change, validate the entire branch, to pick up any problems that
+     * depend on nodes other than the ones that changed. A negative
+     * delay disables these full validations; the entire branch is then
+     * validated only the first time and whenever a client calls
+     * #validateEntireBranch().
+     */
+    private long fullValidationDelay;
+
+    /** The default delay before validating the entire branch. */
+    public static final long DEFAULT_FULL_VALIDATION_DELAY = 2000;
+
+    /** When this flag is set to true, the next validation covers the entire branch. */
+    private SynchronizedBoolean fullValidationFlag;
+
     /** Log any exceptions encountered during validation with the following settings. */
     private Logger exceptionLogger;
     private Level exceptionLevel;
@@ -63,6 +79,23 @@ public RunnableValidation(
             Logger exceptionLogger,
             Level exceptionLevel,
             String exceptionMessage
+    ) {
+        this(node, validateFlag, continueFlag, exceptionLogger, exceptionLevel, exceptionMessage, DEFAULT_FULL_VALIDATION_DELAY);
+    }
+
+    /**
+     * Construct a validation thread that will validate the entire
+     * branch whenever things have been quiet for the specified delay
+     * after a change. A negative delay disables these full validations.
+     */
+    public RunnableValidation(
+            Node node,
+            SynchronizedBoolean validateFlag,
+            SynchronizedBoolean continueFlag,
+            Logger exceptionLogger,
+            Level exceptionLevel,
+            String exceptionMessage,
+            long fullValidationDelay
     ) {
         super();
         this.node = node;
@@ -71,6 +104,22 @@ public RunnableValidation(
         this.exceptionLogger = exceptionLogger;
         this.exceptionLevel = exceptionLevel;
         this.exceptionMessage = exceptionMessage;
+        this.fullValidationDelay = fullValidationDelay;
+        // the first validation covers the entire branch
+        this.fullValidationFlag = new SynchronizedBoolean(true);
+    }
+
+
+    // ********** full validation **********
+
+    /**
+     * Validate the entire branch (instead of just the changed nodes) as soon
+     * as possible; e.g. after the branch is saved. This picks up any problems
+     * that depend on nodes other than the ones that changed.
+     */
+    public void validateEntireBranch() {
+        this.fullValidationFlag.setTrue();
+        this.validateFlag.setTrue();
     }
 
 
@@ -80,20 +129,40 @@ public RunnableValidation(
      * Loop while the "continue" flag is true and the thread
      * has not been interrupted by another thread.
      * In each loop: Wait until the "validate" flag is set to true,
-     * then set it back to false and validate the branch of nodes.
+     * then set it back to false and validate the nodes that have changed.
+     * The first time through, whenever a client requests it, and whenever
+     * the "validate" flag stays false for the "full validation" delay after
+     * a change, validate the entire branch of nodes.
      *
      * @see java.lang.Runnable#run()
      */
     @Override
     public void run() {
+        boolean fullValidationPending = false;
         while (this.continueFlag.isTrue()) {
             try {
-                this.validateFlag.waitToSetFalse();
+                if (fullValidationPending) {
+                    if ( ! this.validateFlag.waitToSetFalse(this.fullValidationDelay)) {
+                        // things have quieted down
+                        fullValidationPending = false;
+                        this.validateNode(true);
+                        continue;
+                    }
+                } else {
+                    this.validateFlag.waitToSetFalse();
+                }
             } catch (InterruptedException ex) {
                 // we were interrupted while waiting, must be quittin' time
                 return;
             }
-            this.validateNode();
+            boolean entireBranch;
+            synchronized (this.fullValidationFlag.getMutex()) {
+                entireBranch = this.fullValidationFlag.isTrue();
+                this.fullValidationFlag.setFalse();
+            }
+            this.validateNode(entireBranch);
+            // a zero delay would wait indefinitely
+            fullValidationPending = ( ! entireBranch) && (this.fullValidationDelay > 0);
         }
     }
 
@@ -113,10 +182,16 @@ public void run() {
      * probably fill the log; and those exceptions are bugs that need
      * to be fixed. (!) Hopefully the user will notice the enormous log and
      * contact support....  ~bjv
+     * Any changes skipped by an exception during a validation of only the
+     * changed nodes will be picked up by the next full validation.
      */
-    private void validateNode() {
+    private void validateNode(boolean entireBranch) {
         try {
-            this.node.validateBranch();
+            if (entireBranch) {
+                this.node.validateBranch();
+            } else {
+                this.node.validateChangedBranch();
+            }
         } catch (Throwable ex) {
             this.logException(ex);
         }
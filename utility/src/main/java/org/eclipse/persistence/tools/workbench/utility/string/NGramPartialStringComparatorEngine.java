@@ -0,0 +1,434 @@
+/*
+ * Copyright (c) 1998, 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation from Oracle TopLink
+package org.eclipse.persistence.tools.workbench.utility.string;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This partial string comparator engine returns the same matches as the
+ * ExhaustivePartialStringComparatorEngine, but without assigning the pairs
+ * by repeatedly re-scanning every remaining score, and without necessarily
+ * comparing every string in the first set with every string in the second set:
+ *     - The strings in the second set are indexed by their (case-insensitive)
+ *         n-grams; and each string in the first set is compared only with the
+ *         strings that share at least one n-gram with it. The comparisons are
+ *         performed in parallel.
+ *     - The pairs with a positive score are assigned, best score first, via
+ *         a priority queue. Ties are broken the same way as the exhaustive
+ *         engine.
+ *     - Every string left unassigned is then compared with every other
+ *         unassigned string, and those pairs (including the pairs that score
+ *         zero) are assigned the same way.
+ * The matches are identical to those returned by the exhaustive engine as long
+ * as any two strings that do not share an n-gram score zero. This is true
+ * for the default comparator (and the case-converting comparators wrapping it)
+ * when the strings are indexed by their individual characters, which is the
+ * default gram size. Larger grams compare fewer pairs, but a comparator may
+ * give a positive score to a pair of strings that share no n-grams
+ * (e.g. the default comparator scores "bxa" vs. "ba" above zero, even though
+ * they share no bigrams), and those matches can then differ.
+ *
+ * The comparator will be called concurrently from multiple threads,
+ * so it must be thread-safe.
+ */
+public class NGramPartialStringComparatorEngine
+    implements PartialStringComparatorEngine
+{
+    private final PartialStringComparator partialStringComparator;
+    private final int gramSize;
+
+    /**
+     * by default, the strings are indexed by their characters,
+     * so the matches are the same as the exhaustive engine's
+     */
+    public static final int DEFAULT_GRAM_SIZE = 1;
+
+    /** the number of strings compared by a single task */
+    private static final int ROWS_PER_TASK = 32;
+
+
+    public NGramPartialStringComparatorEngine(PartialStringComparator partialStringComparator) {
+        this(partialStringComparator, DEFAULT_GRAM_SIZE);
+    }
+
+    public NGramPartialStringComparatorEngine(PartialStringComparator partialStringComparator, int gramSize) {
+        super();
+        if (gramSize < 1) {
+            throw new IllegalArgumentException("gram size must be positive: " + gramSize);
+        }
+        this.partialStringComparator = partialStringComparator;
+        this.gramSize = gramSize;
+    }
+
+    /**
+     * @see PartialStringComparatorEngine#match(StringHolder[], StringHolder[])
+     */
+    @Override
+    public StringHolderPair[] match(StringHolder[] stringHolders1, StringHolder[] stringHolders2) {
+        int len1 = stringHolders1.length;
+        int len2 = stringHolders2.length;
+        String[] strings1 = strings(stringHolders1);
+        String[] strings2 = strings(stringHolders2);
+
+        // index1 => index2 (or -1) and the corresponding score
+        int[] matches = new int[len1];
+        double[] scores = new double[len1];
+        for (int i = len1; i-- > 0; ) {
+            matches[i] = -1;
+        }
+        boolean[] assigned2 = new boolean[len2];
+
+        // score and assign the pairs that share n-grams and score above zero
+        List[] candidates = new List[len1];
+        ForkJoinPool.commonPool().invoke(
+            new ScoreTask(this, strings1, strings2, range(len1), null, this.buildIndex(strings2), this.shortStrings(strings2), candidates)
+        );
+        this.assign(candidates, matches, scores, assigned2);
+
+        // score every remaining pair, even those that score zero, and assign them
+        // the same way, so the leftover strings are paired like the exhaustive engine
+        int[] unassigned1 = unassigned(matches);
+        int[] unassigned2 = unassigned(assigned2);
+        if ((unassigned1.length != 0) && (unassigned2.length != 0)) {
+            candidates = new List[len1];
+            ForkJoinPool.commonPool().invoke(
+                new ScoreTask(this, strings1, strings2, unassigned1, unassigned2, null, null, candidates)
+            );
+            this.assign(candidates, matches, scores, assigned2);
+            unassigned2 = unassigned(assigned2);
+        }
+
+        // any strings still left in the second set go to the "empty" pairs,
+        // highest index first, like the exhaustive engine
+        int index2 = unassigned2.length;
+
+        StringHolderPair[] pairs = new StringHolderPair[Math.max(len1, len2)];
+        for (int i = 0; i < len1; i++) {
+            StringHolder stringHolder2 = (matches[i] == -1) ? null : stringHolders2[matches[i]];
+            pairs[i] = new SimpleStringHolderPair(stringHolders1[i], stringHolder2, scores[i]);
+        }
+        for (int i = pairs.length; i-- > len1; ) {
+            pairs[i] = new SimpleStringHolderPair(null, stringHolders2[unassigned2[--index2]], 0.0);
+        }
+        return pairs;
+    }
+
+    /**
+     * Assign the specified candidate pairs, best score first.
+     * Ties are broken the same way as the exhaustive engine:
+     * highest first index, then highest second index.
+     */
+    private void assign(List[] candidates, int[] matches, double[] scores, boolean[] assigned2) {
+        int count = 0;
+        for (int i = candidates.length; i-- > 0; ) {
+            if (candidates[i] != null) {
+                count += candidates[i].size();
+            }
+        }
+        if (count == 0) {
+            return;
+        }
+        PriorityQueue queue = new PriorityQueue(count, Candidate.BEST_FIRST_COMPARATOR);
+        for (int i = candidates.length; i-- > 0; ) {
+            if (candidates[i] != null) {
+                queue.addAll(candidates[i]);
+            }
+        }
+        for (Candidate candidate = (Candidate) queue.poll(); candidate != null; candidate = (Candidate) queue.poll()) {
+            if ((matches[candidate.index1] == -1) && ! assigned2[candidate.index2]) {
+                matches[candidate.index1] = candidate.index2;
+                scores[candidate.index1] = candidate.score;
+                assigned2[candidate.index2] = true;
+            }
+        }
+    }
+
+    /**
+     * Return the specified strings' n-grams mapped to the indices
+     * of the strings that contain them.
+     */
+    private Map buildIndex(String[] strings) {
+        Map temp = new HashMap(strings.length * 8);
+        for (int i = 0; i < strings.length; i++) {
+            String string = this.fold(strings[i]);
+            for (int j = string.length() - this.gramSize + 1; j-- > 0; ) {
+                String gram = string.substring(j, j + this.gramSize);
+                List indices = (List) temp.get(gram);
+                if (indices == null) {
+                    indices = new ArrayList();
+                    temp.put(gram, indices);
+                }
+                Integer index = Integer.valueOf(i);
+                if ((indices.isEmpty()) || ! indices.get(indices.size() - 1).equals(index)) {
+                    indices.add(index);
+                }
+            }
+        }
+        Map result = new HashMap(temp.size());
+        for (Iterator stream = temp.entrySet().iterator(); stream.hasNext(); ) {
+            Map.Entry entry = (Map.Entry) stream.next();
+            List indices = (List) entry.getValue();
+            int[] array = new int[indices.size()];
+            for (int i = array.length; i-- > 0; ) {
+                array[i] = ((Integer) indices.get(i)).intValue();
+            }
+            result.put(entry.getKey(), array);
+        }
+        return result;
+    }
+
+    /**
+     * Return the indices of the strings that are too short to have any
+     * n-grams; they must be compared with every string in the other set.
+     */
+    private int[] shortStrings(String[] strings) {
+        int count = 0;
+        int[] temp = new int[strings.length];
+        for (int i = 0; i < strings.length; i++) {
+            if (this.fold(strings[i]).length() < this.gramSize) {
+                temp[count++] = i;
+            }
+        }
+        int[] result = new int[count];
+        System.arraycopy(temp, 0, result, 0, count);
+        return result;
+    }
+
+    /**
+     * Fold the case of the specified string's characters without
+     * changing its length (unlike String#toLowerCase()).
+     * A null string has no n-grams.
+     */
+    String fold(String string) {
+        if (string == null) {
+            return "";
+        }
+        char[] chars = string.toCharArray();
+        for (int i = chars.length; i-- > 0; ) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    private static String[] strings(StringHolder[] stringHolders) {
+        String[] strings = new String[stringHolders.length];
+        for (int i = stringHolders.length; i-- > 0; ) {
+            strings[i] = stringHolders[i].getString();
+        }
+        return strings;
+    }
+
+    private static int[] range(int length) {
+        int[] result = new int[length];
+        for (int i = length; i-- > 0; ) {
+            result[i] = i;
+        }
+        return result;
+    }
+
+    private static int[] unassigned(int[] matches) {
+        int count = 0;
+        int[] temp = new int[matches.length];
+        for (int i = 0; i < matches.length; i++) {
+            if (matches[i] == -1) {
+                temp[count++] = i;
+            }
+        }
+        int[] result = new int[count];
+        System.arraycopy(temp, 0, result, 0, count);
+        return result;
+    }
+
+    private static int[] unassigned(boolean[] assigned) {
+        int count = 0;
+        int[] temp = new int[assigned.length];
+        for (int i = 0; i < assigned.length; i++) {
+            if ( ! assigned[i]) {
+                temp[count++] = i;
+            }
+        }
+        int[] result = new int[count];
+        System.arraycopy(temp, 0, result, 0, count);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return StringTools.buildToStringFor(this, this.partialStringComparator);
+    }
+
+
+    // ********** member classes **********
+
+    /**
+     * A scored, but not necessarily assigned, pair of strings.
+     */
+    private static final class Candidate {
+        final double score;
+        final int index1;
+        final int index2;
+
+        Candidate(double score, int index1, int index2) {
+            super();
+            this.score = score;
+            this.index1 = index1;
+            this.index2 = index2;
+        }
+
+        /**
+         * order the candidates by descending score, then descending indices
+         */
+        static final Comparator BEST_FIRST_COMPARATOR =
+            new Comparator() {
+                @Override
+                public int compare(Object o1, Object o2) {
+                    Candidate c1 = (Candidate) o1;
+                    Candidate c2 = (Candidate) o2;
+                    if (c1.score != c2.score) {
+                        return (c1.score > c2.score) ? -1 : 1;
+                    }
+                    if (c1.index1 != c2.index1) {
+                        return (c1.index1 > c2.index1) ? -1 : 1;
+                    }
+                    return (c1.index2 > c2.index2) ? -1 : ((c1.index2 == c2.index2) ? 0 : 1);
+                }
+            };
+
+        @Override
+        public String toString() {
+            return StringTools.buildToStringFor(this, this.index1 + " vs. " + this.index2 + " => " + this.score);
+        }
+    }
+
+
+    /**
+     * Compare the specified rows (strings from the first set) with either
+     * the specified columns (strings from the second set) or, if no columns
+     * are specified, the strings from the second set that share n-grams with
+     * the row. When comparing with the n-gram matches, only the pairs with a
+     * positive score are kept, since the remaining pairs are all scored later;
+     * when comparing with the specified columns, every pair is kept.
+     * Each row's candidates are stored in its own slot, so the tasks can
+     * run concurrently without any locking.
+     */
+    private static class ScoreTask extends RecursiveAction {
+        private final NGramPartialStringComparatorEngine engine;
+        private final String[] strings1;
+        private final String[] strings2;
+        private final int[] rows;
+        private final int start;
+        private final int end;
+        private final int[] columns;
+        private final Map index;
+        private final int[] shortStrings2;
+        private final List[] candidates;
+
+        private static final long serialVersionUID = 1L;
+
+        ScoreTask(NGramPartialStringComparatorEngine engine, String[] strings1, String[] strings2, int[] rows, int[] columns, Map index, int[] shortStrings2, List[] candidates) {
+            this(engine, strings1, strings2, rows, 0, rows.length, columns, index, shortStrings2, candidates);
+        }
+
+        private ScoreTask(NGramPartialStringComparatorEngine engine, String[] strings1, String[] strings2, int[] rows, int start, int end, int[] columns, Map index, int[] shortStrings2, List[] candidates) {
+            super();
+            this.engine = engine;
+            this.strings1 = strings1;
+            this.strings2 = strings2;
+            this.rows = rows;
+            this.start = start;
+            this.end = end;
+            this.columns = columns;
+            this.index = index;
+            this.shortStrings2 = shortStrings2;
+            this.candidates = candidates;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.end - this.start <= ROWS_PER_TASK) {
+                this.scoreRows();
+            } else {
+                int mid = (this.start + this.end) >>> 1;
+                invokeAll(
+                    new ScoreTask(this.engine, this.strings1, this.strings2, this.rows, this.start, mid, this.columns, this.index, this.shortStrings2, this.candidates),
+                    new ScoreTask(this.engine, this.strings1, this.strings2, this.rows, mid, this.end, this.columns, this.index, this.shortStrings2, this.candidates)
+                );
+            }
+        }
+
+        private void scoreRows() {
+            // used to compare each string in the second set only once per row
+            int[] marks = (this.columns == null) ? new int[this.strings2.length] : null;
+            for (int r = this.start; r < this.end; r++) {
+                int row = this.rows[r];
+                List rowCandidates = new ArrayList();
+                if (this.columns != null) {
+                    this.score(row, this.columns, rowCandidates, null);
+                } else {
+                    String string1 = this.engine.fold(this.strings1[row]);
+                    int gramSize = this.engine.gramSize;
+                    if (string1.length() < gramSize) {
+                        this.score(row, range(this.strings2.length), rowCandidates, null);
+                    } else {
+                        Set grams = new HashSet();
+                        for (int i = string1.length() - gramSize + 1; i-- > 0; ) {
+                            String gram = string1.substring(i, i + gramSize);
+                            if (grams.add(gram)) {
+                                int[] indices = (int[]) this.index.get(gram);
+                                if (indices != null) {
+                                    this.score(row, indices, rowCandidates, marks);
+                                }
+                            }
+                        }
+                        this.score(row, this.shortStrings2, rowCandidates, marks);
+                    }
+                }
+                if ( ! rowCandidates.isEmpty()) {
+                    this.candidates[row] = rowCandidates;
+                }
+            }
+        }
+
+        private void score(int row, int[] indices, List rowCandidates, int[] marks) {
+            PartialStringComparator psc = this.engine.partialStringComparator;
+            String string1 = this.strings1[row];
+            int mark = row + 1;
+            for (int i = 0; i < indices.length; i++) {
+                int index2 = indices[i];
+                if (marks != null) {
+                    if (marks[index2] == mark) {
+                        continue;    // already compared
+                    }
+                    marks[index2] = mark;
+                }
+                double score = psc.compare(string1, this.strings2[index2]);
+                if ((score > 0) || (this.columns != null)) {
+                    rowCandidates.add(new Candidate(score, row, index2));
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 1998, 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation from Oracle TopLink
+package org.eclipse.persistence.tools.workbench.utility.string;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * This class indexes a fixed array of strings by their (case-insensitive)
+ * prefixes and trigrams, so a client can quickly narrow down the strings
+ * that might match a SimpleStringMatcher pattern before running them through
+ * the matcher itself:
+ *     - the first one or two characters of a pattern that does not start
+ *         with a wildcard must be a prefix of any matching string
+ *     - every trigram of every literal (wildcard-free) run of characters
+ *         in the pattern must be contained by any matching string
+ * The index only ever rules out strings that cannot match; the candidates
+ * it returns must still be checked with the matcher.
+ * @see SimpleStringMatcher
+ */
+public class SubstringIndex {
+
+    /** the number of strings indexed */
+    private final int size;
+
+    /** folded prefix (one or two characters) => ascending string indices (int[]) */
+    private final Map prefixes;
+
+    /** folded trigram => ascending string indices (int[]) */
+    private final Map trigrams;
+
+    private static final int PREFIX_LENGTH = 2;
+    private static final int GRAM_LENGTH = 3;
+    private static final int[] EMPTY_INDICES = new int[0];
+
+
+    // ********** constructors **********
+
+    /**
+     * Construct an index on the specified strings. Null strings are
+     * treated as empty strings.
+     */
+    public SubstringIndex(String[] strings) {
+        super();
+        this.size = strings.length;
+        Map tempPrefixes = new HashMap();
+        Map tempTrigrams = new HashMap(strings.length * 4);
+        for (int i = 0; i < strings.length; i++) {
+            String string = fold(strings[i]);
+            int len = string.length();
+            for (int j = 1; j <= Math.min(PREFIX_LENGTH, len); j++) {
+                add(tempPrefixes, string.substring(0, j), i);
+            }
+            for (int j = 0; j <= len - GRAM_LENGTH; j++) {
+                add(tempTrigrams, string.substring(j, j + GRAM_LENGTH), i);
+            }
+        }
+        this.prefixes = trim(tempPrefixes);
+        this.trigrams = trim(tempTrigrams);
+    }
+
+    private static void add(Map postings, String key, int index) {
+        Postings p = (Postings) postings.get(key);
+        if (p == null) {
+            p = new Postings();
+            postings.put(key, p);
+        }
+        p.add(index);
+    }
+
+    private static Map trim(Map postings) {
+        Map result = new HashMap(postings.size());
+        for (Iterator stream = postings.entrySet().iterator(); stream.hasNext(); ) {
+            Map.Entry entry = (Map.Entry) stream.next();
+            result.put(entry.getKey(), ((Postings) entry.getValue()).toArray());
+        }
+        return result;
+    }
+
+
+    // ********** queries **********
+
+    /**
+     * Return the number of strings in the index.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Return the indices, in ascending order, of the strings that
+     * might match the specified pattern when it is used by a case-insensitive
+     * SimpleStringMatcher (i.e. with '*' and '?' wildcards and an implied
+     * trailing '*'). Return null if the pattern does not rule out any strings
+     * (e.g. it begins with a wildcard and has no literal runs long enough
+     * to hold a trigram).
+     */
+    public int[] candidatesFor(String pattern) {
+        String folded = fold(pattern);
+        int[] result = null;
+        int len = folded.length();
+        int start = 0;
+        while (start < len) {
+            int end = start;
+            while ((end < len) && ! isWildcard(folded.charAt(end))) {
+                end++;
+            }
+            if (start == 0 && end > 0) {
+                String prefix = folded.substring(0, Math.min(PREFIX_LENGTH, end));
+                result = intersect(result, (int[]) this.prefixes.get(prefix));
+            }
+            for (int i = start; i <= end - GRAM_LENGTH; i++) {
+                result = intersect(result, (int[]) this.trigrams.get(folded.substring(i, i + GRAM_LENGTH)));
+                if (result.length == 0) {
+                    return result;
+                }
+            }
+            start = end + 1;
+        }
+        return result;
+    }
+
+    private static boolean isWildcard(char c) {
+        return (c == '*') || (c == '?');
+    }
+
+    /**
+     * Intersect the specified ascending arrays; a null "current" array
+     * means no strings have been ruled out yet, a null postings array
+     * means no strings contain the key.
+     */
+    private static int[] intersect(int[] current, int[] postings) {
+        if (postings == null) {
+            return EMPTY_INDICES;
+        }
+        if (current == null) {
+            return postings;
+        }
+        int[] temp = new int[Math.min(current.length, postings.length)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while ((i < current.length) && (j < postings.length)) {
+            if (current[i] < postings[j]) {
+                i++;
+            } else if (current[i] > postings[j]) {
+                j++;
+            } else {
+                temp[count++] = current[i];
+                i++;
+                j++;
+            }
+        }
+        int[] result = new int[count];
+        System.arraycopy(temp, 0, result, 0, count);
+        return result;
+    }
+
+    /**
+     * Fold the case of the specified string's characters the same way
+     * a case-insensitive (Unicode) regular expression does, without
+     * changing the string's length.
+     */
+    private static String fold(String string) {
+        if (string == null) {
+            return "";
+        }
+        char[] chars = string.toCharArray();
+        for (int i = chars.length; i-- > 0; ) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+
+    @Override
+    public String toString() {
+        return StringTools.buildToStringFor(this, this.size + " strings");
+    }
+
+
+    // ********** member class **********
+
+    /**
+     * A growable, ascending list of string indices.
+     */
+    private static class Postings {
+        private int[] indices = new int[4];
+        private int count = 0;
+
+        void add(int index) {
+            // a string can contain the same trigram more than once
+            if ((this.count != 0) && (this.indices[this.count - 1] == index)) {
+                return;
+            }
+            if (this.count == this.indices.length) {
+                int[] newIndices = new int[this.count << 1];
+                System.arraycopy(this.indices, 0, newIndices, 0, this.count);
+                this.indices = newIndices;
+            }
+            this.indices[this.count++] = index;
+        }
+
+        int[] toArray() {
+            int[] result = new int[this.count];
+            System.arraycopy(this.indices, 0, result, 0, this.count);
+            return result;
+        }
+    }
+
+}
@@ -527,6 +527,52 @@ public void testFireTreeStructureChangedObjectArrayPath() {
         assertFalse(this.treeChangedCalled);
     }
 
+    public void testBatch() {
+        final int[] propertyCount = new int[1];
+        final int[] collectionCount = new int[1];
+        this.testModel.addPropertyChangeListener(PROPERTY_NAME, new PropertyChangeListener() {
+            @Override
+            public void propertyChange(PropertyChangeEvent e) {
+                propertyCount[0]++;
+                AbstractModelTests.this.propertyChangeEvent = e;
+            }
+        });
+        this.testModel.addCollectionChangeListener(COLLECTION_NAME, new CollectionChangeListener() {
+            @Override
+            public void itemsAdded(CollectionChangeEvent e) {
+                fail("unexpected event: " + e);
+            }
+            @Override
+            public void itemsRemoved(CollectionChangeEvent e) {
+                fail("unexpected event: " + e);
+            }
+            @Override
+            public void collectionChanged(CollectionChangeEvent e) {
+                collectionCount[0]++;
+            }
+        });
+
+        this.testModel.testFireBatch(NEW_OBJECT_VALUE);
+        assertEquals(1, propertyCount[0]);
+        this.verifyPropertyChangeEvent(OLD_OBJECT_VALUE, NEW_OBJECT_VALUE);
+        assertEquals(1, collectionCount[0]);
+
+        // a property that ends up with its original value is not fired
+        this.testModel.testFireBatch(OLD_OBJECT_VALUE);
+        assertEquals(1, propertyCount[0]);
+        assertEquals(2, collectionCount[0]);
+    }
+
+    public void testBatchNotStarted() {
+        boolean exCaught = false;
+        try {
+            this.testModel.testEndBatch();
+        } catch (IllegalStateException ex) {
+            exCaught = true;
+        }
+        assertTrue(exCaught);
+    }
+
     public void testHasAnyChangeListeners() {
         assertFalse(this.testModel.hasAnyPropertyChangeListeners(PROPERTY_NAME));
         this.testModel.addPropertyChangeListener(this);
@@ -1075,6 +1121,24 @@ public void testFireStateChange() {
             this.fireStateChanged();
         }
 
+        public void testFireBatch(Object finalValue) {
+            this.startChangeBatch();
+            try {
+                this.firePropertyChanged(PROPERTY_NAME, OLD_OBJECT_VALUE, TEST_TO_STRING);
+                this.firePropertyChanged(PROPERTY_NAME, TEST_TO_STRING, finalValue);
+                this.startChangeBatch();        // nested
+                this.fireItemAdded(COLLECTION_NAME, ADDED_OBJECT_VALUE);
+                this.endChangeBatch();
+                this.fireItemRemoved(COLLECTION_NAME, REMOVED_OBJECT_VALUE);
+            } finally {
+                this.endChangeBatch();
+            }
+        }
+
+        public void testEndBatch() {
+            this.endChangeBatch();
+        }
+
         public void testFirePropertyChangeObjectObject() {
             this.firePropertyChanged(PROPERTY_NAME, OLD_OBJECT_VALUE, NEW_OBJECT_VALUE);
         }
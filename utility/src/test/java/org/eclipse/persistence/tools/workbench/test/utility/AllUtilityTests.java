@@ -50,12 +50,14 @@ public static Test suite(boolean all) {
         suite.addTest(AllStringTests.suite());
 
         suite.addTest(AbstractModelTests.suite());
+        suite.addTest(ArchiveCacheTests.suite());
         suite.addTest(ClasspathTests.suite());
         suite.addTest(ClassToolsTests.suite());
         suite.addTest(CollectionToolsTests.suite());
         suite.addTest(CounterTests.suite());
         suite.addTest(HashBagTests.suite());
         suite.addTest(IdentityHashBagTests.suite());
+        suite.addTest(ModuleImageTests.suite());
         suite.addTest(NameToolsTests.suite());
         suite.addTest(RangeTests.suite());
         suite.addTest(ReverseComparatorTests.suite());
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 1998, 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation from Oracle TopLink
+package org.eclipse.persistence.tools.workbench.test.utility;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.persistence.tools.workbench.utility.ArchiveCache;
+import org.eclipse.persistence.tools.workbench.utility.ClassTools;
+import org.eclipse.persistence.tools.workbench.utility.Classpath;
+import org.eclipse.persistence.tools.workbench.utility.classfile.ClassFile;
+import org.eclipse.persistence.tools.workbench.utility.io.FileTools;
+
+public class ArchiveCacheTests extends TestCase {
+    private File tempDir;
+    private File jar1;
+    private File jar2;
+    private ArchiveCache cache;
+
+    public static Test suite() {
+        return new TestSuite(ArchiveCacheTests.class);
+    }
+
+    public ArchiveCacheTests(String name) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        this.tempDir = FileTools.emptyTemporaryDirectory(ClassTools.shortClassNameForObject(this) + "." + this.getName());
+        this.jar1 = this.buildJar("test1.jar");
+        this.jar2 = this.buildJar("test2.jar");
+        this.cache = new ArchiveCache(1);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        this.cache.close();
+        FileTools.deleteDirectory(this.tempDir);
+        super.tearDown();
+    }
+
+    /**
+     * each jar holds this test's class file and a short text file
+     */
+    private File buildJar(String fileName) throws IOException {
+        File file = new File(this.tempDir, fileName);
+        JarOutputStream stream = new JarOutputStream(new FileOutputStream(file));
+        try {
+            stream.putNextEntry(new JarEntry(Classpath.convertToArchiveClassFileEntryName(this.getClass().getName())));
+            stream.write(this.classFileBytes());
+            stream.closeEntry();
+            stream.putNextEntry(new JarEntry("test/" + fileName + ".txt"));
+            stream.write(fileName.getBytes("UTF-8"));
+            stream.closeEntry();
+        } finally {
+            stream.close();
+        }
+        return file;
+    }
+
+    private byte[] classFileBytes() throws IOException {
+        InputStream stream = this.getClass().getResourceAsStream(ClassTools.shortClassNameForObject(this) + ".class");
+        try {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            for (int count = stream.read(buffer); count != -1; count = stream.read(buffer)) {
+                baos.write(buffer, 0, count);
+            }
+            return baos.toByteArray();
+        } finally {
+            stream.close();
+        }
+    }
+
+    public void testRead() throws Exception {
+        assertEquals("test1.jar", new String(this.cache.read(this.jar1, "test/test1.jar.txt"), "UTF-8"));
+        assertEquals("test2.jar", new String(this.cache.read(this.jar2, "test/test2.jar.txt"), "UTF-8"));
+        assertNull(this.cache.read(this.jar1, "test/test2.jar.txt"));
+    }
+
+    public void testReadMissingArchive() {
+        boolean exCaught = false;
+        try {
+            this.cache.read(new File(this.tempDir, "missing.jar"), "test/test1.jar.txt");
+        } catch (IOException ex) {
+            exCaught = true;
+        }
+        assertTrue(exCaught);
+    }
+
+    public void testEviction() throws Exception {
+        this.cache.read(this.jar1, "test/test1.jar.txt");
+        assertEquals(1, this.cache.size());
+        this.cache.read(this.jar2, "test/test2.jar.txt");
+        assertEquals(1, this.cache.size());
+        // the evicted archive is simply re-opened
+        assertEquals("test1.jar", new String(this.cache.read(this.jar1, "test/test1.jar.txt"), "UTF-8"));
+    }
+
+    public void testClose() throws Exception {
+        this.cache.read(this.jar1, "test/test1.jar.txt");
+        this.cache.close();
+        assertEquals(0, this.cache.size());
+        // the archive can be deleted once the cache is closed
+        assertTrue(this.jar1.delete());
+    }
+
+    public void testSkimClassFile() throws Exception {
+        String className = this.getClass().getName();
+        assertEquals(className, ClassFile.skimForClass(this.jar1, className, this.cache).className());
+        assertEquals(className, ClassFile.skimForClass(this.jar2, className, this.cache).className());
+        // the cache holds only one archive open at a time
+        assertEquals(1, this.cache.size());
+    }
+
+}
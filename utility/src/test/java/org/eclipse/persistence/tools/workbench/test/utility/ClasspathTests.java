@@ -24,6 +24,7 @@
 
 import org.eclipse.persistence.tools.workbench.utility.Classpath;
 import org.eclipse.persistence.tools.workbench.utility.CollectionTools;
+import org.eclipse.persistence.tools.workbench.utility.ModuleImage;
 
 import junit.framework.Test;
 import junit.framework.TestCase;
@@ -207,6 +208,11 @@ public void testLocationForClass() {
     }
 
     public void testRtJarName() throws IOException {
+        if (ModuleImage.fileNameIsModule(Classpath.rtJarName())) {
+            // jdk9 and later
+            assertTrue("bogus module", ModuleImage.containsEntry(ModuleImage.moduleNameFor(Classpath.rtJarName()), "java/lang/Object.class"));
+            return;
+        }
         File rtFile = new File(Classpath.rtJarName());
         assertTrue("rt.jar does not exist", rtFile.exists());
 
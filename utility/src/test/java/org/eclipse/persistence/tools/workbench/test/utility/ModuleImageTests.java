@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 1998, 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation from Oracle TopLink
+package org.eclipse.persistence.tools.workbench.test.utility;
+
+import java.io.File;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.persistence.tools.workbench.utility.Classpath;
+import org.eclipse.persistence.tools.workbench.utility.CollectionTools;
+import org.eclipse.persistence.tools.workbench.utility.ModuleImage;
+import org.eclipse.persistence.tools.workbench.utility.classfile.ClassFile;
+
+/**
+ * Most of these tests only do something useful when run on jdk9 or later.
+ */
+public class ModuleImageTests extends TestCase {
+
+    public static Test suite() {
+        return new TestSuite(ModuleImageTests.class);
+    }
+
+    public ModuleImageTests(String name) {
+        super(name);
+    }
+
+    public void testModuleNameFor() {
+        assertTrue(ModuleImage.fileNameIsModule("jrt:/java.base"));
+        assertFalse(ModuleImage.fileNameIsModule("/jdk/lib/rt.jar"));
+        assertEquals("java.base", ModuleImage.moduleNameFor("jrt:/java.base"));
+        assertEquals("java.base", ModuleImage.moduleNameFor("jrt:\\java.base"));
+        assertEquals("java.base", ModuleImage.moduleNameFor(ModuleImage.fileNameFor("java.base")));
+        // java.io.File will mangle the name on some platforms
+        assertEquals("java.base", ModuleImage.moduleNameFor(new File("jrt:/java.base").getPath()));
+    }
+
+    public void testUnavailable() {
+        if (ModuleImage.isAvailable()) {
+            return;
+        }
+        assertEquals(0, ModuleImage.moduleNames().length);
+        assertEquals(0, ModuleImage.classNames("java.base").length);
+        assertFalse(ModuleImage.containsEntry("java.base", "java/lang/Object.class"));
+    }
+
+    public void testClassNames() {
+        if ( ! ModuleImage.isAvailable()) {
+            return;
+        }
+        assertTrue(CollectionTools.contains(ModuleImage.moduleNames(), "java.base"));
+        assertTrue(CollectionTools.contains(ModuleImage.classNames("java.base"), java.util.Vector.class.getName()));
+        assertFalse(CollectionTools.contains(ModuleImage.classNames("java.base"), "module-info"));
+        assertTrue(ModuleImage.containsEntry("java.base", "java/lang/Object.class"));
+        assertFalse(ModuleImage.containsEntry("java.base", "foo/Bar.class"));
+    }
+
+    public void testBootClasspath() {
+        if ( ! ModuleImage.isAvailable()) {
+            return;
+        }
+        Classpath.Entry entry = Classpath.bootClasspath().entryForClassNamed(java.lang.Object.class.getName());
+        assertNotNull(entry);
+        assertTrue(entry.isModule());
+        assertEquals("java.base", entry.moduleName());
+        assertEquals(Classpath.rtJarName(), entry.canonicalFileName());
+        assertTrue(CollectionTools.contains(entry.classNamesStream(), java.io.File.class.getName()));
+    }
+
+    public void testClassFile() throws Exception {
+        if ( ! ModuleImage.isAvailable()) {
+            return;
+        }
+        String className = java.util.Vector.class.getName();
+        assertEquals(className, ClassFile.forClass(new File(Classpath.rtJarName()), className).className());
+        assertEquals(className, ClassFile.forClass(java.util.Vector.class).className());
+    }
+
+}
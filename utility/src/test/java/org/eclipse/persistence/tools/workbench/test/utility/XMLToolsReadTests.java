@@ -14,13 +14,24 @@
 //     Oracle - initial API and implementation from Oracle TopLink
 package org.eclipse.persistence.tools.workbench.test.utility;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.xml.stream.XMLStreamReader;
 
 import junit.framework.Test;
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
 
 import org.eclipse.persistence.tools.workbench.utility.XMLTools;
+import org.eclipse.persistence.tools.workbench.utility.io.FileTools;
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 
@@ -177,4 +188,55 @@ public void testChildBooleanContentDefaultValue() {
         assertTrue(XMLTools.childBooleanContent(node, "element-1-boolean-false-bogus", true));
     }
 
+    public void testStreamChildTextContent() throws Exception {
+        XMLStreamReader reader = XMLTools.streamReader(new ByteArrayInputStream(this.buildTestDocumentString().getBytes("UTF-8")));
+        try {
+            assertEquals("root-element", XMLTools.moveToRootElement(reader));
+            // nested elements with the same name are ignored
+            assertEquals("element 3 contents", XMLTools.childTextContent(reader, "element-3"));
+        } finally {
+            reader.close();
+        }
+
+        reader = XMLTools.streamReader(new ByteArrayInputStream(this.buildTestDocumentString().getBytes("UTF-8")));
+        try {
+            XMLTools.moveToRootElement(reader);
+            assertNull(XMLTools.childTextContent(reader, "element-1-int"));
+        } finally {
+            reader.close();
+        }
+    }
+
+    public void testRootChildTextContent() throws Exception {
+        File file = new File(FileTools.temporaryDirectory(), "XMLToolsReadTests.xml");
+        XMLTools.print(this.testDocument, file);
+        try {
+            assertEquals("element 3 contents", XMLTools.rootChildTextContent(file, "element-3"));
+            assertNull(XMLTools.rootChildTextContent(file, "element-3x"));
+        } finally {
+            file.delete();
+        }
+    }
+
+    public void testConcurrentParse() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List futures = new ArrayList();
+            for (int i = 0; i < 40; i++) {
+                futures.add(executor.submit(new Callable() {
+                    @Override
+                    public Object call() {
+                        Node root = XMLTools.child(XMLToolsReadTests.this.buildTestDocument(), "root-element");
+                        return XMLTools.childTextContent(root, "element-3");
+                    }
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                assertEquals("element 3 contents", ((Future) futures.get(i)).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
 }
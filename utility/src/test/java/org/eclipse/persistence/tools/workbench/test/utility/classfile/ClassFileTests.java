@@ -14,13 +14,19 @@
 //     Oracle - initial API and implementation from Oracle TopLink
 package org.eclipse.persistence.tools.workbench.test.utility.classfile;
 
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 import org.eclipse.persistence.tools.workbench.test.utility.ClassToolsTests;
 import org.eclipse.persistence.tools.workbench.utility.Bag;
 import org.eclipse.persistence.tools.workbench.utility.ClassTools;
 import org.eclipse.persistence.tools.workbench.utility.CollectionTools;
+import org.eclipse.persistence.tools.workbench.utility.classfile.Attribute;
+import org.eclipse.persistence.tools.workbench.utility.classfile.AttributePool;
 import org.eclipse.persistence.tools.workbench.utility.classfile.ClassDeclaration;
 import org.eclipse.persistence.tools.workbench.utility.classfile.ClassFile;
 import org.eclipse.persistence.tools.workbench.utility.classfile.Field;
@@ -28,6 +34,7 @@
 import org.eclipse.persistence.tools.workbench.utility.classfile.InnerClass;
 import org.eclipse.persistence.tools.workbench.utility.classfile.Method;
 import org.eclipse.persistence.tools.workbench.utility.classfile.MethodPool;
+import org.eclipse.persistence.tools.workbench.utility.classfile.SkippedAttribute;
 
 import junit.framework.Test;
 import junit.framework.TestCase;
@@ -525,4 +532,77 @@ private void verifySourceFile(Class javaClass) throws Exception {
         assertEquals(expectedSourceFileName, classFile.sourceFileName());
     }
 
+
+    public void testSkim() throws Exception {
+        this.verifySkim(ClassFileTestClass.class);
+        this.verifySkim(ClassFileTestInterface.class);
+        for (int i = 0; i < NESTED_CLASS_NAMES.length; i++) {
+            this.verifySkim(Class.forName(NESTED_CLASS_NAMES[i]));
+        }
+    }
+
+    private void verifySkim(Class javaClass) throws Exception {
+        ClassFile expected = ClassFile.forClass(javaClass);
+        ClassFile actual = ClassFile.skim(ByteBuffer.wrap(this.classFileBytes(javaClass)));
+        assertFalse(expected.isSkimmed());
+        assertTrue(actual.isSkimmed());
+
+        assertEquals(expected.className(), actual.className());
+        assertEquals(expected.superClassName(), actual.superClassName());
+        assertEquals(Arrays.asList(expected.interfaceNames()), Arrays.asList(actual.interfaceNames()));
+        assertEquals(expected.standardAccessFlags(), actual.standardAccessFlags());
+        assertEquals(expected.sourceFileName(), actual.sourceFileName());
+        assertEquals(expected.isDeprecated(), actual.isDeprecated());
+        assertEquals(Arrays.asList(expected.nestedClassNames()), Arrays.asList(actual.nestedClassNames()));
+        assertEquals(Arrays.asList(expected.declaredMemberClassNames()), Arrays.asList(actual.declaredMemberClassNames()));
+
+        Field[] expectedFields = expected.getFieldPool().getFields();
+        Field[] actualFields = actual.getFieldPool().getFields();
+        assertEquals(expectedFields.length, actualFields.length);
+        for (int i = 0; i < expectedFields.length; i++) {
+            assertEquals(expectedFields[i].name(), actualFields[i].name());
+            assertEquals(expectedFields[i].descriptor(), actualFields[i].descriptor());
+            assertEquals(expectedFields[i].getAccessFlags(), actualFields[i].getAccessFlags());
+        }
+
+        MethodPool expectedMethods = expected.getMethodPool();
+        MethodPool actualMethods = actual.getMethodPool();
+        assertEquals(expectedMethods.getCount(), actualMethods.getCount());
+        for (short i = 0; i < expectedMethods.getCount(); i++) {
+            Method expectedMethod = expectedMethods.get(i);
+            Method actualMethod = actualMethods.get(i);
+            assertEquals(expectedMethod.name(), actualMethod.name());
+            assertEquals(expectedMethod.descriptor(), actualMethod.descriptor());
+            assertEquals(expectedMethod.getAccessFlags(), actualMethod.getAccessFlags());
+            assertEquals(Arrays.asList(expectedMethod.exceptionClassNames()), Arrays.asList(actualMethod.exceptionClassNames()));
+            this.verifySkippedCode(actualMethod.getAttributePool());
+        }
+    }
+
+    /**
+     * a skimmed method's body is never parsed
+     */
+    private void verifySkippedCode(AttributePool attributePool) {
+        for (short i = 0; i < attributePool.getCount(); i++) {
+            Attribute attribute = attributePool.get(i);
+            if (attribute.name().equals("Code")) {
+                assertTrue(attribute instanceof SkippedAttribute);
+            }
+        }
+    }
+
+    private byte[] classFileBytes(Class javaClass) throws Exception {
+        InputStream stream = javaClass.getResourceAsStream(ClassTools.shortNameFor(javaClass) + ".class");
+        try {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            for (int count = stream.read(buffer); count != -1; count = stream.read(buffer)) {
+                baos.write(buffer, 0, count);
+            }
+            return baos.toByteArray();
+        } finally {
+            stream.close();
+        }
+    }
+
 }
@@ -28,6 +28,8 @@
 import org.eclipse.persistence.tools.workbench.utility.diff.ContainerDifferentiator;
 import org.eclipse.persistence.tools.workbench.utility.diff.Diff;
 import org.eclipse.persistence.tools.workbench.utility.diff.Differentiator;
+import org.eclipse.persistence.tools.workbench.utility.diff.EqualityDifferentiator;
+import org.eclipse.persistence.tools.workbench.utility.diff.KeyHasher;
 import org.eclipse.persistence.tools.workbench.utility.diff.ReflectiveDifferentiator;
 import org.eclipse.persistence.tools.workbench.utility.diff.ReflectiveFieldDiff;
 import org.eclipse.persistence.tools.workbench.utility.string.StringTools;
@@ -197,6 +199,56 @@ public void testChangedElement() {
         assertEquals(0, addedElements.length);
     }
 
+    public void testKeyHashBuckets() {
+        CountingDifferentiator elementDifferentiator = new HashingCountingDifferentiator();
+        this.differentiator = ContainerDifferentiator.forCollections(elementDifferentiator);
+        this.collection1 = this.buildCollection3(false);
+        this.collection2 = this.buildCollection3(true);
+        Diff diff = this.differentiator.diff(this.collection1, this.collection2);
+        this.verifyDiffMatch(diff, this.collection1, this.collection2);
+        // each element is "key diffed" only with the element in its bucket
+        assertEquals(100, elementDifferentiator.keyDiffCount);
+    }
+
+    public void testKeyHashBucketsNotSupported() {
+        CountingDifferentiator elementDifferentiator = new CountingDifferentiator();
+        this.differentiator = ContainerDifferentiator.forCollections(elementDifferentiator);
+        this.collection1 = this.buildCollection3(false);
+        this.collection2 = this.buildCollection3(true);
+        Diff diff = this.differentiator.diff(this.collection1, this.collection2);
+        this.verifyDiffMatch(diff, this.collection1, this.collection2);
+        // every element is in the same bucket
+        assertEquals(5050, elementDifferentiator.keyDiffCount);
+    }
+
+    public void testParallel() {
+        this.differentiator = ContainerDifferentiator.forCollections(this.buildSimpleElementDifferentiator());
+        this.collection1 = new ArrayList();
+        this.collection2 = new ArrayList();
+        for (int i = 0; i < 100; i++) {
+            this.collection1.add(new SimpleElement(i, "element " + i));
+            this.collection2.add(new SimpleElement(i, ((i % 10) == 0) ? "changed " + i : "element " + i));
+        }
+        ContainerDiff diff1 = (ContainerDiff) this.differentiator.diff(this.collection1, this.collection2);
+        this.differentiator.setParallel(true);
+        ContainerDiff diff2 = (ContainerDiff) this.differentiator.diff(this.collection1, this.collection2);
+        this.verifyDiffMatchMismatch(diff2, this.collection1, this.collection2);
+        assertEquals(100, diff2.getDiffs().length);
+        assertEquals(10, DiffTestTools.differentLeafReflectiveFieldDiffList(diff2).size());
+        assertEquals(diff1.getDescription(), diff2.getDescription());
+    }
+
+    /**
+     * 100 strings, optionally in reverse order
+     */
+    private Collection buildCollection3(boolean reverse) {
+        List result = new ArrayList();
+        for (int i = 0; i < 100; i++) {
+            result.add(reverse ? 0 : i, "element " + i);
+        }
+        return result;
+    }
+
     private Collection buildCollection2() {
         Collection result = new ArrayList();
         result.add(new SimpleElement(0, "zero"));
@@ -231,6 +283,36 @@ private Differentiator buildSimpleElementDifferentiator() {
 
     // ******************** member classes ********************
 
+    private static class CountingDifferentiator implements Differentiator {
+        int keyDiffCount = 0;
+        CountingDifferentiator() {
+            super();
+        }
+        @Override
+        public Diff diff(Object object1, Object object2) {
+            return EqualityDifferentiator.instance().diff(object1, object2);
+        }
+        @Override
+        public Diff keyDiff(Object object1, Object object2) {
+            this.keyDiffCount++;
+            return EqualityDifferentiator.instance().keyDiff(object1, object2);
+        }
+        @Override
+        public boolean comparesValueObjects() {
+            return true;
+        }
+    }
+
+    private static class HashingCountingDifferentiator extends CountingDifferentiator implements KeyHasher {
+        HashingCountingDifferentiator() {
+            super();
+        }
+        @Override
+        public int keyHashCode(Object object) {
+            return ((KeyHasher) EqualityDifferentiator.instance()).keyHashCode(object);
+        }
+    }
+
     private class SimpleElement {
         int key;
         String description;
@@ -14,9 +14,14 @@
 //     Oracle - initial API and implementation from Oracle TopLink
 package org.eclipse.persistence.tools.workbench.test.utility.diff;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import junit.framework.Test;
 import junit.framework.TestSuite;
@@ -346,6 +351,54 @@ public void testCompositeCollectionChangeElements() {
         }
     }
 
+    public void testParallelCompositeCollectionChangeElements() {
+        for (int i = 0; i < 20; i++) {
+            this.employee1.addDependent("Cousin " + i, "moocher");
+            this.employee2.addDependent("Cousin " + i, ((i % 3) == 0) ? "freeloader" : "moocher");
+        }
+        String description = this.differentiator.diff(this.employee1, this.employee2).getDescription();
+
+        ((DiffEngine) this.differentiator).setParallel(true);
+        Diff diff = this.differentiator.diff(this.employee1, this.employee2);
+        this.verifyDiffMismatch(diff, this.employee1, this.employee2);
+
+        List leafReflectiveFieldMismatches = DiffTestTools.differentLeafReflectiveFieldDiffList(diff);
+        assertEquals(7, leafReflectiveFieldMismatches.size());
+        for (Iterator stream = leafReflectiveFieldMismatches.iterator(); stream.hasNext(); ) {
+            ReflectiveFieldDiff leafDiff = (ReflectiveFieldDiff) stream.next();
+            assertEquals("description", leafDiff.getField().getName());
+            assertEquals("freeloader", leafDiff.getObject2());
+        }
+        // the parallel diff is the same as the sequential diff
+        assertEquals(description, diff.getDescription());
+    }
+
+    public void testConcurrentDiffEngines() throws Exception {
+        this.employee2.dependentNamed("Wilma").setDescription("ex-wife");
+        this.employee2.setPosition("troublemaker");
+        String description = this.differentiator.diff(this.employee1, this.employee2).getDescription();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List futures = new ArrayList();
+            for (int i = 0; i < 40; i++) {
+                futures.add(executor.submit(new Callable() {
+                    @Override
+                    public Object call() {
+                        // each diff gets its own engine
+                        Differentiator engine = MultiClassReflectiveDiffTests.this.buildDifferentiator();
+                        return engine.diff(MultiClassReflectiveDiffTests.this.employee1, MultiClassReflectiveDiffTests.this.employee2).getDescription();
+                    }
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                assertEquals(description, ((Future) futures.get(i)).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     public void testCompositeListAddElements() {
         Car addedCar1 = this.employee2.addCar("Bossy", "Chrysler");
         Car addedCar2 = this.employee2.addCar("Bobby", "BMW");
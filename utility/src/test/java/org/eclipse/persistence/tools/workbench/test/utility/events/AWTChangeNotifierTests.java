@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 1998, 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation from Oracle TopLink
+package org.eclipse.persistence.tools.workbench.test.utility.events;
+
+import java.awt.EventQueue;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.persistence.tools.workbench.utility.events.AWTChangeNotifier;
+import org.eclipse.persistence.tools.workbench.utility.events.CollectionChangeEvent;
+import org.eclipse.persistence.tools.workbench.utility.events.CollectionChangeListener;
+
+public class AWTChangeNotifierTests extends TestCase {
+    private AWTChangeNotifier notifier;
+    private static final String PROPERTY_NAME = "count";
+    private static final int COUNT = 5000;
+
+    public static Test suite() {
+        return new TestSuite(AWTChangeNotifierTests.class);
+    }
+
+    public AWTChangeNotifierTests(String name) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        this.notifier = (AWTChangeNotifier) AWTChangeNotifier.instance();
+        this.flush();
+        this.notifier.resetStatistics();
+    }
+
+    /**
+     * wait until the event-dispatch thread has delivered all the queued notifications
+     */
+    private void flush() throws Exception {
+        Runnable noop = new Runnable() {
+            @Override
+            public void run() {
+                // do nothing
+            }
+        };
+        while (this.notifier.queueDepth() != 0) {
+            EventQueue.invokeAndWait(noop);
+        }
+        EventQueue.invokeAndWait(noop);
+    }
+
+    public void testPropertyChangesCollapsed() throws Exception {
+        final List events = new ArrayList();
+        PropertyChangeListener listener = new PropertyChangeListener() {
+            @Override
+            public void propertyChange(PropertyChangeEvent e) {
+                assertTrue(EventQueue.isDispatchThread());
+                events.add(e);
+            }
+        };
+        Object source = new Object();
+        for (int i = 0; i < COUNT; i++) {
+            this.notifier.propertyChange(listener, new PropertyChangeEvent(source, PROPERTY_NAME, Integer.valueOf(i), Integer.valueOf(i + 1)));
+        }
+        this.flush();
+
+        assertFalse(events.isEmpty());
+        assertTrue(events.size() <= COUNT);
+        assertEquals(COUNT - events.size(), this.notifier.coalescedCount());
+        assertEquals(events.size(), this.notifier.deliveredCount());
+        assertEquals(0, this.notifier.queueDepth());
+        assertTrue(this.notifier.peakQueueDepth() > 0);
+
+        // the collapsed events still span every change, in order
+        Object expectedOldValue = Integer.valueOf(0);
+        for (int i = 0; i < events.size(); i++) {
+            PropertyChangeEvent event = (PropertyChangeEvent) events.get(i);
+            assertEquals(expectedOldValue, event.getOldValue());
+            expectedOldValue = event.getNewValue();
+        }
+        assertEquals(Integer.valueOf(COUNT), expectedOldValue);
+    }
+
+    public void testCollectionChangesNotCollapsed() throws Exception {
+        final int[] count = new int[1];
+        CollectionChangeListener listener = new CollectionChangeListener() {
+            @Override
+            public void itemsAdded(CollectionChangeEvent e) {
+                count[0]++;
+            }
+            @Override
+            public void itemsRemoved(CollectionChangeEvent e) {
+                fail("unexpected event: " + e);
+            }
+            @Override
+            public void collectionChanged(CollectionChangeEvent e) {
+                fail("unexpected event: " + e);
+            }
+        };
+        Object source = new Object();
+        for (int i = 0; i < COUNT; i++) {
+            this.notifier.itemsAdded(listener, new CollectionChangeEvent(source, "items"));
+        }
+        this.flush();
+
+        assertEquals(COUNT, count[0]);
+        assertEquals(0, this.notifier.coalescedCount());
+        assertEquals(COUNT, this.notifier.deliveredCount());
+        assertTrue(this.notifier.maximumDrainLatency() >= this.notifier.averageDrainLatency());
+    }
+
+    public void testDispatchThreadDeliversImmediately() throws Exception {
+        final List events = new ArrayList();
+        final PropertyChangeListener listener = new PropertyChangeListener() {
+            @Override
+            public void propertyChange(PropertyChangeEvent e) {
+                events.add(e);
+            }
+        };
+        EventQueue.invokeAndWait(new Runnable() {
+            @Override
+            public void run() {
+                AWTChangeNotifierTests.this.notifier.propertyChange(listener, new PropertyChangeEvent(this, PROPERTY_NAME, "old", "new"));
+                assertEquals(1, events.size());
+            }
+        });
+        assertEquals(0, this.notifier.deliveredCount());
+    }
+
+}
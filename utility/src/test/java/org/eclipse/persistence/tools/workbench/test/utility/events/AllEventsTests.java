@@ -24,6 +24,7 @@ public class AllEventsTests {
     public static Test suite() {
         TestSuite suite = new TestSuite(ClassTools.packageNameFor(AllEventsTests.class));
 
+        suite.addTest(AWTChangeNotifierTests.suite());
         suite.addTest(ReflectiveCollectionChangeListenerTests.suite());
         suite.addTest(ReflectiveListChangeListenerTests.suite());
         suite.addTest(ReflectivePropertyChangeListenerTests.suite());
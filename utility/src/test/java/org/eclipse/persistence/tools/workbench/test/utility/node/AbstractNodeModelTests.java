@@ -18,6 +18,9 @@
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import junit.framework.Test;
 import junit.framework.TestCase;
@@ -27,10 +30,12 @@
 import org.eclipse.persistence.tools.workbench.utility.CollectionTools;
 import org.eclipse.persistence.tools.workbench.utility.HashBag;
 import org.eclipse.persistence.tools.workbench.utility.Range;
+import org.eclipse.persistence.tools.workbench.utility.SynchronizedBoolean;
 import org.eclipse.persistence.tools.workbench.utility.iterators.CloneIterator;
 import org.eclipse.persistence.tools.workbench.utility.node.AbstractNodeModel;
 import org.eclipse.persistence.tools.workbench.utility.node.Node;
 import org.eclipse.persistence.tools.workbench.utility.node.Problem;
+import org.eclipse.persistence.tools.workbench.utility.node.RunnableValidation;
 
 
 public class AbstractNodeModelTests extends TestCase {
@@ -118,6 +123,76 @@ public void testParentAndChildren() {
         assertNull(node);
     }
 
+    public void testForEachChild() {
+        final List children = new ArrayList();
+        Node.ChildVisitor visitor = new Node.ChildVisitor() {
+            @Override
+            public void visit(Node child) {
+                children.add(child);
+            }
+        };
+        TestWorkbenchModel node = this.root.testDescendantNamed("node 1.1");
+        node.forEachChild(visitor);
+        assertEquals(3, children.size());
+        assertEquals(CollectionTools.bag(node.children()), CollectionTools.bag(children.iterator()));
+
+        children.clear();
+        this.root.testDescendantNamed("node 1.1.3").forEachChild(visitor);
+        assertEquals(0, children.size());
+    }
+
+    public void testForEachChildNested() {
+        // the lists are re-used, so make sure nested walks do not interfere
+        final Collection nodes = new ArrayList();
+        this.root.forEachChild(new Node.ChildVisitor() {
+            @Override
+            public void visit(Node child) {
+                nodes.add(child);
+                child.forEachChild(this);
+            }
+        });
+        Collection expected = new ArrayList();
+        this.root.addAllNodesTo(expected);
+        expected.remove(this.root);
+        assertEquals(CollectionTools.bag(expected.iterator()), CollectionTools.bag(nodes.iterator()));
+    }
+
+    public void testForEachChildModifyChildren() {
+        // the visitor is free to modify the node's children
+        final TestWorkbenchModel node = this.root.testDescendantNamed("node 1.1");
+        node.forEachChild(new Node.ChildVisitor() {
+            @Override
+            public void visit(Node child) {
+                node.removeTestChild((TestWorkbenchModel) child);
+            }
+        });
+        assertEquals(0, CollectionTools.size(node.children()));
+    }
+
+    public void testForEachChildException() {
+        final TestWorkbenchModel node = this.root.testDescendantNamed("node 1.1");
+        try {
+            node.forEachChild(new Node.ChildVisitor() {
+                @Override
+                public void visit(Node child) {
+                    throw new IllegalStateException();
+                }
+            });
+            fail();
+        } catch (IllegalStateException ex) {
+            // expected
+        }
+        // the thread's lists must still be usable
+        final List children = new ArrayList();
+        this.root.forEachChild(new Node.ChildVisitor() {
+            @Override
+            public void visit(Node child) {
+                children.add(child);
+            }
+        });
+        assertEquals(4, children.size());
+    }
+
     public void testDirty() {
         TestWorkbenchModel node = this.root.testDescendantNamed("node 1.1.3");
         node.setSize(42);
@@ -367,6 +442,140 @@ public void testRemovedBranchProblems() {
         assertEquals(1, parent.branchProblemsSize());
     }
 
+    public void testValidateChangedBranch() {
+        this.root.validateBranch();
+        this.resetValidationCounts();
+
+        TestWorkbenchModel node = this.root.testDescendantNamed("node 1.1.3");
+        node.setName("BOGUS");
+        TestWorkbenchModel parent = (TestWorkbenchModel) node.getParent();
+
+        this.root.validateChangedBranch();
+
+        assertEquals(1, node.problemsSize());
+        assertEquals(1, parent.branchProblemsSize());
+        assertEquals(1, this.root.branchProblemsSize());
+        // only the changed node should be re-validated
+        assertEquals(1, node.getValidationCount());
+        assertEquals(0, parent.getValidationCount());
+        assertEquals(0, this.root.getValidationCount());
+        assertEquals(0, this.root.testDescendantNamed("node 1.1.2").getValidationCount());
+        assertEquals(0, this.root.testDescendantNamed("node 2").getValidationCount());
+
+        // nothing changed
+        this.root.validateChangedBranch();
+        assertEquals(1, node.getValidationCount());
+        assertEquals(1, this.root.branchProblemsSize());
+
+        node.setName("okie-dokie");
+        this.root.validateChangedBranch();
+
+        assertEquals(0, node.problemsSize());
+        assertEquals(0, parent.branchProblemsSize());
+        assertEquals(0, this.root.branchProblemsSize());
+        assertEquals(2, node.getValidationCount());
+        assertEquals(0, parent.getValidationCount());
+    }
+
+    public void testValidateChangedBranchChangedParent() {
+        this.root.validateBranch();
+        this.resetValidationCounts();
+
+        // a changed node is validated along with its descendants
+        TestWorkbenchModel node = this.root.testDescendantNamed("node 1.1");
+        node.setSize(42);
+        this.root.validateChangedBranch();
+
+        assertEquals(1, node.getValidationCount());
+        assertEquals(1, this.root.testDescendantNamed("node 1.1.1").getValidationCount());
+        assertEquals(0, this.root.testDescendantNamed("node 1.2").getValidationCount());
+        assertEquals(0, this.root.testDescendantNamed("node 1").getValidationCount());
+    }
+
+    public void testValidateChangedBranchRemovedNode() {
+        TestWorkbenchModel node = this.root.testDescendantNamed("node 1.1.3");
+        node.setName("BOGUS");
+        TestWorkbenchModel parent = (TestWorkbenchModel) node.getParent();
+
+        this.root.validateBranch();
+        assertEquals(1, this.root.branchProblemsSize());
+
+        parent.removeTestChild(node);
+        this.root.validateChangedBranch();
+
+        assertEquals(0, parent.branchProblemsSize());
+        assertEquals(0, this.root.branchProblemsSize());
+    }
+
+    public void testValidateBranchInParallel() {
+        this.root.testDescendantNamed("node 1.1.3").setName("BOGUS");
+        this.root.testDescendantNamed("node 2").setName("BOGUS TOO");
+        this.root.setName("BOGUS TOO TOO");
+
+        this.root.validateBranch();
+        List expected = CollectionTools.list(this.root.branchProblems());
+        assertEquals(3, expected.size());
+
+        this.root.clearAllBranchProblems();
+        this.resetValidationCounts();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            this.root.validateBranch(pool);
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(expected, CollectionTools.list(this.root.branchProblems()));
+        // every node is validated exactly once
+        for (Iterator stream = this.root.allNodes(); stream.hasNext(); ) {
+            assertEquals(1, ((TestWorkbenchModel) stream.next()).getValidationCount());
+        }
+    }
+
+    /**
+     * A change to one node can clear a problem on another node, which the
+     * validation thread picks up once things have been quiet for a while.
+     */
+    public void testRunnableValidationDependentProblem() throws Exception {
+        TestWorkbenchModel node1 = this.root.testDescendantNamed("node 1.1.1");
+        TestWorkbenchModel node2 = this.root.testDescendantNamed("node 1.1.2");
+        node1.setSize(5);
+        node2.setSize(5);
+
+        SynchronizedBoolean validateFlag = new SynchronizedBoolean(true);
+        SynchronizedBoolean continueFlag = new SynchronizedBoolean(true);
+        RunnableValidation validation = new RunnableValidation(this.root, validateFlag, continueFlag, Logger.getLogger(this.getClass().getName()), Level.SEVERE, "validation failed: {0}");
+        Thread thread = new Thread(validation, "Validation Test Thread");
+        thread.start();
+        try {
+            this.waitForProblems(node1, 1);
+            this.waitForProblems(node2, 1);
+
+            // only node 1 changes, but the problem on node 2 goes away
+            node1.setSize(6);
+            validateFlag.setTrue();
+            this.waitForProblems(node1, 0);
+            this.waitForProblems(node2, 0);
+        } finally {
+            continueFlag.setFalse();
+            thread.interrupt();
+            thread.join(10000);
+        }
+    }
+
+    private void waitForProblems(TestWorkbenchModel node, int expected) throws Exception {
+        long stop = System.currentTimeMillis() + RunnableValidation.DEFAULT_FULL_VALIDATION_DELAY + 10000;
+        while ((node.problemsSize() != expected) && (System.currentTimeMillis() < stop)) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, node.problemsSize());
+    }
+
+    private void resetValidationCounts() {
+        for (Iterator stream = this.root.allNodes(); stream.hasNext(); ) {
+            ((TestWorkbenchModel) stream.next()).resetValidationCount();
+        }
+    }
+
     public void testSort() {
         List nodes = this.buildSortedNodes();
         assertTrue(new Range(0, 1).includes(this.indexOf(nodes, "aaa")));
@@ -409,6 +618,7 @@ private class TestWorkbenchModel extends AbstractNodeModel {
             public static final String SIZE_PROPERTY = "size";
         private Collection testChildren;
             public static final String TEST_CHILDREN_COLLECTION = "children";
+        private int validationCount;
 
         // ********** construction/initialization **********
         public TestWorkbenchModel(TestWorkbenchModel parent, String name) {
@@ -458,6 +668,13 @@ protected void remove(Object current) {
                 }
             };
         }
+        public int getValidationCount() {
+            return this.validationCount;
+        }
+        public void resetValidationCount() {
+            this.validationCount = 0;
+        }
+
         public int testChildrenSize() {
             return this.testChildren.size();
         }
@@ -513,6 +730,7 @@ protected void addChildrenTo(List children) {
         @Override
         protected void addProblemsTo(List currentProblems) {
             super.addProblemsTo(currentProblems);
+            this.validationCount++;
             // names must be all lowercase...
             for (int i = this.name.length(); i-- > 0; ) {
                 char c = this.name.charAt(i);
@@ -521,6 +739,16 @@ protected void addProblemsTo(List currentProblems) {
                     return;
                 }
             }
+            // sizes must be unique among siblings...
+            if ((this.size != 0) && (this.getParent() != null)) {
+                for (Iterator stream = ((TestWorkbenchModel) this.getParent()).testChildren(); stream.hasNext(); ) {
+                    TestWorkbenchModel sibling = (TestWorkbenchModel) stream.next();
+                    if ((sibling != this) && (sibling.getSize() == this.size)) {
+                        currentProblems.add(this.buildProblem("DUPLICATE_SIZE", this.name));
+                        return;
+                    }
+                }
+            }
         }
         @Override
         public void toString(StringBuffer sb) {
@@ -30,11 +30,13 @@ public static Test suite() {
         suite.addTest(BestFirstPartialStringComparatorEngineTests.suite());
         suite.addTest(CaseInsensitivePartialStringComparatorTests.suite());
         suite.addTest(InversePartialStringComparatorTests.suite());
+        suite.addTest(NGramPartialStringComparatorEngineTests.suite());
         suite.addTest(PrefixStrippingPartialStringComparatorEngineTests.suite());
         suite.addTest(RegularExpressionStringMatcherAdapterTests.suite());
         suite.addTest(ExhaustivePartialStringComparatorEngineTests.suite());
         suite.addTest(SimpleStringMatcherTests.suite());
         suite.addTest(StringToolsTests.suite());
+        suite.addTest(SubstringIndexTests.suite());
         suite.addTest(SuffixStrippingPartialStringComparatorEngineTests.suite());
         suite.addTest(XMLStringEncoderTests.suite());
 
@@ -59,7 +59,7 @@ public void testSameSize() {
 
     }
 
-    private StringHolder[] buildStringHoldersSameSize1() {
+    protected StringHolder[] buildStringHoldersSameSize1() {
         return new StringHolder[] {
                 new SimpleStringHolder("foo"),
                 new SimpleStringHolder("chickenLittle"),
@@ -68,7 +68,7 @@ private StringHolder[] buildStringHoldersSameSize1() {
         };
     }
 
-    private StringHolder[] buildStringHoldersSameSize2() {
+    protected StringHolder[] buildStringHoldersSameSize2() {
         return new StringHolder[] {
                 new SimpleStringHolder("bbaarr"),
                 new SimpleStringHolder("da-doo-run-run"),
@@ -98,7 +98,7 @@ public void testSmaller1() {
 
     }
 
-    private StringHolder[] buildStringHoldersSmaller1_1() {
+    protected StringHolder[] buildStringHoldersSmaller1_1() {
         return new StringHolder[] {
                 new SimpleStringHolder("foo"),
                 new SimpleStringHolder("dadoorunrun"),
@@ -106,7 +106,7 @@ private StringHolder[] buildStringHoldersSmaller1_1() {
         };
     }
 
-    private StringHolder[] buildStringHoldersSmaller1_2() {
+    protected StringHolder[] buildStringHoldersSmaller1_2() {
         return new StringHolder[] {
                 new SimpleStringHolder("bbaarr"),
                 new SimpleStringHolder("da-doo-run-run"),
@@ -136,7 +136,7 @@ public void testSmaller2() {
 
     }
 
-    private StringHolder[] buildStringHoldersSmaller2_1() {
+    protected StringHolder[] buildStringHoldersSmaller2_1() {
         return new StringHolder[] {
                 new SimpleStringHolder("foo"),
                 new SimpleStringHolder("chickenLittle"),
@@ -145,7 +145,7 @@ private StringHolder[] buildStringHoldersSmaller2_1() {
         };
     }
 
-    private StringHolder[] buildStringHoldersSmaller2_2() {
+    protected StringHolder[] buildStringHoldersSmaller2_2() {
         return new StringHolder[] {
                 new SimpleStringHolder("bbaarr"),
                 new SimpleStringHolder("da-doo-run-run"),
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 1998, 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation from Oracle TopLink
+package org.eclipse.persistence.tools.workbench.test.utility.string;
+
+import java.util.Random;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import org.eclipse.persistence.tools.workbench.utility.string.ExhaustivePartialStringComparatorEngine;
+import org.eclipse.persistence.tools.workbench.utility.string.LowerCasePartialStringComparator;
+import org.eclipse.persistence.tools.workbench.utility.string.NGramPartialStringComparatorEngine;
+import org.eclipse.persistence.tools.workbench.utility.string.PartialStringComparator;
+import org.eclipse.persistence.tools.workbench.utility.string.PartialStringComparatorEngine;
+import org.eclipse.persistence.tools.workbench.utility.string.SimpleStringHolder;
+import org.eclipse.persistence.tools.workbench.utility.string.StringHolder;
+import org.eclipse.persistence.tools.workbench.utility.string.PartialStringComparatorEngine.StringHolderPair;
+
+public class NGramPartialStringComparatorEngineTests
+    extends ExhaustivePartialStringComparatorEngineTests
+{
+
+    public static Test suite() {
+        return new TestSuite(NGramPartialStringComparatorEngineTests.class);
+    }
+
+    public NGramPartialStringComparatorEngineTests(String name) {
+        super(name);
+    }
+
+    @Override
+    protected PartialStringComparatorEngine buildEngine() {
+        return new NGramPartialStringComparatorEngine(this.buildComparator2());
+    }
+
+    private PartialStringComparator buildComparator2() {
+        return new LowerCasePartialStringComparator(PartialStringComparator.DEFAULT_COMPARATOR);
+    }
+
+    public void testFixturesSameAsExhaustive() {
+        PartialStringComparator[] comparators = new PartialStringComparator[] {
+            this.buildComparator2(),
+            PartialStringComparator.DEFAULT_COMPARATOR
+        };
+        for (int i = 0; i < comparators.length; i++) {
+            this.verifySameAsExhaustive(comparators[i], this.buildStringHoldersSameSize1(), this.buildStringHoldersSameSize2());
+            this.verifySameAsExhaustive(comparators[i], this.buildStringHoldersSmaller1_1(), this.buildStringHoldersSmaller1_2());
+            this.verifySameAsExhaustive(comparators[i], this.buildStringHoldersSmaller2_1(), this.buildStringHoldersSmaller2_2());
+            // reverse the sets
+            this.verifySameAsExhaustive(comparators[i], this.buildStringHoldersSameSize2(), this.buildStringHoldersSameSize1());
+            this.verifySameAsExhaustive(comparators[i], this.buildStringHoldersSmaller1_2(), this.buildStringHoldersSmaller1_1());
+            this.verifySameAsExhaustive(comparators[i], this.buildStringHoldersSmaller2_2(), this.buildStringHoldersSmaller2_1());
+        }
+    }
+
+    /**
+     * the default comparator gives "bxa" vs. "ba" a positive score, even
+     * though they share no bigrams, and it beats "bxa" vs. "bxqqqqqq"
+     */
+    public void testNoSharedBigrams() {
+        this.verifySameAsExhaustive(
+            this.buildStringHolders(new String[] {"bxa", "zzz"}),
+            this.buildStringHolders(new String[] {"ba", "bxqqqqqq", "www"})
+        );
+    }
+
+    /**
+     * lots of short strings from a small alphabet, so there are
+     * plenty of ties, zero scores, and empty strings
+     */
+    public void testRandomStringsSameAsExhaustive() {
+        Random random = new Random(17);
+        for (int i = 0; i < 100; i++) {
+            StringHolder[] stringHolders1 = this.buildRandomStringHolders(random, random.nextInt(20));
+            StringHolder[] stringHolders2 = this.buildRandomStringHolders(random, random.nextInt(20));
+            this.verifySameAsExhaustive(PartialStringComparator.DEFAULT_COMPARATOR, stringHolders1, stringHolders2);
+            this.verifySameAsExhaustive(stringHolders1, stringHolders2);
+        }
+    }
+
+    public void testSameAsExhaustive() {
+        this.verifySameAsExhaustive(this.buildClassNames(200), this.buildTableNames(200));
+        this.verifySameAsExhaustive(this.buildClassNames(200), this.buildTableNames(150));
+        this.verifySameAsExhaustive(this.buildClassNames(150), this.buildTableNames(200));
+    }
+
+    public void testShortStrings() {
+        this.verifySameAsExhaustive(
+            this.buildStringHolders(new String[] {"a", "b", "xyz", "foo"}),
+            this.buildStringHolders(new String[] {"A", "zz", "FOO", "x"})
+        );
+    }
+
+    public void testNoSharedGrams() {
+        this.verifySameAsExhaustive(
+            this.buildStringHolders(new String[] {"abc", "def", "ghi"}),
+            this.buildStringHolders(new String[] {"xyz", "uvw"})
+        );
+    }
+
+    private void verifySameAsExhaustive(StringHolder[] stringHolders1, StringHolder[] stringHolders2) {
+        this.verifySameAsExhaustive(this.buildComparator2(), stringHolders1, stringHolders2);
+    }
+
+    private void verifySameAsExhaustive(PartialStringComparator comparator, StringHolder[] stringHolders1, StringHolder[] stringHolders2) {
+        StringHolderPair[] expected = new ExhaustivePartialStringComparatorEngine(comparator).match(stringHolders1, stringHolders2);
+        StringHolderPair[] actual = new NGramPartialStringComparatorEngine(comparator).match(stringHolders1, stringHolders2);
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertSame(expected[i].getStringHolder1(), actual[i].getStringHolder1());
+            assertSame(expected[i].getStringHolder2(), actual[i].getStringHolder2());
+            assertEquals(expected[i].getScore(), actual[i].getScore(), 0.0);
+        }
+    }
+
+    private StringHolder[] buildClassNames(int count) {
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++) {
+            names[i] = "com.acme.model.Entity" + i;
+        }
+        return this.buildStringHolders(names);
+    }
+
+    private StringHolder[] buildTableNames(int count) {
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++) {
+            // reverse the order, so the matches are not simply index-to-index
+            names[i] = "ENTITY_" + (count - i - 1);
+        }
+        return this.buildStringHolders(names);
+    }
+
+    private StringHolder[] buildRandomStringHolders(Random random, int count) {
+        String alphabet = "abcdAB_";
+        String[] strings = new String[count];
+        for (int i = 0; i < count; i++) {
+            char[] chars = new char[random.nextInt(6)];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = alphabet.charAt(random.nextInt(alphabet.length()));
+            }
+            strings[i] = new String(chars);
+        }
+        return this.buildStringHolders(strings);
+    }
+
+    private StringHolder[] buildStringHolders(String[] strings) {
+        StringHolder[] stringHolders = new StringHolder[strings.length];
+        for (int i = 0; i < strings.length; i++) {
+            stringHolders[i] = new SimpleStringHolder(strings[i]);
+        }
+        return stringHolders;
+    }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 1998, 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation from Oracle TopLink
+package org.eclipse.persistence.tools.workbench.test.utility.string;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.persistence.tools.workbench.utility.string.SimpleStringMatcher;
+import org.eclipse.persistence.tools.workbench.utility.string.SubstringIndex;
+
+public class SubstringIndexTests extends TestCase {
+    private static final String[] STRINGS = {
+        "ArrayList", "HashMap", "Hashtable", "LinkedHashMap", "List", "Map",
+        "String", "StringBuffer", "StringBuilder", "TreeMap", "a", "", null
+    };
+
+    public static Test suite() {
+        return new TestSuite(SubstringIndexTests.class);
+    }
+
+    public SubstringIndexTests(String name) {
+        super(name);
+    }
+
+    public void testPrefix() {
+        this.verifyCandidates("h", new int[] {1, 2});
+        this.verifyCandidates("Str", new int[] {6, 7, 8});
+        this.verifyCandidates("stringb", new int[] {7, 8});
+        this.verifyCandidates("x", new int[0]);
+    }
+
+    public void testTrigrams() {
+        this.verifyCandidates("*map", new int[] {1, 3, 5, 9});
+        this.verifyCandidates("*hash*map", new int[] {1, 3});
+        this.verifyCandidates("*LIS", new int[] {0, 4});
+        this.verifyCandidates("*xyz", new int[0]);
+    }
+
+    public void testWildcards() {
+        assertNull(new SubstringIndex(STRINGS).candidatesFor(""));
+        assertNull(new SubstringIndex(STRINGS).candidatesFor("*"));
+        assertNull(new SubstringIndex(STRINGS).candidatesFor("?a"));
+        this.verifyCandidates("h?sh", new int[] {1, 2});
+    }
+
+    /**
+     * the candidates must include every string matched by the matcher
+     */
+    private void verifyCandidates(String pattern, int[] expected) {
+        int[] candidates = new SubstringIndex(STRINGS).candidatesFor(pattern);
+        assertEquals(expected.length, candidates.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], candidates[i]);
+        }
+        SimpleStringMatcher matcher = new SimpleStringMatcher(pattern);
+        List candidateList = new ArrayList();
+        for (int i = 0; i < candidates.length; i++) {
+            candidateList.add(new Integer(candidates[i]));
+        }
+        for (int i = 0; i < STRINGS.length; i++) {
+            if ((STRINGS[i] != null) && matcher.matches(STRINGS[i])) {
+                assertTrue(STRINGS[i], candidateList.contains(new Integer(i)));
+            }
+        }
+    }
+
+}